@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.benchmark;
+
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.dsp.mixer.LowPhaseNoiseOscillator;
+import io.github.dsheirer.edac.Golay24;
+import io.github.dsheirer.edac.trellis.P25_1_2_Node;
+import io.github.dsheirer.edac.trellis.P25_3_4_Node;
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
+
+import java.util.Random;
+
+/**
+ * Synthetic, reproducible benchmark input data.  All random content is generated from a fixed seed so that benchmark
+ * results are comparable across commits.
+ */
+public class BenchmarkData
+{
+    public static final long SEED = 1234567890L;
+
+    /**
+     * Generates interleaved complex samples containing a tone plus gaussian noise.
+     *
+     * @param sampleRate of the generated samples
+     * @param frequency of the tone
+     * @param sampleCount number of complex samples
+     * @return interleaved I/Q samples
+     */
+    public static float[] getComplexSamples(double sampleRate, double frequency, int sampleCount)
+    {
+        LowPhaseNoiseOscillator oscillator = new LowPhaseNoiseOscillator(frequency, sampleRate);
+        float[] samples = oscillator.generateComplex(sampleCount);
+
+        Random random = new Random(SEED);
+
+        for(int x = 0; x < samples.length; x++)
+        {
+            samples[x] = 0.5f * samples[x] + 0.05f * (float)random.nextGaussian();
+        }
+
+        return samples;
+    }
+
+    /**
+     * Generates real samples containing gaussian noise.
+     */
+    public static float[] getRealSamples(int sampleCount)
+    {
+        Random random = new Random(SEED);
+        float[] samples = new float[sampleCount];
+
+        for(int x = 0; x < samples.length; x++)
+        {
+            samples[x] = (float)random.nextGaussian();
+        }
+
+        return samples;
+    }
+
+    /**
+     * Generates a set of random filter coefficients
+     */
+    public static float[] getCoefficients(int length)
+    {
+        Random random = new Random(SEED);
+        float[] coefficients = new float[length];
+
+        for(int x = 0; x < coefficients.length; x++)
+        {
+            coefficients[x] = random.nextFloat() - 0.5f;
+        }
+
+        return coefficients;
+    }
+
+    /**
+     * Loads a copy of the samples into a reusable complex buffer obtained from the queue.  The returned buffer has a
+     * user count of one.
+     */
+    public static ReusableComplexBuffer getBuffer(ReusableComplexBufferQueue queue, float[] samples)
+    {
+        ReusableComplexBuffer buffer = queue.getBuffer(samples.length);
+        System.arraycopy(samples, 0, buffer.getSamples(), 0, samples.length);
+        return buffer;
+    }
+
+    /**
+     * Generates a P25 1/2 rate trellis encoded, deinterleaved 196-bit message from 48 random dibits plus a flushing
+     * dibit, and inserts the specified number of random bit errors.
+     */
+    public static CorrectedBinaryMessage getP25HalfRateEncodedMessage(int bitErrors)
+    {
+        Random random = new Random(SEED);
+        CorrectedBinaryMessage message = new CorrectedBinaryMessage(196);
+
+        int previous = 0;
+
+        for(int x = 0; x < 49; x++)
+        {
+            int input = (x < 48) ? random.nextInt(4) : 0;
+            int output = P25_1_2_Node.TRANSITION_MATRIX[previous][input];
+            message.load(x * 4, 4, output);
+            previous = input;
+        }
+
+        for(int x = 0; x < bitErrors; x++)
+        {
+            message.flip(random.nextInt(196));
+        }
+
+        return message;
+    }
+
+    /**
+     * Generates a P25 3/4 rate trellis encoded, deinterleaved 196-bit message from 48 random tribits plus a flushing
+     * tribit, and inserts the specified number of random bit errors.
+     */
+    public static CorrectedBinaryMessage getP25ThreeQuarterRateEncodedMessage(int bitErrors)
+    {
+        Random random = new Random(SEED);
+        CorrectedBinaryMessage message = new CorrectedBinaryMessage(196);
+
+        int previous = 0;
+
+        for(int x = 0; x < 49; x++)
+        {
+            int input = (x < 48) ? random.nextInt(8) : 0;
+            int output = P25_3_4_Node.TRANSITION_MATRIX[previous][input];
+            message.load(x * 4, 4, output);
+            previous = input;
+        }
+
+        for(int x = 0; x < bitErrors; x++)
+        {
+            message.flip(random.nextInt(196));
+        }
+
+        return message;
+    }
+
+    /**
+     * Generates a 63-bit message containing the all-zeros (valid) BCH/RS codeword with the specified number of bit
+     * errors at distinct random positions.
+     */
+    public static CorrectedBinaryMessage getZeroCodewordWithErrors(int bitErrors)
+    {
+        Random random = new Random(SEED);
+        CorrectedBinaryMessage message = new CorrectedBinaryMessage(64);
+
+        while(message.cardinality() < bitErrors)
+        {
+            message.set(random.nextInt(63));
+        }
+
+        return message;
+    }
+
+    /**
+     * Generates a valid 24-bit Golay codeword at index 0 with the specified number of bit errors
+     */
+    public static CorrectedBinaryMessage getGolay24Codeword(int bitErrors)
+    {
+        Random random = new Random(SEED);
+        CorrectedBinaryMessage message = new CorrectedBinaryMessage(24);
+
+        int checksum = 0;
+
+        for(int x = 0; x < 12; x++)
+        {
+            if(random.nextBoolean())
+            {
+                message.set(x);
+                checksum ^= Golay24.CHECKSUMS[x];
+            }
+        }
+
+        message.load(12, 11, checksum);
+
+        if(message.cardinality() % 2 != 0)
+        {
+            message.set(23);
+        }
+
+        for(int x = 0; x < bitErrors; x++)
+        {
+            message.flip(random.nextInt(24));
+        }
+
+        return message;
+    }
+
+    /**
+     * Generates a random binary message
+     */
+    public static CorrectedBinaryMessage getRandomMessage(int size)
+    {
+        Random random = new Random(SEED);
+        CorrectedBinaryMessage message = new CorrectedBinaryMessage(size);
+
+        for(int x = 0; x < size; x++)
+        {
+            if(random.nextBoolean())
+            {
+                message.set(x);
+            }
+        }
+
+        return message;
+    }
+}
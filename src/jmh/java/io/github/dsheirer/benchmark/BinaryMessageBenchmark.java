@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.benchmark;
+
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Average time benchmarks for binary message field extraction as used by the message parsers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BinaryMessageBenchmark
+{
+    private static final int[] SCATTERED_FIELD = {3, 4, 5, 6, 40, 41, 42, 43, 88, 89, 90, 91, 92, 93, 94, 95};
+
+    private CorrectedBinaryMessage mMessage;
+
+    @Setup
+    public void setup()
+    {
+        mMessage = BenchmarkData.getRandomMessage(196);
+    }
+
+    @Benchmark
+    public int getIntContiguous()
+    {
+        return mMessage.getInt(64, 87);
+    }
+
+    @Benchmark
+    public int getIntIndexes()
+    {
+        return mMessage.getInt(SCATTERED_FIELD);
+    }
+
+    @Benchmark
+    public long getLongContiguous()
+    {
+        return mMessage.getLong(100, 155);
+    }
+}
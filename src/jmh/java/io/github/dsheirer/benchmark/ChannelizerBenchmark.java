@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.benchmark;
+
+import io.github.dsheirer.dsp.filter.channelizer.ComplexPolyphaseChannelizerM2;
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput benchmark for the polyphase channelizer.  Each invocation channelizes one buffer of complex samples.
+ *
+ * Note: the inverse FFT is performed on the channelizer's IFFT processing thread, so this measures the polyphase
+ * filter stage on the calling thread(s) plus the hand-off to the IFFT processor.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChannelizerBenchmark
+{
+    public static final int BUFFER_SIZE = 131072;
+
+    @Param({"2400000", "10000000"})
+    public double mSampleRate;
+
+    @Param({"1", "4"})
+    public int mThreadCount;
+
+    private ComplexPolyphaseChannelizerM2 mChannelizer;
+    private ReusableComplexBufferQueue mBufferQueue = new ReusableComplexBufferQueue("ChannelizerBenchmark");
+    private float[] mSamples;
+
+    @Setup
+    public void setup() throws FilterDesignException
+    {
+        mChannelizer = new ComplexPolyphaseChannelizerM2(mSampleRate, 9);
+        mChannelizer.setProcessingThreadCount(mThreadCount);
+        mChannelizer.start();
+        mSamples = BenchmarkData.getComplexSamples(mSampleRate, 12500.0, BUFFER_SIZE);
+    }
+
+    @TearDown
+    public void teardown()
+    {
+        mChannelizer.stop();
+    }
+
+    @Benchmark
+    public void channelize()
+    {
+        mChannelizer.receive(BenchmarkData.getBuffer(mBufferQueue, mSamples));
+    }
+}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.benchmark;
+
+import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.edac.BCH_63_16_11;
+import io.github.dsheirer.edac.Golay24;
+import io.github.dsheirer.edac.ReedSolomon_63_47_17;
+import io.github.dsheirer.edac.trellis.ViterbiDecoder_1_2_P25;
+import io.github.dsheirer.edac.trellis.ViterbiDecoder_3_4_P25;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Average time benchmarks for the error detection and correction decoders used by the P25 and DMR decoders.  Inputs
+ * are valid codewords with a fixed number of injected bit errors so that the correction path is exercised.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DecoderBenchmark
+{
+    private ViterbiDecoder_1_2_P25 mViterbiHalfRate = new ViterbiDecoder_1_2_P25();
+    private ViterbiDecoder_3_4_P25 mViterbiThreeQuarterRate = new ViterbiDecoder_3_4_P25();
+    private ReedSolomon_63_47_17 mReedSolomon = new ReedSolomon_63_47_17(8);
+    private BCH_63_16_11 mBCH = new BCH_63_16_11();
+
+    private CorrectedBinaryMessage mHalfRateMessage;
+    private CorrectedBinaryMessage mThreeQuarterRateMessage;
+    private CorrectedBinaryMessage mGolay24Message;
+    private CorrectedBinaryMessage mNIDMessage;
+    private long mNID;
+    private long mNIDNoErrors;
+    private int[] mReedSolomonInput = new int[63];
+    private int[] mReedSolomonOutput = new int[63];
+
+    @Setup
+    public void setup()
+    {
+        mHalfRateMessage = BenchmarkData.getP25HalfRateEncodedMessage(4);
+        mThreeQuarterRateMessage = BenchmarkData.getP25ThreeQuarterRateEncodedMessage(4);
+        mGolay24Message = BenchmarkData.getGolay24Codeword(2);
+        mNIDMessage = BenchmarkData.getZeroCodewordWithErrors(5);
+        mNID = mNIDMessage.getLong(0, 62);
+        mNIDNoErrors = BenchmarkData.getZeroCodewordWithErrors(0).getLong(0, 62);
+
+        //All-zero (valid) Reed-Solomon codeword with 6 hex-bit symbol errors
+        mReedSolomonInput[3] = 17;
+        mReedSolomonInput[11] = 5;
+        mReedSolomonInput[20] = 63;
+        mReedSolomonInput[34] = 1;
+        mReedSolomonInput[47] = 40;
+        mReedSolomonInput[58] = 22;
+    }
+
+    @Benchmark
+    public CorrectedBinaryMessage viterbiP25HalfRate()
+    {
+        return mViterbiHalfRate.decode(mHalfRateMessage);
+    }
+
+    @Benchmark
+    public CorrectedBinaryMessage viterbiP25ThreeQuarterRate()
+    {
+        return mViterbiThreeQuarterRate.decode(mThreeQuarterRateMessage);
+    }
+
+    @Benchmark
+    public int golay24()
+    {
+        CorrectedBinaryMessage message = new CorrectedBinaryMessage(mGolay24Message);
+        return Golay24.checkAndCorrect(message, 0);
+    }
+
+    @Benchmark
+    public boolean reedSolomon_63_47_17()
+    {
+        return mReedSolomon.decode(mReedSolomonInput, mReedSolomonOutput);
+    }
+
+    @Benchmark
+    public BinaryMessage bchNID()
+    {
+        return mBCH.correctNID(new CorrectedBinaryMessage(mNIDMessage));
+    }
+
+    @Benchmark
+    public long bchNIDPacked()
+    {
+        return mBCH.correct(mNID);
+    }
+
+    @Benchmark
+    public long bchNIDPackedNoErrors()
+    {
+        return mBCH.correct(mNIDNoErrors);
+    }
+}
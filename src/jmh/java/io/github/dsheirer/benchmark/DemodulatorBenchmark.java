@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.benchmark;
+
+import io.github.dsheirer.dsp.fm.FMDemodulator;
+import io.github.dsheirer.dsp.psk.DQPSKGardnerDemodulator;
+import io.github.dsheirer.dsp.psk.InterpolatingSampleBuffer;
+import io.github.dsheirer.dsp.psk.pll.CostasLoop;
+import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
+import io.github.dsheirer.sample.buffer.ReusableFloatBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput benchmarks for the FM demodulator and the DQPSK (P25 Phase 1 LSM) demodulator.  Each invocation
+ * demodulates one buffer of complex samples at the typical decoder channel sample rate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DemodulatorBenchmark
+{
+    public static final double SAMPLE_RATE = 50000.0;
+    public static final double SYMBOL_RATE = 4800.0;
+    public static final int BUFFER_SIZE = 2048;
+
+    private FMDemodulator mFMDemodulator;
+    private DQPSKGardnerDemodulator mDQPSKDemodulator;
+    private ReusableComplexBufferQueue mBufferQueue = new ReusableComplexBufferQueue("DemodulatorBenchmark");
+    private float[] mSamples;
+    private Blackhole mBlackhole;
+
+    @Setup
+    public void setup(Blackhole blackhole)
+    {
+        mBlackhole = blackhole;
+        mSamples = BenchmarkData.getComplexSamples(SAMPLE_RATE, 1200.0, BUFFER_SIZE);
+        mFMDemodulator = new FMDemodulator();
+
+        CostasLoop costasLoop = new CostasLoop(SAMPLE_RATE, SYMBOL_RATE);
+        InterpolatingSampleBuffer sampleBuffer = new InterpolatingSampleBuffer((float)(SAMPLE_RATE / SYMBOL_RATE),
+            0.3f);
+        mDQPSKDemodulator = new DQPSKGardnerDemodulator(costasLoop, sampleBuffer);
+        mDQPSKDemodulator.setSymbolListener(dibit -> mBlackhole.consume(dibit));
+    }
+
+    @TearDown
+    public void teardown()
+    {
+        mFMDemodulator.dispose();
+        mDQPSKDemodulator.dispose();
+    }
+
+    @Benchmark
+    public void fmDemodulate(Blackhole blackhole)
+    {
+        ReusableFloatBuffer demodulated = mFMDemodulator.demodulate(BenchmarkData.getBuffer(mBufferQueue, mSamples));
+        blackhole.consume(demodulated.getSamples());
+        demodulated.decrementUserCount();
+    }
+
+    /**
+     * Per-sample FM demodulation using Math.atan() for comparison with the block fast arc-tangent demodulator.
+     */
+    @Benchmark
+    public void fmDemodulateMathAtan(Blackhole blackhole)
+    {
+        for(int x = 0; x < mSamples.length; x += 2)
+        {
+            blackhole.consume(mFMDemodulator.demodulate(mSamples[x], mSamples[x + 1]));
+        }
+    }
+
+    @Benchmark
+    public void dqpskDemodulate()
+    {
+        mDQPSKDemodulator.receive(BenchmarkData.getBuffer(mBufferQueue, mSamples));
+    }
+}
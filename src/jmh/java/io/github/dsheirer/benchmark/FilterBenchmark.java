@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.benchmark;
+
+import io.github.dsheirer.dsp.filter.cic.ComplexPrimeCICDecimate;
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.dsp.filter.fir.complex.ComplexFIRFilter2;
+import io.github.dsheirer.dsp.filter.fir.real.RealFIRFilter2;
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput benchmarks for the FIR filters and the CIC decimation filter.  Each invocation processes one buffer of
+ * samples.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FilterBenchmark
+{
+    public static final int BUFFER_SIZE = 8192;
+
+    @Param({"31", "63", "127"})
+    public int mFilterLength;
+
+    private RealFIRFilter2 mRealFilter;
+    private ComplexFIRFilter2 mComplexFilter;
+    private ComplexPrimeCICDecimate mDecimator;
+    private ReusableComplexBufferQueue mBufferQueue = new ReusableComplexBufferQueue("FilterBenchmark");
+    private float[] mRealSamples;
+    private float[] mRealFiltered;
+    private float[] mComplexSamples;
+    private float[] mComplexFiltered;
+
+    @Setup
+    public void setup() throws FilterDesignException
+    {
+        float[] coefficients = BenchmarkData.getCoefficients(mFilterLength);
+        mRealFilter = new RealFIRFilter2(coefficients, 1.0f);
+        mComplexFilter = new ComplexFIRFilter2(coefficients, 1.0f);
+        mRealSamples = BenchmarkData.getRealSamples(BUFFER_SIZE);
+        mRealFiltered = new float[BUFFER_SIZE];
+        mComplexSamples = BenchmarkData.getComplexSamples(2400000.0, 12500.0, BUFFER_SIZE);
+        mComplexFiltered = new float[mComplexSamples.length];
+
+        mDecimator = new ComplexPrimeCICDecimate(2400000.0, 50, 12500.0, 15000.0);
+        mDecimator.setListener(ReusableComplexBuffer::decrementUserCount);
+    }
+
+    @TearDown
+    public void teardown()
+    {
+        mDecimator.dispose();
+    }
+
+    @Benchmark
+    public void realFIRFilter(Blackhole blackhole)
+    {
+        mRealFilter.filter(mRealSamples, mRealFiltered);
+        blackhole.consume(mRealFiltered);
+    }
+
+    @Benchmark
+    public void complexFIRFilter(Blackhole blackhole)
+    {
+        mComplexFilter.filter(mComplexSamples, mComplexFiltered);
+        blackhole.consume(mComplexFiltered);
+    }
+
+    @Benchmark
+    public void complexCICDecimate()
+    {
+        mDecimator.receive(BenchmarkData.getBuffer(mBufferQueue, mComplexSamples));
+    }
+}
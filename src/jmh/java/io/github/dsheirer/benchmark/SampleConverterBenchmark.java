@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.benchmark;
+
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.source.tuner.airspy.AirspySampleConverter;
+import io.github.dsheirer.source.tuner.usb.converter.ByteSampleConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput benchmarks for converting native USB transfer buffers into complex sample buffers.  Each invocation
+ * converts one 256 kB native (direct) buffer, the same size as an RTL-2832 USB transfer buffer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SampleConverterBenchmark
+{
+    public static final int TRANSFER_BUFFER_SIZE = 262144;
+
+    private ByteSampleConverter mByteSampleConverter = new ByteSampleConverter();
+    private AirspySampleConverter mAirspySampleConverter = new AirspySampleConverter();
+    private ByteBuffer mNativeBuffer;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(BenchmarkData.SEED);
+        byte[] bytes = new byte[TRANSFER_BUFFER_SIZE];
+        random.nextBytes(bytes);
+
+        mNativeBuffer = ByteBuffer.allocateDirect(TRANSFER_BUFFER_SIZE);
+        mNativeBuffer.put(bytes);
+        mNativeBuffer.rewind();
+    }
+
+    @Benchmark
+    public void byteSampleConverter(Blackhole blackhole)
+    {
+        ReusableComplexBuffer buffer = mByteSampleConverter.convert(mNativeBuffer, TRANSFER_BUFFER_SIZE);
+        blackhole.consume(buffer.getSamples());
+        buffer.decrementUserCount();
+    }
+
+    @Benchmark
+    public void airspySampleConverter(Blackhole blackhole)
+    {
+        ReusableComplexBuffer buffer = mAirspySampleConverter.convert(mNativeBuffer, TRANSFER_BUFFER_SIZE);
+        blackhole.consume(buffer.getSamples());
+        buffer.decrementUserCount();
+    }
+}
@@ -25,7 +25,6 @@ import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 import io.github.dsheirer.alias.id.AliasID;
 import io.github.dsheirer.alias.id.broadcast.BroadcastChannel;
 import io.github.dsheirer.alias.id.esn.Esn;
-import io.github.dsheirer.alias.id.priority.Priority;
 import io.github.dsheirer.alias.id.radio.Radio;
 import io.github.dsheirer.alias.id.radio.RadioRange;
 import io.github.dsheirer.alias.id.status.StatusID;
@@ -49,9 +48,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 
 /**
  * List of aliases that share the same alias list name and provides convenient methods for looking up alias
@@ -66,6 +65,8 @@ public class AliasList implements Listener<AliasEvent>
     private Map<Integer,Alias> mStatusMap = new HashMap<>();
     private boolean mHasAliasActions = false;
     private String mName;
+    private volatile int mVersion;
+    private volatile ResolvedAliases mLastResolvedAliases;
 
     /**
      * List of aliases where all aliases share the same list name.  Contains
@@ -95,6 +96,8 @@ public class AliasList implements Listener<AliasEvent>
         {
             mHasAliasActions = true;
         }
+
+        mVersion++;
     }
 
     /**
@@ -190,8 +193,15 @@ public class AliasList implements Listener<AliasEvent>
             talkgroupAliasList.remove(alias);
         }
 
+        for(RadioAliasList radioAliasList: mRadioProtocolMap.values())
+        {
+            radioAliasList.remove(alias);
+        }
+
         remove(alias, mStatusMap);
         remove(alias, mESNMap);
+
+        mVersion++;
     }
 
     /**
@@ -277,19 +287,37 @@ public class AliasList implements Listener<AliasEvent>
      * @return list of alias or empty list
      */
     public List<Alias> getAliases(Identifier identifier)
+    {
+        List<Alias> aliases = new ArrayList<>();
+        addAliases(identifier, aliases);
+
+        if(aliases.isEmpty())
+        {
+            return Collections.emptyList();
+        }
+
+        return aliases;
+    }
+
+    /**
+     * Adds any aliases associated with the identifier to the list of aliases, ignoring aliases that are already in
+     * the list.
+     *
+     * @param identifier to alias
+     * @param aliases to add to
+     */
+    private void addAliases(Identifier identifier, List<Alias> aliases)
     {
         if(identifier != null)
         {
             switch(identifier.getForm())
             {
                 case TALKGROUP:
-                    TalkgroupIdentifier talkgroup = (TalkgroupIdentifier)identifier;
-
                     TalkgroupAliasList talkgroupAliasList = mTalkgroupProtocolMap.get(identifier.getProtocol());
 
                     if(talkgroupAliasList != null)
                     {
-                        return toList(talkgroupAliasList.getAlias(talkgroup));
+                        add(talkgroupAliasList.getAlias((TalkgroupIdentifier)identifier), aliases);
                     }
                     break;
                 case PATCH_GROUP:
@@ -300,74 +328,86 @@ public class AliasList implements Listener<AliasEvent>
 
                     if(patchGroupAliasList != null)
                     {
-                        List<Alias> aliases = new ArrayList<>();
-
-                        Alias alias = patchGroupAliasList.getAlias(patchGroup.getPatchGroup());
-
-                        if(alias != null)
-                        {
-                            aliases.add(alias);
-                        }
+                        add(patchGroupAliasList.getAlias(patchGroup.getPatchGroup()), aliases);
 
                         for(TalkgroupIdentifier patchedGroup: patchGroup.getPatchedGroupIdentifiers())
                         {
-                            Alias patchedAlias = patchGroupAliasList.getAlias(patchedGroup);
-
-                            if(patchedAlias != null && !aliases.contains(patchedAlias))
-                            {
-                                aliases.add(patchedAlias);
-                            }
+                            add(patchGroupAliasList.getAlias(patchedGroup), aliases);
                         }
-
-                        return aliases;
                     }
                     break;
                 case RADIO:
-                    RadioIdentifier radio = (RadioIdentifier)identifier;
-
                     RadioAliasList radioAliasList = mRadioProtocolMap.get(identifier.getProtocol());
 
                     if(radioAliasList != null)
                     {
-                        return toList(radioAliasList.getAlias(radio));
+                        add(radioAliasList.getAlias((RadioIdentifier)identifier), aliases);
                     }
                     break;
                 case ESN:
                     if(identifier instanceof ESNIdentifier)
                     {
-                        return toList(getESNAlias(((ESNIdentifier)identifier).getValue()));
+                        add(getESNAlias(((ESNIdentifier)identifier).getValue()), aliases);
                     }
                     break;
                 case UNIT_STATUS:
                     if(identifier instanceof UnitStatusIdentifier)
                     {
                         int status = ((UnitStatusIdentifier)identifier).getValue();
-                        return toList(mStatusMap.get(status));
+                        add(mStatusMap.get(status), aliases);
                     }
                     break;
                 case USER_STATUS:
                     if(identifier instanceof UserStatusIdentifier)
                     {
                         int status = ((UserStatusIdentifier)identifier).getValue();
-                        return toList(mStatusMap.get(status));
+                        add(mStatusMap.get(status), aliases);
                     }
                     break;
             }
         }
-
-        return Collections.emptyList();
     }
 
-    private static List<Alias> toList(Alias alias)
+    /**
+     * Adds the alias to the list when the alias is non-null and not already in the list
+     */
+    private static void add(Alias alias, List<Alias> aliases)
     {
-        if(alias != null)
+        if(alias != null && !aliases.contains(alias))
         {
-            List<Alias> aliases = new ArrayList<>();
             aliases.add(alias);
-            return aliases;
         }
+    }
 
-        return Collections.emptyList();
+    /**
+     * Resolves the aliases for all of the identifiers in the collection.  The most recently resolved collection is
+     * cached so that repeated queries for the same identifier collection (e.g. recordable, streamable, priority and
+     * broadcast channels for an audio packet) resolve the aliases only once.
+     *
+     * @param identifierCollection to resolve
+     * @return resolved aliases
+     */
+    public ResolvedAliases getResolvedAliases(IdentifierCollection identifierCollection)
+    {
+        int version = mVersion;
+        ResolvedAliases resolvedAliases = mLastResolvedAliases;
+
+        if(resolvedAliases != null && resolvedAliases.getIdentifierCollection() == identifierCollection &&
+            resolvedAliases.getAliasListVersion() == version)
+        {
+            return resolvedAliases;
+        }
+
+        List<Alias> aliases = new ArrayList<>();
+
+        for(Identifier identifier: identifierCollection.getIdentifiers())
+        {
+            addAliases(identifier, aliases);
+        }
+
+        resolvedAliases = new ResolvedAliases(identifierCollection, version, aliases);
+        mLastResolvedAliases = resolvedAliases;
+        return resolvedAliases;
     }
 
     /**
@@ -377,20 +417,7 @@ public class AliasList implements Listener<AliasEvent>
      */
     public boolean isStreamable(IdentifierCollection identifierCollection)
     {
-        for(Identifier identifier: identifierCollection.getIdentifiers())
-        {
-            List<Alias> aliases = getAliases(identifier);
-
-            for(Alias alias: aliases)
-            {
-                if(alias != null && alias.isStreamable())
-                {
-                    return true;
-                }
-            }
-        }
-
-        return false;
+        return getResolvedAliases(identifierCollection).isStreamable();
     }
 
     /**
@@ -400,20 +427,7 @@ public class AliasList implements Listener<AliasEvent>
      */
     public boolean isRecordable(IdentifierCollection identifierCollection)
     {
-        for(Identifier identifier: identifierCollection.getIdentifiers())
-        {
-            List<Alias> aliases = getAliases(identifier);
-
-            for(Alias alias: aliases)
-            {
-                if(alias != null && alias.isRecordable())
-                {
-                    return true;
-                }
-            }
-        }
-
-        return false;
+        return getResolvedAliases(identifierCollection).isRecordable();
     }
 
     /**
@@ -433,22 +447,7 @@ public class AliasList implements Listener<AliasEvent>
      */
     public int getAudioPlaybackPriority(IdentifierCollection identifierCollection)
     {
-        int priority = Priority.DEFAULT_PRIORITY;
-
-        for(Identifier identifier: identifierCollection.getIdentifiers())
-        {
-            List<Alias> aliases = getAliases(identifier);
-
-            for(Alias alias: aliases)
-            {
-                if(alias != null && alias.getPlaybackPriority() < priority)
-                {
-                    priority = alias.getPlaybackPriority();
-                }
-            }
-        }
-
-        return priority;
+        return getResolvedAliases(identifierCollection).getAudioPlaybackPriority();
     }
 
     /**
@@ -458,28 +457,7 @@ public class AliasList implements Listener<AliasEvent>
      */
     public List<BroadcastChannel> getBroadcastChannels(IdentifierCollection identifierCollection)
     {
-        List<BroadcastChannel> channels = new ArrayList<>();
-
-        for(Identifier identifier: identifierCollection.getIdentifiers())
-        {
-            List<Alias> aliases = getAliases(identifier);
-
-            for(Alias alias: aliases)
-            {
-                if(alias != null && alias.isStreamable())
-                {
-                    for(BroadcastChannel broadcastChannel: alias.getBroadcastChannels())
-                    {
-                        if(!channels.contains(broadcastChannel))
-                        {
-                            channels.add(broadcastChannel);
-                        }
-                    }
-                }
-            }
-        }
-
-        return channels;
+        return getResolvedAliases(identifierCollection).getBroadcastChannels();
     }
 
     /**
@@ -500,12 +478,14 @@ public class AliasList implements Listener<AliasEvent>
 
 
     /**
-     * Listing of talkgroups and ranges for a specific protocol
+     * Listing of talkgroups and ranges for a specific protocol.  Talkgroups are indexed by primitive talkgroup value
+     * and ranges are flattened into an interval index that is recreated on first lookup after the ranges change.
      */
     public class TalkgroupAliasList
     {
-        private Map<Integer,Alias> mTalkgroupAliasMap = new TreeMap<>();
-        private Map<TalkgroupRange, Alias> mTalkgroupRangeAliasMap = new HashMap<>();
+        private IntegerAliasMap mTalkgroupAliasMap = new IntegerAliasMap();
+        private Map<TalkgroupRange, Alias> mTalkgroupRangeAliasMap = new LinkedHashMap<>();
+        private volatile AliasRangeIndex mTalkgroupRangeIndex = AliasRangeIndex.EMPTY;
 
         public TalkgroupAliasList()
         {
@@ -515,38 +495,67 @@ public class AliasList implements Listener<AliasEvent>
         {
             int value = identifier.getValue();
 
-            if(mTalkgroupAliasMap.containsKey(value))
+            Alias alias = mTalkgroupAliasMap.get(value);
+
+            if(alias != null)
             {
-                return mTalkgroupAliasMap.get(value);
+                return alias;
             }
 
-            for(TalkgroupRange talkgroupRange: mTalkgroupRangeAliasMap.keySet())
+            AliasRangeIndex rangeIndex = mTalkgroupRangeIndex;
+
+            if(rangeIndex == null)
+            {
+                rangeIndex = createRangeIndex();
+            }
+
+            return rangeIndex.get(value);
+        }
+
+        /**
+         * Recreates the talkgroup range index
+         */
+        private synchronized AliasRangeIndex createRangeIndex()
+        {
+            AliasRangeIndex rangeIndex = mTalkgroupRangeIndex;
+
+            if(rangeIndex == null)
             {
-                if(talkgroupRange.contains(value))
+                int count = mTalkgroupRangeAliasMap.size();
+                int[] minimums = new int[count];
+                int[] maximums = new int[count];
+                Alias[] aliases = new Alias[count];
+                int index = 0;
+
+                for(Map.Entry<TalkgroupRange,Alias> entry: mTalkgroupRangeAliasMap.entrySet())
                 {
-                    return mTalkgroupRangeAliasMap.get(talkgroupRange);
+                    minimums[index] = entry.getKey().getMinTalkgroup();
+                    maximums[index] = entry.getKey().getMaxTalkgroup();
+                    aliases[index] = entry.getValue();
+                    index++;
                 }
+
+                rangeIndex = AliasRangeIndex.create(minimums, maximums, aliases, index);
+                mTalkgroupRangeIndex = rangeIndex;
             }
 
-            return null;
+            return rangeIndex;
         }
 
         public void add(Talkgroup talkgroup, Alias alias)
         {
             //Detect talkgroup collisions
-            if(mTalkgroupAliasMap.containsKey(talkgroup.getValue()))
-            {
-                Alias existing = mTalkgroupAliasMap.get(talkgroup.getValue());
+            Alias existing = mTalkgroupAliasMap.put(talkgroup.getValue(), alias);
 
+            if(existing != null)
+            {
                 mLog.warn("Alias [" + alias.getName() + "] talkgroup [" + talkgroup.getValue() +
                     "] has the same talkgroup value as alias [" + existing.getName() +
                     "] - alias [" + alias.getName() + "] will be used for alias list [" + getName() + "]");
             }
-
-            mTalkgroupAliasMap.put(talkgroup.getValue(), alias);
         }
 
-        public void add(TalkgroupRange talkgroupRange, Alias alias)
+        public synchronized void add(TalkgroupRange talkgroupRange, Alias alias)
         {
             //Log warning if the new talkgroup range overlaps with any existing ranges
             for(Map.Entry<TalkgroupRange,Alias> entry: mTalkgroupRangeAliasMap.entrySet())
@@ -560,6 +569,7 @@ public class AliasList implements Listener<AliasEvent>
             }
 
             mTalkgroupRangeAliasMap.put(talkgroupRange, alias);
+            mTalkgroupRangeIndex = null;
         }
 
         public void remove(Talkgroup talkgroup)
@@ -567,9 +577,10 @@ public class AliasList implements Listener<AliasEvent>
             mTalkgroupAliasMap.remove(talkgroup.getValue());
         }
 
-        public void remove(TalkgroupRange talkgroupRange)
+        public synchronized void remove(TalkgroupRange talkgroupRange)
         {
             mTalkgroupRangeAliasMap.remove(talkgroupRange);
+            mTalkgroupRangeIndex = null;
         }
 
         /**
@@ -577,18 +588,25 @@ public class AliasList implements Listener<AliasEvent>
          */
         public void remove(Alias alias)
         {
-            AliasList.remove(alias, mTalkgroupAliasMap);
-            AliasList.remove(alias, mTalkgroupRangeAliasMap);
+            mTalkgroupAliasMap.remove(alias);
+
+            synchronized(this)
+            {
+                AliasList.remove(alias, mTalkgroupRangeAliasMap);
+                mTalkgroupRangeIndex = null;
+            }
         }
     }
 
     /**
-     * Listing of radio IDs and ranges for a specific protocol
+     * Listing of radio IDs and ranges for a specific protocol.  Radio IDs are indexed by primitive radio ID value and
+     * ranges are flattened into an interval index that is recreated on first lookup after the ranges change.
      */
     public class RadioAliasList
     {
-        private Map<Integer,Alias> mRadioAliasMap = new TreeMap<>();
-        private Map<RadioRange, Alias> mRadioRangeAliasMap = new HashMap<>();
+        private IntegerAliasMap mRadioAliasMap = new IntegerAliasMap();
+        private Map<RadioRange, Alias> mRadioRangeAliasMap = new LinkedHashMap<>();
+        private volatile AliasRangeIndex mRadioRangeIndex = AliasRangeIndex.EMPTY;
 
         public RadioAliasList()
         {
@@ -598,38 +616,67 @@ public class AliasList implements Listener<AliasEvent>
         {
             int value = identifier.getValue();
 
-            if(mRadioAliasMap.containsKey(value))
+            Alias alias = mRadioAliasMap.get(value);
+
+            if(alias != null)
+            {
+                return alias;
+            }
+
+            AliasRangeIndex rangeIndex = mRadioRangeIndex;
+
+            if(rangeIndex == null)
             {
-                return mRadioAliasMap.get(value);
+                rangeIndex = createRangeIndex();
             }
 
-            for(RadioRange radioRange: mRadioRangeAliasMap.keySet())
+            return rangeIndex.get(value);
+        }
+
+        /**
+         * Recreates the radio range index
+         */
+        private synchronized AliasRangeIndex createRangeIndex()
+        {
+            AliasRangeIndex rangeIndex = mRadioRangeIndex;
+
+            if(rangeIndex == null)
             {
-                if(radioRange.contains(value))
+                int count = mRadioRangeAliasMap.size();
+                int[] minimums = new int[count];
+                int[] maximums = new int[count];
+                Alias[] aliases = new Alias[count];
+                int index = 0;
+
+                for(Map.Entry<RadioRange,Alias> entry: mRadioRangeAliasMap.entrySet())
                 {
-                    return mRadioRangeAliasMap.get(radioRange);
+                    minimums[index] = entry.getKey().getMinRadio();
+                    maximums[index] = entry.getKey().getMaxRadio();
+                    aliases[index] = entry.getValue();
+                    index++;
                 }
+
+                rangeIndex = AliasRangeIndex.create(minimums, maximums, aliases, index);
+                mRadioRangeIndex = rangeIndex;
             }
 
-            return null;
+            return rangeIndex;
         }
 
         public void add(Radio radio, Alias alias)
         {
             //Detect collisions
-            if(mRadioAliasMap.containsKey(radio.getValue()))
-            {
-                Alias existing = mRadioAliasMap.get(radio.getValue());
+            Alias existing = mRadioAliasMap.put(radio.getValue(), alias);
 
+            if(existing != null)
+            {
                 mLog.warn("Alias [" + alias.getName() + "] radio ID [" + radio.getValue() +
                     "] has the same value as alias [" + existing.getName() +
                     "] - alias [" + alias.getName() + "] will be used for alias list [" + getName() + "]");
             }
-
-            mRadioAliasMap.put(radio.getValue(), alias);
         }
 
-        public void add(RadioRange radioRange, Alias alias)
+        public synchronized void add(RadioRange radioRange, Alias alias)
         {
             //Log warning if the new range overlaps with any existing ranges
             for(Map.Entry<RadioRange,Alias> entry: mRadioRangeAliasMap.entrySet())
@@ -643,6 +690,7 @@ public class AliasList implements Listener<AliasEvent>
             }
 
             mRadioRangeAliasMap.put(radioRange, alias);
+            mRadioRangeIndex = null;
         }
 
         public void remove(Radio radio)
@@ -650,9 +698,10 @@ public class AliasList implements Listener<AliasEvent>
             mRadioAliasMap.remove(radio.getValue());
         }
 
-        public void remove(RadioRange radioRange)
+        public synchronized void remove(RadioRange radioRange)
         {
             mRadioRangeAliasMap.remove(radioRange);
+            mRadioRangeIndex = null;
         }
 
         /**
@@ -660,8 +709,13 @@ public class AliasList implements Listener<AliasEvent>
          */
         public void remove(Alias alias)
         {
-            AliasList.remove(alias, mRadioAliasMap);
-            AliasList.remove(alias, mRadioRangeAliasMap);
+            mRadioAliasMap.remove(alias);
+
+            synchronized(this)
+            {
+                AliasList.remove(alias, mRadioRangeAliasMap);
+                mRadioRangeIndex = null;
+            }
         }
     }
 }
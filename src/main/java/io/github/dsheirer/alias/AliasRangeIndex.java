@@ -0,0 +1,185 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.alias;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.TreeSet;
+
+/**
+ * Immutable interval index of aliased identifier value ranges (talkgroup ranges, radio ID ranges).
+ *
+ * The (possibly overlapping) ranges are flattened into sorted, non-overlapping segments where each segment is assigned
+ * the alias of the first range (in the order provided) that covers the segment.  Lookups are a binary search over the
+ * segment start values.
+ */
+public class AliasRangeIndex
+{
+    public static final AliasRangeIndex EMPTY = new AliasRangeIndex(new int[0], new int[0], new Alias[0], 0);
+
+    private final int[] mStarts;
+    private final int[] mEnds;
+    private final Alias[] mAliases;
+    private final int mCount;
+
+    private AliasRangeIndex(int[] starts, int[] ends, Alias[] aliases, int count)
+    {
+        mStarts = starts;
+        mEnds = ends;
+        mAliases = aliases;
+        mCount = count;
+    }
+
+    /**
+     * Alias for the range that contains the value
+     * @param value to lookup
+     * @return alias or null
+     */
+    public Alias get(int value)
+    {
+        int low = 0;
+        int high = mCount - 1;
+
+        //Find the last segment that starts at or before the value
+        while(low <= high)
+        {
+            int middle = (low + high) >>> 1;
+
+            if(mStarts[middle] <= value)
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle - 1;
+            }
+        }
+
+        if(high >= 0 && value <= mEnds[high])
+        {
+            return mAliases[high];
+        }
+
+        return null;
+    }
+
+    /**
+     * Number of non-overlapping segments in this index
+     */
+    public int getSegmentCount()
+    {
+        return mCount;
+    }
+
+    /**
+     * Creates an index from the ranges.  Where ranges overlap, the alias of the range that appears first in the
+     * arrays is assigned to the overlapping values.
+     *
+     * @param minimums of each range, inclusive
+     * @param maximums of each range, inclusive
+     * @param aliases for each range
+     * @param count of ranges in the arrays
+     * @return index
+     */
+    public static AliasRangeIndex create(int[] minimums, int[] maximums, Alias[] aliases, int count)
+    {
+        if(count == 0)
+        {
+            return EMPTY;
+        }
+
+        //Segment boundaries are each range start and the value following each range end
+        long[] boundaries = new long[count * 2];
+        Integer[] byStart = new Integer[count];
+        Integer[] byEnd = new Integer[count];
+
+        for(int x = 0; x < count; x++)
+        {
+            boundaries[x * 2] = minimums[x];
+            boundaries[x * 2 + 1] = (long)maximums[x] + 1;
+            byStart[x] = x;
+            byEnd[x] = x;
+        }
+
+        Arrays.sort(boundaries);
+        Arrays.sort(byStart, Comparator.comparingInt(index -> minimums[index]));
+        Arrays.sort(byEnd, Comparator.comparingInt(index -> maximums[index]));
+
+        int[] starts = new int[boundaries.length];
+        int[] ends = new int[boundaries.length];
+        Alias[] segmentAliases = new Alias[boundaries.length];
+        int segmentCount = 0;
+
+        //Sweep the boundaries tracking the active ranges, ordered by array position so that the first is the winner
+        TreeSet<Integer> active = new TreeSet<>();
+        int startPointer = 0;
+        int endPointer = 0;
+
+        for(int x = 0; x < boundaries.length - 1; x++)
+        {
+            long boundary = boundaries[x];
+
+            if(boundary == boundaries[x + 1])
+            {
+                continue;
+            }
+
+            while(endPointer < count && (long)maximums[byEnd[endPointer]] + 1 <= boundary)
+            {
+                active.remove(byEnd[endPointer++]);
+            }
+
+            while(startPointer < count && minimums[byStart[startPointer]] <= boundary)
+            {
+                if(minimums[byStart[startPointer]] <= maximums[byStart[startPointer]])
+                {
+                    active.add(byStart[startPointer]);
+                }
+
+                startPointer++;
+            }
+
+            if(!active.isEmpty())
+            {
+                Alias alias = aliases[active.first()];
+                int start = (int)boundary;
+                int end = (int)(boundaries[x + 1] - 1);
+
+                //Merge with the previous segment when contiguous and assigned to the same alias
+                if(segmentCount > 0 && segmentAliases[segmentCount - 1] == alias &&
+                    (long)ends[segmentCount - 1] + 1 == start)
+                {
+                    ends[segmentCount - 1] = end;
+                }
+                else
+                {
+                    starts[segmentCount] = start;
+                    ends[segmentCount] = end;
+                    segmentAliases[segmentCount] = alias;
+                    segmentCount++;
+                }
+            }
+        }
+
+        return new AliasRangeIndex(starts, ends, segmentAliases, segmentCount);
+    }
+}
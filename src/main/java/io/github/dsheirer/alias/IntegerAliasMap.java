@@ -0,0 +1,274 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.alias;
+
+/**
+ * Primitive integer keyed alias map for identifier value (talkgroup, radio ID) lookups.  Uses open addressing with
+ * linear probing over parallel key and value arrays so that lookups don't box the identifier value or allocate.
+ *
+ * Lookups may run concurrently with updates from the alias event thread.  The key and value arrays are replaced as a
+ * single table instance when the map is resized so that a concurrent lookup always probes a consistent table.
+ */
+public class IntegerAliasMap
+{
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private volatile Table mTable = new Table(MINIMUM_CAPACITY);
+    private int mSize;
+
+    /**
+     * Constructs an empty map
+     */
+    public IntegerAliasMap()
+    {
+    }
+
+    /**
+     * Number of entries in this map
+     */
+    public int size()
+    {
+        return mSize;
+    }
+
+    /**
+     * Indicates if this map is empty
+     */
+    public boolean isEmpty()
+    {
+        return mSize == 0;
+    }
+
+    /**
+     * Alias mapped to the key
+     * @param key to lookup
+     * @return alias or null
+     */
+    public Alias get(int key)
+    {
+        Table table = mTable;
+        int mask = table.mKeys.length - 1;
+        int index = hash(key) & mask;
+
+        Alias alias;
+
+        while((alias = table.mValues[index]) != null)
+        {
+            if(table.mKeys[index] == key)
+            {
+                return alias;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return null;
+    }
+
+    /**
+     * Indicates if the key is mapped to an alias
+     */
+    public boolean containsKey(int key)
+    {
+        return get(key) != null;
+    }
+
+    /**
+     * Maps the key to the alias, replacing any existing mapping for the key.
+     * @param key for the alias
+     * @param alias to map, non-null
+     * @return previous alias mapped to the key or null
+     */
+    public Alias put(int key, Alias alias)
+    {
+        if(alias == null)
+        {
+            throw new IllegalArgumentException("Alias cannot be null");
+        }
+
+        if((mSize + 1) * 2 > mTable.mKeys.length)
+        {
+            resize(mTable.mKeys.length * 2);
+        }
+
+        Table table = mTable;
+        int mask = table.mKeys.length - 1;
+        int index = hash(key) & mask;
+
+        Alias existing;
+
+        while((existing = table.mValues[index]) != null)
+        {
+            if(table.mKeys[index] == key)
+            {
+                table.mValues[index] = alias;
+                return existing;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        table.mKeys[index] = key;
+        table.mValues[index] = alias;
+        mSize++;
+        return null;
+    }
+
+    /**
+     * Removes the mapping for the key
+     * @return alias that was mapped to the key or null
+     */
+    public Alias remove(int key)
+    {
+        Table table = mTable;
+        int mask = table.mKeys.length - 1;
+        int index = hash(key) & mask;
+
+        Alias existing;
+
+        while((existing = table.mValues[index]) != null)
+        {
+            if(table.mKeys[index] == key)
+            {
+                delete(table, index);
+                mSize--;
+                return existing;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return null;
+    }
+
+    /**
+     * Removes all mappings to the alias
+     */
+    public void remove(Alias alias)
+    {
+        Table table = mTable;
+        int index = 0;
+
+        //Backward shift deletion can move an entry into the current slot, so only advance when nothing was removed
+        while(index < table.mKeys.length)
+        {
+            if(table.mValues[index] != null && table.mValues[index].equals(alias))
+            {
+                delete(table, index);
+                mSize--;
+            }
+            else
+            {
+                index++;
+            }
+        }
+    }
+
+    /**
+     * Removes all entries
+     */
+    public void clear()
+    {
+        mTable = new Table(MINIMUM_CAPACITY);
+        mSize = 0;
+    }
+
+    /**
+     * Deletes the entry at the index and shifts any following entries in the probe sequence backward so that lookups
+     * don't require tombstone markers.
+     */
+    private static void delete(Table table, int index)
+    {
+        int mask = table.mKeys.length - 1;
+        int empty = index;
+        int next = (index + 1) & mask;
+
+        while(table.mValues[next] != null)
+        {
+            int home = hash(table.mKeys[next]) & mask;
+
+            //Move the entry into the empty slot when its home slot is not cyclically within (empty, next]
+            if(((next - home) & mask) >= ((next - empty) & mask))
+            {
+                table.mKeys[empty] = table.mKeys[next];
+                table.mValues[empty] = table.mValues[next];
+                empty = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+
+        table.mValues[empty] = null;
+    }
+
+    /**
+     * Rehashes all entries into a new table of the specified capacity
+     */
+    private void resize(int capacity)
+    {
+        Table current = mTable;
+        Table resized = new Table(capacity);
+        int mask = capacity - 1;
+
+        for(int x = 0; x < current.mKeys.length; x++)
+        {
+            if(current.mValues[x] != null)
+            {
+                int index = hash(current.mKeys[x]) & mask;
+
+                while(resized.mValues[index] != null)
+                {
+                    index = (index + 1) & mask;
+                }
+
+                resized.mKeys[index] = current.mKeys[x];
+                resized.mValues[index] = current.mValues[x];
+            }
+        }
+
+        mTable = resized;
+    }
+
+    /**
+     * Spreads sequential identifier values across the table
+     */
+    private static int hash(int key)
+    {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Key and value arrays.  Table length is always a power of 2.
+     */
+    private static class Table
+    {
+        private final int[] mKeys;
+        private final Alias[] mValues;
+
+        private Table(int capacity)
+        {
+            mKeys = new int[capacity];
+            mValues = new Alias[capacity];
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.alias;
+
+import io.github.dsheirer.alias.id.broadcast.BroadcastChannel;
+import io.github.dsheirer.alias.id.priority.Priority;
+import io.github.dsheirer.identifier.IdentifierCollection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Aliases resolved from an alias list for each of the identifiers in an identifier collection, with the alias
+ * attributes (recordable, streamable, playback priority and broadcast channels) evaluated once across all of the
+ * aliases.
+ */
+public class ResolvedAliases
+{
+    private final IdentifierCollection mIdentifierCollection;
+    private final int mAliasListVersion;
+    private final List<Alias> mAliases;
+    private final boolean mRecordable;
+    private final boolean mStreamable;
+    private final int mAudioPlaybackPriority;
+    private final List<BroadcastChannel> mBroadcastChannels;
+
+    /**
+     * Constructs an instance
+     * @param identifierCollection that was resolved
+     * @param aliasListVersion modification count of the alias list when the aliases were resolved
+     * @param aliases distinct aliases for the identifiers in the collection
+     */
+    ResolvedAliases(IdentifierCollection identifierCollection, int aliasListVersion, List<Alias> aliases)
+    {
+        mIdentifierCollection = identifierCollection;
+        mAliasListVersion = aliasListVersion;
+        mAliases = aliases.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(aliases);
+
+        boolean recordable = false;
+        boolean streamable = false;
+        int priority = Priority.DEFAULT_PRIORITY;
+        List<BroadcastChannel> broadcastChannels = null;
+
+        for(Alias alias: aliases)
+        {
+            recordable |= alias.isRecordable();
+
+            if(alias.getPlaybackPriority() < priority)
+            {
+                priority = alias.getPlaybackPriority();
+            }
+
+            if(alias.isStreamable())
+            {
+                streamable = true;
+
+                for(BroadcastChannel broadcastChannel: alias.getBroadcastChannels())
+                {
+                    if(broadcastChannels == null)
+                    {
+                        broadcastChannels = new ArrayList<>();
+                    }
+
+                    if(!broadcastChannels.contains(broadcastChannel))
+                    {
+                        broadcastChannels.add(broadcastChannel);
+                    }
+                }
+            }
+        }
+
+        mRecordable = recordable;
+        mStreamable = streamable;
+        mAudioPlaybackPriority = priority;
+        mBroadcastChannels = broadcastChannels == null ? Collections.emptyList() :
+            Collections.unmodifiableList(broadcastChannels);
+    }
+
+    /**
+     * Identifier collection that was resolved
+     */
+    public IdentifierCollection getIdentifierCollection()
+    {
+        return mIdentifierCollection;
+    }
+
+    /**
+     * Alias list modification count when the aliases were resolved
+     */
+    int getAliasListVersion()
+    {
+        return mAliasListVersion;
+    }
+
+    /**
+     * Distinct aliases for the identifiers in the collection
+     */
+    public List<Alias> getAliases()
+    {
+        return mAliases;
+    }
+
+    /**
+     * Indicates if any of the aliases are designated for recording
+     */
+    public boolean isRecordable()
+    {
+        return mRecordable;
+    }
+
+    /**
+     * Indicates if any of the aliases are designated for streaming to one or more broadcast channels
+     */
+    public boolean isStreamable()
+    {
+        return mStreamable;
+    }
+
+    /**
+     * Lowest audio playback priority specified by the aliases, or the default priority
+     */
+    public int getAudioPlaybackPriority()
+    {
+        return mAudioPlaybackPriority;
+    }
+
+    /**
+     * Unmodifiable list of distinct broadcast channels specified by the aliases
+     */
+    public List<BroadcastChannel> getBroadcastChannels()
+    {
+        return mBroadcastChannels;
+    }
+}
@@ -22,6 +22,7 @@ package io.github.dsheirer.audio;
 
 import io.github.dsheirer.alias.AliasList;
 import io.github.dsheirer.alias.AliasModel;
+import io.github.dsheirer.alias.ResolvedAliases;
 import io.github.dsheirer.sample.buffer.ReusableAudioPacket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -70,14 +71,16 @@ public class AudioMetadataProcessor
 
             if(aliasList != null)
             {
-                audioPacket.addBroadcastChannels(aliasList.getBroadcastChannels(audioPacket.getIdentifierCollection()));
-                audioPacket.setMonitoringPriority(aliasList.getAudioPlaybackPriority(audioPacket.getIdentifierCollection()));
+                ResolvedAliases resolvedAliases = aliasList.getResolvedAliases(audioPacket.getIdentifierCollection());
+
+                audioPacket.addBroadcastChannels(resolvedAliases.getBroadcastChannels());
+                audioPacket.setMonitoringPriority(resolvedAliases.getAudioPlaybackPriority());
 
                 //If the audio packet is already marked recordable, leave it alone, otherwise attempt to determine
                 //if we should record the audio packet from the aliased identifiers
                 if(!audioPacket.isRecordable())
                 {
-                    audioPacket.setRecordable(aliasList.isRecordable(audioPacket.getIdentifierCollection()));
+                    audioPacket.setRecordable(resolvedAliases.isRecordable());
                 }
             }
         }
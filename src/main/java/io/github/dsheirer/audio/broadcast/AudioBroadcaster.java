@@ -28,14 +28,14 @@ import io.github.dsheirer.util.ThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Queue;
 import java.util.concurrent.LinkedTransferQueue;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 public abstract class AudioBroadcaster implements Listener<AudioRecording>
 {
@@ -43,6 +43,20 @@ public abstract class AudioBroadcaster implements Listener<AudioRecording>
 
     public static final int PROCESSOR_RUN_INTERVAL_MS = 1000;
 
+    /**
+     * Minimum amount of audio (2 seconds at 16 kbps) that an in-progress recording must contain before streaming starts
+     * so that the recording stays ahead of the streaming rate.
+     */
+    public static final int IN_PROGRESS_RECORDING_MINIMUM_BYTES = 4000;
+
+    /**
+     * Streaming rate for 16 kbps audio and the maximum streaming backlog (2 seconds at 16 kbps) that can be caught up
+     * in a single processing interval, so that a stall doesn't cause a burst of audio to the server.
+     */
+    private static final int BYTES_PER_SECOND = 2000;
+    private static final int MAXIMUM_BACKLOG_BYTES = 4000;
+    private static final int FRAME_LENGTH = 144;
+
     private ScheduledFuture mRecordingQueueProcessorFuture;
 
     private RecordingQueueProcessor mRecordingQueueProcessor = new RecordingQueueProcessor();
@@ -80,6 +94,10 @@ public abstract class AudioBroadcaster implements Listener<AudioRecording>
      *
      * The last audio packet's metadata is automatically attached to the closed audio recording when it is enqueued for
      * broadcast.  That metadata will be updated on the remote server once the audio recording is opened for streaming.
+     *
+     * In-memory audio recordings can be enqueued while the audio is still being recorded.  Streaming of an in-progress
+     * recording starts once the recording contains a minimum amount of audio and the recording is streamed as the
+     * recorded audio becomes available.
      */
     public AudioBroadcaster(BroadcastConfiguration broadcastConfiguration)
     {
@@ -147,6 +165,8 @@ public abstract class AudioBroadcaster implements Listener<AudioRecording>
                 mRecordingQueueProcessorFuture = null;
             }
 
+            mRecordingQueueProcessor.release();
+
             disconnect();
         }
     }
@@ -324,12 +344,16 @@ public abstract class AudioBroadcaster implements Listener<AudioRecording>
     /**
      * Audio recording queue processor.  Fetches recordings from the queue and chunks the recording byte content
      * to subclass implementations for broadcast in the appropriate manner.
+     *
+     * The streaming recording is handed off through an atomic reference because release() is invoked from the
+     * thread that stops the broadcaster while the processor thread may be replacing the recording.  Whichever thread
+     * removes the recording from the reference releases it, so each recording is released exactly once.
      */
     public class RecordingQueueProcessor implements Runnable
     {
         private AtomicBoolean mProcessing = new AtomicBoolean();
-        private ByteArrayInputStream mInputStream;
-        private long mFinalSilencePadding = 0;
+        private AtomicReference<AudioRecording> mRecording = new AtomicReference<>();
+        private int mPosition = 0;
         private int mBytesStreamedActual = 0;
         private int mBytesStreamedRequired = 0;
 
@@ -340,39 +364,89 @@ public abstract class AudioBroadcaster implements Listener<AudioRecording>
             {
                 try
                 {
-                    if(mInputStream == null || mInputStream.available() <= 0)
+                    AudioRecording recording = mRecording.get();
+
+                    if(recording == null || (recording.isComplete() && mPosition >= recording.getLength()))
                     {
-                        if(mFinalSilencePadding > 0)
+                        if(recording != null)
                         {
-                            broadcastAudio(mSilenceGenerator.generate(mFinalSilencePadding));
-                            mFinalSilencePadding = 0;
+                            long finalSilencePadding = PROCESSOR_RUN_INTERVAL_MS -
+                                (recording.getRecordingLength() % PROCESSOR_RUN_INTERVAL_MS);
+
+                            if(finalSilencePadding > 0 && finalSilencePadding < PROCESSOR_RUN_INTERVAL_MS)
+                            {
+                                broadcastAudio(mSilenceGenerator.generate(finalSilencePadding));
+                            }
                         }
 
                         nextRecording();
+                        recording = mRecording.get();
                     }
 
-                    if(mInputStream != null)
+                    if(recording != null)
                     {
                         //We need to stream at 13.888 fps (144 byte frame) to achieve 2000 Bps or 16 kbps
-                        mBytesStreamedRequired += 2000;  //2000 bytes per second for 16 kbps data rate
+                        mBytesStreamedRequired += BYTES_PER_SECOND;
+
+                        //Cap the backlog so that we don't burst audio to the server after a stall
+                        if(mBytesStreamedRequired - mBytesStreamedActual > MAXIMUM_BACKLOG_BYTES)
+                        {
+                            mBytesStreamedRequired = mBytesStreamedActual + MAXIMUM_BACKLOG_BYTES;
+                        }
+
                         int bytesToStream = mBytesStreamedRequired - mBytesStreamedActual;
 
                         //Trim length to whole-frame intervals (144 byte frame)
-                        bytesToStream -= (bytesToStream % 144);
+                        bytesToStream -= (bytesToStream % FRAME_LENGTH);
 
-                        int length = Math.min(bytesToStream, mInputStream.available());
+                        boolean complete = recording.isComplete();
+                        int length = Math.min(bytesToStream, recording.getLength() - mPosition);
 
-                        byte[] audio = new byte[length];
+                        //Only stream whole frames from an in-progress recording
+                        if(!complete)
+                        {
+                            length -= (length % FRAME_LENGTH);
+                        }
 
-                        try
+                        if(length > 0)
                         {
-                            mBytesStreamedActual += mInputStream.read(audio);
+                            byte[] audio = new byte[length];
+
+                            try
+                            {
+                                int read = recording.read(mPosition, audio, 0, length);
+                                mPosition += read;
+                                mBytesStreamedActual += read;
+
+                                broadcastAudio(read == length ? audio : Arrays.copyOf(audio, read));
+                            }
+                            catch(IOException ioe)
+                            {
+                                mLog.error("Stream [" + getBroadcastConfiguration().getName() + "] error reading " +
+                                    "temporary audio stream recording [" + recording.getPath().toString() +
+                                    "] - skipping recording - ", ioe);
 
-                            broadcastAudio(audio);
+                                //Skip the remainder of the recording
+                                mPosition = Integer.MAX_VALUE;
+                            }
                         }
-                        catch(IOException ioe)
+
+                        //Fill the gap with silence when the in-progress recording lags the streaming rate so that
+                        //the server stream doesn't underrun
+                        if(!complete)
                         {
-                            mLog.error("Error reading from in-memory audio recording input stream", ioe);
+                            int shortfall = bytesToStream - Math.max(length, 0);
+
+                            if(shortfall >= FRAME_LENGTH)
+                            {
+                                byte[] silence = mSilenceGenerator.generate(shortfall * 1000l / BYTES_PER_SECOND);
+
+                                if(silence != null && silence.length > 0)
+                                {
+                                    broadcastAudio(silence);
+                                    mBytesStreamedActual += silence.length;
+                                }
+                            }
                         }
                     }
                     else
@@ -385,30 +459,51 @@ public abstract class AudioBroadcaster implements Listener<AudioRecording>
                     mLog.error("Error while processing audio streaming queue", t);
                 }
 
+                //Release any recording that was loaded after the broadcaster was stopped
+                if(!mStreaming.get())
+                {
+                    release();
+                }
+
                 mProcessing.set(false);
             }
         }
 
+        /**
+         * Releases the recording that is currently streaming
+         */
+        public void release()
+        {
+            AudioRecording recording = mRecording.getAndSet(null);
+
+            if(recording != null)
+            {
+                recording.removePendingReplay();
+            }
+        }
+
         /**
          * Loads the next recording for broadcast
          */
         private void nextRecording()
         {
+            mPosition = 0;
             mBytesStreamedActual = 0;
             mBytesStreamedRequired = 0;
 
             boolean metadataUpdateRequired = false;
 
-            if(mInputStream != null)
+            AudioRecording previousRecording = mRecording.getAndSet(null);
+
+            if(previousRecording != null)
             {
                 mStreamedAudioCount++;
                 broadcast(new BroadcastEvent(AudioBroadcaster.this,
                     BroadcastEvent.Event.BROADCASTER_STREAMED_COUNT_CHANGE));
                 metadataUpdateRequired = true;
+                previousRecording.removePendingReplay();
             }
 
-            mInputStream = null;
-
             //Peek at the next recording but don't remove it from the queue yet, so we can inspect the start time for
             //age limits and/or delay elapsed
             AudioRecording nextRecording = mAudioRecordingQueue.peek();
@@ -425,47 +520,27 @@ public abstract class AudioBroadcaster implements Listener<AudioRecording>
                 nextRecording = mAudioRecordingQueue.peek();
             }
 
-            if(nextRecording != null && nextRecording.getStartTime() + mDelay <= System.currentTimeMillis())
+            //In-progress recordings must contain a minimum amount of audio before streaming starts
+            if(nextRecording != null && nextRecording.getStartTime() + mDelay <= System.currentTimeMillis() &&
+                (nextRecording.isComplete() || nextRecording.getLength() >= IN_PROGRESS_RECORDING_MINIMUM_BYTES))
             {
                 nextRecording = mAudioRecordingQueue.remove();
 
-                try
+                if(nextRecording.getLength() > 0)
                 {
-                    if(Files.exists(nextRecording.getPath()))
-                    {
-                        byte[] audio = Files.readAllBytes(nextRecording.getPath());
-
-                        if(audio != null && audio.length > 0)
-                        {
-                            mInputStream = new ByteArrayInputStream(audio);
+                    mRecording.set(nextRecording);
 
-                            mFinalSilencePadding = PROCESSOR_RUN_INTERVAL_MS -
-                                (nextRecording.getRecordingLength() % PROCESSOR_RUN_INTERVAL_MS);
-
-                            while(mFinalSilencePadding >= PROCESSOR_RUN_INTERVAL_MS)
-                            {
-                                mFinalSilencePadding -= PROCESSOR_RUN_INTERVAL_MS;
-                            }
-
-                            if(connected())
-                            {
-                                broadcastMetadata(nextRecording.getIdentifierCollection());
-                            }
-
-                            metadataUpdateRequired = false;
-                        }
+                    if(connected())
+                    {
+                        broadcastMetadata(nextRecording.getIdentifierCollection());
                     }
-                }
-                catch(IOException ioe)
-                {
-                    mLog.error("Stream [" + getBroadcastConfiguration().getName() + "] error reading temporary audio " +
-                        "stream recording [" + nextRecording.getPath().toString() + "] - skipping recording - ", ioe);
 
-                    mInputStream = null;
                     metadataUpdateRequired = false;
                 }
-
-                nextRecording.removePendingReplay();
+                else
+                {
+                    nextRecording.removePendingReplay();
+                }
 
                 broadcast(new BroadcastEvent(AudioBroadcaster.this, BroadcastEvent.Event.BROADCASTER_QUEUE_CHANGE));
             }
@@ -22,18 +22,43 @@ import io.github.dsheirer.identifier.IdentifierCollection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Audio recording that is streamed by one or more audio broadcasters.
+ *
+ * A recording is either a completed temporary recording file, or an in-memory recording that is streamed while the
+ * audio is still being recorded.  In-memory recordings receive encoded audio frames from the recorder through the
+ * output stream and are completed when the recorder closes.  Completed in-memory recordings can be spilled to the
+ * temporary recording file path to release the memory when a backlog of recordings builds up.
+ *
+ * Broadcasters read the recording content by position so that a single copy of the audio is shared across all
+ * broadcasters.
+ */
 public class AudioRecording implements Comparable<AudioRecording>
 {
-    private final static Logger mLog = LoggerFactory.getLogger(StreamManager.class);
+    private final static Logger mLog = LoggerFactory.getLogger(AudioRecording.class);
+
+    private static final int INITIAL_BUFFER_SIZE = 8192;
 
     private Path mPath;
     private long mStartTime;
-    private long mRecordingLength;
+    private volatile long mRecordingLength;
     private AtomicInteger mPendingReplayCount = new AtomicInteger();
-    private IdentifierCollection mIdentifierCollection;
+    private volatile IdentifierCollection mIdentifierCollection;
+    private byte[] mBuffer;
+    private int mLength;
+    private volatile boolean mComplete;
+    private boolean mFile;
+    private boolean mDisposed;
 
     /**
      * Audio recording that is ready to be streamed
@@ -49,10 +74,37 @@ public class AudioRecording implements Comparable<AudioRecording>
         mIdentifierCollection = identifierCollection;
         mStartTime = start;
         mRecordingLength = recordingLength;
+        mFile = true;
+        mComplete = true;
+
+        try
+        {
+            mLength = (int)Files.size(path);
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Error accessing temporary audio stream recording [" + path.toString() + "]", ioe);
+        }
     }
 
     /**
-     * Path to the completed audio recording
+     * In-memory audio recording that can be streamed while the audio is being recorded.  Use the output stream to
+     * append encoded audio and complete() the recording once the recorder is closed.
+     *
+     * @param path for the temporary recording file, if the recording is spilled to disk
+     * @param identifierCollection associated with the recording
+     * @param start time of recording in milliseconds since epoch
+     */
+    public AudioRecording(Path path, IdentifierCollection identifierCollection, long start)
+    {
+        mPath = path;
+        mIdentifierCollection = identifierCollection;
+        mStartTime = start;
+        mBuffer = new byte[INITIAL_BUFFER_SIZE];
+    }
+
+    /**
+     * Path to the completed audio recording, or the temporary recording file path for an in-memory recording
      */
     public Path getPath()
     {
@@ -67,6 +119,14 @@ public class AudioRecording implements Comparable<AudioRecording>
         return mIdentifierCollection;
     }
 
+    /**
+     * Updates the audio metadata/identifiers for an in-progress recording
+     */
+    public void setIdentifierCollection(IdentifierCollection identifierCollection)
+    {
+        mIdentifierCollection = identifierCollection;
+    }
+
     /**
      * Indicates if this recording contains an optional identifier collection.
      */
@@ -84,13 +144,196 @@ public class AudioRecording implements Comparable<AudioRecording>
     }
 
     /**
-     * Recording length in milliseconds
+     * Recording length in milliseconds.  Only valid once the recording is complete.
      */
     public long getRecordingLength()
     {
         return mRecordingLength;
     }
 
+    /**
+     * Indicates if the recording is complete and no further audio will be appended
+     */
+    public boolean isComplete()
+    {
+        return mComplete;
+    }
+
+    /**
+     * Marks an in-memory recording as complete
+     *
+     * @param identifierCollection final audio metadata/identifiers for the recording
+     * @param recordingLength in milliseconds
+     */
+    public void complete(IdentifierCollection identifierCollection, long recordingLength)
+    {
+        if(identifierCollection != null)
+        {
+            mIdentifierCollection = identifierCollection;
+        }
+
+        mRecordingLength = recordingLength;
+        mComplete = true;
+    }
+
+    /**
+     * Indicates if the recording content is stored in the temporary recording file
+     */
+    public synchronized boolean hasFile()
+    {
+        return mFile;
+    }
+
+    /**
+     * Number of bytes of recorded audio currently available
+     */
+    public synchronized int getLength()
+    {
+        return mLength;
+    }
+
+    /**
+     * Number of bytes of recorded audio held in memory
+     */
+    public synchronized int getMemoryUsage()
+    {
+        return mFile || mBuffer == null ? 0 : mBuffer.length;
+    }
+
+    /**
+     * Appends encoded audio to an in-memory recording
+     */
+    private synchronized void append(byte[] audio, int offset, int length)
+    {
+        if(mBuffer == null || mFile || mComplete || mDisposed)
+        {
+            return;
+        }
+
+        if(mLength + length > mBuffer.length)
+        {
+            mBuffer = Arrays.copyOf(mBuffer, Math.max(mBuffer.length * 2, mLength + length));
+        }
+
+        System.arraycopy(audio, offset, mBuffer, mLength, length);
+        mLength += length;
+    }
+
+    /**
+     * Output stream to append encoded audio to an in-memory recording.  Closing the stream has no effect.  Use the
+     * complete() method to mark the end of the recording.
+     */
+    public OutputStream getOutputStream()
+    {
+        return new OutputStream()
+        {
+            @Override
+            public void write(int b)
+            {
+                append(new byte[]{(byte)b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] audio, int offset, int length)
+            {
+                append(audio, offset, length);
+            }
+        };
+    }
+
+    /**
+     * Reads recorded audio starting at the position.
+     *
+     * @param position in the recording to read from
+     * @param audio to read into
+     * @param offset into the audio array
+     * @param length maximum number of bytes to read
+     * @return number of bytes read
+     * @throws IOException if there is an error reading from the temporary recording file
+     */
+    public synchronized int read(int position, byte[] audio, int offset, int length) throws IOException
+    {
+        int available = Math.min(length, mLength - position);
+
+        if(available <= 0 || mDisposed)
+        {
+            return 0;
+        }
+
+        if(mFile)
+        {
+            try(FileChannel channel = FileChannel.open(mPath, StandardOpenOption.READ))
+            {
+                ByteBuffer buffer = ByteBuffer.wrap(audio, offset, available);
+                int read = 0;
+
+                while(buffer.hasRemaining())
+                {
+                    int count = channel.read(buffer, position + read);
+
+                    if(count < 0)
+                    {
+                        break;
+                    }
+
+                    read += count;
+                }
+
+                return read;
+            }
+        }
+
+        System.arraycopy(mBuffer, position, audio, offset, available);
+        return available;
+    }
+
+    /**
+     * Writes a completed in-memory recording to the temporary recording file and releases the memory.
+     *
+     * @return true if the recording was spilled to the temporary recording file
+     */
+    public synchronized boolean spill()
+    {
+        if(!mComplete || mFile || mDisposed || mBuffer == null)
+        {
+            return false;
+        }
+
+        try(OutputStream out = Files.newOutputStream(mPath))
+        {
+            out.write(mBuffer, 0, mLength);
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Error spilling in-memory audio stream recording to temporary file [" + mPath.toString() + "]",
+                ioe);
+
+            try
+            {
+                Files.deleteIfExists(mPath);
+            }
+            catch(IOException ioe2)
+            {
+                //Do nothing
+            }
+
+            return false;
+        }
+
+        mFile = true;
+        mBuffer = null;
+        return true;
+    }
+
+    /**
+     * Releases the recording memory and ignores any further recorded audio.  Temporary recording files are not
+     * deleted.
+     */
+    public synchronized void dispose()
+    {
+        mDisposed = true;
+        mBuffer = null;
+    }
 
     /**
      * Implements comparable for sorting recordings based on start time in ascending order
@@ -49,6 +49,7 @@ import io.github.dsheirer.record.mp3.MP3Recorder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.OutputStream;
 import java.nio.file.Path;
 
 public class BroadcastFactory
@@ -201,6 +202,26 @@ public class BroadcastFactory
         }
     }
 
+    /**
+     * Creates an audio recorder that writes the converted audio to the output stream
+     *
+     * @param path that describes the recording
+     * @param outputStream to receive the converted audio
+     * @param broadcastFormat for the converted audio
+     * @return audio recorder or null if the broadcast format is not supported
+     */
+    public static AudioRecorder getAudioRecorder(Path path, OutputStream outputStream, BroadcastFormat broadcastFormat)
+    {
+        switch(broadcastFormat)
+        {
+            case MP3:
+                return new MP3Recorder(path, outputStream);
+            default:
+                mLog.debug("Unrecognized broadcastAudio format [" + broadcastFormat + "] cannot create audio recorder");
+                return null;
+        }
+    }
+
     public static ISilenceGenerator getSilenceGenerator(BroadcastFormat format)
     {
         switch(format)
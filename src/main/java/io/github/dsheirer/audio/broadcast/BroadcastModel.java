@@ -41,6 +41,7 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -58,6 +59,18 @@ public class BroadcastModel extends AbstractTableModel implements Listener<Reusa
     public static final String TEMPORARY_STREAM_DIRECTORY = "streaming";
     public static final String TEMPORARY_STREAM_FILE_SUFFIX = "temporary_streaming_file_";
 
+    /**
+     * Settings (system properties):
+     *
+     * broadcast.streaming.in.memory - record streamed audio in memory and start streaming each call while it is in
+     * progress, instead of recording each call to a temporary file (default: true)
+     * broadcast.streaming.memory.limit.mb - memory limit for queued in-memory recordings.  Completed recordings are
+     * spilled to temporary files when the limit is exceeded (default: 32)
+     */
+    public static final String PROPERTY_STREAMING_IN_MEMORY = "broadcast.streaming.in.memory";
+    public static final String PROPERTY_STREAMING_MEMORY_LIMIT_MB = "broadcast.streaming.memory.limit.mb";
+    private static final int DEFAULT_STREAMING_MEMORY_LIMIT_MB = 32;
+
     private static final String UNIQUE_NAME_REGEX = "(.*)\\((\\d*)\\)";
 
     public static final int COLUMN_SERVER_ICON = 0;
@@ -79,6 +92,7 @@ public class BroadcastModel extends AbstractTableModel implements Listener<Reusa
     private StreamManager mStreamManager;
     private AliasModel mAliasModel;
     private Broadcaster<BroadcastEvent> mBroadcastEventBroadcaster = new Broadcaster<>();
+    private long mStreamingMemoryLimit;
 
     /**
      * Model for managing Broadcast configurations and any associated broadcaster instances.
@@ -87,7 +101,11 @@ public class BroadcastModel extends AbstractTableModel implements Listener<Reusa
     {
         mAliasModel = aliasModel;
         mIconManager = iconManager;
-        mStreamManager = new StreamManager(new CompletedRecordingListener(), BroadcastFormat.MP3, userPreferences);
+        boolean inMemory = SystemProperties.getInstance().get(PROPERTY_STREAMING_IN_MEMORY, true);
+        mStreamingMemoryLimit = SystemProperties.getInstance().get(PROPERTY_STREAMING_MEMORY_LIMIT_MB,
+            DEFAULT_STREAMING_MEMORY_LIMIT_MB) * 1024l * 1024l;
+        mStreamManager = new StreamManager(new CompletedRecordingListener(), BroadcastFormat.MP3, userPreferences,
+            inMemory);
         mStreamManager.start();
 
         //Monitor to remove temporary recording files that have been streamed by all audio broadcasters
@@ -632,12 +650,19 @@ public class BroadcastModel extends AbstractTableModel implements Listener<Reusa
     }
 
     /**
-     * Cleanup method to remove a temporary recording file from disk.
+     * Cleanup method to release an in-memory recording and/or remove a temporary recording file from disk.
      *
      * @param recording to remove
      */
     private void removeRecording(AudioRecording recording)
     {
+        recording.dispose();
+
+        if(!recording.hasFile())
+        {
+            return;
+        }
+
         try
         {
             Files.delete(recording.getPath());
@@ -711,8 +736,8 @@ public class BroadcastModel extends AbstractTableModel implements Listener<Reusa
     }
 
     /**
-     * Processes completed audio recordings and distributes them to the audio broadcasters.  Adds the recording to
-     * the audio recording queue to be monitored for deletion.
+     * Processes audio recordings and distributes them to the audio broadcasters.  Adds the recording to the audio
+     * recording queue to be monitored for deletion.  In-memory recordings are received when the recording starts.
      */
     public class CompletedRecordingListener implements Listener<AudioRecording>
     {
@@ -748,7 +773,9 @@ public class BroadcastModel extends AbstractTableModel implements Listener<Reusa
     }
 
     /**
-     * Monitors the recording queue and removes any recordings that have no pending replays by audio broadcasters
+     * Monitors the recording queue and removes any recordings that have no pending replays by audio broadcasters.
+     * Spills completed in-memory recordings to temporary files, newest first, when the queued in-memory recordings
+     * exceed the streaming memory limit.
      */
     public class RecordingDeletionMonitor implements Runnable
     {
@@ -781,11 +808,48 @@ public class BroadcastModel extends AbstractTableModel implements Listener<Reusa
                         removeRecording(recordingToDelete);
                     }
                 }
+
+                spillRecordings();
             }
             catch(Exception e)
             {
                 mLog.error("Error while checking audio recording queue for recordings to delete", e);
             }
         }
+
+        /**
+         * Spills completed in-memory recordings to temporary files until the in-memory recordings are within the
+         * streaming memory limit.  The newest recordings are spilled first since they are the last to be streamed.
+         */
+        private void spillRecordings()
+        {
+            long memoryUsage = 0;
+
+            for(AudioRecording recording: mRecordingQueue)
+            {
+                memoryUsage += recording.getMemoryUsage();
+            }
+
+            if(memoryUsage > mStreamingMemoryLimit)
+            {
+                List<AudioRecording> recordings = new ArrayList<>(mRecordingQueue);
+                recordings.sort(Collections.reverseOrder());
+
+                for(AudioRecording recording: recordings)
+                {
+                    if(memoryUsage <= mStreamingMemoryLimit)
+                    {
+                        return;
+                    }
+
+                    int recordingMemoryUsage = recording.getMemoryUsage();
+
+                    if(recording.isComplete() && recording.spill())
+                    {
+                        memoryUsage -= recordingMemoryUsage;
+                    }
+                }
+            }
+        }
     }
 }
@@ -39,6 +39,7 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 public class StreamManager implements Listener<ReusableAudioPacket>
 {
@@ -51,6 +52,8 @@ public class StreamManager implements Listener<ReusableAudioPacket>
     private BroadcastFormat mBroadcastFormat;
     private UserPreferences mUserPreferences;
     private Map<Integer,AudioRecorder> mStreamRecorders = new HashMap<>();
+    private Map<Integer,AudioRecording> mStreamRecordings = new HashMap<>();
+    private boolean mInMemory;
     private Runnable mRecorderMonitor;
     private ScheduledFuture<?> mRecorderMonitorFuture;
     private AtomicBoolean mRunning = new AtomicBoolean();
@@ -68,10 +71,30 @@ public class StreamManager implements Listener<ReusableAudioPacket>
      * @param userPreferences to obtain the temporary streaming recording directory
      */
     public StreamManager(Listener<AudioRecording> listener, BroadcastFormat broadcastFormat, UserPreferences userPreferences)
+    {
+        this(listener, broadcastFormat, userPreferences, false);
+    }
+
+    /**
+     * Stream manager processes all incoming audio packets and reassembles individual audio streams and converts audio
+     * to desired output format.
+     *
+     * In-memory mode: converted audio is recorded to in-memory audio recordings that are nominated to the output
+     * listener (for broadcast) when the recording starts, so that the audio can be streamed while the recording is in
+     * progress.  Otherwise, each stream is persisted to disc and nominated to the output listener upon completion.
+     *
+     * @param listener to receive audio recordings
+     * @param broadcastFormat for the stream
+     * @param userPreferences to obtain the temporary streaming recording directory
+     * @param inMemory true to record in-memory recordings that are streamed while in progress
+     */
+    public StreamManager(Listener<AudioRecording> listener, BroadcastFormat broadcastFormat,
+                         UserPreferences userPreferences, boolean inMemory)
     {
         mAudioRecordingListener = listener;
         mBroadcastFormat = broadcastFormat;
         mUserPreferences = userPreferences;
+        mInMemory = inMemory;
     }
 
     /**
@@ -138,6 +161,30 @@ public class StreamManager implements Listener<ReusableAudioPacket>
                             audioPacket.incrementUserCount();
                             recorder.receive(audioPacket);
                         }
+
+                        AudioRecording recording = mStreamRecordings.get(channelMetadataID);
+
+                        if(recording != null)
+                        {
+                            recording.setIdentifierCollection(audioPacket.getIdentifierCollection());
+                        }
+                    }
+                    else if(mInMemory)
+                    {
+                        AudioRecording recording = new AudioRecording(getTemporaryRecordingPath(),
+                            audioPacket.getIdentifierCollection(), System.currentTimeMillis());
+                        AudioRecorder recorder = BroadcastFactory.getAudioRecorder(recording.getPath(),
+                            recording.getOutputStream(), mBroadcastFormat);
+                        recorder.start();
+                        audioPacket.incrementUserCount();
+                        recorder.receive(audioPacket);
+                        mStreamRecorders.put(channelMetadataID, recorder);
+                        mStreamRecordings.put(channelMetadataID, recording);
+
+                        if(mAudioRecordingListener != null)
+                        {
+                            mAudioRecordingListener.receive(recording);
+                        }
                     }
                     else
                     {
@@ -175,6 +222,14 @@ public class StreamManager implements Listener<ReusableAudioPacket>
         if(mStreamRecorders.containsKey(sourceChannelID))
         {
             AudioRecorder recorder = mStreamRecorders.remove(sourceChannelID);
+            AudioRecording recording = mStreamRecordings.remove(sourceChannelID);
+
+            if(recording != null)
+            {
+                recorder.close(audioRecorder -> recording.complete(audioRecorder.getIdentifierCollection(),
+                    audioRecorder.getRecordingLength()));
+                return;
+            }
 
             recorder.close(new Listener<AudioRecorder>()
             {
@@ -232,15 +287,19 @@ public class StreamManager implements Listener<ReusableAudioPacket>
             {
                 long now = System.currentTimeMillis();
 
-                mStreamRecorders.entrySet().stream()
+                //Collect the expired recorders first - removing a recorder while streaming the map entries fails
+                List<Integer> expired = mStreamRecorders.entrySet().stream()
                     .filter(entry -> entry.getValue().getTimeRecordingStart() + MAXIMUM_RECORDER_LIFESPAN_MILLIS < now)
-                    .forEach(entry ->
-                    {
-                        mLog.info("cycling recorder - max temporary streaming recording time limit reached [" +
-                            entry.getValue().getPath().toString() + "]");
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
 
-                        removeRecorder(entry.getKey());
-                    });
+                for(Integer key: expired)
+                {
+                    mLog.info("cycling recorder - max temporary streaming recording time limit reached [" +
+                        mStreamRecorders.get(key).getPath().toString() + "]");
+
+                    removeRecorder(key);
+                }
             }
         }
     }
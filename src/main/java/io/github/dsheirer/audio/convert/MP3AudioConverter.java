@@ -18,12 +18,10 @@
  ******************************************************************************/
 package io.github.dsheirer.audio.convert;
 
-import io.github.dsheirer.audio.AudioFormats;
 import io.github.dsheirer.audio.AudioUtils;
 import io.github.dsheirer.sample.buffer.ReusableAudioPacket;
 import net.sourceforge.lame.lowlevel.LameEncoder;
 import net.sourceforge.lame.mp3.Lame;
-import net.sourceforge.lame.mp3.MPEGMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,6 +33,8 @@ public class MP3AudioConverter implements IAudioConverter
 {
     private final static Logger mLog = LoggerFactory.getLogger( MP3AudioConverter.class );
     public static final int AUDIO_QUALITY = Lame.QUALITY_LOW;
+    private int mBitRate;
+    private boolean mVariableBitRate;
     private LameEncoder mEncoder;
     private ByteArrayOutputStream mMP3Stream = new ByteArrayOutputStream();
     private byte[] mMP3Buffer;
@@ -42,23 +42,51 @@ public class MP3AudioConverter implements IAudioConverter
     /**
      * Converts PCM 8kHz 16-bit Little Endian audio packets to Mono, Low Quality MP3 compressed audio.
      *
+     * A new LAME encoder is created when conversion starts and is discarded when the converter is flushed, so that each
+     * flushed MP3 stream is independent of the next stream.  The conversion buffer is obtained from the MP3 encoding
+     * service buffer pool and is returned to the pool when the converter is flushed.
+     *
      * @param bitRate for converted MP3 audio
      * @param variableBitRate (VBR) true or false for constant bit rate (CBR)
      */
     public MP3AudioConverter(int bitRate, boolean variableBitRate)
     {
-        mEncoder = new LameEncoder(AudioFormats.PCM_SIGNED_8KHZ_16BITS_MONO,
-                bitRate, MPEGMode.MONO, AUDIO_QUALITY, variableBitRate);
+        mBitRate = bitRate;
+        mVariableBitRate = variableBitRate;
+    }
 
-        mMP3Buffer = new byte[mEncoder.getPCMBufferSize()];
+    /**
+     * Current encoder, creating a new encoder and obtaining a pooled conversion buffer for a new MP3 stream as needed.
+     */
+    private LameEncoder getEncoder()
+    {
+        if(mEncoder == null)
+        {
+            MP3EncodingService service = MP3EncodingService.getInstance();
+            mEncoder = service.createEncoder(mBitRate, mVariableBitRate, AUDIO_QUALITY);
+            mMP3Buffer = service.getBuffer(mEncoder.getPCMBufferSize());
+        }
+
+        return mEncoder;
     }
 
     @Override
     public byte[] convert(List<ReusableAudioPacket> audioPackets)
+    {
+        return convert(AudioUtils.convertTo16BitSamples(audioPackets));
+    }
+
+    /**
+     * Converts PCM 8kHz 16-bit little endian samples to MP3 audio.  May produce partial audio frame data.
+     *
+     * @param pcmBytes to convert
+     * @return converted MP3 audio
+     */
+    public byte[] convert(byte[] pcmBytes)
     {
         mMP3Stream.reset();
 
-        byte[] pcmBytes = AudioUtils.convertTo16BitSamples(audioPackets);
+        LameEncoder encoder = getEncoder();
 
         int pcmBufferSize = Math.min(mMP3Buffer.length, pcmBytes.length);
 
@@ -68,7 +96,7 @@ public class MP3AudioConverter implements IAudioConverter
 
         try
         {
-            while (0 < (mp3BufferSize = mEncoder.encodeBuffer(pcmBytes, pcmBytesPosition, pcmBufferSize, mMP3Buffer)))
+            while (0 < (mp3BufferSize = encoder.encodeBuffer(pcmBytes, pcmBytesPosition, pcmBufferSize, mMP3Buffer)))
             {
                 pcmBytesPosition += pcmBufferSize;
                 pcmBufferSize = Math.min(mMP3Buffer.length, pcmBytes.length - pcmBytesPosition);
@@ -84,13 +112,26 @@ public class MP3AudioConverter implements IAudioConverter
         }
     }
 
+    /**
+     * Flushes the final partial frame, discards the flushed encoder and returns the conversion buffers to the buffer
+     * pool.  A new encoder is created if the converter is used again.
+     */
     @Override
     public byte[] flush()
     {
-        byte[] lastPartialFrame = new byte[mEncoder.getMP3BufferSize()];
+        LameEncoder encoder = getEncoder();
+        MP3EncodingService service = MP3EncodingService.getInstance();
+
+        byte[] lastPartialFrame = service.getBuffer(encoder.getMP3BufferSize());
+
+        int length = encoder.encodeFinish(lastPartialFrame);
+        byte[] flushed = Arrays.copyOf(lastPartialFrame, length);
 
-        int length = mEncoder.encodeFinish(lastPartialFrame);
+        service.returnBuffer(lastPartialFrame);
+        service.returnBuffer(mMP3Buffer);
+        mMP3Buffer = null;
+        mEncoder = null;
 
-        return Arrays.copyOf(lastPartialFrame, length);
+        return flushed;
     }
 }
@@ -0,0 +1,329 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.audio.convert;
+
+import io.github.dsheirer.audio.AudioFormats;
+import io.github.dsheirer.monitor.PipelineMetrics;
+import io.github.dsheirer.monitor.StageMetrics;
+import io.github.dsheirer.properties.SystemProperties;
+import net.sourceforge.lame.lowlevel.LameEncoder;
+import net.sourceforge.lame.mp3.MPEGMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Application-wide MP3 encoding service.  Recorders submit MP3 encoding work to an encoding queue and the work is
+ * performed by a dedicated pool of encoder threads so that MP3 encoding doesn't compete with decoding for the shared
+ * application thread pool.  Each encoding queue (ie each call recording or stream recording) is processed by at most
+ * one encoder thread at a time, in submission order.
+ *
+ * A new LAME encoder is created for each MP3 stream (ie each recording), because a flushed LAME encoder retains encoder
+ * state that carries into the next stream that it encodes.  The MP3 conversion buffers used with the encoders are
+ * pooled and reused across streams.
+ *
+ * Encoding backlog (queued encoding tasks) and encoding time per second of encoded audio are reported through the
+ * pipeline metrics as the MP3 encoder stage.
+ *
+ * Settings (system properties):
+ *
+ * mp3.encoder.threads - number of encoder threads (default: half of the available processors, minimum 1)
+ */
+public class MP3EncodingService
+{
+    private final static Logger mLog = LoggerFactory.getLogger(MP3EncodingService.class);
+
+    public static final String PROPERTY_ENCODER_THREADS = "mp3.encoder.threads";
+    private static final int SAMPLE_RATE = 8000;
+    private static final int MAXIMUM_POOLED_BUFFERS = 64;
+    private static final int MAXIMUM_TASKS_PER_RUN = 16;
+
+    private static MP3EncodingService sInstance;
+
+    private final ExecutorService mExecutorService;
+    private final Map<Integer,Queue<byte[]>> mBufferPools = new ConcurrentHashMap<>();
+    private final AtomicInteger mBacklog = new AtomicInteger();
+    private final AtomicLong mEncodedSampleCount = new AtomicLong();
+    private final StageMetrics mStageMetrics = new StageMetrics(StageMetrics.Type.MP3_ENCODER,
+        "MP3 Encoder (per second of audio)");
+
+    /**
+     * Constructs an instance
+     *
+     * @param threads number of encoder threads
+     */
+    private MP3EncodingService(int threads)
+    {
+        AtomicInteger threadCount = new AtomicInteger();
+
+        mExecutorService = Executors.newFixedThreadPool(threads, runnable ->
+        {
+            Thread thread = new Thread(runnable, "sdrtrunk mp3 encoder-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        mStageMetrics.setQueueDepthSupplier(mBacklog::get);
+        PipelineMetrics.register(mStageMetrics);
+
+        mLog.info("MP3 encoding service created with [" + threads + "] encoder threads");
+    }
+
+    /**
+     * Shared encoding service instance
+     */
+    public static synchronized MP3EncodingService getInstance()
+    {
+        if(sInstance == null)
+        {
+            int threads = SystemProperties.getInstance().get(PROPERTY_ENCODER_THREADS,
+                Runtime.getRuntime().availableProcessors() / 2);
+
+            sInstance = new MP3EncodingService(Math.max(threads, 1));
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Creates a new encoding queue for a single recording.  Encoding tasks submitted to the queue are performed in
+     * submission order.
+     */
+    public EncodingQueue createEncodingQueue()
+    {
+        return new EncodingQueue();
+    }
+
+    /**
+     * Number of encoding tasks that are queued or in progress
+     */
+    public int getBacklog()
+    {
+        return mBacklog.get();
+    }
+
+    /**
+     * Creates a new encoder for a single MP3 stream.  Encoders are not reused after the stream is flushed
+     * (encodeFinish) because the flushed encoder state carries into the next stream.
+     *
+     * @param bitRate for the encoder
+     * @param variableBitRate true for VBR or false for CBR
+     * @param quality of the encoder
+     * @return encoder
+     */
+    public LameEncoder createEncoder(int bitRate, boolean variableBitRate, int quality)
+    {
+        return new LameEncoder(AudioFormats.PCM_SIGNED_8KHZ_16BITS_MONO, bitRate, MPEGMode.MONO, quality,
+            variableBitRate);
+    }
+
+    /**
+     * Obtains a pooled conversion buffer, or creates a new buffer when there are no pooled buffers of the length.
+     *
+     * @param length of the buffer
+     * @return buffer with undefined contents
+     */
+    public byte[] getBuffer(int length)
+    {
+        Queue<byte[]> pool = mBufferPools.get(length);
+
+        if(pool != null)
+        {
+            byte[] buffer = pool.poll();
+
+            if(buffer != null)
+            {
+                return buffer;
+            }
+        }
+
+        return new byte[length];
+    }
+
+    /**
+     * Returns the conversion buffer to the pool for reuse.
+     *
+     * @param buffer to return
+     */
+    public void returnBuffer(byte[] buffer)
+    {
+        Queue<byte[]> pool = mBufferPools.computeIfAbsent(buffer.length, key -> new ConcurrentLinkedQueue<>());
+
+        //Note: size() is approximate for concurrent queues which is acceptable for limiting the pool size
+        if(pool.size() < MAXIMUM_POOLED_BUFFERS)
+        {
+            pool.offer(buffer);
+        }
+    }
+
+    /**
+     * Records encoding time and the number of encoded samples for the encoding time per second of audio metric.
+     */
+    private void encoded(int sampleCount, long nanos)
+    {
+        mStageMetrics.processingTime(nanos);
+
+        if(sampleCount > 0)
+        {
+            long total = mEncodedSampleCount.addAndGet(sampleCount);
+            long seconds = (total / SAMPLE_RATE) - ((total - sampleCount) / SAMPLE_RATE);
+
+            if(seconds > 0)
+            {
+                mStageMetrics.buffersReceived((int)seconds);
+            }
+        }
+    }
+
+    /**
+     * Encoding queue for a single recording.  Tasks are performed sequentially by the encoder thread pool.
+     */
+    public class EncodingQueue implements Runnable
+    {
+        private Queue<EncodingTask> mTasks = new ConcurrentLinkedQueue<>();
+        private AtomicBoolean mScheduled = new AtomicBoolean();
+
+        private EncodingQueue()
+        {
+        }
+
+        /**
+         * Submits an encoding task
+         *
+         * @param sampleCount number of audio samples encoded by the task, for metrics
+         * @param task to run
+         */
+        public void submit(int sampleCount, Runnable task)
+        {
+            mTasks.offer(new EncodingTask(sampleCount, task));
+            mStageMetrics.updateMaxQueueDepth(mBacklog.incrementAndGet());
+            schedule();
+        }
+
+        /**
+         * Waits for all previously submitted tasks to complete
+         *
+         * @param timeout to wait in milliseconds
+         * @return true if the tasks completed or false if the wait timed out or was interrupted
+         */
+        public boolean await(long timeout)
+        {
+            CountDownLatch latch = new CountDownLatch(1);
+            submit(0, latch::countDown);
+
+            try
+            {
+                return latch.await(timeout, TimeUnit.MILLISECONDS);
+            }
+            catch(InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        /**
+         * Cancels queued tasks that have not started.  A task that is already in progress runs to completion.
+         *
+         * @return number of cancelled tasks
+         */
+        public int cancel()
+        {
+            int cancelled = 0;
+
+            while(mTasks.poll() != null)
+            {
+                mBacklog.decrementAndGet();
+                cancelled++;
+            }
+
+            return cancelled;
+        }
+
+        private void schedule()
+        {
+            if(!mTasks.isEmpty() && mScheduled.compareAndSet(false, true))
+            {
+                mExecutorService.execute(this);
+            }
+        }
+
+        /**
+         * Processes queued tasks.  Yields the encoder thread after a limited number of tasks so that a single
+         * recording with a large backlog doesn't starve the other recordings.
+         */
+        @Override
+        public void run()
+        {
+            try
+            {
+                EncodingTask task;
+                int count = 0;
+
+                while(count++ < MAXIMUM_TASKS_PER_RUN && (task = mTasks.poll()) != null)
+                {
+                    long start = System.nanoTime();
+
+                    try
+                    {
+                        task.mTask.run();
+                    }
+                    catch(Throwable t)
+                    {
+                        mLog.error("Error while encoding MP3 audio", t);
+                    }
+
+                    mBacklog.decrementAndGet();
+                    encoded(task.mSampleCount, System.nanoTime() - start);
+                }
+            }
+            finally
+            {
+                mScheduled.set(false);
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * Queued encoding task
+     */
+    private static class EncodingTask
+    {
+        private final int mSampleCount;
+        private final Runnable mTask;
+
+        private EncodingTask(int sampleCount, Runnable task)
+        {
+            mSampleCount = sampleCount;
+            mTask = task;
+        }
+    }
+}
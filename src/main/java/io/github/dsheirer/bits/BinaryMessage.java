@@ -57,6 +57,24 @@ public class BinaryMessage extends BitSet
      */
     private CRC mCRC;
 
+    /**
+     * Word packed copy of the message bits to support word-aligned field extraction.  Message bit i is stored in
+     * word i / 64 at bit position 63 - (i % 64) so that the bit order of each word matches the message bit order.
+     * Single bit updates are applied to the packed words and all other updates discard the packed words so that they
+     * are rebuilt on the next field access.
+     *
+     * Messages are commonly parsed by threads other than the decoder thread that created them, so the packed words are
+     * fully built into a local array and then published through this volatile field, so that a concurrent reader sees
+     * either no packed words or completely populated packed words.  Like the underlying bit set, updates to the message
+     * bits are not thread safe and must complete before the message is shared.
+     */
+    private transient volatile long[] mWords;
+
+    /**
+     * Cache of compiled field descriptors for the (static) field index arrays used by the message parsers.
+     */
+    private static final FieldDescriptor[] FIELD_DESCRIPTORS = new FieldDescriptor[1024];
+
     public BinaryMessage(int size)
     {
         super(size);
@@ -252,6 +270,256 @@ public class BinaryMessage extends BitSet
         mPointer = 0;
     }
 
+    @Override
+    public void set(int bitIndex)
+    {
+        super.set(bitIndex);
+
+        long[] words = mWords;
+
+        if(words != null)
+        {
+            if((bitIndex >>> 6) < words.length)
+            {
+                words[bitIndex >>> 6] |= Long.MIN_VALUE >>> bitIndex;
+            }
+            else
+            {
+                mWords = null;
+            }
+        }
+    }
+
+    @Override
+    public void set(int bitIndex, boolean value)
+    {
+        if(value)
+        {
+            set(bitIndex);
+        }
+        else
+        {
+            clear(bitIndex);
+        }
+    }
+
+    @Override
+    public void set(int fromIndex, int toIndex)
+    {
+        super.set(fromIndex, toIndex);
+        mWords = null;
+    }
+
+    @Override
+    public void set(int fromIndex, int toIndex, boolean value)
+    {
+        super.set(fromIndex, toIndex, value);
+        mWords = null;
+    }
+
+    @Override
+    public void clear(int bitIndex)
+    {
+        super.clear(bitIndex);
+
+        long[] words = mWords;
+
+        if(words != null && (bitIndex >>> 6) < words.length)
+        {
+            words[bitIndex >>> 6] &= ~(Long.MIN_VALUE >>> bitIndex);
+        }
+    }
+
+    @Override
+    public void clear(int fromIndex, int toIndex)
+    {
+        super.clear(fromIndex, toIndex);
+        mWords = null;
+    }
+
+    @Override
+    public void flip(int bitIndex)
+    {
+        super.flip(bitIndex);
+
+        long[] words = mWords;
+
+        if(words != null)
+        {
+            if((bitIndex >>> 6) < words.length)
+            {
+                words[bitIndex >>> 6] ^= Long.MIN_VALUE >>> bitIndex;
+            }
+            else
+            {
+                mWords = null;
+            }
+        }
+    }
+
+    @Override
+    public void flip(int fromIndex, int toIndex)
+    {
+        super.flip(fromIndex, toIndex);
+        mWords = null;
+    }
+
+    @Override
+    public void and(BitSet set)
+    {
+        super.and(set);
+        mWords = null;
+    }
+
+    @Override
+    public void or(BitSet set)
+    {
+        super.or(set);
+        mWords = null;
+    }
+
+    @Override
+    public void xor(BitSet set)
+    {
+        super.xor(set);
+        mWords = null;
+    }
+
+    @Override
+    public void andNot(BitSet set)
+    {
+        super.andNot(set);
+        mWords = null;
+    }
+
+    @Override
+    public Object clone()
+    {
+        BinaryMessage clone = (BinaryMessage)super.clone();
+        clone.mWords = null;
+        return clone;
+    }
+
+    /**
+     * Word packed copy of the message bits, rebuilt from the bitset when the packed words have been discarded.  The
+     * rebuilt words are only published to the volatile field after they are fully populated.
+     */
+    private long[] getWords()
+    {
+        long[] words = mWords;
+
+        if(words == null)
+        {
+            words = new long[(Math.max(mSize, length()) + 63) >>> 6];
+
+            for(int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1))
+            {
+                words[i >>> 6] |= Long.MIN_VALUE >>> i;
+            }
+
+            mWords = words;
+        }
+
+        return words;
+    }
+
+    /**
+     * Extracts a contiguous bit field from the packed words where the start bit is the MSB of the returned value.
+     *
+     * @param words packed message words containing the field
+     * @param start bit index of the field MSB
+     * @param length of the field, 1 - 64 bits
+     * @return field value
+     */
+    private static long getField(long[] words, int start, int length)
+    {
+        int word = start >>> 6;
+        int offset = start & 0x3F;
+
+        long value = words[word] << offset;
+
+        if(offset + length > 64)
+        {
+            value |= words[word + 1] >>> (64 - offset);
+        }
+
+        return value >>> (64 - length);
+    }
+
+    /**
+     * Indicates if the bit range is covered by the packed words, otherwise the bitset must be accessed directly.
+     */
+    private static boolean isPacked(long[] words, int start, int end)
+    {
+        return start >= 0 && (end >>> 6) < words.length;
+    }
+
+    /**
+     * Returns the value represented by the field index array, with index 0 being the MSB, using the compiled field
+     * descriptor to extract contiguous runs of field indices from the packed words.
+     *
+     * @param bits field index array of 64 or fewer bit positions
+     * @param offset to apply to each of the bit positions
+     * @return field value
+     */
+    private long getValue(int[] bits, int offset)
+    {
+        if(bits.length == 0)
+        {
+            return 0;
+        }
+
+        FieldDescriptor descriptor = getFieldDescriptor(bits);
+        long[] words = getWords();
+
+        if(isPacked(words, descriptor.mMinimum + offset, descriptor.mMaximum + offset))
+        {
+            long value = 0;
+
+            for(int x = 0; x < descriptor.mStarts.length; x++)
+            {
+                int length = descriptor.mLengths[x];
+                value = (value << length) | getField(words, descriptor.mStarts[x] + offset, length);
+            }
+
+            return value;
+        }
+
+        long value = 0;
+
+        for(int index : bits)
+        {
+            value <<= 1;
+
+            if(get(index + offset))
+            {
+                value++;
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * Compiled field descriptor for the field index array.  Descriptors are cached by array identity in a small
+     * direct-mapped cache since field index arrays are normally static constants.  Note: the contents of a field
+     * index array should not be modified once it has been used to access a message.
+     */
+    private static FieldDescriptor getFieldDescriptor(int[] bits)
+    {
+        int slot = System.identityHashCode(bits) & (FIELD_DESCRIPTORS.length - 1);
+
+        FieldDescriptor descriptor = FIELD_DESCRIPTORS[slot];
+
+        if(descriptor == null || descriptor.mBits != bits)
+        {
+            descriptor = new FieldDescriptor(bits);
+            FIELD_DESCRIPTORS[slot] = descriptor;
+        }
+
+        return descriptor;
+    }
+
     /**
      * Adds a the bit parameters to this bitset, placing it in the index
      * specified by mPointer, and incrementing mPointer to prepare for the next
@@ -430,19 +698,7 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive integer value");
         }
 
-        int value = 0;
-
-        for(int index : bits)
-        {
-            value = Integer.rotateLeft(value, 1);
-
-            if(get(index))
-            {
-                value++;
-            }
-        }
-
-        return value;
+        return (int)getValue(bits, 0);
     }
 
     /**
@@ -462,19 +718,7 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive integer value");
         }
 
-        int value = 0;
-
-        for(int index : bits)
-        {
-            value = Integer.rotateLeft(value, 1);
-
-            if(get(index + offset))
-            {
-                value++;
-            }
-        }
-
-        return value;
+        return (int)getValue(bits, offset);
     }
 
     public void setInt(int value, int[] indices)
@@ -510,19 +754,7 @@ public class BinaryMessage extends BitSet
                 + "indexes to form a proper byte");
         }
 
-        int value = 0;
-
-        for(int index : bits)
-        {
-            value = Integer.rotateLeft(value, 1);
-
-            if(get(index))
-            {
-                value++;
-            }
-        }
-
-        return (byte)(value & 0xFF);
+        return (byte)(getValue(bits, 0) & 0xFF);
     }
 
     /**
@@ -542,19 +774,7 @@ public class BinaryMessage extends BitSet
                 + "indexes to form a proper byte");
         }
 
-        int value = 0;
-
-        for(int index : bits)
-        {
-            value = Integer.rotateLeft(value, 1);
-
-            if(get(index + offset))
-            {
-                value++;
-            }
-        }
-
-        return (byte)(value & 0xFF);
+        return (byte)(getValue(bits, offset) & 0xFF);
     }
 
     /**
@@ -566,6 +786,16 @@ public class BinaryMessage extends BitSet
      */
     public byte getByte(int startIndex)
     {
+        if(startIndex + 7 < size())
+        {
+            long[] words = getWords();
+
+            if(isPacked(words, startIndex, startIndex + 7))
+            {
+                return (byte)getField(words, startIndex, 8);
+            }
+        }
+
         int value = 0;
 
         for(int x = 0; x < 8; x++)
@@ -610,6 +840,16 @@ public class BinaryMessage extends BitSet
      */
     public int getNibble(int startIndex)
     {
+        if(startIndex + 3 < size())
+        {
+            long[] words = getWords();
+
+            if(isPacked(words, startIndex, startIndex + 3))
+            {
+                return (int)getField(words, startIndex, 4);
+            }
+        }
+
         int value = 0;
 
         for(int x = 0; x < 4; x++)
@@ -670,19 +910,7 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive long value");
         }
 
-        long value = 0;
-
-        for(int index : bits)
-        {
-            value = Long.rotateLeft(value, 1);
-
-            if(get(index))
-            {
-                value++;
-            }
-        }
-
-        return value;
+        return getValue(bits, 0);
     }
 
     /**
@@ -702,19 +930,7 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive long value");
         }
 
-        long value = 0;
-
-        for(int index : bits)
-        {
-            value = Long.rotateLeft(value, 1);
-
-            if(get(index + offset))
-            {
-                value++;
-            }
-        }
-
-        return value;
+        return getValue(bits, offset);
     }
 
     /**
@@ -799,6 +1015,16 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive integer value");
         }
 
+        if(start <= end && end - start < 32)
+        {
+            long[] words = getWords();
+
+            if(isPacked(words, start, end))
+            {
+                return (int)getField(words, start, end - start + 1);
+            }
+        }
+
         int value = 0;
 
         if(start < end)
@@ -851,6 +1077,16 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive long value");
         }
 
+        if(start <= end && end - start < 64)
+        {
+            long[] words = getWords();
+
+            if(isPacked(words, start, end))
+            {
+                return getField(words, start, end - start + 1);
+            }
+        }
+
         long value = 0;
 
         if(start < end)
@@ -1129,4 +1365,61 @@ public class BinaryMessage extends BitSet
             System.out.println(x + ": " + message.getHex(x, x + 10));
         }
     }
+
+    /**
+     * Compiled form of a field index array where each run of ascending contiguous bit indices is extracted from the
+     * packed message words as a single bit field.
+     */
+    private static final class FieldDescriptor
+    {
+        private final int[] mBits;
+        private final int[] mStarts;
+        private final int[] mLengths;
+        private final int mMinimum;
+        private final int mMaximum;
+
+        private FieldDescriptor(int[] bits)
+        {
+            mBits = bits;
+
+            int runs = 1;
+
+            for(int x = 1; x < bits.length; x++)
+            {
+                if(bits[x] != bits[x - 1] + 1)
+                {
+                    runs++;
+                }
+            }
+
+            mStarts = new int[runs];
+            mLengths = new int[runs];
+
+            int run = 0;
+            int minimum = bits[0];
+            int maximum = bits[0];
+            mStarts[0] = bits[0];
+            mLengths[0] = 1;
+
+            for(int x = 1; x < bits.length; x++)
+            {
+                if(bits[x] == bits[x - 1] + 1)
+                {
+                    mLengths[run]++;
+                }
+                else
+                {
+                    run++;
+                    mStarts[run] = bits[x];
+                    mLengths[run] = 1;
+                }
+
+                minimum = Math.min(minimum, bits[x]);
+                maximum = Math.max(maximum, bits[x]);
+            }
+
+            mMinimum = minimum;
+            mMaximum = maximum;
+        }
+    }
 }
@@ -109,6 +109,10 @@ public class ChannelEvent
         REQUEST_DISABLE,
         //Request to enable a channel - response will be a PROCESSING_START_NOTIFICATION
         REQUEST_ENABLE,
+        //Request to construct a (traffic) channel's processing chain in advance without starting the channel
+        REQUEST_PREPARE,
+        //Request to dispose a (traffic) channel's retained processing chain now, or when the channel stops processing
+        REQUEST_RELEASE,
         //Request to select the channel
         REQUEST_SELECT;
     }
@@ -30,6 +30,7 @@ public class ChannelGrantEvent extends ChannelEvent
 {
     private IChannelDescriptor mChannelDescriptor;
     private IdentifierCollection mIdentifierCollection;
+    private long mGrantNanos = System.nanoTime();
 
     /**
      * Constructs a channel grant event
@@ -61,4 +62,12 @@ public class ChannelGrantEvent extends ChannelEvent
     {
         return mIdentifierCollection;
     }
+
+    /**
+     * System.nanoTime() timestamp of when the channel grant was processed, for measuring channel startup latency
+     */
+    public long getGrantNanos()
+    {
+        return mGrantNanos;
+    }
 }
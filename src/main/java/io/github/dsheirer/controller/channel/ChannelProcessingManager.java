@@ -55,8 +55,10 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
@@ -70,6 +72,7 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
     private final static Logger mLog = LoggerFactory.getLogger(ChannelProcessingManager.class);
     private static final String TUNER_UNAVAILABLE_DESCRIPTION = "TUNER UNAVAILABLE";
     private Map<Channel,ProcessingChain> mProcessingChains = new HashMap<>();
+    private Set<Channel> mReleaseOnStopChannels = new HashSet<>();
 
     private List<Listener<ReusableAudioPacket>> mAudioPacketListeners = new CopyOnWriteArrayList<>();
     private List<Listener<IDecodeEvent>> mDecodeEventListeners = new CopyOnWriteArrayList<>();
@@ -172,6 +175,12 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
                     startProcessing(event);
                 }
                 break;
+            case REQUEST_PREPARE:
+                if(!mProcessingChains.containsKey(channel))
+                {
+                    mProcessingChains.put(channel, createProcessingChain(channel));
+                }
+                break;
             case REQUEST_DISABLE:
                 if(channel.isProcessing())
                 {
@@ -189,11 +198,28 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
                             break;
                     }
                 }
+                break;
+            case REQUEST_RELEASE:
+                if(channel.isProcessing())
+                {
+                    //Let the channel finish processing (ie an active call) and dispose of the chain once it stops
+                    mReleaseOnStopChannels.add(channel);
+                }
+                else
+                {
+                    disposeProcessingChain(channel);
+                }
+                break;
             case NOTIFICATION_DELETE:
                 if(channel.isProcessing())
                 {
                     stopProcessing(channel, true);
                 }
+                else
+                {
+                    //Dispose of any stopped or prepared (traffic channel) processing chain retained for reuse
+                    disposeProcessingChain(channel);
+                }
                 break;
             case NOTIFICATION_CONFIGURATION_CHANGE:
                 if(isProcessing(channel))
@@ -249,60 +275,7 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
 
         if(processingChain == null)
         {
-            processingChain = new ProcessingChain(channel, mAliasModel);
-            mChannelEventBroadcaster.addListener(processingChain);
-
-            /* Register global listeners */
-            for(Listener<ReusableAudioPacket> listener : mAudioPacketListeners)
-            {
-                processingChain.addAudioPacketListener(listener);
-            }
-
-            for(Listener<IDecodeEvent> listener : mDecodeEventListeners)
-            {
-                processingChain.addDecodeEventListener(listener);
-            }
-
-            //Add a listener to detect source error state that indicates the channel should be shutdown
-            processingChain.addSourceEventListener(sourceEvent ->
-            {
-                if(sourceEvent.getEvent() == SourceEvent.Event.NOTIFICATION_ERROR_STATE && sourceEvent.getSource() != null)
-                {
-                    Channel toShutdown = null;
-
-                    for(Map.Entry<Channel,ProcessingChain> entry: mProcessingChains.entrySet())
-                    {
-                        if(entry.getValue().hasSource(sourceEvent.getSource()))
-                        {
-                            toShutdown = entry.getKey();
-                            break;
-                        }
-                    }
-
-                    if(toShutdown != null)
-                    {
-                        mLog.info("Channel source error detected - stopping channel [" + toShutdown.getName() + "]");
-                        stopProcessing(toShutdown, true);
-                    }
-                }
-            });
-
-            //Register this manager to receive channel events from traffic channel manager modules within
-            //the processing chain
-            processingChain.addChannelEventListener(this);
-
-            //Register channel to receive frequency correction events to show in the spectral display (hack!)
-            processingChain.addFrequencyChangeListener(channel);
-
-            /* Processing Modules */
-            List<Module> modules = DecoderFactory.getModules(mChannelMapModel, channel, mAliasModel, mUserPreferences);
-            processingChain.addModules(modules);
-
-            /* Setup message activity model with filtering */
-            FilterSet<IMessage> messageFilter = DecoderFactory.getMessageFilters(modules);
-            MessageActivityModel messageModel = new MessageActivityModel(messageFilter);
-            processingChain.setMessageActivityModel(messageModel);
-
+            processingChain = createProcessingChain(channel);
         }
 
         /* Setup event logging */
@@ -323,6 +296,10 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
         if(channel.isTrafficChannel() && event instanceof ChannelGrantEvent)
         {
             ChannelGrantEvent channelGrantEvent = (ChannelGrantEvent)event;
+
+            //Measure the latency from the channel grant to the first audio produced by the traffic channel
+            processingChain.setChannelGrantTimestamp(channelGrantEvent.getGrantNanos());
+
             IChannelDescriptor channelDescriptor = channelGrantEvent.getChannelDescriptor();
 
             IdentifierCollection identifierCollection = channelGrantEvent.getIdentifierCollection();
@@ -378,6 +355,72 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
         mChannelEventBroadcaster.broadcast(new ChannelEvent(channel, ChannelEvent.Event.NOTIFICATION_PROCESSING_START));
     }
 
+    /**
+     * Creates a processing chain with the decoder modules for the channel.  The chain is not started and doesn't
+     * include a source, event loggers or recorders.
+     *
+     * @param channel for the processing chain
+     * @return processing chain
+     */
+    private ProcessingChain createProcessingChain(Channel channel)
+    {
+        ProcessingChain processingChain = new ProcessingChain(channel, mAliasModel);
+        mChannelEventBroadcaster.addListener(processingChain);
+
+        /* Register global listeners */
+        for(Listener<ReusableAudioPacket> listener : mAudioPacketListeners)
+        {
+            processingChain.addAudioPacketListener(listener);
+        }
+
+        for(Listener<IDecodeEvent> listener : mDecodeEventListeners)
+        {
+            processingChain.addDecodeEventListener(listener);
+        }
+
+        //Add a listener to detect source error state that indicates the channel should be shutdown
+        processingChain.addSourceEventListener(sourceEvent ->
+        {
+            if(sourceEvent.getEvent() == SourceEvent.Event.NOTIFICATION_ERROR_STATE && sourceEvent.getSource() != null)
+            {
+                Channel toShutdown = null;
+
+                for(Map.Entry<Channel,ProcessingChain> entry: mProcessingChains.entrySet())
+                {
+                    if(entry.getValue().hasSource(sourceEvent.getSource()))
+                    {
+                        toShutdown = entry.getKey();
+                        break;
+                    }
+                }
+
+                if(toShutdown != null)
+                {
+                    mLog.info("Channel source error detected - stopping channel [" + toShutdown.getName() + "]");
+                    stopProcessing(toShutdown, true);
+                }
+            }
+        });
+
+        //Register this manager to receive channel events from traffic channel manager modules within
+        //the processing chain
+        processingChain.addChannelEventListener(this);
+
+        //Register channel to receive frequency correction events to show in the spectral display (hack!)
+        processingChain.addFrequencyChangeListener(channel);
+
+        /* Processing Modules */
+        List<Module> modules = DecoderFactory.getModules(mChannelMapModel, channel, mAliasModel, mUserPreferences);
+        processingChain.addModules(modules);
+
+        /* Setup message activity model with filtering */
+        FilterSet<IMessage> messageFilter = DecoderFactory.getMessageFilters(modules);
+        MessageActivityModel messageModel = new MessageActivityModel(messageFilter);
+        processingChain.setMessageActivityModel(messageModel);
+
+        return processingChain;
+    }
+
     /**
      * Stops the channel/processing chain.
      *
@@ -388,6 +431,12 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
     {
         channel.setProcessing(false);
 
+        //Remove the processing chain of a traffic channel that was released while processing
+        if(mReleaseOnStopChannels.remove(channel))
+        {
+            remove = true;
+        }
+
         if(mProcessingChains.containsKey(channel))
         {
             ProcessingChain processingChain = mProcessingChains.get(channel);
@@ -418,6 +467,23 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
         }
     }
 
+    /**
+     * Removes and disposes a processing chain that is not currently processing.
+     *
+     * @param channel for the processing chain
+     */
+    private void disposeProcessingChain(Channel channel)
+    {
+        ProcessingChain processingChain = mProcessingChains.get(channel);
+
+        if(processingChain != null && !processingChain.isProcessing())
+        {
+            mChannelEventBroadcaster.removeListener(processingChain);
+            mProcessingChains.remove(channel);
+            processingChain.dispose();
+        }
+    }
+
     /**
      * Stops all currently processing channels to prepare for shutdown.
      */
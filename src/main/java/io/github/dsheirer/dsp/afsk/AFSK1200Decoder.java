@@ -29,6 +29,10 @@ import io.github.dsheirer.sample.buffer.ReusableFloatBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Audio Frequency Shift Keying (AFSK) 1200-baud correlation decoder for decoding 8 kHz FM-demodulated audio samples.
  *
@@ -37,6 +41,11 @@ import org.slf4j.LoggerFactory;
  * values averaged over a seven correlation value period.
  *
  * Provides normal or inverted decoded output.
+ *
+ * Shared Decoding: a single decoder instance can demodulate the audio stream once for several protocol decoders
+ * that are listening to the same channel audio (ie auxiliary decoders).  Each additional symbol processor is
+ * registered with its own normal or inverted output setting via addSymbolProcessor() and receives every decoded
+ * symbol, so each protocol performs its own sync detection and message framing on the shared symbol stream.
  */
 public class AFSK1200Decoder implements Listener<ReusableFloatBuffer>
 {
@@ -67,6 +76,7 @@ public class AFSK1200Decoder implements Listener<ReusableFloatBuffer>
     protected AFSKSampleBuffer mSampleBuffer;
     protected AFSKTimingErrorDetector mTimingErrorDetector = new AFSKTimingErrorDetector(SAMPLES_PER_SYMBOL);
     protected IBinarySymbolProcessor mBinarySymbolProcessor;
+    private volatile SymbolProcessorOutput[] mSymbolProcessorOutputs = new SymbolProcessorOutput[0];
     private boolean mSampleDecision;
 
     //Resample to an integral of the baud rate 1200 baud * 6 samples per symbol = 7200.0 Hertz
@@ -125,6 +135,59 @@ public class AFSK1200Decoder implements Listener<ReusableFloatBuffer>
         {
             mBinarySymbolProcessor.process(mNormalOutput ? symbol : !symbol);
         }
+
+        for(SymbolProcessorOutput symbolProcessorOutput: mSymbolProcessorOutputs)
+        {
+            symbolProcessorOutput.process(symbol);
+        }
+    }
+
+    /**
+     * Output setting for this decoder's (primary) symbol processor
+     */
+    public Output getOutput()
+    {
+        return mNormalOutput ? Output.NORMAL : Output.INVERTED;
+    }
+
+    /**
+     * Symbol processor registered via setSymbolProcessor(), or null
+     */
+    public IBinarySymbolProcessor getSymbolProcessor()
+    {
+        return mBinarySymbolProcessor;
+    }
+
+    /**
+     * Registers an additional symbol processor to receive decoded symbols with the specified output setting.  Use this
+     * method to share a single decoder across several protocol decoders.
+     *
+     * @param binarySymbolProcessor to receive symbols
+     * @param output NORMAL: 1200Hz = Mark(1) and 1800Hz = Space(0), or INVERTED (vice-versa)
+     */
+    public synchronized void addSymbolProcessor(IBinarySymbolProcessor binarySymbolProcessor, Output output)
+    {
+        SymbolProcessorOutput[] outputs = Arrays.copyOf(mSymbolProcessorOutputs, mSymbolProcessorOutputs.length + 1);
+        outputs[outputs.length - 1] = new SymbolProcessorOutput(binarySymbolProcessor, output == Output.NORMAL);
+        mSymbolProcessorOutputs = outputs;
+    }
+
+    /**
+     * Removes the additional symbol processor from receiving decoded symbols
+     */
+    public synchronized void removeSymbolProcessor(IBinarySymbolProcessor binarySymbolProcessor)
+    {
+        List<SymbolProcessorOutput> outputs = new ArrayList<>(Arrays.asList(mSymbolProcessorOutputs));
+        outputs.removeIf(symbolProcessorOutput -> symbolProcessorOutput.mBinarySymbolProcessor == binarySymbolProcessor);
+        mSymbolProcessorOutputs = outputs.toArray(new SymbolProcessorOutput[0]);
+    }
+
+    /**
+     * Number of additional symbol processors registered with this decoder
+     */
+    public int getSymbolProcessorCount()
+    {
+        return mSymbolProcessorOutputs.length;
     }
 
     /**
@@ -146,6 +209,26 @@ public class AFSK1200Decoder implements Listener<ReusableFloatBuffer>
     }
 
 
+    /**
+     * Additional symbol processor and output setting
+     */
+    private static class SymbolProcessorOutput
+    {
+        private IBinarySymbolProcessor mBinarySymbolProcessor;
+        private boolean mNormal;
+
+        private SymbolProcessorOutput(IBinarySymbolProcessor binarySymbolProcessor, boolean normal)
+        {
+            mBinarySymbolProcessor = binarySymbolProcessor;
+            mNormal = normal;
+        }
+
+        private void process(boolean symbol)
+        {
+            mBinarySymbolProcessor.process(mNormal ? symbol : !symbol);
+        }
+    }
+
     public class Decoder implements Listener<ReusableFloatBuffer>
     {
         @Override
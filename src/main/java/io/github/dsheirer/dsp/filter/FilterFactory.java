@@ -22,6 +22,7 @@
  ******************************************************************************/
 package io.github.dsheirer.dsp.filter;
 
+import io.github.dsheirer.dsp.filter.design.FilterDesignCache;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
 import io.github.dsheirer.dsp.filter.fir.remez.RemezFIRFilterDesigner;
@@ -812,6 +813,19 @@ public class FilterFactory
      */
     public static float[] getSincM2Channelizer(double channelBandwidth, int channels, int tapsPerChannel,
                                                boolean logResults) throws FilterDesignException
+    {
+        String key = FilterDesignCache.key("sinc-m2-channelizer", channelBandwidth, channels, tapsPerChannel);
+
+        return FilterDesignCache.get(key, () -> designSincM2Channelizer(channelBandwidth, channels, tapsPerChannel,
+            logResults));
+    }
+
+    /**
+     * Designs the polyphase M2 channelizer sync filter.  Use the getSincM2Channelizer() method to obtain a cached
+     * design.
+     */
+    private static float[] designSincM2Channelizer(double channelBandwidth, int channels, int tapsPerChannel,
+                                                   boolean logResults) throws FilterDesignException
     {
         int currentTapsPerChannel = tapsPerChannel;
         int filterLength = (channels * currentTapsPerChannel) - 1;
@@ -18,19 +18,28 @@
  ******************************************************************************/
 package io.github.dsheirer.dsp.filter.channelizer;
 
+import io.github.dsheirer.controller.NamingThreadFactory;
 import io.github.dsheirer.dsp.filter.FilterFactory;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.properties.SystemProperties;
 import io.github.dsheirer.sample.IOverflowListener;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.OverflowableRingQueue;
 import io.github.dsheirer.sample.buffer.ReusableChannelResultsBuffer;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import org.jtransforms.fft.FloatFFT_1D;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Non-Maximally Decimated Polyphase Filter Bank (NMDPFB) channelizer that divides the input baseband complex sample
@@ -55,6 +64,23 @@ import java.util.List;
  *   -Rearrange the sub-channel results to correctly order the sub-channels
  *   -Perform IFFT
  *
+ * Parallel Mode: when the processing thread count is set greater than one, each incoming sample buffer is split
+ * into ranges of sample blocks that are filtered concurrently by a pool of worker threads and each batch of channel
+ * results arrays is split across the same workers for the IFFT.  Each block is filtered directly from a contiguous
+ * copy of the sample stream rather than from the serpentine shifted buffer, so blocks are independent of each other.
+ * Products are accumulated in the same order as the serial mode, so the output is identical and the order and
+ * timestamps of the channel results buffers are unchanged.
+ *
+ * Pruned Output Mode: when only a few of the polyphase channels are consumed by channel output processors, the
+ * IFFT is replaced by a direct evaluation of only the consumed channel outputs.  Each consumed output costs one
+ * complex multiply-accumulate per channel, versus the full IFFT cost which grows with (channels * log2(channels)).
+ * Measured against the full IFFT, pruned output is cheaper up to about log2(channels) outputs for the mixed radix
+ * channel counts used with most tuners (eg 6 outputs at 96 channels and 8 at 400 channels) and up to about
+ * log2(channels) / 2 outputs for power of two channel counts, where the split radix IFFT is cheaper.  The pruned
+ * output maximum can be overridden with the channelizer.pruned.output.maximum system property (-1 for the measured
+ * default, 0 disables pruned output).  Unused channel outputs are set to zero in pruned mode.  The channel manager supplies the consumed channel indexes via
+ * setActiveChannelIndexes() and the channelizer switches between pruned and full IFFT modes as the set changes.
+ *
  * Note: design the prototype filter as a Nyquist windowed filter with a -6.02 db attenuation at the channel edge
  * frequency if you need Perfect Reconstruction where you'll later re-join two or more channels to form a wider
  * bandwidth channel or to isolate a signal that located between two channels.
@@ -65,6 +91,11 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
 
     private static final int DEFAULT_MINIMUM_CHANNEL_BANDWIDTH = 25000;
 
+    public static final String PROPERTY_PRUNED_OUTPUT_MAXIMUM = "channelizer.pruned.output.maximum";
+
+    //Measured ratio of pruned output break-even count to log2(channels) for power of two channel counts
+    private static final double PRUNED_OUTPUT_POWER_OF_TWO_RATIO = 0.55;
+
     //Sized at 152 buffers a second where max = 5 seconds and reset = 2 seconds worth of buffers
     private IFFTProcessor mIFFTProcessor = new IFFTProcessor((5 * 152), (2 * 152));
     private FloatFFT_1D mFFT;
@@ -78,6 +109,13 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
     private int mSampleBufferPointer;
     private int mSamplesPerBlock;
     private int mTapsPerChannel;
+    private int mProcessingThreadCount = 1;
+    private volatile ExecutorService mExecutorService;
+    private ParallelWorker[] mParallelWorkers;
+    private float[] mParallelSamples;
+    private List<float[]> mParallelResults = new ArrayList<>();
+    private volatile PrunedTransform mPrunedTransform;
+    private float[] mPrunedOutputs;
 
     /**
      * Creates a NMDPFB channelizer instance.
@@ -128,6 +166,12 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
      */
     public void start()
     {
+        if(mProcessingThreadCount > 1 && mExecutorService == null)
+        {
+            mExecutorService = Executors.newFixedThreadPool(mProcessingThreadCount - 1,
+                new NamingThreadFactory("sdrtrunk channelizer"));
+        }
+
         mIFFTProcessor.start();
     }
 
@@ -137,6 +181,101 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
     public void stop()
     {
         mIFFTProcessor.stop();
+
+        ExecutorService executorService = mExecutorService;
+        mExecutorService = null;
+
+        if(executorService != null)
+        {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Sets the number of threads used to filter each sample buffer and to IFFT each channel results buffer.  A value
+     * of one (default) uses serial processing on the calling thread and on the IFFT processor thread.  Values greater
+     * than one use the calling thread plus (count - 1) worker threads for each stage.
+     *
+     * Note: this method should be invoked before start().
+     *
+     * @param threadCount number of processing threads, minimum 1
+     */
+    public void setProcessingThreadCount(int threadCount)
+    {
+        mProcessingThreadCount = Math.max(threadCount, 1);
+        initParallelWorkers();
+    }
+
+    /**
+     * Number of threads used to process each buffer.
+     */
+    public int getProcessingThreadCount()
+    {
+        return mProcessingThreadCount;
+    }
+
+    /**
+     * Sets the polyphase channel indexes that are consumed by the channel output processors so that the channelizer
+     * can compute only those channel outputs (pruned output mode) when there are few enough active channels that
+     * direct evaluation is cheaper than the full IFFT.  Outputs for all other channel indexes are zero while in
+     * pruned output mode.
+     *
+     * @param indexes of the polyphase channels that are currently consumed, or an empty collection to use the full
+     * IFFT for all channels
+     */
+    public void setActiveChannelIndexes(Collection<Integer> indexes)
+    {
+        int channelCount = getChannelCount();
+
+        int[] activeIndexes = indexes.stream()
+            .mapToInt(Integer::intValue)
+            .filter(index -> index >= 0 && index < channelCount)
+            .distinct()
+            .sorted()
+            .toArray();
+
+        if(activeIndexes.length > 0 && activeIndexes.length <= getPrunedOutputMaximum(channelCount))
+        {
+            mPrunedTransform = new PrunedTransform(activeIndexes, channelCount);
+        }
+        else
+        {
+            mPrunedTransform = null;
+        }
+    }
+
+    /**
+     * Indicates if the channelizer is currently computing only the active channel outputs (pruned output mode)
+     */
+    public boolean isPrunedOutput()
+    {
+        return mPrunedTransform != null;
+    }
+
+    /**
+     * Maximum number of active channel outputs where direct evaluation of each output is cheaper than the full IFFT.
+     * The default maximum stays one output below the measured break-even count.
+     *
+     * @param channelCount of the channelizer
+     * @return maximum active channels for pruned output mode
+     */
+    static int getPrunedOutputMaximum(int channelCount)
+    {
+        int maximum = SystemProperties.getInstance().get(PROPERTY_PRUNED_OUTPUT_MAXIMUM, -1);
+
+        if(maximum >= 0)
+        {
+            return maximum;
+        }
+
+        double log2 = Math.log(channelCount) / Math.log(2.0);
+
+        if(Integer.bitCount(channelCount) == 1)
+        {
+            return (int)(log2 * PRUNED_OUTPUT_POWER_OF_TWO_RATIO);
+        }
+
+        return (int)log2 - 1;
     }
 
     /**
@@ -192,6 +331,33 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
 
         float[] samples = reusableComplexBuffer.getSamples();
 
+        ExecutorService executorService = mExecutorService;
+
+        if(executorService != null)
+        {
+            processParallel(samples, channelResultsBuffer, executorService);
+        }
+        else
+        {
+            processSerial(samples, channelResultsBuffer);
+        }
+
+        //Enqueue the channel results buffer for IFFT processing and distribution on a different thread
+        mIFFTProcessor.receive(channelResultsBuffer);
+
+        //Decrement the user count to let the originator know we're done with their buffer
+        reusableComplexBuffer.decrementUserCount();
+    }
+
+    /**
+     * Filters the samples on the calling thread, one block at a time, using the serpentine shifted sample buffer.
+     *
+     * @param samples to filter
+     * @param channelResultsBuffer to receive the filtered channel results arrays
+     */
+    private void processSerial(float[] samples, ReusableChannelResultsBuffer channelResultsBuffer)
+    {
+
         int samplesPointer = 0;
         int samplesToCopy;
 
@@ -223,12 +389,142 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
                 mSampleBufferPointer = 0;
             }
         }
+    }
 
-        //Enqueue the channel results buffer for IFFT processing and distribution on a different thread
-        mIFFTProcessor.receive(channelResultsBuffer);
+    /**
+     * Filters the samples by dividing the complete sample blocks across the parallel workers.
+     *
+     * The sample stream is reconstructed as a contiguous array of the previous (filter length - 1) blocks, followed by
+     * any partial block from the previous buffer, followed by the new samples.  The filter for each block can then be
+     * calculated independently of the other blocks.  Afterward, the serpentine shifted sample buffer is reloaded from
+     * the end of the contiguous sample stream so that serial and parallel processing share the same state.
+     *
+     * @param samples to filter
+     * @param channelResultsBuffer to receive the filtered channel results arrays
+     * @param executorService for the parallel workers
+     */
+    private void processParallel(float[] samples, ReusableChannelResultsBuffer channelResultsBuffer,
+                                 ExecutorService executorService)
+    {
+        int blockSize = mSamplesPerBlock;
+        int blockCount = mInlineSamples.length / blockSize;
+        int historyLength = mInlineSamples.length - blockSize;
+        int streamLength = historyLength + mSampleBufferPointer + samples.length;
 
-        //Decrement the user count to let the originator know we're done with their buffer
-        reusableComplexBuffer.decrementUserCount();
+        if(mParallelSamples == null || mParallelSamples.length < streamLength)
+        {
+            mParallelSamples = new float[streamLength];
+        }
+
+        //Reverse the history blocks into stream (oldest to newest) order, then append the partial and new samples
+        for(int block = 1; block < blockCount; block++)
+        {
+            System.arraycopy(mInlineSamples, block * blockSize, mParallelSamples, (blockCount - block - 1) * blockSize,
+                blockSize);
+        }
+
+        System.arraycopy(mInlineSamples, 0, mParallelSamples, historyLength, mSampleBufferPointer);
+        System.arraycopy(samples, 0, mParallelSamples, historyLength + mSampleBufferPointer, samples.length);
+
+        int newBlocks = (mSampleBufferPointer + samples.length) / blockSize;
+
+        mParallelResults.clear();
+
+        for(int x = 0; x < newBlocks; x++)
+        {
+            mParallelResults.add(channelResultsBuffer.getEmptyBuffer(getSubChannelCount()));
+        }
+
+        boolean topBlock = mTopBlockIndicator;
+        List<Future<?>> futures = new ArrayList<>();
+        int workerCount = mParallelWorkers.length;
+
+        //Workers 1 to N run on the executor and worker 0 runs on the calling thread
+        for(int worker = 1; worker < workerCount; worker++)
+        {
+            int start = newBlocks * worker / workerCount;
+            int end = newBlocks * (worker + 1) / workerCount;
+
+            if(start < end)
+            {
+                ParallelWorker parallelWorker = mParallelWorkers[worker];
+                futures.add(submit(executorService, () -> parallelWorker.filter(mParallelSamples, historyLength,
+                    mParallelResults, start, end, topBlock)));
+            }
+        }
+
+        mParallelWorkers[0].filter(mParallelSamples, historyLength, mParallelResults, 0, newBlocks / workerCount,
+            topBlock);
+
+        await(futures);
+
+        for(float[] results: mParallelResults)
+        {
+            channelResultsBuffer.addChannelResults(results);
+        }
+
+        mParallelResults.clear();
+
+        if(newBlocks % 2 != 0)
+        {
+            mTopBlockIndicator = !mTopBlockIndicator;
+        }
+
+        //Reload the serpentine buffer with the most recent full blocks and any remaining partial block
+        int processedLength = historyLength + (newBlocks * blockSize);
+
+        for(int block = 1; block < blockCount; block++)
+        {
+            System.arraycopy(mParallelSamples, processedLength - (block * blockSize), mInlineSamples,
+                block * blockSize, blockSize);
+        }
+
+        mSampleBufferPointer = streamLength - processedLength;
+        System.arraycopy(mParallelSamples, processedLength, mInlineSamples, 0, mSampleBufferPointer);
+    }
+
+    /**
+     * Submits the runnable to the executor service, or runs it on the calling thread if the executor service has
+     * been shutdown.
+     *
+     * @return future for the submitted runnable or null if the runnable was run on the calling thread
+     */
+    private static Future<?> submit(ExecutorService executorService, Runnable runnable)
+    {
+        try
+        {
+            return executorService.submit(runnable);
+        }
+        catch(RejectedExecutionException ree)
+        {
+            runnable.run();
+            return null;
+        }
+    }
+
+    /**
+     * Waits for each of the futures to complete
+     */
+    private static void await(List<Future<?>> futures)
+    {
+        for(Future<?> future: futures)
+        {
+            if(future != null)
+            {
+                try
+                {
+                    future.get();
+                }
+                catch(InterruptedException ie)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                catch(ExecutionException ee)
+                {
+                    mLog.error("Error while processing polyphase channelizer block in parallel", ee.getCause());
+                }
+            }
+        }
     }
 
     /**
@@ -393,6 +689,303 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
         mInlineSamples = new float[bufferLength];
         mInlineInterimOutput = new float[bufferLength];
         mFilterAccumulator = new float[getSubChannelCount()];
+        mSampleBufferPointer = 0;
+        mParallelSamples = null;
+        mPrunedTransform = null;
+        initParallelWorkers();
+    }
+
+    /**
+     * Creates one parallel worker for each processing thread.
+     */
+    private void initParallelWorkers()
+    {
+        if(mInlineFilter == null)
+        {
+            return;
+        }
+
+        mParallelWorkers = new ParallelWorker[mProcessingThreadCount];
+
+        for(int x = 0; x < mProcessingThreadCount; x++)
+        {
+            mParallelWorkers[x] = new ParallelWorker();
+        }
+    }
+
+    /**
+     * Performs IFFT on each channel results array contained in the buffers.  When parallel workers are available,
+     * the channel results arrays are divided across the workers.
+     *
+     * @param buffers containing channel results arrays
+     */
+    private void inverseFFT(List<ReusableChannelResultsBuffer> buffers)
+    {
+        ExecutorService executorService = mExecutorService;
+        ParallelWorker[] workers = mParallelWorkers;
+
+        PrunedTransform prunedTransform = mPrunedTransform;
+
+        if(prunedTransform != null && prunedTransform.getChannelCount() != getChannelCount())
+        {
+            prunedTransform = null;
+        }
+
+        if(executorService == null || workers == null || workers.length < 2)
+        {
+            if(prunedTransform != null && (mPrunedOutputs == null ||
+                mPrunedOutputs.length != prunedTransform.getOutputsLength()))
+            {
+                mPrunedOutputs = new float[prunedTransform.getOutputsLength()];
+            }
+
+            for(ReusableChannelResultsBuffer buffer: buffers)
+            {
+                for(float[] channelResults: buffer.getChannelResults())
+                {
+                    if(prunedTransform != null)
+                    {
+                        prunedTransform.inverse(channelResults, mPrunedOutputs);
+                    }
+                    else
+                    {
+                        //Rotate each of the channels to the correct phase using the IFFT
+                        mFFT.complexInverse(channelResults, true);
+                    }
+                }
+            }
+
+            return;
+        }
+
+        List<float[]> channelResults = new ArrayList<>();
+
+        for(ReusableChannelResultsBuffer buffer: buffers)
+        {
+            channelResults.addAll(buffer.getChannelResults());
+        }
+
+        int count = channelResults.size();
+        List<Future<?>> futures = new ArrayList<>();
+        PrunedTransform transform = prunedTransform;
+
+        for(int worker = 1; worker < workers.length; worker++)
+        {
+            int start = count * worker / workers.length;
+            int end = count * (worker + 1) / workers.length;
+
+            if(start < end)
+            {
+                ParallelWorker parallelWorker = workers[worker];
+                futures.add(submit(executorService, () -> parallelWorker.inverseFFT(channelResults, start, end,
+                    transform)));
+            }
+        }
+
+        workers[0].inverseFFT(channelResults, 0, count / workers.length, transform);
+
+        await(futures);
+    }
+
+    /**
+     * Parallel processing worker.  Each worker has its own accumulator and FFT instance so that workers can process
+     * separate ranges of blocks or channel results arrays concurrently.
+     */
+    private class ParallelWorker
+    {
+        private float[] mAccumulator = new float[getSubChannelCount()];
+        private FloatFFT_1D mWorkerFFT = new FloatFFT_1D(getChannelCount());
+        private float[] mPrunedOutputs;
+
+        /**
+         * Filters a range of sample blocks from the contiguous sample stream.
+         *
+         * @param stream of samples in arrival order
+         * @param firstBlockOffset offset in the stream to the first new sample block
+         * @param results arrays, one per new block, to receive the filtered output
+         * @param start block index (inclusive)
+         * @param end block index (exclusive)
+         * @param topBlock indicates if the first new block (index 0) is a top block
+         */
+        public void filter(float[] stream, int firstBlockOffset, List<float[]> results, int start, int end,
+                           boolean topBlock)
+        {
+            int blockSize = mSamplesPerBlock;
+            int subChannelCount = getSubChannelCount();
+            float[] filter = mInlineFilter;
+
+            for(int block = start; block < end; block++)
+            {
+                Arrays.fill(mAccumulator, 0.0f);
+
+                //Offset of the newest block, where filter block m aligns with stream block (newest - m)
+                int newestOffset = firstBlockOffset + (block * blockSize);
+
+                for(int tap = 0; tap < mTapsPerChannel; tap++)
+                {
+                    int tapOffset = tap * subChannelCount;
+
+                    for(int half = 0; half < 2; half++)
+                    {
+                        int filterOffset = tapOffset + (half * blockSize);
+                        int streamOffset = newestOffset - (((2 * tap) + half) * blockSize);
+                        int accumulatorOffset = half * blockSize;
+
+                        for(int x = 0; x < blockSize; x++)
+                        {
+                            mAccumulator[accumulatorOffset + x] += stream[streamOffset + x] * filter[filterOffset + x];
+                        }
+                    }
+                }
+
+                float[] processed = results.get(block);
+                int[] map = (topBlock == (block % 2 == 0)) ? mTopBlockMap : mMiddleBlockMap;
+
+                for(int x = 0; x < subChannelCount; x++)
+                {
+                    processed[x] = mAccumulator[map[x]];
+                }
+            }
+        }
+
+        /**
+         * Performs IFFT on a range of channel results arrays.
+         *
+         * @param channelResults arrays
+         * @param start index (inclusive)
+         * @param end index (exclusive)
+         * @param prunedTransform to compute only the active channel outputs, or null for the full IFFT
+         */
+        public void inverseFFT(List<float[]> channelResults, int start, int end, PrunedTransform prunedTransform)
+        {
+            if(prunedTransform != null)
+            {
+                if(mPrunedOutputs == null || mPrunedOutputs.length != prunedTransform.getOutputsLength())
+                {
+                    mPrunedOutputs = new float[prunedTransform.getOutputsLength()];
+                }
+
+                for(int x = start; x < end; x++)
+                {
+                    prunedTransform.inverse(channelResults.get(x), mPrunedOutputs);
+                }
+            }
+            else
+            {
+                for(int x = start; x < end; x++)
+                {
+                    mWorkerFFT.complexInverse(channelResults.get(x), true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Output-pruned inverse DFT that evaluates only the active channel outputs.  Produces the same (scaled) outputs as
+     * the full IFFT for the active channel indexes and zero for all other channel indexes.
+     *
+     * Each active output is calculated as two real dot products over the interleaved I/Q channel results array using
+     * precomputed twiddle arrays that are laid out to match the interleaved array, with partial sums split across
+     * even and odd elements.
+     */
+    private static class PrunedTransform
+    {
+        private final int[] mIndexes;
+        private final int mChannelCount;
+        private final float[][] mRealTwiddles;
+        private final float[][] mImaginaryTwiddles;
+
+        /**
+         * Constructs an instance
+         *
+         * @param indexes of active channels, sorted and distinct
+         * @param channelCount of the channelizer (ie IFFT size)
+         */
+        private PrunedTransform(int[] indexes, int channelCount)
+        {
+            mIndexes = indexes;
+            mChannelCount = channelCount;
+            mRealTwiddles = new float[indexes.length][];
+            mImaginaryTwiddles = new float[indexes.length][];
+
+            double scale = 1.0 / channelCount;
+
+            for(int x = 0; x < indexes.length; x++)
+            {
+                float[] real = new float[channelCount * 2];
+                float[] imaginary = new float[channelCount * 2];
+
+                for(int n = 0; n < channelCount; n++)
+                {
+                    //Inverse transform: output[k] = 1/N * sum(input[n] * e^(j2pi * n * k / N))
+                    double angle = 2.0 * Math.PI * (((long)n * indexes[x]) % channelCount) / channelCount;
+                    float cos = (float)(Math.cos(angle) * scale);
+                    float sin = (float)(Math.sin(angle) * scale);
+
+                    real[2 * n] = cos;
+                    real[2 * n + 1] = -sin;
+                    imaginary[2 * n] = sin;
+                    imaginary[2 * n + 1] = cos;
+                }
+
+                mRealTwiddles[x] = real;
+                mImaginaryTwiddles[x] = imaginary;
+            }
+        }
+
+        /**
+         * Channel count (transform size) that this transform was created for
+         */
+        private int getChannelCount()
+        {
+            return mChannelCount;
+        }
+
+        /**
+         * Length of the scratch array required to hold the active channel outputs
+         */
+        private int getOutputsLength()
+        {
+            return mIndexes.length * 2;
+        }
+
+        /**
+         * Replaces the contents of the channel results array with the active channel outputs.
+         *
+         * @param channelResults interleaved I/Q polyphase filter outputs to transform in place
+         * @param outputs scratch array of length getOutputsLength()
+         */
+        private void inverse(float[] channelResults, float[] outputs)
+        {
+            for(int x = 0; x < mIndexes.length; x++)
+            {
+                float[] real = mRealTwiddles[x];
+                float[] imaginary = mImaginaryTwiddles[x];
+                float realEven = 0.0f;
+                float realOdd = 0.0f;
+                float imaginaryEven = 0.0f;
+                float imaginaryOdd = 0.0f;
+
+                for(int y = 0; y < channelResults.length; y += 2)
+                {
+                    realEven += channelResults[y] * real[y];
+                    realOdd += channelResults[y + 1] * real[y + 1];
+                    imaginaryEven += channelResults[y] * imaginary[y];
+                    imaginaryOdd += channelResults[y + 1] * imaginary[y + 1];
+                }
+
+                outputs[2 * x] = realEven + realOdd;
+                outputs[2 * x + 1] = imaginaryEven + imaginaryOdd;
+            }
+
+            Arrays.fill(channelResults, 0.0f);
+
+            for(int x = 0; x < mIndexes.length; x++)
+            {
+                channelResults[2 * mIndexes[x]] = outputs[2 * x];
+                channelResults[2 * mIndexes[x] + 1] = outputs[2 * x + 1];
+            }
+        }
     }
 
     /**
@@ -404,10 +997,10 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
     {
         public IFFTProcessor(int maximumSize, int resetThreshold)
         {
-            super(maximumSize, resetThreshold);
+            super(new OverflowableRingQueue<>(maximumSize, resetThreshold));
 
-            //We create a listener interface to receive the buffers from the scheduled thread pool
-            //dispatcher thread that is part of this continuous buffer processor.  We perform an IFFT on each
+            //We create a listener interface to receive the buffers from the processing thread that is part of
+            //this continuous buffer processor.  We perform an IFFT on each
             //channel results array contained in each results buffer and then dispatch the buffer
             //so that it can be distributed to each channel listener.
             setListener(new Listener<List<ReusableChannelResultsBuffer>>()
@@ -415,14 +1008,11 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
                 @Override
                 public void receive(List<ReusableChannelResultsBuffer> buffers)
                 {
+                    //Rotate each of the channels to the correct phase using the IFFT
+                    inverseFFT(buffers);
+
                     for(ReusableChannelResultsBuffer buffer: buffers)
                     {
-                        for(float[] channelResults: buffer.getChannelResults())
-                        {
-                            //Rotate each of the channels to the correct phase using the IFFT
-                            mFFT.complexInverse(channelResults, true);
-                        }
-
                         dispatch(buffer);
                     }
                 }
@@ -453,5 +1043,17 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
 
             return buffersToDispose;
         }
+
+        /**
+         * Clears the user count on buffers that were removed from the queue after this processor was stopped.
+         */
+        @Override
+        protected void discard(List<ReusableChannelResultsBuffer> buffers)
+        {
+            for(ReusableChannelResultsBuffer buffer: buffers)
+            {
+                buffer.clearUserCount();
+            }
+        }
     }
 }
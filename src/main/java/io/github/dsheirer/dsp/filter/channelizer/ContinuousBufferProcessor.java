@@ -15,36 +15,40 @@
  ******************************************************************************/
 package io.github.dsheirer.dsp.filter.channelizer;
 
+import io.github.dsheirer.controller.NamingThreadFactory;
+import io.github.dsheirer.monitor.StageMetrics;
 import io.github.dsheirer.sample.IOverflowListener;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.AbstractOverflowableQueue;
 import io.github.dsheirer.sample.OverflowableTransferQueue;
-import io.github.dsheirer.util.ThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ContinuousBufferProcessor<E> implements Listener<E>
 {
     private final static Logger mLog = LoggerFactory.getLogger(ContinuousBufferProcessor.class);
+    private static final ThreadFactory THREAD_FACTORY = new NamingThreadFactory("sdrtrunk buffer processor");
 
-    protected OverflowableTransferQueue<E> mQueue;
+    protected AbstractOverflowableQueue<E> mQueue;
     private Listener<List<E>> mListener;
-    private ScheduledFuture<?> mScheduledFuture;
+    private volatile Thread mProcessingThread;
     private AtomicBoolean mRunning = new AtomicBoolean();
-    private long mProcessingPeriod = 5; //milliseconds
+    private long mMaximumWait = 500; //milliseconds
+    private StageMetrics mMetrics;
 
     /**
-     * Scheduled Buffer Processor combines an internal overflowable buffer with a scheduled runnable processing task
-     * for periodically distributing internally queued elements to the registered listener.  This processor provides
-     * a convenient way to create a thread-safe buffer for receiving elements from one thread/runnable and then
-     * distributing those elements to a registered listener where distribution occurs on a separate scheduled thread
-     * pool runnable thread.  This allows the calling input thread to quickly return without incurring any subsequent
+     * Continuous Buffer Processor combines an internal overflowable buffer with a dedicated processing thread that
+     * waits for elements to arrive and immediately distributes all queued elements to the registered listener.  This
+     * processor provides a convenient way to create a thread-safe buffer for receiving elements from one
+     * thread/runnable and then distributing those elements to a registered listener where distribution occurs on a
+     * separate thread.  This allows the calling input thread to quickly return without incurring any subsequent
      * processing workload.
      *
      * The internal queue is an overflowable queue implementation that allows a listener to be registered to receive
@@ -67,33 +71,33 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
     }
 
     /**
-     * Sets the processing periodicity or run interval for how often the buffer queue is processed.
+     * Sets the maximum interval that the processing thread will wait for a new element before checking the running
+     * state.  Elements are processed as soon as they arrive, regardless of this value.
      *
-     * @param milliseconds (default = 5 milliseconds)
+     * @param milliseconds (default = 500 milliseconds)
      */
-    public void setProcessingPeriod(long milliseconds)
+    public void setMaximumWait(long milliseconds)
     {
-        mProcessingPeriod = milliseconds;
+        mMaximumWait = milliseconds;
     }
 
     /**
-     * Scheduled Buffer Processor combines an internal overflowable buffer with a scheduled runnable processing task
-     * for periodically distributing internally queued elements to the registered listener.  This processor provides
-     * a convenient way to create a thread-safe buffer for receiving elements from one thread/runnable and then
-     * distributing those elements to a registered listener where distribution occurs on a separate scheduled thread
-     * pool runnable thread.  This allows the calling input thread to quickly return without incurring any subsequent
+     * Continuous Buffer Processor combines an internal overflowable buffer with a dedicated processing thread that
+     * waits for elements to arrive and immediately distributes all queued elements to the registered listener.  This
+     * processor provides a convenient way to create a thread-safe buffer for receiving elements from one
+     * thread/runnable and then distributing those elements to a registered listener where distribution occurs on a
+     * separate thread.  This allows the calling input thread to quickly return without incurring any subsequent
      * processing workload.
      *
-     * The internal queue is an overflowable queue implementation that allows a listener to be registered to receive
-     * notifications of overflow and reset state.  Queue sizing parameters are specified in the constructor.
+     * Use an OverflowableRingQueue for stages that have a single producer thread (ie tuner to channelizer to
+     * decoder) and an OverflowableTransferQueue for stages that receive elements from multiple threads.
      *
      * @param queue implmentation of an overflowable transfer queue
      */
-    public ContinuousBufferProcessor(OverflowableTransferQueue<E> queue)
+    public ContinuousBufferProcessor(AbstractOverflowableQueue<E> queue)
     {
         mQueue = queue;
     }
-
     /**
      * Sets the listener to receive notifications of buffer overflow and/or reset.  Note: this method can also be
      * invoked with a null argument to clear the previously registered overflow listener.
@@ -105,6 +109,16 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
         mQueue.setOverflowListener(listener);
     }
 
+    /**
+     * Sets the metrics instance to receive buffer count, queue depth, overflow and listener processing time statistics
+     * for this processor.  Note: this method can be invoked with a null argument to stop recording statistics.
+     */
+    public void setMetrics(StageMetrics metrics)
+    {
+        mMetrics = metrics;
+        mQueue.setMetrics(metrics);
+    }
+
     /**
      * Sets or changes the listener to receive buffers from this processor.
      * @param listener to receive buffers
@@ -134,7 +148,8 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
     {
         if(mRunning.compareAndSet(false, true))
         {
-            mScheduledFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(new Processor(), 0, mProcessingPeriod, TimeUnit.MILLISECONDS);
+            mProcessingThread = THREAD_FACTORY.newThread(new Processor());
+            mProcessingThread.start();
         }
     }
 
@@ -145,12 +160,7 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
     {
         if(mRunning.compareAndSet(true, false))
         {
-            if(mScheduledFuture != null)
-            {
-                mScheduledFuture.cancel(true);
-                mScheduledFuture = null;
-            }
-
+            interruptProcessingThread();
             clearQueue();
         }
     }
@@ -163,30 +173,54 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
     {
         if(mRunning.compareAndSet(true, false))
         {
-            if(mScheduledFuture != null)
+            interruptProcessingThread();
+
+            List<E> buffers = new ArrayList<>();
+            mQueue.drainTo(buffers);
+
+            if(!buffers.isEmpty())
             {
-                mScheduledFuture.cancel(true);
-                mScheduledFuture = null;
+                process(buffers);
             }
-
-            process();
         }
     }
 
     /**
-     * Distributes queued buffers to the listener
+     * Interrupts the processing thread so that it can terminate, unless this method is invoked from the processing
+     * thread (ie a listener stops this processor), in which case the thread terminates on its next loop.
      */
-    protected void process()
+    private void interruptProcessingThread()
     {
-        List<E> buffers = new ArrayList<>();
+        Thread processingThread = mProcessingThread;
+        mProcessingThread = null;
 
-        try
+        if(processingThread != null && processingThread != Thread.currentThread())
         {
-            mQueue.drainTo(buffers);
+            processingThread.interrupt();
+        }
+    }
 
+    /**
+     * Distributes the buffers to the listener
+     */
+    protected void process(List<E> buffers)
+    {
+        try
+        {
             if(mListener != null)
             {
-                mListener.receive(buffers);
+                StageMetrics metrics = mMetrics;
+
+                if(metrics != null)
+                {
+                    long start = System.nanoTime();
+                    mListener.receive(buffers);
+                    metrics.processingTime(System.nanoTime() - start);
+                }
+                else
+                {
+                    mListener.receive(buffers);
+                }
             }
         }
         catch(Throwable throwable)
@@ -205,6 +239,15 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
         return clearedElements;
     }
 
+    /**
+     * Disposes of buffers that were removed from the queue after this processor was stopped.  Override in
+     * subclasses to perform any necessary cleanup action(s).
+     */
+    protected void discard(List<E> buffers)
+    {
+        //No-op
+    }
+
     /**
      * Indicates if this processor is currently running
      */
@@ -214,14 +257,39 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
     }
 
     /**
-     * Processor to service the buffer queue and distribute the buffers to the registered listener
+     * Processor to wait on the buffer queue and distribute the buffers to the registered listener as they arrive
      */
     class Processor implements Runnable
     {
         @Override
         public void run()
         {
-            process();
+            while(mProcessingThread == Thread.currentThread())
+            {
+                try
+                {
+                    E element = mQueue.poll(mMaximumWait, TimeUnit.MILLISECONDS);
+
+                    if(element != null && mProcessingThread == Thread.currentThread())
+                    {
+                        List<E> buffers = new ArrayList<>();
+                        buffers.add(element);
+                        mQueue.drainTo(buffers);
+                        process(buffers);
+                    }
+                    else if(element != null)
+                    {
+                        //Processor was stopped while waiting - return the element for cleanup
+                        List<E> buffers = new ArrayList<>();
+                        buffers.add(element);
+                        discard(buffers);
+                    }
+                }
+                catch(InterruptedException ie)
+                {
+                    //Stop requested - exit once this is no longer the processing thread
+                }
+            }
         }
     }
 }
@@ -20,7 +20,6 @@ import io.github.dsheirer.sample.buffer.OverflowableReusableBufferTransferQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class ContinuousReusableBufferProcessor<T extends AbstractReusableBuffer> extends ContinuousBufferProcessor<T>
@@ -28,12 +27,11 @@ public class ContinuousReusableBufferProcessor<T extends AbstractReusableBuffer>
     private final static Logger mLog = LoggerFactory.getLogger(ContinuousReusableBufferProcessor.class);
 
     /**
-     * Scheduled Reusable Buffer Processor combines an internal overflowable buffer with a scheduled runnable processing
-     * task for periodically distributing internally queued elements to the registered listener.  This processor
-     * provides a convenient way to create a thread-safe buffer for receiving elements from one thread/runnable and then
-     * distributing those elements to a registered listener where distribution occurs on a separate scheduled thread
-     * pool runnable thread.  This allows the calling input thread to quickly return without incurring any subsequent
-     * processing workload.
+     * Continuous Reusable Buffer Processor combines an internal overflowable buffer with a dedicated processing thread
+     * that distributes internally queued elements to the registered listener as they arrive.  This processor provides
+     * a convenient way to create a thread-safe buffer for receiving elements from one or more threads and then
+     * distributing those elements to a registered listener where distribution occurs on a separate thread.  This allows
+     * the calling input thread to quickly return without incurring any subsequent processing workload.
      *
      * The internal queue is an overflowable queue implementation that allows a listener to be registered to receive
      * notifications of overflow and reset state.  Queue sizing parameters are specified in the constructor.
@@ -47,15 +45,11 @@ public class ContinuousReusableBufferProcessor<T extends AbstractReusableBuffer>
     }
 
     /**
-     * Distributes queued buffers to the listener
+     * Distributes the buffers to the listener
      */
     @Override
-    protected void process()
+    protected void process(List<T> buffers)
     {
-        List<T> buffers = new ArrayList<>();
-
-        mQueue.drainTo(buffers);
-
         try
         {
             if(getListener() != null)
@@ -68,20 +62,25 @@ public class ContinuousReusableBufferProcessor<T extends AbstractReusableBuffer>
         catch(Throwable throwable)
         {
             mLog.error("Error while dispatching buffers to listener.  Performing buffer user count cleanup", throwable);
+            discard(buffers);
+        }
+    }
 
-            if(!buffers.isEmpty())
+    /**
+     * Decrements the user count on buffers that were removed from the queue but not dispatched to the listener
+     */
+    @Override
+    protected void discard(List<T> buffers)
+    {
+        for(T buffer: buffers)
+        {
+            try
+            {
+                buffer.decrementUserCount();
+            }
+            catch(IllegalStateException ise)
             {
-                for(T buffer: buffers)
-                {
-                    try
-                    {
-                        buffer.decrementUserCount();
-                    }
-                    catch(IllegalStateException ise)
-                    {
-                        mLog.error("Error while performing user count cleanup on reusable buffers.");
-                    }
-                }
+                mLog.error("Error while performing user count cleanup on reusable buffers.");
             }
         }
     }
@@ -26,8 +26,11 @@ import io.github.dsheirer.dsp.filter.channelizer.output.IPolyphaseChannelOutputP
 import io.github.dsheirer.dsp.filter.channelizer.output.OneChannelOutputProcessor;
 import io.github.dsheirer.dsp.filter.channelizer.output.TwoChannelOutputProcessor;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.monitor.PipelineMetrics;
+import io.github.dsheirer.monitor.StageMetrics;
 import io.github.dsheirer.sample.Broadcaster;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.OverflowableRingQueue;
 import io.github.dsheirer.sample.buffer.IReusableComplexBufferProvider;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import io.github.dsheirer.source.ISourceEventProcessor;
@@ -45,6 +48,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -74,6 +78,11 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
     private static final int POLYPHASE_CHANNELIZER_TAPS_PER_CHANNEL = 9;
     private static final int POLYPHASE_SYNTHESIZER_TAPS_PER_CHANNEL = 9;
 
+    //Parallel channelizer processing is used for wideband tuners when enough processor cores are available
+    private static final double PARALLEL_CHANNELIZER_MINIMUM_SAMPLE_RATE = 5000000.0;
+    private static final int PARALLEL_CHANNELIZER_MINIMUM_CHANNEL_COUNT = 200;
+    private static final int PARALLEL_CHANNELIZER_MAXIMUM_THREADS = 4;
+
     private Broadcaster<SourceEvent> mSourceEventBroadcaster = new Broadcaster<>();
     private IReusableComplexBufferProvider mReusableBufferProvider;
     private List<PolyphaseChannelSource> mChannelSources = new CopyOnWriteArrayList<>();
@@ -83,6 +92,7 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
     private BufferSourceEventMonitor mBufferSourceEventMonitor = new BufferSourceEventMonitor();
     private ContinuousBufferProcessor<ReusableComplexBuffer> mBufferProcessor;
     private Map<Integer,float[]> mOutputProcessorFilters = new HashMap<>();
+    private volatile StageMetrics mStageMetrics;
 
     /**
      * Creates a polyphase channel manager instance.
@@ -112,7 +122,8 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
 
         mChannelCalculator = new ChannelCalculator(sampleRate, channelCount, frequency, CHANNEL_OVERSAMPLING);
 
-        mBufferProcessor = new ContinuousBufferProcessor(200, 50);
+        //Tuner buffers arrive from a single producer thread
+        mBufferProcessor = new ContinuousBufferProcessor<>(new OverflowableRingQueue<>(200, 50));
         mBufferProcessor.setListener(mBufferSourceEventMonitor);
     }
 
@@ -243,12 +254,19 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
 
             checkChannelizerConfiguration();
 
+            //Update the active channel indexes before the channel is added so that it receives computed outputs
+            updateActiveChannelIndexes();
             mPolyphaseChannelizer.addChannel(channelSource);
             mSourceEventBroadcaster.broadcast(SourceEvent.channelCountChange(getTunerChannelCount()));
 
             //If this is the first channel, register to start the sample buffers flowing
             if(mPolyphaseChannelizer.getRegisteredChannelCount() == 1)
             {
+                mStageMetrics = PipelineMetrics.register(StageMetrics.Type.CHANNELIZER,
+                    mReusableBufferProvider.getClass().getSimpleName() + " " +
+                        (long)mChannelCalculator.getCenterFrequency());
+                mBufferProcessor.setMetrics(mStageMetrics);
+
                 mReusableBufferProvider.addBufferListener(mBufferProcessor);
                 mPolyphaseChannelizer.start();
                 mBufferProcessor.start();
@@ -268,6 +286,7 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
         {
             mChannelSources.remove(channelSource);
             mPolyphaseChannelizer.removeChannel(channelSource);
+            updateActiveChannelIndexes();
             mSourceEventBroadcaster.broadcast(SourceEvent.channelCountChange(getTunerChannelCount()));
 
             //If this is the last/only channel, deregister to stop the sample buffers
@@ -276,6 +295,10 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
                 mReusableBufferProvider.removeBufferListener(mBufferProcessor);
                 mBufferProcessor.stop();
                 mPolyphaseChannelizer.stop();
+
+                mBufferProcessor.setMetrics(null);
+                PipelineMetrics.unregister(mStageMetrics);
+                mStageMetrics = null;
             }
         }
 
@@ -353,6 +376,15 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
             {
                 mPolyphaseChannelizer = new ComplexPolyphaseChannelizerM2(tunerSampleRate,
                     POLYPHASE_CHANNELIZER_TAPS_PER_CHANNEL);
+
+                int threadCount = getChannelizerThreadCount(tunerSampleRate, mPolyphaseChannelizer.getChannelCount());
+                mPolyphaseChannelizer.setProcessingThreadCount(threadCount);
+
+                if(threadCount > 1)
+                {
+                    mLog.info("Polyphase channelizer using parallel processing with [" + threadCount +
+                        "] threads for sample rate [" + tunerSampleRate + "]");
+                }
             }
             catch(IllegalArgumentException iae)
             {
@@ -368,6 +400,28 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
         }
     }
 
+    /**
+     * Determines the number of processing threads for the polyphase channelizer.  Serial (single thread) processing
+     * is used for narrower bandwidth tuners and when there are fewer than 4 processor cores available.  Otherwise,
+     * half of the available cores are used, up to a maximum of 4 threads.
+     *
+     * @param sampleRate of the tuner
+     * @param channelCount of the polyphase channelizer
+     * @return processing thread count
+     */
+    private static int getChannelizerThreadCount(double sampleRate, int channelCount)
+    {
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        if(sampleRate < PARALLEL_CHANNELIZER_MINIMUM_SAMPLE_RATE ||
+           channelCount < PARALLEL_CHANNELIZER_MINIMUM_CHANNEL_COUNT || cores < 4)
+        {
+            return 1;
+        }
+
+        return Math.min(cores / 2, PARALLEL_CHANNELIZER_MAXIMUM_THREADS);
+    }
+
     /**
      * Updates each of the output processors for any changes in the tuner's center frequency or sample rate, which
      * would cause the output processors to change the polyphase channelizer results channel(s) that the processor is
@@ -394,6 +448,47 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
                 }
             }
         }
+
+        updateActiveChannelIndexes();
+    }
+
+    /**
+     * Updates the polyphase channelizer with the set of channel indexes consumed by the channel sources that are
+     * currently started, so that the channelizer can compute only those channel outputs when few channels are active.
+     */
+    private synchronized void updateActiveChannelIndexes()
+    {
+        ComplexPolyphaseChannelizerM2 channelizer = mPolyphaseChannelizer;
+
+        if(channelizer == null)
+        {
+            return;
+        }
+
+        Set<Integer> indexes = new TreeSet<>();
+
+        for(PolyphaseChannelSource channelSource: mChannelSources)
+        {
+            try
+            {
+                indexes.addAll(mChannelCalculator.getChannelIndexes(channelSource.getTunerChannel()));
+            }
+            catch(IllegalArgumentException iae)
+            {
+                //Channel can't be sourced with the current settings and will be stopped by the output processor update
+            }
+        }
+
+        boolean pruned = channelizer.isPrunedOutput();
+
+        channelizer.setActiveChannelIndexes(indexes);
+
+        if(pruned != channelizer.isPrunedOutput())
+        {
+            mLog.debug("Polyphase channelizer " + (channelizer.isPrunedOutput() ? "using pruned output for " +
+                "active channel indexes " + indexes : "using full IFFT output for [" + indexes.size() +
+                "] active channel indexes"));
+        }
     }
 
     /**
@@ -472,6 +567,14 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
         return mChannelSources.size();
     }
 
+    /**
+     * Pipeline metrics for the channelizer, or null when the channelizer is not running (ie no channels)
+     */
+    public StageMetrics getStageMetrics()
+    {
+        return mStageMetrics;
+    }
+
     /**
      * Adds the listener to receive source events
      */
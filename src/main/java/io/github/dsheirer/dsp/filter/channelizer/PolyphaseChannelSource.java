@@ -20,10 +20,12 @@
 package io.github.dsheirer.dsp.filter.channelizer;
 
 import io.github.dsheirer.dsp.filter.channelizer.output.IPolyphaseChannelOutputProcessor;
+import io.github.dsheirer.dsp.filter.design.FilterDesignCache;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
 import io.github.dsheirer.dsp.filter.fir.complex.ComplexFIRFilter2;
 import io.github.dsheirer.dsp.filter.fir.remez.RemezFIRFilterDesigner;
+import io.github.dsheirer.monitor.StageMetrics;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.ReusableChannelResultsBuffer;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
@@ -33,8 +35,7 @@ import io.github.dsheirer.source.tuner.channel.ChannelSpecification;
 import io.github.dsheirer.source.tuner.channel.TunerChannel;
 import io.github.dsheirer.source.tuner.channel.TunerChannelSource;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class PolyphaseChannelSource extends TunerChannelSource
 {
@@ -42,10 +43,10 @@ public class PolyphaseChannelSource extends TunerChannelSource
 
     private ReusableComplexBufferAssembler mReusableComplexBufferAssembler;
     private IPolyphaseChannelOutputProcessor mPolyphaseChannelOutputProcessor;
+    private StageMetrics mStageMetrics;
     private IPolyphaseChannelOutputProcessor mReplacementPolyphaseChannelOutputProcessor;
     private long mReplacementFrequency;
     private ComplexFIRFilter2 mLowPassFilter;
-    private static Map<Integer,float[]> sLowPassFilters = new HashMap();
 
     private double mChannelSampleRate;
     private long mIndexCenterFrequency;
@@ -98,6 +99,18 @@ public class PolyphaseChannelSource extends TunerChannelSource
         mReusableComplexBufferAssembler.setListener(null);
     }
 
+    @Override
+    public void setMetrics(StageMetrics metrics)
+    {
+        super.setMetrics(metrics);
+        mStageMetrics = metrics;
+
+        if(mPolyphaseChannelOutputProcessor != null)
+        {
+            mPolyphaseChannelOutputProcessor.setMetrics(metrics);
+        }
+    }
+
     /**
      * Channel output processor used by this channel source to convert polyphase channel results into a specific
      * channel complex buffer output stream.
@@ -119,6 +132,7 @@ public class PolyphaseChannelSource extends TunerChannelSource
         if(mPolyphaseChannelOutputProcessor == null)
         {
             mPolyphaseChannelOutputProcessor = outputProcessor;
+            mPolyphaseChannelOutputProcessor.setMetrics(mStageMetrics);
         }
         //Otherwise, we have to swap out the processor on the sample processing thread
         else
@@ -150,6 +164,10 @@ public class PolyphaseChannelSource extends TunerChannelSource
             //Register to receive buffer overflow notifications so we can push them up through the source chain
             mPolyphaseChannelOutputProcessor.setSourceOverflowListener(this);
 
+            //Move the queue metrics to the new processor
+            existingProcessor.setMetrics(null);
+            mPolyphaseChannelOutputProcessor.setMetrics(mStageMetrics);
+
             //Finally, setup the frequency offset for the output processor.
             mIndexCenterFrequency = mReplacementFrequency;
             mPolyphaseChannelOutputProcessor.setFrequencyOffset(getFrequencyOffset());
@@ -242,6 +260,17 @@ public class PolyphaseChannelSource extends TunerChannelSource
         setChannelFrequencyCorrection(0);
     }
 
+    /**
+     * Waits for channel results from the polyphase channelizer.  Note: if the output processor is replaced while the
+     * sample processing thread is waiting, the thread waits on the new output processor after the current wait times
+     * out.
+     */
+    @Override
+    protected boolean awaitSamples(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        return mPolyphaseChannelOutputProcessor.awaitChannelResults(timeout, unit);
+    }
+
     @Override
     protected void processSamples()
     {
@@ -286,29 +315,24 @@ public class PolyphaseChannelSource extends TunerChannelSource
     private float[] getLowPassFilter(double sampleRate, double passFrequency, double stopFrequency) throws FilterDesignException
     {
         //Use existing filter if we've already designed one
-        if(sLowPassFilters.containsKey((int)sampleRate))
-        {
-            return sLowPassFilters.get((int)sampleRate);
-        }
-
-        FIRFilterSpecification specification = FIRFilterSpecification.lowPassBuilder()
-            .sampleRate(sampleRate)
-            .gridDensity(16)
-            .passBandCutoff(passFrequency)
-            .passBandAmplitude(1.0)
-            .passBandRipple(0.01)
-            .stopBandStart(stopFrequency)
-            .stopBandAmplitude(0.0)
-            .stopBandRipple(0.01)
-            .build();
-
-        RemezFIRFilterDesigner designer = new RemezFIRFilterDesigner(specification);
-
-        //This will throw an exception if the filter cannot be designed
-        float[] taps = designer.getImpulseResponse();
-
-        sLowPassFilters.put((int)sampleRate, taps);
-
-        return taps;
+        String key = FilterDesignCache.key("remez-lowpass", sampleRate, passFrequency, stopFrequency, 0.01, 0.01);
+
+        return FilterDesignCache.get(key, () -> {
+            FIRFilterSpecification specification = FIRFilterSpecification.lowPassBuilder()
+                .sampleRate(sampleRate)
+                .gridDensity(16)
+                .passBandCutoff(passFrequency)
+                .passBandAmplitude(1.0)
+                .passBandRipple(0.01)
+                .stopBandStart(stopFrequency)
+                .stopBandAmplitude(0.0)
+                .stopBandRipple(0.01)
+                .build();
+
+            RemezFIRFilterDesigner designer = new RemezFIRFilterDesigner(specification);
+
+            //This will throw an exception if the filter cannot be designed
+            return designer.getImpulseResponse();
+        });
     }
 }
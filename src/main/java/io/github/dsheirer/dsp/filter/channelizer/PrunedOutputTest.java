@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.source.tuner.channel.TunerChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Checks that the polyphase channelizer uses pruned output for the typical case of a few active channel sources.
+ *
+ * Randomly placed 12.5 kHz channel sources are mapped to polyphase channel indexes with the same channel calculator
+ * settings as the polyphase channel manager, and the channelizer is checked for pruned output mode for each quantity
+ * of active sources.  Pruned output is required for one and two sources at all tested sample rates and for three
+ * sources at the wider band sample rates, where the measured break-even count is higher.
+ */
+public class PrunedOutputTest
+{
+    private final static Logger mLog = LoggerFactory.getLogger(PrunedOutputTest.class);
+    private static final int ITERATIONS = 1000;
+    private static final long CENTER_FREQUENCY = 450000000;
+    private static final int CHANNEL_BANDWIDTH = 12500;
+    private static final double CHANNEL_OVERSAMPLING = 2.0;
+
+    private static Random sRandom = new Random(0x22);
+
+    public static void main(String[] args)
+    {
+        int failures = 0;
+
+        failures += test(2400000.0, 2);
+        failures += test(10000000.0, 3);
+        failures += test(20000000.0, 3);
+
+        mLog.info(failures == 0 ? "PASSED - pruned output engaged for the typical active source counts" :
+            "FAILED - pruned output not engaged count: " + failures);
+    }
+
+    /**
+     * Tests pruned output engagement for 1 to 5 randomly placed active channel sources.
+     *
+     * @param sampleRate of the tuner
+     * @param requiredSources maximum source count where pruned output is required
+     * @return number of trials where pruned output was required but not engaged
+     */
+    private static int test(double sampleRate, int requiredSources)
+    {
+        int channelCount = ComplexPolyphaseChannelizerM2.getChannelCount(sampleRate);
+        ComplexPolyphaseChannelizerM2 channelizer = new ComplexPolyphaseChannelizerM2(new float[channelCount * 2],
+            (int)sampleRate, channelCount);
+        ChannelCalculator calculator = new ChannelCalculator(sampleRate, channelCount, CENTER_FREQUENCY,
+            CHANNEL_OVERSAMPLING);
+
+        int failures = 0;
+        StringBuilder sb = new StringBuilder();
+        sb.append("Channels [").append(channelCount).append("] pruned output maximum [")
+            .append(ComplexPolyphaseChannelizerM2.getPrunedOutputMaximum(channelCount))
+            .append("] pruned trials by source count");
+
+        for(int sources = 1; sources <= 5; sources++)
+        {
+            int pruned = 0;
+
+            for(int x = 0; x < ITERATIONS; x++)
+            {
+                Set<Integer> indexes = new TreeSet<>();
+
+                for(int source = 0; source < sources; source++)
+                {
+                    long offset = (long)((sRandom.nextDouble() - 0.5) * (sampleRate - (4 * CHANNEL_BANDWIDTH)));
+                    indexes.addAll(calculator.getChannelIndexes(new TunerChannel(CENTER_FREQUENCY + offset,
+                        CHANNEL_BANDWIDTH)));
+                }
+
+                channelizer.setActiveChannelIndexes(indexes);
+
+                if(channelizer.isPrunedOutput())
+                {
+                    pruned++;
+                }
+                else if(sources <= requiredSources)
+                {
+                    failures++;
+                }
+            }
+
+            sb.append(" ").append(sources).append(":").append(pruned * 100 / ITERATIONS).append("%");
+        }
+
+        mLog.info(sb.toString());
+
+        return failures;
+    }
+}
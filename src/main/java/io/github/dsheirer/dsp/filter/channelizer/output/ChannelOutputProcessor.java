@@ -20,8 +20,9 @@ package io.github.dsheirer.dsp.filter.channelizer.output;
 
 import io.github.dsheirer.dsp.mixer.IOscillator;
 import io.github.dsheirer.dsp.mixer.Oscillator;
+import io.github.dsheirer.monitor.StageMetrics;
 import io.github.dsheirer.sample.IOverflowListener;
-import io.github.dsheirer.sample.buffer.OverflowableReusableBufferTransferQueue;
+import io.github.dsheirer.sample.buffer.OverflowableReusableBufferRingQueue;
 import io.github.dsheirer.sample.buffer.ReusableChannelResultsBuffer;
 import io.github.dsheirer.sample.buffer.ReusableComplexBufferAssembler;
 import io.github.dsheirer.source.Source;
@@ -30,12 +31,17 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public abstract class ChannelOutputProcessor implements IPolyphaseChannelOutputProcessor
 {
     private final static Logger mLog = LoggerFactory.getLogger(ChannelOutputProcessor.class);
 
-    private OverflowableReusableBufferTransferQueue<ReusableChannelResultsBuffer> mChannelResultsQueue;
+    //Channel results queue sizing in buffers, where the channelizer produces one results buffer per tuner buffer
+    private static final int CHANNEL_RESULTS_QUEUE_MAXIMUM_SIZE = 2000;
+    private static final int CHANNEL_RESULTS_QUEUE_RESET_THRESHOLD = 400;
+
+    private OverflowableReusableBufferRingQueue<ReusableChannelResultsBuffer> mChannelResultsQueue;
     private List<ReusableChannelResultsBuffer> mChannelResultsToProcess = new ArrayList<>();
     private int mMaxResultsToProcess;
 
@@ -61,7 +67,9 @@ public abstract class ChannelOutputProcessor implements IPolyphaseChannelOutputP
         mFrequencyCorrectionMixer = new Oscillator(0, sampleRate);
         mMaxResultsToProcess = (int)(sampleRate / 10) * 2;  //process at 100 millis interval, twice the expected inflow rate
 
-        mChannelResultsQueue = new OverflowableReusableBufferTransferQueue<>((int)(sampleRate * 3), (int)(sampleRate * 0.5));
+        //Channel results arrive from the single channelizer dispatch thread
+        mChannelResultsQueue = new OverflowableReusableBufferRingQueue<>(CHANNEL_RESULTS_QUEUE_MAXIMUM_SIZE,
+            CHANNEL_RESULTS_QUEUE_RESET_THRESHOLD);
     }
 
     protected double getGain()
@@ -108,6 +116,12 @@ public abstract class ChannelOutputProcessor implements IPolyphaseChannelOutputP
         mChannelResultsQueue.offer(channelResults);
     }
 
+    @Override
+    public boolean awaitChannelResults(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        return mChannelResultsQueue.await(timeout, unit);
+    }
+
     /**
      * Processes all enqueued polyphase channelizer results until the internal queue is empty
      * @param reusableComplexBufferAssembler to receive the processed channel results
@@ -149,6 +163,12 @@ public abstract class ChannelOutputProcessor implements IPolyphaseChannelOutputP
         mChannelResultsQueue.setSourceOverflowListener(source);
     }
 
+    @Override
+    public void setMetrics(StageMetrics metrics)
+    {
+        mChannelResultsQueue.setMetrics(metrics);
+    }
+
     /**
      * Removes the overflow listener from monitoring the internal channelizer channel results queue overflow state
      */
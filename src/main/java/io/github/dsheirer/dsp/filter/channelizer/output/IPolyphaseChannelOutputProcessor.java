@@ -18,11 +18,13 @@
  ******************************************************************************/
 package io.github.dsheirer.dsp.filter.channelizer.output;
 
+import io.github.dsheirer.monitor.StageMetrics;
 import io.github.dsheirer.sample.buffer.ReusableChannelResultsBuffer;
 import io.github.dsheirer.sample.buffer.ReusableComplexBufferAssembler;
 import io.github.dsheirer.source.Source;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public interface IPolyphaseChannelOutputProcessor
 {
@@ -39,6 +41,16 @@ public interface IPolyphaseChannelOutputProcessor
      */
     void processChannelResults(ReusableComplexBufferAssembler reusableComplexBufferAssembler);
 
+    /**
+     * Waits up to the timeout for channel results to be enqueued for processing.
+     *
+     * @param timeout to wait
+     * @param unit for the timeout
+     * @return true if channel results are available for processing
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    boolean awaitChannelResults(long timeout, TimeUnit unit) throws InterruptedException;
+
     /**
      * Sets the desired frequency offset from center.  The samples will be mixed with an oscillator set to this offset
      * frequency to produce an output where the desired signal is centered in the passband.
@@ -76,6 +88,11 @@ public interface IPolyphaseChannelOutputProcessor
      */
     void setSourceOverflowListener(Source source);
 
+    /**
+     * Sets the metrics instance to receive queue depth and overflow statistics for the internal channel results queue
+     */
+    void setMetrics(StageMetrics metrics);
+
 
     void dispose();
 }
@@ -19,21 +19,22 @@
  */
 package io.github.dsheirer.dsp.filter.cic;
 
+import io.github.dsheirer.dsp.filter.design.FilterDesignCache;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
 import io.github.dsheirer.dsp.filter.fir.complex.ComplexFIRFilter2;
 import io.github.dsheirer.dsp.filter.fir.remez.RemezFIRFilterDesigner;
+import io.github.dsheirer.dsp.mixer.BlockOscillator;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import io.github.dsheirer.sample.buffer.ReusableComplexBufferAssembler;
 import io.github.dsheirer.sample.complex.ComplexSampleListener;
-import io.github.dsheirer.sample.decimator.ComplexDecimator;
 import org.apache.commons.lang3.Validate;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Non-Recursive Prime-Factor CIC Filter.
@@ -42,6 +43,11 @@ import java.util.Map;
  * filter is comprised of multiple decimating stages each with a prime factor decimation rate.  Multiple stages are
  * cascaded to achieve the overall decimation rate.
  *
+ * Each decimating stage processes complete sample arrays.  Since a stage only emits one averaged sample per
+ * decimation period, the stage calculates each average directly from the samples in the averaging window.  Frequency
+ * translation (mixing against a block oscillator) can optionally be fused with the first decimating stage so that
+ * the full input rate sample stream is traversed only once and no intermediate translated sample buffer is created.
+ *
  * This filter currently supports a maximum decimation rate of 2801.  Higher decimation rates can be added by
  * adding additional prime factors to the PRIMES array.
  */
@@ -81,11 +87,11 @@ public class ComplexPrimeCICDecimate implements Listener<ReusableComplexBuffer>
         2767, 2777, 2789, 2791, 2797, 2801
     };
 
-    private static Map<Integer,float[]> sLowPassFilters = new HashMap();
-    private static Map<Integer,List<Integer>> sPrimeFactors = new HashMap();
+    private static Map<Integer,List<Integer>> sPrimeFactors = new ConcurrentHashMap<>();
 
     private List<DecimatingStage> mDecimatingStages = new ArrayList<DecimatingStage>();
-    private DecimatingStage mFirstDecimatingStage;
+    private float[] mMixerInphase = new float[0];
+    private float[] mMixerQuadrature = new float[0];
     private Output mOutput;
 
     /**
@@ -115,41 +121,20 @@ public class ComplexPrimeCICDecimate implements Listener<ReusableComplexBuffer>
 
         List<Integer> stageSizes = getPrimeFactors(decimation);
 
-        for(int x = 0; x < stageSizes.size(); x++)
+        for(Integer stageSize: stageSizes)
         {
-            DecimatingStage stage = new DecimatingStage(stageSizes.get(x), 1);
-
-            mDecimatingStages.add(stage);
-
-            if(x == 0)
-            {
-                /* Reference to first stage -- will receive all samples */
-                mFirstDecimatingStage = stage;
-            }
-            else
-            {
-                /* Wire the current stage to the previous stage */
-                mDecimatingStages.get(x - 1).setListener(stage);
-            }
+            mDecimatingStages.add(new DecimatingStage(stageSize));
         }
 
         double channelRate = sampleRate / (double)decimation;
 
         mOutput = new Output(channelRate, passFrequency, stopFrequency);
-
-        mDecimatingStages.get(mDecimatingStages.size() - 1).setListener(mOutput);
     }
 
     public void dispose()
     {
-        for(DecimatingStage stage : mDecimatingStages)
-        {
-            stage.dispose();
-        }
-
         mDecimatingStages.clear();
         mDecimatingStages = null;
-        mFirstDecimatingStage = null;
 
         mOutput.dispose();
         mOutput = null;
@@ -221,178 +206,254 @@ public class ComplexPrimeCICDecimate implements Listener<ReusableComplexBuffer>
     @Override
     public void receive(ReusableComplexBuffer buffer)
     {
-        if(mFirstDecimatingStage != null)
-        {
-            float[] samples = buffer.getSamples();
-
-            for(int x = 0; x < samples.length; x += 2)
-            {
-                mFirstDecimatingStage.receive(samples[x], samples[x + 1]);
-            }
-        }
-
-        buffer.decrementUserCount();
+        receive(buffer, null);
     }
 
     /**
-     * Decimating stage combines multiple CIC stages with a decimator.  The
-     * number of stages is indicated by the order value and the size indicates
-     * the decimation rate of this stage.
+     * Frequency translates (mixes) the sample buffer with the oscillator and decimates the translated samples.  The
+     * mixing is fused with the first decimating stage so that no intermediate full-rate translated buffer is created.
+     *
+     * @param buffer of complex samples composed as I,Q,I,Q, etc.
+     * @param oscillator to mix with the samples, or null (or disabled) for no frequency translation
      */
-    public class DecimatingStage implements ComplexSampleListener
+    public void receive(ReusableComplexBuffer buffer, BlockOscillator oscillator)
     {
-        private List<Stage> mStages = new ArrayList<Stage>();
-        private Stage mFirstStage;
-        private ComplexDecimator mDecimator;
-
-        public DecimatingStage(int size, int order)
+        if(mDecimatingStages != null)
         {
-            for(int x = 0; x < order; x++)
-            {
-                Stage stage;
+            float[] samples = buffer.getSamples();
+            int sampleCount = samples.length / 2;
+            boolean mix = oscillator != null && oscillator.isEnabled();
 
-                if(size == 2)
-                {
-                    stage = new TwoStage();
-                }
-                else
+            if(mix)
+            {
+                if(mMixerInphase.length < sampleCount)
                 {
-                    stage = new Stage(size);
+                    mMixerInphase = new float[sampleCount];
+                    mMixerQuadrature = new float[sampleCount];
                 }
 
-                mStages.add(stage);
+                oscillator.generate(mMixerInphase, mMixerQuadrature, sampleCount);
+            }
+
+            for(int x = 0; x < mDecimatingStages.size(); x++)
+            {
+                DecimatingStage stage = mDecimatingStages.get(x);
 
-                if(x == 0)
+                if(x == 0 && mix)
                 {
-                    mFirstStage = stage;
+                    sampleCount = stage.decimate(samples, sampleCount, mMixerInphase, mMixerQuadrature);
                 }
                 else
                 {
-                    mStages.get(x - 1).setListener(stage);
+                    sampleCount = stage.decimate(samples, sampleCount);
                 }
-            }
 
-            mDecimator = new ComplexDecimator(size);
-            mStages.get(mStages.size() - 1).setListener(mDecimator);
-        }
+                samples = stage.getDecimatedSamples();
+            }
 
-        public void dispose()
-        {
-            for(Stage stage : mStages)
+            for(int x = 0; x < sampleCount; x++)
             {
-                stage.dispose();
+                mOutput.receive(samples[2 * x], samples[2 * x + 1]);
             }
-
-            mStages.clear();
-            mDecimator.dispose();
-            mDecimator = null;
-            mFirstStage = null;
-            mStages = null;
-        }
-
-        @Override
-        public void receive(float i, float q)
-        {
-            mFirstStage.receive(i, q);
         }
 
-        public void setListener(ComplexSampleListener listener)
-        {
-            mDecimator.setListener(listener);
-        }
+        buffer.decrementUserCount();
     }
 
     /**
-     * Single non-decimating CIC stage component.  Uses a circular buffer and a running average internally to implement
-     * the stage so that stage size has essentially no impact on the computational requirements of the stage
+     * Decimating stage that combines a single (order 1) CIC stage with a decimator, where the size indicates the
+     * decimation rate of the stage.  The stage averages the most recent (size - 1) samples, or the most recent 2
+     * samples for a size 2 stage, and emits the average once for every (size) input samples.  Samples that fall
+     * outside of the averaging window are not mixed or accumulated.
      */
-    public class Stage implements ComplexSampleListener
+    public class DecimatingStage
     {
-        protected ComplexSampleListener mListener;
-
-        private float[] mISamples;
-        private float[] mQSamples;
-
-        protected float mISum;
-        protected float mQSum;
-
-        private int mSamplePointer = 0;
+        private float[] mDecimatedSamples = new float[0];
+        private float mISum;
+        private float mQSum;
+        private float mGain;
         private int mSize;
+        private int mSkip;
+        private int mSamplePointer;
 
-        protected float mGain;
-
-        protected Stage()
+        public DecimatingStage(int size)
         {
+            mSize = size;
+
+            int window = (size == 2) ? 2 : size - 1;
+            mSkip = size - window;
+            mGain = 1.0f / (float)window;
         }
 
-        public Stage(int size)
+        /**
+         * Decimated samples produced by the most recent decimate() invocation, composed as I,Q,I,Q, etc.
+         */
+        public float[] getDecimatedSamples()
         {
-            mSize = size - 1;
-
-            mISamples = new float[mSize];
-            mQSamples = new float[mSize];
-
-            float baseGain = 1.0f / (float)size;
-            mGain = baseGain * (1.0f / (1.0f - baseGain));
+            return mDecimatedSamples;
         }
 
-        public void dispose()
+        /**
+         * Decimates the complex samples into the decimated samples array.
+         *
+         * @param samples composed as I,Q,I,Q, etc.
+         * @param sampleCount number of complex samples to process from the array
+         * @return number of complex samples in the decimated samples array
+         */
+        public int decimate(float[] samples, int sampleCount)
         {
-            mListener = null;
+            return decimate(samples, sampleCount, null, null);
         }
 
-        public void receive(float i, float q)
+        /**
+         * Mixes the complex samples with the oscillator phasors and decimates the mixed samples into the decimated
+         * samples array.
+         *
+         * @param samples composed as I,Q,I,Q, etc.
+         * @param sampleCount number of complex samples to process from the array
+         * @param mixerInphase oscillator phasor inphase values, or null for no mixing
+         * @param mixerQuadrature oscillator phasor quadrature values, or null for no mixing
+         * @return number of complex samples in the decimated samples array
+         */
+        public int decimate(float[] samples, int sampleCount, float[] mixerInphase, float[] mixerQuadrature)
         {
-            /* Subtract the oldest sample and add in the newest sample */
-            mISum = mISum - mISamples[mSamplePointer] + i;
-            mQSum = mQSum - mQSamples[mSamplePointer] + q;
-
-            /* Overwrite the oldest sample with the newest */
-            mISamples[mSamplePointer] = i;
-            mQSamples[mSamplePointer] = q;
-
-            mSamplePointer++;
+            int maximumOutput = (mSamplePointer + sampleCount) / mSize;
 
-            if(mSamplePointer >= mSize)
+            if(mDecimatedSamples.length < maximumOutput * 2)
             {
-                mSamplePointer = 0;
+                mDecimatedSamples = new float[maximumOutput * 2];
             }
 
-            if(mListener != null)
+            int outputCount = 0;
+            int offset = 0;
+            float iSum = mISum;
+            float qSum = mQSum;
+
+            while(offset < sampleCount)
             {
-                mListener.receive((mISum * mGain), (mQSum * mGain));
+                if(mSamplePointer == 0 && offset + mSize <= sampleCount)
+                {
+                    //Fast path for complete decimation periods
+                    int groupCount = (sampleCount - offset) / mSize;
+                    decimateGroups(samples, offset, groupCount, mixerInphase, mixerQuadrature, outputCount);
+                    offset += groupCount * mSize;
+                    outputCount += groupCount;
+                    continue;
+                }
+
+                int end = Math.min(sampleCount, offset + mSize - mSamplePointer);
+                int start = Math.min(end, offset + Math.max(0, mSkip - mSamplePointer));
+
+                if(mixerInphase != null)
+                {
+                    for(int x = start; x < end; x++)
+                    {
+                        float i = samples[2 * x];
+                        float q = samples[2 * x + 1];
+                        iSum += (i * mixerInphase[x]) - (q * mixerQuadrature[x]);
+                        qSum += (q * mixerInphase[x]) + (i * mixerQuadrature[x]);
+                    }
+                }
+                else
+                {
+                    for(int x = start; x < end; x++)
+                    {
+                        iSum += samples[2 * x];
+                        qSum += samples[2 * x + 1];
+                    }
+                }
+
+                mSamplePointer += end - offset;
+                offset = end;
+
+                if(mSamplePointer >= mSize)
+                {
+                    mDecimatedSamples[2 * outputCount] = iSum * mGain;
+                    mDecimatedSamples[2 * outputCount + 1] = qSum * mGain;
+                    outputCount++;
+
+                    iSum = 0.0f;
+                    qSum = 0.0f;
+                    mSamplePointer = 0;
+                }
             }
-        }
 
-        public void setListener(ComplexSampleListener listener)
-        {
-            mListener = listener;
-        }
-    }
+            mISum = iSum;
+            mQSum = qSum;
 
-    /**
-     * Size 2 stage that eliminates the unnecessary circular buffer management for a two-stage.
-     */
-    public class TwoStage extends Stage
-    {
-        public TwoStage()
-        {
-            mGain = 0.5f;
+            return outputCount;
         }
 
-        public void receive(float i, float q)
+        /**
+         * Decimates complete decimation periods, where the first period starts at the offset, into the decimated
+         * samples array starting at the output offset.
+         */
+        private void decimateGroups(float[] samples, int offset, int groupCount, float[] mixerInphase,
+                                    float[] mixerQuadrature, int outputOffset)
         {
-            if(mListener != null)
+            float[] output = mDecimatedSamples;
+
+            if(mSize == 2)
             {
-                mListener.receive(((mISum + i) * mGain), ((mQSum + q) * mGain));
+                if(mixerInphase != null)
+                {
+                    for(int group = 0; group < groupCount; group++)
+                    {
+                        int a = offset + 2 * group;
+                        int b = a + 1;
+                        float i = (samples[2 * a] * mixerInphase[a]) - (samples[2 * a + 1] * mixerQuadrature[a]) +
+                            (samples[2 * b] * mixerInphase[b]) - (samples[2 * b + 1] * mixerQuadrature[b]);
+                        float q = (samples[2 * a + 1] * mixerInphase[a]) + (samples[2 * a] * mixerQuadrature[a]) +
+                            (samples[2 * b + 1] * mixerInphase[b]) + (samples[2 * b] * mixerQuadrature[b]);
+                        output[2 * (outputOffset + group)] = i * mGain;
+                        output[2 * (outputOffset + group) + 1] = q * mGain;
+                    }
+                }
+                else
+                {
+                    for(int group = 0; group < groupCount; group++)
+                    {
+                        int a = 2 * (offset + 2 * group);
+                        output[2 * (outputOffset + group)] = (samples[a] + samples[a + 2]) * mGain;
+                        output[2 * (outputOffset + group) + 1] = (samples[a + 1] + samples[a + 3]) * mGain;
+                    }
+                }
+
+                return;
             }
 
-            mISum = i;
-            mQSum = q;
+            for(int group = 0; group < groupCount; group++)
+            {
+                int start = offset + group * mSize + mSkip;
+                int end = offset + (group + 1) * mSize;
+                float iSum = 0.0f;
+                float qSum = 0.0f;
+
+                if(mixerInphase != null)
+                {
+                    for(int x = start; x < end; x++)
+                    {
+                        float i = samples[2 * x];
+                        float q = samples[2 * x + 1];
+                        iSum += (i * mixerInphase[x]) - (q * mixerQuadrature[x]);
+                        qSum += (q * mixerInphase[x]) + (i * mixerQuadrature[x]);
+                    }
+                }
+                else
+                {
+                    for(int x = start; x < end; x++)
+                    {
+                        iSum += samples[2 * x];
+                        qSum += samples[2 * x + 1];
+                    }
+                }
+
+                output[2 * (outputOffset + group)] = iSum * mGain;
+                output[2 * (outputOffset + group) + 1] = qSum * mGain;
+            }
         }
     }
 
-
     /**
      * Output adapter - applies gain correction and cleanup filter and broadcast
      * to registered listener.
@@ -481,30 +542,25 @@ public class ComplexPrimeCICDecimate implements Listener<ReusableComplexBuffer>
         private float[] getLowPassFilter(double sampleRate, double passFrequency, double stopFrequency) throws FilterDesignException
         {
             //Use existing filter if we've already designed one
-            if(sLowPassFilters.containsKey((int)sampleRate))
-            {
-                return sLowPassFilters.get((int)sampleRate);
-            }
-
-            FIRFilterSpecification specification = FIRFilterSpecification.lowPassBuilder()
-                .sampleRate(sampleRate)
-                .gridDensity(16)
-                .passBandCutoff(passFrequency)
-                .passBandAmplitude(1.0)
-                .passBandRipple(0.01)
-                .stopBandStart(stopFrequency)
-                .stopBandAmplitude(0.0)
-                .stopBandRipple(0.01)
-                .build();
-
-            RemezFIRFilterDesigner designer = new RemezFIRFilterDesigner(specification);
-
-            //This will throw an exception if the filter cannot be designed
-            float[] taps = designer.getImpulseResponse();
-
-            sLowPassFilters.put((int)sampleRate, taps);
-
-            return taps;
+            String key = FilterDesignCache.key("remez-lowpass", sampleRate, passFrequency, stopFrequency, 0.01, 0.01);
+
+            return FilterDesignCache.get(key, () -> {
+                FIRFilterSpecification specification = FIRFilterSpecification.lowPassBuilder()
+                    .sampleRate(sampleRate)
+                    .gridDensity(16)
+                    .passBandCutoff(passFrequency)
+                    .passBandAmplitude(1.0)
+                    .passBandRipple(0.01)
+                    .stopBandStart(stopFrequency)
+                    .stopBandAmplitude(0.0)
+                    .stopBandRipple(0.01)
+                    .build();
+
+                RemezFIRFilterDesigner designer = new RemezFIRFilterDesigner(specification);
+
+                //This will throw an exception if the filter cannot be designed
+                return designer.getImpulseResponse();
+            });
         }
     }
 }
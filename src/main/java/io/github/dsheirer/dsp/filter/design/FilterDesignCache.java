@@ -0,0 +1,277 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.design;
+
+import io.github.dsheirer.properties.SystemProperties;
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Application-wide cache of designed filter coefficients, keyed by a canonical filter specification string.
+ *
+ * Filter designs (Remez, iterative sinc) can take tens to hundreds of milliseconds, which directly delays the start
+ * of audio on a newly granted traffic channel.  Designed filters are cached in memory so that each unique filter is
+ * only designed once, and once started, the cache is persisted to the application settings folder and reloaded on
+ * the next application start so that previously used filters don't have to be redesigned.
+ *
+ * Cached filter arrays are shared by all users and must not be modified.
+ */
+public class FilterDesignCache
+{
+    private final static Logger mLog = LoggerFactory.getLogger(FilterDesignCache.class);
+
+    public static final String CACHE_FILE_NAME = "filter_designs.cache";
+    //Increment the version whenever a filter design algorithm changes to invalidate previously persisted designs
+    private static final int CACHE_FILE_VERSION = 1;
+    private static final int CACHE_FILE_MAGIC = 0x46444331; //FDC1
+    private static final long SAVE_DELAY_SECONDS = 10;
+
+    private static Map<String,float[]> sFilters = new ConcurrentHashMap<>();
+    private static AtomicBoolean sSavePending = new AtomicBoolean();
+    private static volatile Path sCachePath;
+
+    /**
+     * Designs a filter to a specification.
+     */
+    public interface Designer
+    {
+        /**
+         * Designs the filter
+         * @return filter coefficients or null if the filter can't be designed
+         * @throws FilterDesignException if the filter can't be designed
+         */
+        float[] design() throws FilterDesignException;
+    }
+
+    /**
+     * Creates a canonical cache key from the filter design type and the ordered set of design parameters.
+     *
+     * @param type of filter design, including the design method (e.g. remez-lowpass)
+     * @param parameters that fully specify the filter design
+     * @return key
+     */
+    public static String key(String type, Object... parameters)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append(type);
+
+        for(Object parameter: parameters)
+        {
+            sb.append('|').append(parameter);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Returns the cached filter for the key, or designs, caches and returns the filter if it is not yet cached.
+     *
+     * @param key created by the key() method
+     * @param designer to design the filter when it is not cached
+     * @return filter coefficients, or null if the designer could not produce a filter (not cached)
+     * @throws FilterDesignException if the designer throws an exception (not cached)
+     */
+    public static float[] get(String key, Designer designer) throws FilterDesignException
+    {
+        float[] filter = sFilters.get(key);
+
+        if(filter == null)
+        {
+            filter = designer.design();
+
+            if(filter != null)
+            {
+                float[] existing = sFilters.putIfAbsent(key, filter);
+
+                if(existing != null)
+                {
+                    filter = existing;
+                }
+                else
+                {
+                    scheduleSave();
+                }
+            }
+        }
+
+        return filter;
+    }
+
+    /**
+     * Number of cached filter designs
+     */
+    public static int size()
+    {
+        return sFilters.size();
+    }
+
+    /**
+     * Loads the persisted filter designs from the application settings folder and enables persistence of new
+     * filter designs.  Invoke once at application startup.
+     */
+    public static void start()
+    {
+        start(SystemProperties.getInstance().getApplicationFolder("settings").resolve(CACHE_FILE_NAME));
+    }
+
+    /**
+     * Loads the persisted filter designs from the specified file and enables persistence of new filter designs to
+     * that file.
+     */
+    public static void start(Path cachePath)
+    {
+        sCachePath = cachePath;
+        load(cachePath);
+    }
+
+    /**
+     * Persists any unsaved filter designs and disables further persistence.  Invoke at application shutdown.
+     */
+    public static void stop()
+    {
+        if(sSavePending.getAndSet(false))
+        {
+            save();
+        }
+
+        sCachePath = null;
+    }
+
+    /**
+     * Schedules a save of the cache file, if persistence is enabled and a save isn't already scheduled, so that a
+     * burst of new filter designs is persisted with a single write.
+     */
+    private static void scheduleSave()
+    {
+        if(sCachePath != null && sSavePending.compareAndSet(false, true))
+        {
+            ThreadPool.SCHEDULED.schedule(() -> {
+                if(sSavePending.getAndSet(false))
+                {
+                    save();
+                }
+            }, SAVE_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Loads persisted filter designs from the cache file
+     */
+    private static void load(Path cachePath)
+    {
+        if(!Files.exists(cachePath))
+        {
+            return;
+        }
+
+        int count = 0;
+
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cachePath))))
+        {
+            if(in.readInt() != CACHE_FILE_MAGIC || in.readInt() != CACHE_FILE_VERSION)
+            {
+                mLog.info("Ignoring filter design cache file from a previous version [" + cachePath + "]");
+                return;
+            }
+
+            int entries = in.readInt();
+
+            for(int x = 0; x < entries; x++)
+            {
+                String key = in.readUTF();
+                float[] filter = new float[in.readInt()];
+
+                for(int y = 0; y < filter.length; y++)
+                {
+                    filter[y] = in.readFloat();
+                }
+
+                sFilters.putIfAbsent(key, filter);
+                count++;
+            }
+
+            mLog.info("Loaded [" + count + "] cached filter designs");
+        }
+        catch(IOException | RuntimeException e)
+        {
+            mLog.error("Error loading filter design cache file [" + cachePath + "] - loaded [" + count + "] designs", e);
+        }
+    }
+
+    /**
+     * Writes all cached filter designs to the cache file.  The file is written to a temporary file and then moved
+     * into place so that a partially written file is never loaded.
+     */
+    private static synchronized void save()
+    {
+        Path cachePath = sCachePath;
+
+        if(cachePath == null)
+        {
+            return;
+        }
+
+        Path temporaryPath = cachePath.resolveSibling(CACHE_FILE_NAME + ".tmp");
+
+        try
+        {
+            try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temporaryPath))))
+            {
+                Map<String,float[]> snapshot = new TreeMap<>(sFilters);
+
+                out.writeInt(CACHE_FILE_MAGIC);
+                out.writeInt(CACHE_FILE_VERSION);
+                out.writeInt(snapshot.size());
+
+                for(Map.Entry<String,float[]> entry: snapshot.entrySet())
+                {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().length);
+
+                    for(float coefficient: entry.getValue())
+                    {
+                        out.writeFloat(coefficient);
+                    }
+                }
+            }
+
+            Files.move(temporaryPath, cachePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Error saving filter design cache file [" + cachePath + "]", ioe);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.fir;
+
+import io.github.dsheirer.dsp.filter.fir.complex.ComplexFIRFilter2;
+import io.github.dsheirer.dsp.filter.fir.real.RealFIRFilter2;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+
+/**
+ * Verifies that the circular delay line FIR filters produce output that is bit-exact with the original shifting
+ * delay line implementation and compares the processing time of each.
+ */
+public class FIRFilterBenchmark
+{
+    private final static Logger mLog = LoggerFactory.getLogger(FIRFilterBenchmark.class);
+
+    /**
+     * Original FIR filter implementation that shifts the delay line with array copy for each sample.  Used as the
+     * reference for verifying the output of RealFIRFilter2 and ComplexFIRFilter2.
+     */
+    public static class ShiftingFIRFilter
+    {
+        private float[] mData;
+        private float[] mCoefficients;
+        private float mGain;
+        private float mAccumulator;
+
+        public ShiftingFIRFilter(float[] coefficients, float gain)
+        {
+            mCoefficients = coefficients;
+            mGain = gain;
+            mData = new float[coefficients.length];
+        }
+
+        public float filter(float sample)
+        {
+            System.arraycopy(mData, 0, mData, 1, mData.length - 1);
+            mData[0] = sample;
+
+            mAccumulator = 0.0f;
+
+            for(int x = 0; x < mCoefficients.length; x++)
+            {
+                mAccumulator += mData[x] * mCoefficients[x];
+            }
+
+            mAccumulator *= mGain;
+
+            return mAccumulator;
+        }
+    }
+
+    /**
+     * Generates random filter coefficients
+     */
+    private static float[] getCoefficients(Random random, int length)
+    {
+        float[] coefficients = new float[length];
+
+        for(int x = 0; x < length; x++)
+        {
+            coefficients[x] = random.nextFloat() * 2.0f - 1.0f;
+        }
+
+        return coefficients;
+    }
+
+    /**
+     * Generates random samples
+     */
+    private static float[] getSamples(Random random, int length)
+    {
+        float[] samples = new float[length];
+
+        for(int x = 0; x < length; x++)
+        {
+            samples[x] = random.nextFloat() * 2.0f - 1.0f;
+        }
+
+        return samples;
+    }
+
+    /**
+     * Compares real filter output against the reference filter for the specified filter length.
+     * @return true if all output samples are bit-exact
+     */
+    public static boolean verifyReal(Random random, int filterLength, int bufferCount, int bufferLength)
+    {
+        float[] coefficients = getCoefficients(random, filterLength);
+        ShiftingFIRFilter reference = new ShiftingFIRFilter(coefficients, 0.75f);
+        RealFIRFilter2 filter = new RealFIRFilter2(coefficients, 0.75f);
+
+        for(int x = 0; x < bufferCount; x++)
+        {
+            float[] samples = getSamples(random, bufferLength);
+            float[] filtered = new float[bufferLength];
+
+            //Alternate between the block and the single sample methods
+            if(x % 2 == 0)
+            {
+                filter.filter(samples, filtered);
+            }
+            else
+            {
+                for(int y = 0; y < samples.length; y++)
+                {
+                    filtered[y] = filter.filter(samples[y]);
+                }
+            }
+
+            for(int y = 0; y < samples.length; y++)
+            {
+                if(Float.floatToIntBits(reference.filter(samples[y])) != Float.floatToIntBits(filtered[y]))
+                {
+                    mLog.error("Real filter mismatch - filter length:" + filterLength + " buffer:" + x + " sample:" + y);
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Compares complex filter output against two reference filters for the specified filter length.
+     * @return true if all output samples are bit-exact
+     */
+    public static boolean verifyComplex(Random random, int filterLength, int bufferCount, int bufferLength)
+    {
+        float[] coefficients = getCoefficients(random, filterLength);
+        ShiftingFIRFilter referenceI = new ShiftingFIRFilter(coefficients, 1.0f);
+        ShiftingFIRFilter referenceQ = new ShiftingFIRFilter(coefficients, 1.0f);
+        ComplexFIRFilter2 filter = new ComplexFIRFilter2(coefficients, 1.0f);
+
+        for(int x = 0; x < bufferCount; x++)
+        {
+            float[] samples = getSamples(random, bufferLength * 2);
+            float[] filtered = new float[bufferLength * 2];
+
+            //Alternate between the block and the single sample methods
+            if(x % 2 == 0)
+            {
+                filter.filter(samples, filtered);
+            }
+            else
+            {
+                for(int y = 0; y < samples.length; y += 2)
+                {
+                    filtered[y] = filter.filterInphase(samples[y]);
+                    filtered[y + 1] = filter.filterQuadrature(samples[y + 1]);
+                }
+            }
+
+            for(int y = 0; y < samples.length; y += 2)
+            {
+                if(Float.floatToIntBits(referenceI.filter(samples[y])) != Float.floatToIntBits(filtered[y]) ||
+                   Float.floatToIntBits(referenceQ.filter(samples[y + 1])) != Float.floatToIntBits(filtered[y + 1]))
+                {
+                    mLog.error("Complex filter mismatch - filter length:" + filterLength + " buffer:" + x +
+                        " sample:" + y);
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Times filtering of the samples with the reference filter pair
+     * @return elapsed nanoseconds
+     */
+    public static long timeReference(float[] coefficients, float[] samples, int iterations)
+    {
+        ShiftingFIRFilter referenceI = new ShiftingFIRFilter(coefficients, 1.0f);
+        ShiftingFIRFilter referenceQ = new ShiftingFIRFilter(coefficients, 1.0f);
+        float[] filtered = new float[samples.length];
+
+        long start = System.nanoTime();
+
+        for(int x = 0; x < iterations; x++)
+        {
+            for(int y = 0; y < samples.length; y += 2)
+            {
+                filtered[y] = referenceI.filter(samples[y]);
+                filtered[y + 1] = referenceQ.filter(samples[y + 1]);
+            }
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Times filtering of the samples with the complex filter block method
+     * @return elapsed nanoseconds
+     */
+    public static long timeComplex(float[] coefficients, float[] samples, int iterations)
+    {
+        ComplexFIRFilter2 filter = new ComplexFIRFilter2(coefficients, 1.0f);
+        float[] filtered = new float[samples.length];
+
+        long start = System.nanoTime();
+
+        for(int x = 0; x < iterations; x++)
+        {
+            filter.filter(samples, filtered);
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    public static void main(String[] args)
+    {
+        Random random = new Random(1234567890L);
+
+        boolean passed = true;
+
+        for(int filterLength: new int[]{1, 2, 7, 16, 31, 63, 64, 127, 255})
+        {
+            passed &= verifyReal(random, filterLength, 20, 1000);
+            passed &= verifyComplex(random, filterLength, 20, 1000);
+        }
+
+        mLog.info("Bit-exact verification " + (passed ? "PASSED" : "FAILED"));
+
+        float[] coefficients = getCoefficients(random, 63);
+        float[] samples = getSamples(random, 8192);
+        int iterations = 2000;
+
+        mLog.info("Warm up ...");
+        timeReference(coefficients, samples, iterations);
+        timeComplex(coefficients, samples, iterations);
+
+        long reference = timeReference(coefficients, samples, iterations);
+        long complex = timeComplex(coefficients, samples, iterations);
+
+        mLog.info("Reference (shifting) filter: " + (reference / 1000000) + " ms");
+        mLog.info("  Circular complex filter: " + (complex / 1000000) + " ms");
+    }
+}
@@ -16,33 +16,47 @@
 package io.github.dsheirer.dsp.filter.fir.complex;
 
 import io.github.dsheirer.dsp.filter.fir.FIRFilter;
-import io.github.dsheirer.dsp.filter.fir.real.RealFIRFilter2;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
 import io.github.dsheirer.sample.complex.Complex;
 
+/**
+ * Complex FIR filter that uses a single interleaved (I/Q) doubled circular delay line.  Each complex sample is
+ * written twice, at the write pointer and at the write pointer plus the filter length, so that the most recent N
+ * complex samples are always contiguous and both the inphase and quadrature outputs are computed in a single pass
+ * over the filter coefficients.
+ *
+ * Output is bit-exact with filtering the inphase and quadrature sample streams with two independent RealFIRFilter2
+ * instances.
+ */
 public class ComplexFIRFilter2 extends FIRFilter
 {
     private ReusableComplexBufferQueue mReusableComplexBufferQueue = new ReusableComplexBufferQueue("Complex FIR Filter");
-    private RealFIRFilter2 mIFilter;
-    private RealFIRFilter2 mQFilter;
+    private float[] mData;
+    private float[] mCoefficients;
+    private int mInphasePointer;
+    private int mQuadraturePointer;
+    private float mGain;
+    private float mInphaseAccumulator;
+    private float mQuadratureAccumulator;
 
     /**
-     * Complex FIR Filter for processing complex sample pairs that internally uses two RealFIRFilter
-     * instances.
+     * Complex FIR Filter for processing complex sample pairs.
      *
      * @param coefficients - filter taps
      * @param gain - gain to apply to filtered outputs - use 1.0f for no gain
      */
     public ComplexFIRFilter2(float[] coefficients, float gain)
     {
-        mIFilter = new RealFIRFilter2(coefficients, gain);
-        mQFilter = new RealFIRFilter2(coefficients, gain);
+        mCoefficients = coefficients;
+        mGain = gain;
+        mData = new float[coefficients.length * 4];
+        mInphasePointer = coefficients.length;
+        mQuadraturePointer = coefficients.length;
     }
 
     /**
-     * Complex FIR Filter for processing complex sample pairs that internally uses two RealFIRFilter
-     * instances.  This constructor uses a default gain of 1.0f.
+     * Complex FIR Filter for processing complex sample pairs.  This constructor uses a default gain of 1.0f.
      *
      * @param coefficients - filter taps
      */
@@ -58,7 +72,29 @@ public class ComplexFIRFilter2 extends FIRFilter
      */
     public float filterInphase(float sample)
     {
-        return mIFilter.filter(sample);
+        int length = mCoefficients.length;
+
+        mInphasePointer--;
+
+        if(mInphasePointer < 0)
+        {
+            mInphasePointer += length;
+        }
+
+        int offset = 2 * mInphasePointer;
+        mData[offset] = sample;
+        mData[offset + 2 * length] = sample;
+
+        mInphaseAccumulator = 0.0f;
+
+        for(int x = 0; x < length; x++)
+        {
+            mInphaseAccumulator += mData[offset + 2 * x] * mCoefficients[x];
+        }
+
+        mInphaseAccumulator *= mGain;
+
+        return mInphaseAccumulator;
     }
 
     /**
@@ -66,7 +102,7 @@ public class ComplexFIRFilter2 extends FIRFilter
      */
     public float currentInphaseValue()
     {
-        return mIFilter.currentValue();
+        return mInphaseAccumulator;
     }
 
     /**
@@ -76,7 +112,29 @@ public class ComplexFIRFilter2 extends FIRFilter
      */
     public float filterQuadrature(float sample)
     {
-        return mQFilter.filter(sample);
+        int length = mCoefficients.length;
+
+        mQuadraturePointer--;
+
+        if(mQuadraturePointer < 0)
+        {
+            mQuadraturePointer += length;
+        }
+
+        int offset = 2 * mQuadraturePointer + 1;
+        mData[offset] = sample;
+        mData[offset + 2 * length] = sample;
+
+        mQuadratureAccumulator = 0.0f;
+
+        for(int x = 0; x < length; x++)
+        {
+            mQuadratureAccumulator += mData[offset + 2 * x] * mCoefficients[x];
+        }
+
+        mQuadratureAccumulator *= mGain;
+
+        return mQuadratureAccumulator;
     }
 
     /**
@@ -84,7 +142,7 @@ public class ComplexFIRFilter2 extends FIRFilter
      */
     public float currentQuadratureValue()
     {
-        return mQFilter.currentValue();
+        return mQuadratureAccumulator;
     }
 
     /**
@@ -114,25 +172,83 @@ public class ComplexFIRFilter2 extends FIRFilter
         ReusableComplexBuffer filteredBuffer = mReusableComplexBufferQueue.getBuffer(originalBuffer.getSamples().length);
         filteredBuffer.setTimestamp(originalBuffer.getTimestamp());
 
-        float[] samples = originalBuffer.getSamples();
-        float[] filteredSamples = filteredBuffer.getSamples();
-
-        for(int x = 0; x < originalBuffer.getSamples().length; x += 2)
-        {
-            filteredSamples[x] = filterInphase(samples[x]);
-            filteredSamples[x + 1] = filterQuadrature(samples[x + 1]);
-        }
+        filter(originalBuffer.getSamples(), filteredBuffer.getSamples());
 
         originalBuffer.decrementUserCount();
 
         return filteredBuffer;
     }
 
+    /**
+     * Filters the interleaved complex sample array into the filtered sample array.  The filtered array must be at
+     * least as long as the unfiltered array.  Both arrays can be the same array for in-place filtering.
+     *
+     * @param samples to filter, interleaved inphase and quadrature
+     * @param filteredSamples to receive the interleaved filtered output
+     */
+    public void filter(float[] samples, float[] filteredSamples)
+    {
+        float[] data = mData;
+        float[] coefficients = mCoefficients;
+        int length = coefficients.length;
+        int wrap = 2 * length;
+        int inphasePointer = mInphasePointer;
+        int quadraturePointer = mQuadraturePointer;
+        float gain = mGain;
+        float inphaseAccumulator = mInphaseAccumulator;
+        float quadratureAccumulator = mQuadratureAccumulator;
+
+        for(int x = 0; x < samples.length; x += 2)
+        {
+            inphasePointer--;
+
+            if(inphasePointer < 0)
+            {
+                inphasePointer += length;
+            }
+
+            quadraturePointer--;
+
+            if(quadraturePointer < 0)
+            {
+                quadraturePointer += length;
+            }
+
+            int inphaseOffset = 2 * inphasePointer;
+            int quadratureOffset = 2 * quadraturePointer + 1;
+
+            data[inphaseOffset] = samples[x];
+            data[inphaseOffset + wrap] = samples[x];
+            data[quadratureOffset] = samples[x + 1];
+            data[quadratureOffset + wrap] = samples[x + 1];
+
+            inphaseAccumulator = 0.0f;
+            quadratureAccumulator = 0.0f;
+
+            for(int y = 0; y < length; y++)
+            {
+                inphaseAccumulator += data[inphaseOffset + 2 * y] * coefficients[y];
+                quadratureAccumulator += data[quadratureOffset + 2 * y] * coefficients[y];
+            }
+
+            inphaseAccumulator *= gain;
+            quadratureAccumulator *= gain;
+
+            filteredSamples[x] = inphaseAccumulator;
+            filteredSamples[x + 1] = quadratureAccumulator;
+        }
+
+        mInphasePointer = inphasePointer;
+        mQuadraturePointer = quadraturePointer;
+        mInphaseAccumulator = inphaseAccumulator;
+        mQuadratureAccumulator = quadratureAccumulator;
+    }
+
     @Override
     public void dispose()
     {
-        mIFilter.dispose();
-        mQFilter.dispose();
+        mCoefficients = null;
+        mData = null;
         mReusableComplexBufferQueue.dispose();
     }
 }
@@ -22,6 +22,11 @@ import io.github.dsheirer.sample.buffer.ReusableFloatBuffer;
 /**
  * Finite Impulse Response (FIR) filter for filtering individual float samples or float sample arrays.
  *
+ * The delay line is a doubled circular buffer: each sample is written twice, at the write pointer and at the write
+ * pointer plus the filter length, so that the most recent N samples are always contiguous in the array.  This avoids
+ * shifting the whole delay line for every sample while still producing output that is bit-exact with the shifting
+ * implementation since the products are accumulated in the same (newest to oldest) order.
+ *
  * Note: filtering operations in this class are structured to leverage SIMD processor intrinsics when
  * available to the Java runtime.
  */
@@ -31,6 +36,7 @@ public class RealFIRFilter2 extends FIRFilter
 
     private float[] mData;
     private float[] mCoefficients;
+    private int mPointer;
     private float mGain;
     private float mAccumulator;
 
@@ -44,7 +50,8 @@ public class RealFIRFilter2 extends FIRFilter
     {
         mGain = gain;
         mCoefficients = coefficients;
-        mData = new float[coefficients.length];
+        mData = new float[coefficients.length * 2];
+        mPointer = coefficients.length;
     }
 
     /**
@@ -76,16 +83,25 @@ public class RealFIRFilter2 extends FIRFilter
      */
     public float filter(float sample)
     {
-        //Use array copy to leverage SIMD intrinsics
-        System.arraycopy(mData, 0, mData, 1, mData.length - 1);
-        mData[0] = sample;
+        int length = mCoefficients.length;
+
+        //Move the pointer backward so that the newest sample is always at the start of the contiguous window
+        mPointer--;
+
+        if(mPointer < 0)
+        {
+            mPointer += length;
+        }
+
+        mData[mPointer] = sample;
+        mData[mPointer + length] = sample;
 
         mAccumulator = 0.0f;
 
         //Use vector dot product to leverage SIMD intrinsics
-        for(int x = 0; x < mCoefficients.length; x++)
+        for(int x = 0; x < length; x++)
         {
-            mAccumulator += mData[x] * mCoefficients[x];
+            mAccumulator += mData[mPointer + x] * mCoefficients[x];
         }
 
         /* Apply gain and return the filtered value */
@@ -118,15 +134,56 @@ public class RealFIRFilter2 extends FIRFilter
         float[] unfilteredSamples = unfilteredBuffer.getSamples();
 
         ReusableFloatBuffer filteredBuffer = mReusableBufferQueue.getBuffer(unfilteredSamples.length);
-        float[] filteredSamples = filteredBuffer.getSamples();
+        filteredBuffer.setTimestamp(unfilteredBuffer.getTimestamp());
 
-        for(int x = 0; x < unfilteredSamples.length; x++)
-        {
-            filteredSamples[x] = filter(unfilteredSamples[x]);
-        }
+        filter(unfilteredSamples, filteredBuffer.getSamples());
 
         unfilteredBuffer.decrementUserCount();
 
         return filteredBuffer;
     }
-}
\ No newline at end of file
+
+    /**
+     * Filters the unfiltered sample array into the filtered sample array.  The filtered array must be at least as
+     * long as the unfiltered array.  Both arrays can be the same array for in-place filtering.
+     *
+     * @param unfilteredSamples to filter
+     * @param filteredSamples to receive the filtered output
+     */
+    public void filter(float[] unfilteredSamples, float[] filteredSamples)
+    {
+        float[] data = mData;
+        float[] coefficients = mCoefficients;
+        int length = coefficients.length;
+        int pointer = mPointer;
+        float gain = mGain;
+        float accumulator = mAccumulator;
+
+        for(int x = 0; x < unfilteredSamples.length; x++)
+        {
+            pointer--;
+
+            if(pointer < 0)
+            {
+                pointer += length;
+            }
+
+            data[pointer] = unfilteredSamples[x];
+            data[pointer + length] = unfilteredSamples[x];
+
+            accumulator = 0.0f;
+
+            for(int y = 0; y < length; y++)
+            {
+                accumulator += data[pointer + y] * coefficients[y];
+            }
+
+            accumulator *= gain;
+
+            filteredSamples[x] = accumulator;
+        }
+
+        mPointer = pointer;
+        mAccumulator = accumulator;
+    }
+}
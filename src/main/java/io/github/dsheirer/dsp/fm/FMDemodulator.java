@@ -27,6 +27,17 @@ import io.github.dsheirer.sample.complex.Complex;
  */
 public class FMDemodulator
 {
+    /**
+     * Polynomial coefficients for the arc-tangent approximation over the range 0 <= x <= 1 (Abramowitz and Stegun,
+     * Handbook of Mathematical Functions, 4.4.47) with a maximum absolute error of 1.0E-5 radians.
+     */
+    private static final float ATAN_C1 = 0.9998660f;
+    private static final float ATAN_C3 = -0.3302995f;
+    private static final float ATAN_C5 = 0.1801410f;
+    private static final float ATAN_C7 = -0.0851330f;
+    private static final float ATAN_C9 = 0.0208351f;
+    private static final float HALF_PI = (float)(Math.PI / 2.0);
+
     private ReusableBufferQueue mReusableBufferQueue = new ReusableBufferQueue("FMDemodulator");
     private float mPreviousI = 0.0f;
     private float mPreviousQ = 0.0f;
@@ -133,17 +144,83 @@ public class FMDemodulator
     {
         ReusableFloatBuffer demodulatedBuffer = mReusableBufferQueue.getBuffer(basebandSampleBuffer.getSampleCount());
 
-        float[] basebandSamples = basebandSampleBuffer.getSamples();
-        float[] demodulatedSamples = demodulatedBuffer.getSamples();
+        demodulate(basebandSampleBuffer.getSamples(), demodulatedBuffer.getSamples());
+
+        basebandSampleBuffer.decrementUserCount();
+
+        return demodulatedBuffer;
+    }
+
+    /**
+     * Demodulates the interleaved complex baseband samples into the demodulated samples array.
+     *
+     * This block method computes the phase delta between successive samples in single precision and uses a polynomial
+     * arc-tangent approximation instead of Math.atan().  The demodulated angle differs from the per-sample
+     * demodulate(i,q) method by no more than 1.2E-5 radians, which is roughly 100 dB below full scale and well below
+     * the quantization noise of the tuner samples.
+     *
+     * @param basebandSamples interleaved I/Q samples
+     * @param demodulatedSamples array to receive the demodulated samples, sized to at least half of the baseband
+     * samples array length
+     */
+    public void demodulate(float[] basebandSamples, float[] demodulatedSamples)
+    {
+        float previousI = mPreviousI;
+        float previousQ = mPreviousQ;
+        float gain = mGain;
 
         for(int x = 0; x < basebandSamples.length; x += 2)
         {
-            demodulatedSamples[x / 2] = demodulate(basebandSamples[x], basebandSamples[x + 1]);
+            float currentI = basebandSamples[x];
+            float currentQ = basebandSamples[x + 1];
+
+            //Multiply the current sample against the complex conjugate of the previous sample
+            float inphase = (currentI * previousI) + (currentQ * previousQ);
+            float quadrature = (currentQ * previousI) - (currentI * previousQ);
+
+            demodulatedSamples[x / 2] = arctangent(quadrature, inphase) * gain;
+
+            previousI = currentI;
+            previousQ = currentQ;
         }
 
-        basebandSampleBuffer.decrementUserCount();
+        mPreviousI = previousI;
+        mPreviousQ = previousQ;
+    }
 
-        return demodulatedBuffer;
+    /**
+     * Fast approximation of Math.atan(quadrature / inphase) with a maximum absolute error of 1.2E-5 radians (1.0E-5
+     * polynomial error plus single precision rounding) over the output range of +/- PI/2.  Returns zero when the
+     * inphase value is zero, consistent with the per-sample demodulate(i,q) method.
+     *
+     * The smaller of the two absolute values is divided by the larger so that the polynomial is always evaluated
+     * over 0 to 1 and the result is mirrored about PI/4 when the quadrature magnitude is the larger of the two.
+     *
+     * @param quadrature (opposite)
+     * @param inphase (adjacent)
+     * @return angle in radians
+     */
+    public static float arctangent(float quadrature, float inphase)
+    {
+        if(inphase == 0.0f)
+        {
+            return 0.0f;
+        }
+
+        float absInphase = Math.abs(inphase);
+        float absQuadrature = Math.abs(quadrature);
+        boolean mirror = absQuadrature > absInphase;
+
+        float z = mirror ? absInphase / absQuadrature : absQuadrature / absInphase;
+        float z2 = z * z;
+        float angle = z * (ATAN_C1 + z2 * (ATAN_C3 + z2 * (ATAN_C5 + z2 * (ATAN_C7 + z2 * ATAN_C9))));
+
+        if(mirror)
+        {
+            angle = HALF_PI - angle;
+        }
+
+        return (inphase < 0.0f) != (quadrature < 0.0f) ? -angle : angle;
     }
 
     public void dispose()
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.fm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+
+/**
+ * Compares the audio quality of the fast arc-tangent block FM discriminator against the per-sample Math.atan()
+ * discriminator and compares the processing time of each.
+ *
+ * Test signal is a frequency modulated tone at the narrowband channel sample rate with additive gaussian noise.  The
+ * block output is compared against the per-sample output (max absolute error and error-to-signal ratio) and both
+ * outputs are compared against the ideal modulating tone (audio SNR).
+ */
+public class FMDemodulatorBenchmark
+{
+    private final static Logger mLog = LoggerFactory.getLogger(FMDemodulatorBenchmark.class);
+
+    public static final double SAMPLE_RATE = 25000.0;
+    public static final double TONE_FREQUENCY = 1000.0;
+    public static final double DEVIATION = 5000.0;
+
+    /**
+     * Generates interleaved complex samples of an FM modulated tone with additive gaussian noise.
+     *
+     * @param random generator
+     * @param length in complex samples
+     * @param amplitude of the carrier
+     * @param noise standard deviation of the noise added to each of I and Q
+     * @param tone array to receive the ideal demodulated tone (phase delta per sample) for each sample
+     */
+    private static float[] getSamples(Random random, int length, double amplitude, double noise, float[] tone)
+    {
+        float[] samples = new float[length * 2];
+        double phase = 0.0;
+
+        for(int x = 0; x < length; x++)
+        {
+            double delta = 2.0 * Math.PI * DEVIATION / SAMPLE_RATE *
+                Math.sin(2.0 * Math.PI * TONE_FREQUENCY * x / SAMPLE_RATE);
+            phase += delta;
+            tone[x] = (float)delta;
+            samples[2 * x] = (float)(amplitude * Math.cos(phase) + random.nextGaussian() * noise);
+            samples[2 * x + 1] = (float)(amplitude * Math.sin(phase) + random.nextGaussian() * noise);
+        }
+
+        return samples;
+    }
+
+    /**
+     * Signal to noise ratio of the measured samples relative to the reference samples, in decibels.
+     */
+    private static double snr(float[] reference, float[] measured, int offset)
+    {
+        double signal = 0.0;
+        double error = 0.0;
+
+        for(int x = offset; x < reference.length; x++)
+        {
+            signal += reference[x] * reference[x];
+            double difference = measured[x] - reference[x];
+            error += difference * difference;
+        }
+
+        return 10.0 * Math.log10(signal / error);
+    }
+
+    /**
+     * Demodulates the samples with the per-sample Math.atan() method
+     */
+    private static void demodulateReference(FMDemodulator demodulator, float[] samples, float[] demodulated)
+    {
+        for(int x = 0; x < samples.length; x += 2)
+        {
+            demodulated[x / 2] = demodulator.demodulate(samples[x], samples[x + 1]);
+        }
+    }
+
+    /**
+     * Verifies the fast arc-tangent against Math.atan() across all quadrants and magnitude ratios.
+     * @return maximum absolute error in radians
+     */
+    public static double getArcTangentError(Random random, int iterations)
+    {
+        double maxError = 0.0;
+
+        for(int x = 0; x < iterations; x++)
+        {
+            float inphase = (float)(random.nextGaussian() * Math.pow(10.0, random.nextInt(7) - 3));
+            float quadrature = (float)(random.nextGaussian() * Math.pow(10.0, random.nextInt(7) - 3));
+
+            double expected = inphase == 0.0f ? 0.0 : Math.atan((double)quadrature / (double)inphase);
+            maxError = Math.max(maxError, Math.abs(expected - FMDemodulator.arctangent(quadrature, inphase)));
+        }
+
+        return maxError;
+    }
+
+    public static void main(String[] args)
+    {
+        Random random = new Random(1234567890L);
+
+        double atanError = getArcTangentError(random, 10000000);
+        mLog.info("Arc-tangent max absolute error: " + atanError + " radians " +
+            (atanError <= 1.2E-5 ? "PASSED" : "FAILED"));
+
+        int length = 250000;
+        int settle = 1;
+
+        for(double noise: new double[]{0.0, 0.01, 0.1, 0.3})
+        {
+            for(double amplitude: new double[]{0.001, 1.0, 1000.0})
+            {
+                float[] tone = new float[length];
+                float[] samples = getSamples(random, length, amplitude, noise * amplitude, tone);
+                float[] reference = new float[length];
+                float[] fast = new float[length];
+
+                demodulateReference(new FMDemodulator(), samples, reference);
+                new FMDemodulator().demodulate(samples, fast);
+
+                float maxError = 0.0f;
+
+                for(int x = settle; x < length; x++)
+                {
+                    maxError = Math.max(maxError, Math.abs(reference[x] - fast[x]));
+                }
+
+                mLog.info(String.format("Noise %.2f Amplitude %8.3f - max error vs Math.atan: %.2e  " +
+                        "error-to-signal: %6.1f dB  audio SNR Math.atan: %6.2f dB  fast: %6.2f dB",
+                    noise, amplitude, maxError, -snr(reference, fast, settle), snr(tone, reference, settle),
+                    snr(tone, fast, settle)));
+            }
+        }
+
+        float[] tone = new float[8192];
+        float[] samples = getSamples(random, tone.length, 1.0, 0.05, tone);
+        float[] demodulated = new float[tone.length];
+        FMDemodulator referenceDemodulator = new FMDemodulator();
+        FMDemodulator fastDemodulator = new FMDemodulator();
+        int iterations = 5000;
+
+        mLog.info("Warm up ...");
+
+        for(int x = 0; x < iterations; x++)
+        {
+            demodulateReference(referenceDemodulator, samples, demodulated);
+            fastDemodulator.demodulate(samples, demodulated);
+        }
+
+        long start = System.nanoTime();
+
+        for(int x = 0; x < iterations; x++)
+        {
+            demodulateReference(referenceDemodulator, samples, demodulated);
+        }
+
+        long reference = System.nanoTime() - start;
+
+        start = System.nanoTime();
+
+        for(int x = 0; x < iterations; x++)
+        {
+            fastDemodulator.demodulate(samples, demodulated);
+        }
+
+        long fast = System.nanoTime() - start;
+
+        mLog.info("Per-sample Math.atan demodulator: " + (reference / 1000000) + " ms");
+        mLog.info("  Block fast arc-tangent demodulator: " + (fast / 1000000) + " ms");
+    }
+}
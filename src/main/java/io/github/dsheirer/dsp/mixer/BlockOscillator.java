@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.mixer;
+
+/**
+ * Block-oriented complex oscillator (numerically controlled oscillator) that generates vectors of oscillator phasors.
+ *
+ * Block generation divides the output into segments.  At the start of each segment, the first few phasors are seeded
+ * from a double-precision master phasor and the remaining phasors in the segment are produced by rotating the phasor
+ * that is a fixed number of samples (lanes) earlier, so that consecutive phasors don't depend on each other and the
+ * generation loop isn't limited by the latency of a single rotation recurrence.  The master phasor is advanced once
+ * per segment and renormalized to unity magnitude using the gain correction described in Digital Signal Processing 3e,
+ * Lyons, p.786, which bounds the accumulated phase and amplitude error of the single-precision phasors to a single
+ * segment.
+ */
+public class BlockOscillator extends AbstractOscillator
+{
+    private static final double TWO_PI = 2.0 * Math.PI;
+    private static final int LANES = 8;
+    private static final int SEGMENT_LENGTH = 1024;
+
+    private double mInphase = 1.0;
+    private double mQuadrature = 0.0;
+    private double mAnglePerSample;
+    private double mCosineAngle;
+    private double mSineAngle;
+    private double mSegmentCosineAngle;
+    private double mSegmentSineAngle;
+    private float mLaneCosineAngle;
+    private float mLaneSineAngle;
+
+    /**
+     * Constructs an instance
+     *
+     * @param frequency to generate
+     * @param sampleRate for the oscillator
+     */
+    public BlockOscillator(double frequency, double sampleRate)
+    {
+        super(frequency, sampleRate);
+
+        update();
+    }
+
+    @Override
+    public float inphase()
+    {
+        return (float)mInphase;
+    }
+
+    @Override
+    public float quadrature()
+    {
+        return (float)mQuadrature;
+    }
+
+    /**
+     * Updates the internal values after a frequency or sample rate change
+     */
+    @Override
+    protected void update()
+    {
+        mAnglePerSample = TWO_PI * getFrequency() / getSampleRate();
+
+        mCosineAngle = Math.cos(mAnglePerSample);
+        mSineAngle = Math.sin(mAnglePerSample);
+        mSegmentCosineAngle = Math.cos(mAnglePerSample * SEGMENT_LENGTH);
+        mSegmentSineAngle = Math.sin(mAnglePerSample * SEGMENT_LENGTH);
+        mLaneCosineAngle = (float)Math.cos(mAnglePerSample * LANES);
+        mLaneSineAngle = (float)Math.sin(mAnglePerSample * LANES);
+    }
+
+    /**
+     * Rotates the oscillator by one sample period.
+     */
+    @Override
+    public void rotate()
+    {
+        rotate(mCosineAngle, mSineAngle);
+        renormalize();
+    }
+
+    /**
+     * Generates the next sample count oscillator phasors into the inphase and quadrature arrays.  Each array element
+     * contains the current phasor value and the oscillator is rotated after each element, so that consecutive calls
+     * produce a continuous phasor sequence.
+     *
+     * @param inphase array to fill with phasor inphase values
+     * @param quadrature array to fill with phasor quadrature values
+     * @param sampleCount number of phasors to generate (must not exceed the array lengths)
+     */
+    public void generate(float[] inphase, float[] quadrature, int sampleCount)
+    {
+        float laneCosineAngle = mLaneCosineAngle;
+        float laneSineAngle = mLaneSineAngle;
+
+        for(int offset = 0; offset < sampleCount; offset += SEGMENT_LENGTH)
+        {
+            int end = Math.min(sampleCount, offset + SEGMENT_LENGTH);
+            int seedEnd = Math.min(end, offset + LANES);
+
+            //Seed the first phasors of the segment from the master phasor
+            double seedInphase = mInphase;
+            double seedQuadrature = mQuadrature;
+
+            for(int x = offset; x < seedEnd; x++)
+            {
+                inphase[x] = (float)seedInphase;
+                quadrature[x] = (float)seedQuadrature;
+
+                double rotatedInphase = (seedInphase * mCosineAngle) - (seedQuadrature * mSineAngle);
+                seedQuadrature = (seedInphase * mSineAngle) + (seedQuadrature * mCosineAngle);
+                seedInphase = rotatedInphase;
+            }
+
+            for(int x = seedEnd; x < end; x++)
+            {
+                inphase[x] = (inphase[x - LANES] * laneCosineAngle) - (quadrature[x - LANES] * laneSineAngle);
+                quadrature[x] = (inphase[x - LANES] * laneSineAngle) + (quadrature[x - LANES] * laneCosineAngle);
+            }
+
+            //Advance the master phasor to the start of the next segment
+            if(end - offset == SEGMENT_LENGTH)
+            {
+                rotate(mSegmentCosineAngle, mSegmentSineAngle);
+            }
+            else
+            {
+                double angle = mAnglePerSample * (end - offset);
+                rotate(Math.cos(angle), Math.sin(angle));
+            }
+
+            renormalize();
+        }
+    }
+
+    /**
+     * Rotates the master phasor by the angle
+     */
+    private void rotate(double cosineAngle, double sineAngle)
+    {
+        double inphase = (mInphase * cosineAngle) - (mQuadrature * sineAngle);
+        mQuadrature = (mInphase * sineAngle) + (mQuadrature * cosineAngle);
+        mInphase = inphase;
+    }
+
+    /**
+     * Corrects the accumulated magnitude error of the master phasor
+     */
+    private void renormalize()
+    {
+        double gain = (3.0 - ((mInphase * mInphase) + (mQuadrature * mQuadrature))) / 2.0;
+        mInphase *= gain;
+        mQuadrature *= gain;
+    }
+}
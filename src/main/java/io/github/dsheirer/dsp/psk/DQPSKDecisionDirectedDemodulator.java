@@ -22,10 +22,10 @@ import io.github.dsheirer.sample.complex.Complex;
 public class DQPSKDecisionDirectedDemodulator extends PSKDemodulator<Dibit>
 {
     protected DQPSKDecisionDirectedSymbolEvaluator mSymbolEvaluator = new DQPSKDecisionDirectedSymbolEvaluator();
-    private Complex mPreviousPrecedingSample = new Complex(0, 0);
-    private Complex mPreviousCurrentSample = new Complex(0, 0);
-    private Complex mPrecedingSample = new Complex(0, 0);
-    private Complex mCurrentSample = new Complex(0, 0);
+    private float mPreviousPrecedingInphase;
+    private float mPreviousPrecedingQuadrature;
+    private float mPreviousCurrentInphase;
+    private float mPreviousCurrentQuadrature;
     private Complex mPrecedingSymbol = new Complex(0, 0);
     protected Complex mCurrentSymbol = new Complex(0, 0);
 
@@ -50,23 +50,26 @@ public class DQPSKDecisionDirectedDemodulator extends PSKDemodulator<Dibit>
     protected void calculateSymbol()
     {
         //Get preceding sample and an interpolated current sample from the interpolating buffer
-        mPrecedingSample = getInterpolatingSampleBuffer().getPrecedingSample();
-        mCurrentSample = getInterpolatingSampleBuffer().getCurrentSample();
+        InterpolatingSampleBuffer interpolatingSampleBuffer = getInterpolatingSampleBuffer();
+        float precedingInphase = interpolatingSampleBuffer.getPrecedingInphase();
+        float precedingQuadrature = interpolatingSampleBuffer.getPrecedingQuadrature();
+        float currentInphase = interpolatingSampleBuffer.getCurrentInphase();
+        float currentQuadrature = interpolatingSampleBuffer.getCurrentQuadrature();
 
         //Differential decode preceding and current symbols by calculating the angular rotation between the previous and
         //current samples (current sample x complex conjugate of previous sample).
 
         //Note: preceding symbol is a preceding measurement of the current symbol that is simply used as a reference
         //point to determine vector rotation to the current symbol -- it is not the true predecessor symbol
-        mPrecedingSymbol.setInphase(Complex.multiplyInphase(mPrecedingSample.inphase(), mPrecedingSample.quadrature(),
-            mPreviousPrecedingSample.inphase(), -mPreviousPrecedingSample.quadrature()));
-        mPrecedingSymbol.setQuadrature(Complex.multiplyQuadrature(mPrecedingSample.inphase(), mPrecedingSample.quadrature(),
-            mPreviousPrecedingSample.inphase(), -mPreviousPrecedingSample.quadrature()));
+        mPrecedingSymbol.setInphase(Complex.multiplyInphase(precedingInphase, precedingQuadrature,
+            mPreviousPrecedingInphase, -mPreviousPrecedingQuadrature));
+        mPrecedingSymbol.setQuadrature(Complex.multiplyQuadrature(precedingInphase, precedingQuadrature,
+            mPreviousPrecedingInphase, -mPreviousPrecedingQuadrature));
 
-        mCurrentSymbol.setInphase(Complex.multiplyInphase(mCurrentSample.inphase(), mCurrentSample.quadrature(),
-            mPreviousCurrentSample.inphase(), -mPreviousCurrentSample.quadrature()));
-        mCurrentSymbol.setQuadrature(Complex.multiplyQuadrature(mCurrentSample.inphase(), mCurrentSample.quadrature(),
-            mPreviousCurrentSample.inphase(), -mPreviousCurrentSample.quadrature()));
+        mCurrentSymbol.setInphase(Complex.multiplyInphase(currentInphase, currentQuadrature,
+            mPreviousCurrentInphase, -mPreviousCurrentQuadrature));
+        mCurrentSymbol.setQuadrature(Complex.multiplyQuadrature(currentInphase, currentQuadrature,
+            mPreviousCurrentInphase, -mPreviousCurrentQuadrature));
 
         //Set gain to unity before we calculate the error value
         mPrecedingSymbol.normalize();
@@ -76,14 +79,16 @@ public class DQPSKDecisionDirectedDemodulator extends PSKDemodulator<Dibit>
         mSymbolEvaluator.setSymbol(mPrecedingSymbol, mCurrentSymbol);
 
         //Update the symbol timing error
-        getInterpolatingSampleBuffer().resetAndAdjust(mSymbolEvaluator.getTimingError());
+        interpolatingSampleBuffer.resetAndAdjust(mSymbolEvaluator.getTimingError());
 
         //Update the costas loop (PLL) with any measured phase error
         getPLL().adjust(clip(mSymbolEvaluator.getPhaseError(), 0.5f));
 
         //Store current samples/symbols to use for the next symbol period
-        mPreviousPrecedingSample.setValues(mPrecedingSample);
-        mPreviousCurrentSample.setValues(mCurrentSample);
+        mPreviousPrecedingInphase = precedingInphase;
+        mPreviousPrecedingQuadrature = precedingQuadrature;
+        mPreviousCurrentInphase = currentInphase;
+        mPreviousCurrentQuadrature = currentQuadrature;
 
         broadcast(mSymbolEvaluator.getSymbolDecision());
     }
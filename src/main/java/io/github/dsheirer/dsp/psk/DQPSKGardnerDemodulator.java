@@ -22,8 +22,10 @@ import io.github.dsheirer.sample.complex.Complex;
 public class DQPSKGardnerDemodulator extends PSKDemodulator<Dibit>
 {
     protected DQPSKGardnerSymbolEvaluator mSymbolEvaluator = new DQPSKGardnerSymbolEvaluator();
-    private Complex mPreviousCurrentSample = new Complex(0, 0);
-    private Complex mPreviousMiddleSample = new Complex(0, 0);
+    private float mPreviousCurrentInphase;
+    private float mPreviousCurrentQuadrature;
+    private float mPreviousMiddleInphase;
+    private float mPreviousMiddleQuadrature;
     private Complex mMiddleSymbol = new Complex(0, 0);
     protected Complex mCurrentSymbol = new Complex(0, 0);
 
@@ -53,20 +55,23 @@ public class DQPSKGardnerDemodulator extends PSKDemodulator<Dibit>
         //symbol sample for the gardner calculation, we'll treat the interpolating buffer's current sample as the
         //gardner mid-point and we'll treat the interpolating buffer's mid-point sample as the current symbol
         //sample (ie flip-flopped)
-        Complex middleSample = getInterpolatingSampleBuffer().getCurrentSample();
-        Complex currentSample = getInterpolatingSampleBuffer().getMiddleSample();
+        InterpolatingSampleBuffer interpolatingSampleBuffer = getInterpolatingSampleBuffer();
+        float middleInphase = interpolatingSampleBuffer.getCurrentInphase();
+        float middleQuadrature = interpolatingSampleBuffer.getCurrentQuadrature();
+        float currentInphase = interpolatingSampleBuffer.getMiddleInphase();
+        float currentQuadrature = interpolatingSampleBuffer.getMiddleQuadrature();
 
         //Differential decode middle and current symbols by calculating the angular rotation between the previous and
         //current samples (current sample x complex conjugate of previous sample).
-        mMiddleSymbol.setInphase(Complex.multiplyInphase(middleSample.inphase(), middleSample.quadrature(),
-            mPreviousMiddleSample.inphase(), -mPreviousMiddleSample.quadrature()));
-        mMiddleSymbol.setQuadrature(Complex.multiplyQuadrature(middleSample.inphase(), middleSample.quadrature(),
-            mPreviousMiddleSample.inphase(), -mPreviousMiddleSample.quadrature()));
+        mMiddleSymbol.setInphase(Complex.multiplyInphase(middleInphase, middleQuadrature,
+            mPreviousMiddleInphase, -mPreviousMiddleQuadrature));
+        mMiddleSymbol.setQuadrature(Complex.multiplyQuadrature(middleInphase, middleQuadrature,
+            mPreviousMiddleInphase, -mPreviousMiddleQuadrature));
 
-        mCurrentSymbol.setInphase(Complex.multiplyInphase(currentSample.inphase(), currentSample.quadrature(),
-            mPreviousCurrentSample.inphase(), -mPreviousCurrentSample.quadrature()));
-        mCurrentSymbol.setQuadrature(Complex.multiplyQuadrature(currentSample.inphase(), currentSample.quadrature(),
-            mPreviousCurrentSample.inphase(), -mPreviousCurrentSample.quadrature()));
+        mCurrentSymbol.setInphase(Complex.multiplyInphase(currentInphase, currentQuadrature,
+            mPreviousCurrentInphase, -mPreviousCurrentQuadrature));
+        mCurrentSymbol.setQuadrature(Complex.multiplyQuadrature(currentInphase, currentQuadrature,
+            mPreviousCurrentInphase, -mPreviousCurrentQuadrature));
 
         //Set gain to unity before we calculate the error value
         mMiddleSymbol.normalize();
@@ -76,14 +81,16 @@ public class DQPSKGardnerDemodulator extends PSKDemodulator<Dibit>
         mSymbolEvaluator.setSymbols(mMiddleSymbol, mCurrentSymbol);
 
         //Update symbol timing error
-        getInterpolatingSampleBuffer().resetAndAdjust(mSymbolEvaluator.getTimingError());
+        interpolatingSampleBuffer.resetAndAdjust(mSymbolEvaluator.getTimingError());
 
         //Update PLL phase error
         getPLL().adjust(mSymbolEvaluator.getPhaseError());
 
         //Store current samples/symbols for next symbol calculation
-        mPreviousMiddleSample.setValues(middleSample);
-        mPreviousCurrentSample.setValues(currentSample);
+        mPreviousMiddleInphase = middleInphase;
+        mPreviousMiddleQuadrature = middleQuadrature;
+        mPreviousCurrentInphase = currentInphase;
+        mPreviousCurrentQuadrature = currentQuadrature;
 
         broadcast(mSymbolEvaluator.getSymbolDecision());
     }
@@ -21,11 +21,20 @@
  */
 package io.github.dsheirer.dsp.psk;
 
-import io.github.dsheirer.dsp.filter.interpolator.RealInterpolator;
+import io.github.dsheirer.dsp.filter.interpolator.Interpolator;
 import io.github.dsheirer.sample.complex.Complex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Symbol timing recovery sample buffer.  Stores the incoming (PLL corrected) complex samples in a primitive I/Q delay
+ * line and provides interpolated samples at the fractional symbol sampling point using the 8-tap, 128-step MMSE
+ * interpolator filter bank (Interpolator.TAPS).
+ *
+ * Samples can be loaded one at a time with receive(inphase, quadrature) and the preceding, current and middle
+ * samples can be accessed as primitive inphase and quadrature values so that per-symbol processing does not require
+ * complex sample objects.
+ */
 public class InterpolatingSampleBuffer
 {
     private final static Logger mLog = LoggerFactory.getLogger(InterpolatingSampleBuffer.class);
@@ -47,8 +56,6 @@ public class InterpolatingSampleBuffer
     private float mMaximumSamplesPerSymbol;
     private float mMinimumSamplesPerSymbol;
 
-    private RealInterpolator mInterpolator = new RealInterpolator(1.0f);
-
     /**
      * Buffer to store complex sample data and produce interpolated samples.
      * @param samplesPerSymbol
@@ -73,18 +80,32 @@ public class InterpolatingSampleBuffer
      * @param sample
      */
     public void receive(Complex sample)
+    {
+        receive(sample.inphase(), sample.quadrature());
+    }
+
+    /**
+     * Stores the sample in the buffer and updates pointers.
+     * @param inphase value of the sample
+     * @param quadrature value of the sample
+     */
+    public void receive(float inphase, float quadrature)
     {
         mSamplingPoint--;
 
         //Fill up the delay line to use with the interpolator
-        mDelayLineInphase[mDelayLinePointer] = sample.inphase();
-        mDelayLineInphase[mDelayLinePointer + mTwiceSamplesPerSymbol] = sample.inphase();
-        mDelayLineQuadrature[mDelayLinePointer] = sample.quadrature();
-        mDelayLineQuadrature[mDelayLinePointer + mTwiceSamplesPerSymbol] = sample.quadrature();
+        mDelayLineInphase[mDelayLinePointer] = inphase;
+        mDelayLineInphase[mDelayLinePointer + mTwiceSamplesPerSymbol] = inphase;
+        mDelayLineQuadrature[mDelayLinePointer] = quadrature;
+        mDelayLineQuadrature[mDelayLinePointer + mTwiceSamplesPerSymbol] = quadrature;
 
         //Increment pointer and keep pointer in bounds
         mDelayLinePointer++;
-        mDelayLinePointer = mDelayLinePointer % mTwiceSamplesPerSymbol;
+
+        if(mDelayLinePointer >= mTwiceSamplesPerSymbol)
+        {
+            mDelayLinePointer = 0;
+        }
     }
 
     /**
@@ -146,10 +167,26 @@ public class InterpolatingSampleBuffer
      */
     public Complex getPrecedingSample()
     {
-        mPrecedingSample.setValues(mDelayLineInphase[mDelayLinePointer + 3], mDelayLineQuadrature[mDelayLinePointer + 3]);
+        mPrecedingSample.setValues(getPrecedingInphase(), getPrecedingQuadrature());
         return mPrecedingSample;
     }
 
+    /**
+     * Inphase value of the un-interpolated sample that precedes the current interpolated sampling point.
+     */
+    public float getPrecedingInphase()
+    {
+        return mDelayLineInphase[mDelayLinePointer + 3];
+    }
+
+    /**
+     * Quadrature value of the un-interpolated sample that precedes the current interpolated sampling point.
+     */
+    public float getPrecedingQuadrature()
+    {
+        return mDelayLineQuadrature[mDelayLinePointer + 3];
+    }
+
     /**
      * Interpolated current sample for the symbol.
      *
@@ -158,10 +195,26 @@ public class InterpolatingSampleBuffer
     public Complex getCurrentSample()
     {
         /* Calculate interpolated current sample */
-        mCurrentSample.setValues(getInphase(mSamplingPoint), getQuadrature(mSamplingPoint));
+        mCurrentSample.setValues(getCurrentInphase(), getCurrentQuadrature());
         return mCurrentSample;
     }
 
+    /**
+     * Inphase value of the interpolated current sample for the symbol.
+     */
+    public float getCurrentInphase()
+    {
+        return getInphase(mSamplingPoint);
+    }
+
+    /**
+     * Quadrature value of the interpolated current sample for the symbol.
+     */
+    public float getCurrentQuadrature()
+    {
+        return getQuadrature(mSamplingPoint);
+    }
+
     /**
      * Interpolated sample that is 1/2 symbol away from (after) the current sample.
      *
@@ -169,12 +222,25 @@ public class InterpolatingSampleBuffer
      */
     public Complex getMiddleSample()
     {
-        float halfDetectedSamplesPerSymbol = mDetectedSamplesPerSymbol / 2.0f;
+        mMiddleSample.setValues(getMiddleInphase(), getMiddleQuadrature());
+        return mMiddleSample;
+    }
 
+    /**
+     * Inphase value of the interpolated sample that is 1/2 symbol away from the current sample.
+     */
+    public float getMiddleInphase()
+    {
         //Interpolated sample that is half a symbol away from (occurred before) the current sample.
-        mMiddleSample.setValues(getInphase(halfDetectedSamplesPerSymbol),
-                                getQuadrature(halfDetectedSamplesPerSymbol));
-        return mMiddleSample;
+        return getInphase(mDetectedSamplesPerSymbol / 2.0f);
+    }
+
+    /**
+     * Quadrature value of the interpolated sample that is 1/2 symbol away from the current sample.
+     */
+    public float getMiddleQuadrature()
+    {
+        return getQuadrature(mDetectedSamplesPerSymbol / 2.0f);
     }
 
     /**
@@ -184,15 +250,7 @@ public class InterpolatingSampleBuffer
      */
     public float getInphase(float interpolation)
     {
-        if(interpolation < 1.0f)
-        {
-            return mInterpolator.filter(mDelayLineInphase, mDelayLinePointer, interpolation);
-        }
-        else
-        {
-            int offset = (int)Math.floor(interpolation);
-            return mInterpolator.filter(mDelayLineInphase, mDelayLinePointer + offset, interpolation - offset);
-        }
+        return interpolate(mDelayLineInphase, interpolation);
     }
 
     /**
@@ -202,14 +260,44 @@ public class InterpolatingSampleBuffer
      */
     public float getQuadrature(float interpolation)
     {
-        if(interpolation < 1.0f)
-        {
-            return mInterpolator.filter(mDelayLineQuadrature, mDelayLinePointer, interpolation);
-        }
-        else
+        return interpolate(mDelayLineQuadrature, interpolation);
+    }
+
+    /**
+     * Calculates an interpolated value from the eight delay line samples that start at the integral part of the
+     * interpolation offset from the delay line pointer, using the interpolation filter for the fractional part.
+     *
+     * Note: this produces the same value as the RealInterpolator with unity gain, without the per-call argument
+     * validation.  The delay line is twice the length of the interpolation window, so the eight samples are always
+     * in bounds.
+     *
+     * @param delayLine inphase or quadrature
+     * @param interpolation offset into the delay line in samples
+     * @return interpolated value
+     */
+    private float interpolate(float[] delayLine, float interpolation)
+    {
+        int offset = mDelayLinePointer;
+        float mu = interpolation;
+
+        if(interpolation >= 1.0f)
         {
-            int offset = (int)Math.floor(interpolation);
-            return mInterpolator.filter(mDelayLineQuadrature, mDelayLinePointer + offset, interpolation - offset);
+            int integral = (int)Math.floor(interpolation);
+            offset += integral;
+            mu = interpolation - integral;
         }
+
+        float[] taps = Interpolator.TAPS[(int)(Interpolator.NSTEPS * mu)];
+
+        float accumulator = (taps[7] * delayLine[offset]);
+        accumulator += (taps[6] * delayLine[offset + 1]);
+        accumulator += (taps[5] * delayLine[offset + 2]);
+        accumulator += (taps[4] * delayLine[offset + 3]);
+        accumulator += (taps[3] * delayLine[offset + 4]);
+        accumulator += (taps[2] * delayLine[offset + 5]);
+        accumulator += (taps[1] * delayLine[offset + 6]);
+        accumulator += (taps[0] * delayLine[offset + 7]);
+
+        return accumulator;
     }
 }
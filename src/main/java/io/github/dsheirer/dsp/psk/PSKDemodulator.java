@@ -25,7 +25,6 @@ public abstract class PSKDemodulator<T> implements ComplexSampleListener
 {
     private InterpolatingSampleBuffer mInterpolatingSampleBuffer;
     private IPhaseLockedLoop mPLL;
-    private Complex mReceivedSample = new Complex(0, 0);
     private Listener<T> mSymbolListener;
 
     /**
@@ -77,16 +76,65 @@ public abstract class PSKDemodulator<T> implements ComplexSampleListener
     }
 
     /**
-     * Processes a (filtered) buffer containing complex samples for decoding
+     * Processes a (filtered) buffer containing complex samples for decoding.  The interleaved samples are mixed with
+     * the PLL and loaded into the interpolating sample buffer directly from the buffer's sample array, with a symbol
+     * decision made each time the buffer accumulates a full symbol.
+     *
+     * The PLL only changes frequency and phase when it is adjusted after each symbol decision, so the PLL vector is
+     * calculated from the PLL once per symbol and then advanced for each sample within the symbol period by complex
+     * rotation at the loop frequency, instead of calculating the vector angle for every sample.
+     *
      * @param reusableComplexBuffer with complex samples
      */
     public void receive(ReusableComplexBuffer reusableComplexBuffer)
     {
         float[] samples = reusableComplexBuffer.getSamples();
+        InterpolatingSampleBuffer interpolatingSampleBuffer = mInterpolatingSampleBuffer;
+        IPhaseLockedLoop pll = mPLL;
+
+        boolean synchronize = true;
+        float vectorInphase = 0.0f;
+        float vectorQuadrature = 0.0f;
+        float rotationInphase = 0.0f;
+        float rotationQuadrature = 0.0f;
+        float inphase;
 
         for(int x = 0; x < samples.length; x += 2)
         {
-            receive(samples[x], samples[x + 1]);
+            if(synchronize)
+            {
+                Complex vector = pll.incrementAndGetCurrentVector();
+                vectorInphase = vector.inphase();
+                vectorQuadrature = vector.quadrature();
+
+                double loopFrequency = pll.getLoopFrequency();
+                rotationInphase = (float)Math.cos(loopFrequency);
+                rotationQuadrature = (float)Math.sin(loopFrequency);
+                synchronize = false;
+            }
+            else
+            {
+                pll.increment();
+
+                inphase = Complex.multiplyInphase(vectorInphase, vectorQuadrature, rotationInphase, rotationQuadrature);
+                vectorQuadrature = Complex.multiplyQuadrature(vectorInphase, vectorQuadrature, rotationInphase,
+                    rotationQuadrature);
+                vectorInphase = inphase;
+            }
+
+            //Mix sample with costas loop to remove any rotation that is present from a mis-tuned carrier frequency
+            interpolatingSampleBuffer.receive(
+                Complex.multiplyInphase(samples[x], samples[x + 1], vectorInphase, vectorQuadrature),
+                Complex.multiplyQuadrature(samples[x], samples[x + 1], vectorInphase, vectorQuadrature));
+
+            //Calculate the symbol once we've stored enough samples
+            if(interpolatingSampleBuffer.hasSymbol())
+            {
+                calculateSymbol();
+
+                //The PLL was adjusted for the symbol
+                synchronize = true;
+            }
         }
 
         reusableComplexBuffer.decrementUserCount();
@@ -100,14 +148,12 @@ public abstract class PSKDemodulator<T> implements ComplexSampleListener
     @Override
     public void receive(float inphase, float quadrature)
     {
-        //Update current sample with values
-        mReceivedSample.setValues(inphase, quadrature);
-
         //Mix current sample with costas loop to remove any rotation that is present from a mis-tuned carrier frequency
-        mReceivedSample.multiply(mPLL.incrementAndGetCurrentVector());
+        Complex vector = mPLL.incrementAndGetCurrentVector();
 
         //Store the sample in the interpolating buffer
-        mInterpolatingSampleBuffer.receive(mReceivedSample);
+        mInterpolatingSampleBuffer.receive(Complex.multiplyInphase(inphase, quadrature, vector.inphase(),
+            vector.quadrature()), Complex.multiplyQuadrature(inphase, quadrature, vector.inphase(), vector.quadrature()));
 
         //Calculate the symbol once we've stored enough samples
         if(mInterpolatingSampleBuffer.hasSymbol())
@@ -156,6 +156,7 @@ public class CostasLoop implements IPhaseLockedLoop
         return getCurrentVector();
     }
 
+    @Override
     public double getLoopFrequency()
     {
         return mLoopFrequency;
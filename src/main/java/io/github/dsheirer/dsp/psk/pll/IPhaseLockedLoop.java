@@ -46,6 +46,11 @@ public interface IPhaseLockedLoop
      */
     Complex getCurrentVector();
 
+    /**
+     * Current loop frequency in radians per sample
+     */
+    double getLoopFrequency();
+
     /**
      * Increments the phase rotation and gets the current vector of the PLL to use in de-spinning the incoming samples.
      * @return complex vector
@@ -26,15 +26,137 @@ public class BCH_63_16_11 extends BerlekempMassey_63
 {
 	private final static Logger mLog = LoggerFactory.getLogger( BCH_63_16_11.class );
 
+	/* Indicates that the codeword has more than TT bit errors and can't be corrected */
+	public static final long UNCORRECTABLE = -1l;
+
+	/* Maximum correctable bit errors */
+	private static final int MAXIMUM_ERRORS = 11;
+
+	/**
+	 * Odd syndrome lookup tables for a packed codeword where bit i holds received symbol i.  Each of the eight bytes
+	 * of the codeword indexes a table of the syndrome contribution alpha**( s * i ) summed over the set bits, in
+	 * polynomial form, for each odd syndrome s=1,3..21.  Even syndromes of a binary code are the squares of the odd
+	 * syndromes: s(2i) = s(i)**2
+	 */
+	private static final int[][] ODD_SYNDROME_TABLES = new int[ MAXIMUM_ERRORS ][ 8 * 256 ];
+
+	static
+	{
+		for( int s = 0; s < MAXIMUM_ERRORS; s++ )
+		{
+			int syndrome = 2 * s + 1;
+
+			for( int index = 0; index < 8; index++ )
+			{
+				for( int value = 0; value < 256; value++ )
+				{
+					int sum = 0;
+
+					for( int bit = 0; bit < 8; bit++ )
+					{
+						int position = index * 8 + bit;
+
+						if( position < NN && ( value & ( 1 << bit ) ) != 0 )
+						{
+							sum ^= ALPHA_TO[ ( syndrome * position ) % NN ];
+						}
+					}
+
+					ODD_SYNDROME_TABLES[ s ][ index * 256 + value ] = sum;
+				}
+			}
+		}
+	}
+
 	/**
 	 * BCH( 63,16,11) decoder
 	 */
 	public BCH_63_16_11()
     {
 		/* TT = 11 = maximum correctable bit errors */
-	    super( 11 );
+	    super( MAXIMUM_ERRORS );
     }
-	
+
+	/**
+	 * Performs error detection and correction on a packed 63-bit codeword where bit i of the codeword value holds the
+	 * received symbol i (ie reverse bit order) so that bits 62 to 47 hold the 16 information bits.
+	 *
+	 * @param codeword to correct
+	 * @return corrected codeword or UNCORRECTABLE if the codeword contains more than 11 bit errors
+	 */
+	public long correct( long codeword )
+	{
+		if( !calculateSyndromes( codeword ) )
+		{
+			return codeword;
+		}
+
+		int degree = calculateErrorLocator();
+
+		if( degree < 0 || findErrorLocations( degree ) != degree )
+		{
+			return UNCORRECTABLE;
+		}
+
+		long corrected = codeword;
+
+		for( int x = 0; x < degree; x++ )
+		{
+			corrected ^= 1l << mLocations[ x ];
+		}
+
+		/* The error locator can describe a non-binary error pattern when there are more than TT errors */
+		if( calculateSyndromes( corrected ) )
+		{
+			return UNCORRECTABLE;
+		}
+
+		return corrected;
+	}
+
+	/**
+	 * Calculates the syndromes of the packed codeword into the syndromes workspace.
+	 *
+	 * @return true if any syndrome is non-zero, indicating that the codeword contains errors
+	 */
+	private boolean calculateSyndromes( long codeword )
+	{
+		boolean errors = false;
+
+		for( int s = 0; s < MAXIMUM_ERRORS; s++ )
+		{
+			int[] table = ODD_SYNDROME_TABLES[ s ];
+
+			int syndrome = table[ (int)( codeword & 0xFF ) ] ^
+						   table[ 256 + (int)( ( codeword >>> 8 ) & 0xFF ) ] ^
+						   table[ 512 + (int)( ( codeword >>> 16 ) & 0xFF ) ] ^
+						   table[ 768 + (int)( ( codeword >>> 24 ) & 0xFF ) ] ^
+						   table[ 1024 + (int)( ( codeword >>> 32 ) & 0xFF ) ] ^
+						   table[ 1280 + (int)( ( codeword >>> 40 ) & 0xFF ) ] ^
+						   table[ 1536 + (int)( ( codeword >>> 48 ) & 0xFF ) ] ^
+						   table[ 1792 + (int)( ( codeword >>> 56 ) & 0xFF ) ];
+
+			mSyndromes[ 2 * s + 1 ] = syndrome;
+
+			if( syndrome != 0 )
+			{
+				errors = true;
+			}
+		}
+
+		if( errors )
+		{
+			for( int s = 2; s <= 2 * MAXIMUM_ERRORS; s += 2 )
+			{
+				int half = mSyndromes[ s / 2 ];
+
+				mSyndromes[ s ] = half == 0 ? 0 : ALPHA_TO[ 2 * INDEX_OF[ half ] ];
+			}
+		}
+
+		return errors;
+	}
+
 	/**
 	 * Performs error detection and correction on the first 63 bits of the
 	 * message argument.  If the message is correctable, only the first 16 bits
@@ -44,43 +166,36 @@ public class BCH_63_16_11 extends BerlekempMassey_63
 	 */
 	public BinaryMessage correctNID( BinaryMessage message )
 	{
-		CRC status = CRC.PASSED;
-		
-		int[] original = message.toReverseIntegerArray( 0, 62 );
-		int[] corrected = new int[ 63 ];
-
-		boolean irrecoverableErrors = decode( original, corrected );
+		long original = message.getLong( 0, 62 );
+		long corrected = correct( original );
 
-		if( irrecoverableErrors )
+		if( corrected == UNCORRECTABLE )
 		{
 			message.setCRC( CRC.FAILED_CRC );
 			
 			return message;
 		}
-		else
+
+		/* Information bits 0-15 are packed in codeword bits 62-47 */
+		long changed = ( original ^ corrected ) >>> 47;
+
+		if( changed != 0 )
 		{
 			for( int x = 0; x < 16; x++ )
 			{
-				int index = 63 - x - 1;
-				
-				if( corrected[ index ] != original[ index ] )
+				if( ( changed & ( 1l << ( 15 - x ) ) ) != 0 )
 				{
-					status = CRC.CORRECTED;
-					
-					if( corrected[ index ] == 1 )
-					{
-						message.set( x );
-					}
-					else
-					{
-						message.clear( x );
-					}
+					message.flip( x );
 				}
 			}
+
+			message.setCRC( CRC.CORRECTED );
 		}
-		
-		message.setCRC( status );
-		
+		else
+		{
+			message.setCRC( CRC.PASSED );
+		}
+
 		return message;
 	}
 	
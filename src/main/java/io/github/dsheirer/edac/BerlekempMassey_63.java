@@ -25,8 +25,13 @@ package io.github.dsheirer.edac;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
 /**
  * Berlekemp Massey decoder for 63-bit primitive RS/BCH block codes
+ *
+ * The Golay field lookup tables are shared by all decoder instances and each decoder instance allocates its working
+ * storage once at construction so that decoding doesn't allocate.  Decoder instances are not thread safe.
  */
 public class BerlekempMassey_63
 {
@@ -36,33 +41,79 @@ public class BerlekempMassey_63
 	private static final int MM = 6;
 
 	/* Codeword Length: NN = 2 ** MM - 1 */
-	private static final int NN = 63;
-	
+	protected static final int NN = 63;
+
+	/* P25 generator polynomial */
+	private static final int[] GENERATOR_POLYNOMIAL = { 1, 1, 0, 0, 0, 0, 1 };
+
+	/* Polynomial form lookup, doubled in length so that the sum of two index form values never needs a modulo */
+	protected static final int[] ALPHA_TO = new int[ 2 * NN ];
+
+	/* Index form lookup */
+	protected static final int[] INDEX_OF = new int[ NN + 1 ];
+
+	static
+	{
+		generate_gf( GENERATOR_POLYNOMIAL );
+	}
+
 	/* Hamming distance between codewords: NN - KK + 1 = 2 * TT + 1 */
 	private int KK;
 
 	/* Maximum number of errors that can be corrected */
 	int TT;
 
-	int[] alpha_to;
-	int[] index_of;
 	int[] gg;
-	
+
+	/* Reusable workspace - syndromes, error locator and evaluator polynomials are in polynomial form */
+	protected int[] mSyndromes;
+	private int[] mLambda;
+	private int[] mPreviousLambda;
+	private int[] mLambdaCopy;
+	private int[] mOmega;
+	private int[] mRegisters;
+	private int[] mRoots;
+	protected int[] mLocations;
+
+	/* Reusable received and corrected codeword buffers */
+	private int[] mInput = new int[ NN ];
+	private int[] mOutput = new int[ NN ];
+
 	public BerlekempMassey_63( int tt )
     {
 		TT = tt;
 		KK = NN - 2 * TT;
-		
-        alpha_to = new int[ NN + 1 ];
-        index_of = new int[ NN + 1 ];
-        gg       = new int[ NN - KK + 1 ];
-
-        /* P25 generator polynomial */
-        int generator_polinomial[] = { 1, 1, 0, 0, 0, 0, 1 };
 
-        generate_gf( generator_polinomial );
+        gg = new int[ NN - KK + 1 ];
 
         gen_poly();
+
+        mSyndromes = new int[ NN - KK + 1 ];
+        mLambda = new int[ NN - KK + 1 ];
+        mPreviousLambda = new int[ NN - KK + 1 ];
+        mLambdaCopy = new int[ NN - KK + 1 ];
+        mOmega = new int[ TT ];
+        mRegisters = new int[ TT + 1 ];
+        mRoots = new int[ TT ];
+        mLocations = new int[ TT ];
+    }
+
+    /**
+     * Reusable received codeword buffer for this decoder, cleared to all zeros so that the caller only has to load the
+     * non-zero (ie not punctured or shortened) symbols.  The buffer is overwritten by the next call to this method.
+     */
+    public int[] getInputBuffer()
+    {
+        Arrays.fill( mInput, 0 );
+        return mInput;
+    }
+
+    /**
+     * Reusable corrected codeword buffer for this decoder.  The contents are overwritten by each call to decode().
+     */
+    public int[] getOutputBuffer()
+    {
+        return mOutput;
     }
 
 	/**
@@ -72,54 +123,60 @@ public class BerlekempMassey_63
 	 * p(X) in pp[0]..pp[mm]
 	 * 
 	 * Lookup tables:  
-	 * 		index_of[] = polynomial form   
-	 * 		alpha_to[] = contains j=alpha**i;
+	 * 		INDEX_OF[] = polynomial form
+	 * 		ALPHA_TO[] = contains j=alpha**i;
 	 * 
-	 * Polynomial form -> Index form  index_of[j=alpha**i] = i
+	 * Polynomial form -> Index form  INDEX_OF[j=alpha**i] = i
 	 * 
 	 * alpha_to = 2 is the primitive element of GF( 2**mm )
 	 * 
 	 * @param generator_polynomial
 	 */
-	private void generate_gf( int[] generator_polynomial )
+	private static void generate_gf( int[] generator_polynomial )
 	{
 		int i;
 		int mask = 1;
 
-        alpha_to[ MM ] = 0;
+        ALPHA_TO[ MM ] = 0;
         
         for( i = 0; i < MM; i++ ) 
         {
-            alpha_to[ i ] = mask;
-            index_of[ alpha_to[ i ] ] = i;
+            ALPHA_TO[ i ] = mask;
+            INDEX_OF[ ALPHA_TO[ i ] ] = i;
             
             if( generator_polynomial[ i ] != 0 )
             {
-                alpha_to[ MM ] ^= mask;
+                ALPHA_TO[ MM ] ^= mask;
             }
             
             mask <<= 1;
         }
         
-        index_of[ alpha_to[ MM ] ] = MM;
+        INDEX_OF[ ALPHA_TO[ MM ] ] = MM;
         
         mask >>= 1;
             
         for ( i = MM + 1; i < NN; i++ ) 
         {
-            if( alpha_to[ i - 1 ] >= mask )
+            if( ALPHA_TO[ i - 1 ] >= mask )
             {
-                alpha_to[ i ] = alpha_to[ MM ] ^ ( ( alpha_to[ i - 1 ] ^ mask ) << 1 );
+                ALPHA_TO[ i ] = ALPHA_TO[ MM ] ^ ( ( ALPHA_TO[ i - 1 ] ^ mask ) << 1 );
             }
             else
             {
-                alpha_to[ i ] = alpha_to[ i - 1 ] << 1;
+                ALPHA_TO[ i ] = ALPHA_TO[ i - 1 ] << 1;
             }
             
-            index_of[ alpha_to[ i ] ] = i;
+            INDEX_OF[ ALPHA_TO[ i ] ] = i;
         }
         
-        index_of[ 0 ] = -1;
+        INDEX_OF[ 0 ] = -1;
+
+        /* Repeat the table so that ALPHA_TO[ i + j ] is valid for any two index form values */
+        for( i = NN; i < 2 * NN; i++ )
+        {
+            ALPHA_TO[ i ] = ALPHA_TO[ i - NN ];
+        }
     }
 
     /**
@@ -142,7 +199,7 @@ public class BerlekempMassey_63
             {
                 if( gg[ j ] != 0 )
                 {
-                    gg[ j ] = gg[ j - 1 ] ^ alpha_to[ ( index_of[ gg[ j ] ] + i ) % NN ];
+                    gg[ j ] = gg[ j - 1 ] ^ ALPHA_TO[ ( INDEX_OF[ gg[ j ] ] + i ) % NN ];
                 }
                 else
                 {
@@ -151,380 +208,292 @@ public class BerlekempMassey_63
             }
             
             /* gg[0] can never be zero */
-            gg[ 0 ] = alpha_to[ ( index_of[ gg[ 0 ] ] + i ) % NN ];
+            gg[ 0 ] = ALPHA_TO[ ( INDEX_OF[ gg[ 0 ] ] + i ) % NN ];
         }
         
         /* convert gg[] to index form for quicker encoding */
         for( i = 0; i <= NN - KK; i++ )
         {
-            gg[ i ] = index_of[ gg[ i ] ];
+            gg[ i ] = INDEX_OF[ gg[ i ] ];
         }
     }
 
-	/**
-	 * Decodes 
-	 * @param input
-	 * @param output
-	 * @return
-	 */
-    /* assume we have received bits grouped into mm-bit symbols in recd[i],
-    i=0..(nn-1),  and recd[i] is polynomial form.
-    We first compute the 2*tt syndromes by substituting alpha**i into rec(X) and
-    evaluating, storing the syndromes in s[i], i=1..2tt (leave s[0] zero) .
-    Then we use the Berlekamp iteration to find the error location polynomial
-    elp[i].   If the degree of the elp is >tt, we cannot correct all the errors
-    and hence just put out the information symbols uncorrected. If the degree of
-    elp is <=tt, we substitute alpha**i , i=1..n into the elp to get the roots,
-    hence the inverse roots, the error location numbers. If the number of errors
-    located does not equal the degree of the elp, we have more than tt errors
-    and cannot correct them.  Otherwise, we then solve for the error value at
-    the error location and correct the error.  The procedure is that found in
-    Lin and Costello. For the cases where the number of errors is known to be too
-    large to correct, the information symbols as received are output (the
-    advantage of systematic encoding is that hopefully some of the information
-    symbols will be okay and that if we are in luck, the errors are in the
-    parity part of the transmitted codeword).  Of course, these insoluble cases
-    can be returned as error flags to the calling routine if desired.   */
-    public boolean decode( final int[] input, int[] output ) //input, output
+    /**
+     * Multiplies two polynomial form field elements
+     */
+    protected static int multiply( int a, int b )
     {
-    	int u, q;
-        int[][] elp = new int[ NN - KK + 2 ][ NN - KK ];
-        int[] d = new int[ NN - KK + 2 ]; 
-        int[] l = new int[ NN - KK + 2 ]; 
-        int[] u_lu = new int[ NN - KK + 2 ];
-        int[] s = new int[ NN - KK + 1 ];
-        int count = 0; 
-        boolean syn_error = false;
-        int[] root = new int[ TT ];
-        int[] loc = new int[ TT ];
-        int[] z = new int[ TT + 1 ];
-        int[] err = new int[ NN ];
-        int[] reg = new int[ TT + 1 ];
-
-        boolean irrecoverable_error = false;
-
-    	/* put recd[i] into index form (ie as powers of alpha) */
-        for( int i = 0; i < NN; i++ )
+        if( a == 0 || b == 0 )
         {
-            output[ i ] = index_of[ input[ i ] ];
+            return 0;
         }
-        
-        /* first form the syndromes */
-        for( int i = 1; i <= NN - KK; i++ ) 
+
+        return ALPHA_TO[ INDEX_OF[ a ] + INDEX_OF[ b ] ];
+    }
+
+    /**
+     * Decodes the received codeword.
+     *
+     * Assumes the received symbols are in polynomial form in input[i], i=0..(nn-1).  The 2*tt syndromes are calculated
+     * by substituting alpha**i into rec(X) and when all syndromes are zero, the input is copied to the output without
+     * further processing.  Otherwise, the Berlekamp Massey iteration finds the error location polynomial and a Chien
+     * search finds the error locations.  If the degree of the error locator is greater than tt or the number of roots
+     * found does not equal the degree, there are more than tt errors and the received symbols are output uncorrected.
+     * Otherwise, the error values are calculated via the Forney algorithm and the errors are corrected.
+     *
+     * @param input symbols in polynomial form
+     * @param output to receive the corrected symbols in polynomial form
+     * @return true if the codeword has irrecoverable errors, or false if the codeword was valid or corrected
+     */
+    public boolean decode( final int[] input, int[] output )
+    {
+        System.arraycopy( input, 0, output, 0, NN );
+
+        if( !calculateSyndromes( input ) )
         {
-            s[ i ] = 0;
-            
-            for( int j = 0; j < NN; j++ )
+            return false;
+        }
+
+        int degree = calculateErrorLocator();
+
+        if( degree < 0 || findErrorLocations( degree ) != degree )
+        {
+            return true;
+        }
+
+        /* form the error evaluator polynomial omega(x) = syndrome(x) * lambda(x) mod x**degree */
+        for( int i = 0; i < degree; i++ )
+        {
+            int omega = 0;
+
+            for( int j = 0; j <= i; j++ )
+            {
+                omega ^= multiply( mSyndromes[ i - j + 1 ], mLambda[ j ] );
+            }
+
+            mOmega[ i ] = omega;
+        }
+
+        /* evaluate the error values at each root via forney:  omega(root) / lambda'(root) */
+        for( int i = 0; i < degree; i++ )
+        {
+            int root = mRoots[ i ];
+            int numerator = 0;
+
+            for( int j = 0; j < degree; j++ )
             {
-                if( output[ j ] != -1 )
+                if( mOmega[ j ] != 0 )
                 {
-                	/* recd[j] in index form */
-                	s[ i ] ^= alpha_to[ ( output[ j ] + i * j ) % NN ];
+                    numerator ^= ALPHA_TO[ ( INDEX_OF[ mOmega[ j ] ] + root * j ) % NN ];
                 }
             }
-            
-            /* convert syndrome from polynomial form to index form  */
-            if( s[ i ] != 0 )
+
+            int denominator = 0;
+
+            for( int j = 1; j <= degree; j += 2 )
             {
-            	/* set flag if non-zero syndrome => error */            	
-                syn_error = true; 
+                if( mLambda[ j ] != 0 )
+                {
+                    denominator ^= ALPHA_TO[ ( INDEX_OF[ mLambda[ j ] ] + root * ( j - 1 ) ) % NN ];
+                }
             }
-            
-            s[ i ] = index_of[ s[ i ] ];
-        }
-        
-        if( syn_error ) /* if errors, try and correct */
-        {
-            /* compute the error location polynomial via the Berlekamp iterative algorithm,
-             following the terminology of Lin and Costello :   d[u] is the 'mu'th
-             discrepancy, where u='mu'+1 and 'mu' (the Greek letter!) is the step number
-             ranging from -1 to 2*tt (see L&C),  l[u] is the
-             degree of the elp at that step, and u_l[u] is the difference between the
-             step number and the degree of the elp.
-             */
-        	
-            /* initialise table entries */
-            d[ 0 ] = 0; /* index form */
-            d[ 1 ] = s[ 1 ]; /* index form */
-            elp[ 0 ][ 0 ] = 0; /* index form */
-            elp[ 1 ][ 0 ] = 1; /* polynomial form */
-            
-            for( int i = 1; i < NN - KK; i++ ) 
+
+            if( denominator == 0 )
             {
-                elp[ 0 ][ i ] = -1; /* index form */
-                elp[ 1 ][ i ] = 0; /* polynomial form */
+                System.arraycopy( input, 0, output, 0, NN );
+                return true;
             }
-            
-            l[ 0 ] = 0;
-            l[ 1 ] = 0;
-            u_lu[ 0 ] = -1;
-            u_lu[ 1 ] = 0;
-            u = 0;
 
-            do 
+            if( numerator != 0 )
             {
-                u++;
-                
-                if( d[ u ] == -1 ) 
-                {
-                    l[ u + 1 ] = l[ u ];
-                    
-                    for( int i = 0; i <= l[ u ]; i++ ) 
-                    {
-                        elp[ u + 1 ][ i ] = elp[ u ][ i ];
-                        elp[ u ][ i ] = index_of[ elp[ u ][ i ] ];
-                    }
-                } 
-                else
-                /* search for words with greatest u_lu[q] for which d[q]!=0 */
-                {
-                    q = u - 1;
-                    
-                    while( ( d[ q ] == -1 ) && ( q > 0 ) )
-                    {
-                        q--;
-                    }
-                    
-                    /* have found first non-zero d[q]  */
-                    if( q > 0 ) 
-                    {
-                    	int j = q;
-                    	
-                        do 
-                        {
-                            j--;
-                            
-                            if( ( d[ j ] != -1 ) && ( u_lu[ q ] < u_lu[ j ] ) )
-                            {
-                                q = j;
-                            }
-                        } 
-                        while( j > 0 );
-                    };
-
-                    /* have now found q such that d[u]!=0 and u_lu[q] is maximum */
-                    /* store degree of new elp polynomial */
-                    if( l[ u ] > l[ q ] + u - q )
-                    {
-                        l[ u + 1 ] = l[ u ];
-                    }
-                    else
-                    {
-                        l[ u + 1 ] = l[ q ] + u - q;
-                    }
+                output[ mLocations[ i ] ] ^= ALPHA_TO[ INDEX_OF[ numerator ] - INDEX_OF[ denominator ] + NN ];
+            }
+        }
 
-                    /* form new elp(x) */
-                    for( int i = 0; i < NN - KK; i++ )
-                    {
-                        elp[ u + 1 ][ i ] = 0;
-                    }                    	
-                    
-                    for( int i = 0; i <= l[q]; i++ )
-                    {
-                        if( elp[ q ][ i ] != -1 )
-                        {
-                            elp[ u + 1 ][ i + u - q ] = 
-                        		alpha_to[ ( d[ u ] + NN - d[ q ]
-                                    + elp[ q ][ i ]) % NN ];
-                        }
-                    }
-                    for( int i = 0; i <= l[u]; i++ ) 
-                    {
-                        elp[ u + 1 ][ i ] ^= elp[ u ][ i ];
-                        elp[ u ][ i ] = index_of[ elp[ u ][ i ] ]; /*convert old elp value to index*/
-                    }
-                }
-                
-                u_lu[ u + 1 ] = u - l[ u + 1 ];
+        return false;
+    }
 
-                /* form (u+1)th discrepancy */
-                if( u < NN - KK ) /* no discrepancy computed on last iteration */
-                {
-                    if ( s[ u + 1 ] != -1 )
-                    {
-                        d[ u + 1 ] = alpha_to[ s[ u + 1 ] ];
-                    }
-                    else
-                    {
-                        d[ u + 1 ] = 0;
-                    }
-                    for( int i = 1; i <= l[ u + 1 ]; i++ )
-                    {
-                        if( ( s[ u + 1 - i ] != -1 ) && ( elp[ u + 1 ][ i]  != 0 ) )
-                        {
-                            d[ u + 1 ] ^= alpha_to[ ( s[ u + 1 - i ]
-                                    + index_of[ elp[ u + 1 ][ i ] ] ) % NN ];
-                        }
-                    }
-                    
-                    d[ u + 1 ] = index_of[ d[ u + 1 ] ]; /* put d[u+1] into index form */
-                }
-            } 
-            while( ( u < NN - KK ) && ( l[ u + 1 ] <= TT) );
+    /**
+     * Calculates the 2*tt syndromes of the received codeword into the syndromes workspace, s[i], i=1..2tt, in
+     * polynomial form.
+     *
+     * @param input symbols in polynomial form
+     * @return true if any syndrome is non-zero, indicating that the codeword contains errors
+     */
+    protected boolean calculateSyndromes( int[] input )
+    {
+        /* shortened codes have trailing zero symbols that don't contribute to the syndromes */
+        int last = NN - 1;
 
-            u++;
-            
-            if( l[ u ] <= TT ) /* can correct error */
+        while( last >= 0 && input[ last ] == 0 )
+        {
+            last--;
+        }
+
+        Arrays.fill( mSyndromes, 0 );
+
+        /* accumulate each non-zero symbol's contribution r[j] * a**( i * j ) to each syndrome s[i] */
+        for( int j = 0; j <= last; j++ )
+        {
+            if( input[ j ] != 0 )
             {
-                /* put elp into index form */
-            	for( int i = 0; i <= l[u]; i++ )
-            	{
-                	elp[ u ][ i ] = index_of[ elp[ u ][ i ] ];
-            	}
-
-                /* find roots of the error location polynomial */
-            	for( int i = 1; i <= l[u]; i++ )
-            	{
-                    reg[ i ] = elp[ u ][ i ];
-            	}
-            	
-                count = 0;
-                
-                for( int i = 1; i <= NN; i++ ) 
-                {
-                    q = 1;
-                    
-                    for( int j = 1; j <= l[u]; j++ )
-                    {
-                        if( reg[ j ] != -1 ) 
-                        {
-                            reg[ j ] = ( reg[ j ] + j ) % NN;
-                            q ^= alpha_to[ reg[ j ] ];
-                        };
-                    }
-                    
-                    if( q == 0 ) /* store root and error location number indices */
-                    {
-                        root[ count ] = i;
-                        loc[ count ] = NN - i;
-                        count++;
-                    };
-                };
+                int symbol = INDEX_OF[ input[ j ] ];
+                int exponent = 0;
 
-                if( count == l[ u ] ) /* no. roots = degree of elp hence <= tt errors */
+                for( int i = 1; i <= NN - KK; i++ )
                 {
-                    /* form polynomial z(x) */
-                	for( int i = 1; i <= l[ u ]; i++ ) /* Z[0] = 1 always - do not need */
-                    {
-                        if( ( s[ i ] != -1 ) && ( elp[ u ][ i ] != -1 ) )
-                        {
-                            z[ i ] = alpha_to[ s[ i ] ] ^ alpha_to[ elp[ u ][ i ] ];
-                        }
-                        else if( ( s[ i ] != -1 ) && ( elp[ u ][ i ] == -1 ) )
-                        {
-                            z[ i ] = alpha_to[ s[ i ] ];
-                        }
-                        else if( ( s[ i ] == -1 ) && ( elp[ u ][ i ] != -1 ) )
-                        {
-                            z[ i ] = alpha_to[ elp[ u ][ i ] ];
-                        }
-                        else
-                        {
-                            z[ i ] = 0;
-                        }
-                        
-                        for( int j = 1; j < i; j++ )
-                        {
-                            if( ( s[ j ] != -1 ) && ( elp[ u ][ i - j ] != -1 ) )
-                            {
-                                z[ i ] ^= alpha_to[ ( elp[ u ][ i - j ] + s[ j ] ) % NN ];
-                            }
-                        }
-                        
-                        z[ i ] = index_of[ z[ i ] ]; /* put into index form */
-                    };
-
-                    /* evaluate errors at locations given by error location numbers loc[i] */
-                    for( int i = 0; i < NN; i++ ) 
-                    {
-                        err[ i ] = 0;
-                        
-                        if( output[ i ] != -1 ) /* convert recd[] to polynomial form */
-                        {
-                            output[ i ] = alpha_to[ output[ i ] ];
-                        }
-                        else
-                        {
-                            output[ i ] = 0;
-                        }
-                    }
-                    
-                    for( int i = 0; i < l[ u ]; i++ ) /* compute numerator of error term first */
+                    exponent += j;
+
+                    if( exponent >= NN )
                     {
-                        err[ loc[ i ] ] = 1; /* accounts for z[0] */
-                        
-                        for( int j = 1; j <= l[ u ]; j++ )
-                        {
-                            if( z[ j ] != -1 )
-                            {
-                                err[ loc[ i ] ] ^= alpha_to[ ( z[ j ] + j * root[ i ] ) % NN ];
-                            }
-                        }
-                        
-                        if( err[ loc[ i ] ] != 0 ) 
-                        {
-                            err[ loc[ i ] ] = index_of[ err[ loc[ i ] ] ];
-                            
-                            q = 0; /* form denominator of error term */
-                            
-                            for (int j = 0; j < l[u]; j++)
-                            {
-                                if (j != i)
-                                {
-                                    q += index_of[1 ^ alpha_to[(loc[j] + root[i]) % NN]];
-                                }
-                            }
-                            
-                            q = q % NN;
-                            err[loc[i]] = alpha_to[(err[loc[i]] - q + NN) % NN];
-                            output[loc[i]] ^= err[loc[i]]; /*recd[i] must be in polynomial form */
-                        }
+                        exponent -= NN;
                     }
-                } 
-                else 
-                {
-                    /* no. roots != degree of elp => >tt errors and cannot solve */
-                    irrecoverable_error = true;
+
+                    mSyndromes[ i ] ^= ALPHA_TO[ symbol + exponent ];
                 }
+            }
+        }
+
+        boolean errors = false;
 
-            } 
-            else 
+        for( int i = 1; i <= NN - KK; i++ )
+        {
+            if( mSyndromes[ i ] != 0 )
             {
-                /* elp has degree >tt hence cannot solve */
-                irrecoverable_error = true;
+                errors = true;
             }
-        } 
-        else 
+        }
+
+        return errors;
+    }
+
+    /**
+     * Calculates the error location polynomial lambda(x) from the syndromes workspace using the Berlekamp Massey
+     * iterative algorithm.
+     *
+     * @return degree of the error locator polynomial, or -1 if the degree exceeds tt and the errors can't be corrected
+     */
+    protected int calculateErrorLocator()
+    {
+        int length = NN - KK + 1;
+
+        Arrays.fill( mLambda, 0 );
+        Arrays.fill( mPreviousLambda, 0 );
+        mLambda[ 0 ] = 1;
+        mPreviousLambda[ 0 ] = 1;
+
+        int degree = 0;
+        int shift = 1;
+        int previousDiscrepancy = 1;
+
+        for( int n = 0; n < NN - KK; n++ )
         {
-            /* no non-zero syndromes => no errors: output received codeword */
-        	for (int i = 0; i < NN; i++)
-        	{
-                if (output[i] != -1) /* convert recd[] to polynomial form */
-                {
-                    output[i] = alpha_to[output[i]];
-                }
-                else
-                {
-                    output[i] = 0;
-                }
-        	}
+            /* discrepancy between the syndrome and the syndrome predicted by the current error locator */
+            int discrepancy = mSyndromes[ n + 1 ];
+
+            for( int i = 1; i <= degree; i++ )
+            {
+                discrepancy ^= multiply( mLambda[ i ], mSyndromes[ n + 1 - i ] );
+            }
+
+            if( discrepancy == 0 )
+            {
+                shift++;
+                continue;
+            }
+
+            /* scale = discrepancy / previous discrepancy in index form */
+            int scale = INDEX_OF[ discrepancy ] - INDEX_OF[ previousDiscrepancy ] + NN;
+
+            if( 2 * degree <= n )
+            {
+                System.arraycopy( mLambda, 0, mLambdaCopy, 0, length );
+                adjustErrorLocator( scale, shift );
+                degree = n + 1 - degree;
+
+                int[] temp = mPreviousLambda;
+                mPreviousLambda = mLambdaCopy;
+                mLambdaCopy = temp;
+                previousDiscrepancy = discrepancy;
+                shift = 1;
+            }
+            else
+            {
+                adjustErrorLocator( scale, shift );
+                shift++;
+            }
+
+            if( degree > TT )
+            {
+                return -1;
+            }
         }
 
-        if( irrecoverable_error ) 
+        return degree;
+    }
+
+    /**
+     * Updates lambda(x) = lambda(x) - scale * x**shift * previousLambda(x)
+     *
+     * @param scale in index form
+     * @param shift polynomial degree shift
+     */
+    private void adjustErrorLocator( int scale, int shift )
+    {
+        for( int i = 0; i + shift <= NN - KK; i++ )
         {
-        	for (int i = 0; i < NN; i++) /* could return error flag if desired */
-        	{
-                if (output[i] != -1) /* convert recd[] to polynomial form */
-                {
-                    output[i] = alpha_to[output[i]];
-                }
-                else
+            if( mPreviousLambda[ i ] != 0 )
+            {
+                mLambda[ i + shift ] ^= ALPHA_TO[ ( INDEX_OF[ mPreviousLambda[ i ] ] + scale ) % NN ];
+            }
+        }
+    }
+
+    /**
+     * Finds the roots of the error locator polynomial using a Chien search where the index form registers for each
+     * polynomial term are advanced by a**j for each candidate root a**i, i=1..nn.  Root exponents are stored in the
+     * roots workspace and the corresponding error location numbers are stored in the locations workspace.
+     *
+     * @param degree of the error locator polynomial
+     * @return number of roots found
+     */
+    protected int findErrorLocations( int degree )
+    {
+        for( int j = 1; j <= degree; j++ )
+        {
+            mRegisters[ j ] = INDEX_OF[ mLambda[ j ] ];
+        }
+
+        int count = 0;
+
+        for( int i = 1; i <= NN && count < degree; i++ )
+        {
+            int q = 1;
+
+            for( int j = 1; j <= degree; j++ )
+            {
+                if( mRegisters[ j ] != -1 )
                 {
-                    output[i] = 0; /* just output received codeword as is */
+                    int register = mRegisters[ j ] + j;
+
+                    if( register >= NN )
+                    {
+                        register -= NN;
+                    }
+
+                    mRegisters[ j ] = register;
+                    q ^= ALPHA_TO[ register ];
                 }
-        	}
+            }
+
+            if( q == 0 ) /* store root and error location number indices */
+            {
+                mRoots[ count ] = i;
+                mLocations[ count ] = NN - i;
+                count++;
+            }
         }
 
-        return irrecoverable_error;
+        return count;
     }
 }
@@ -35,22 +35,23 @@ public class Golay18
     private final static Logger mLog = LoggerFactory.getLogger(Golay18.class);
 
     /**
-     * Performs error detection and correction.
+     * Performs error detection and correction.  The codeword is left unchanged when it contains uncorrectable
+     * errors.
      */
     public static void checkAndCorrect(CorrectedBinaryMessage message, int startIndex)
     {
         int value = message.getInt(startIndex, startIndex + 17);
 
-        CorrectedBinaryMessage temp = new CorrectedBinaryMessage(24);
-        temp.load(6, 18, value);
+        int errorPattern = Golay24.getErrorPattern(value);
 
-        int errorsCorrected = Golay24.checkAndCorrect(temp, 0);
+        if(errorPattern != 0 && errorPattern != Golay24.UNCORRECTABLE)
+        {
+            int correctedValue = (value ^ errorPattern) & 0x3FFFF;
 
-        int correctedValue = temp.getInt(6, 23);
+            message.load(startIndex, 18, correctedValue);
 
-        message.load(startIndex, 18, correctedValue);
-
-        int correctedBitCount = Integer.bitCount(value ^ correctedValue);
-        message.incrementCorrectedBitCount(correctedBitCount);
+            int correctedBitCount = Integer.bitCount(value ^ correctedValue);
+            message.incrementCorrectedBitCount(correctedBitCount);
+        }
     }
 }
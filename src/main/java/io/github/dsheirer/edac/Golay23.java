@@ -14,115 +14,107 @@ public class Golay23
 	};
 
 	/**
-	 * Implements Golay(23,12,7) error detection and correction.  Returns the
-	 * number of detected errors.  If the error count is less than or equal to
-	 * the max correctable errors (3), then the error bits are corrected.
-	 * Otherwise the message is left intact and an error count greater than 3
-	 * is returned.
-	 * 
-	 * @param frame - message frame bitset
-	 * @param startIndex - first bit index of the golay protected bit sequence
-	 * 
-	 * @return - number of detected errors
+	 * Checksum (11 bits) for each of the 4096 possible 12-bit data values
 	 */
-	public static int checkAndCorrect( BinaryMessage frame, int startIndex )
+	private static final int[] DATA_CHECKSUMS = new int[ 4096 ];
+
+	/**
+	 * Error pattern (23 bits) for each of the 2048 possible syndromes.  Golay(23,12,7) is a perfect code, so each
+	 * syndrome corresponds to exactly one error pattern with a weight of 3 or less.
+	 */
+	private static final int[] ERROR_PATTERNS = new int[ 2048 ];
+
+	static
 	{
-		int syndrome = getSyndrome( frame, startIndex );
-		
-		/* No errors */
-		if( syndrome == 0 )
+		for( int data = 0; data < 4096; data++ )
 		{
-			return 0;
-		}
-		
-		BinaryMessage copy = frame.getSubMessage( startIndex, startIndex + 23 );
-
-		int index = -1;
-		int syndromeWeight = MAX_CORRECTABLE_ERRORS;
-		int errors = 0;
-		
-		while( index < 23 )
-		{
-			if( index != -1 )
+			int checksum = 0;
+
+			for( int bit = 0; bit < 12; bit++ )
 			{
-				/* restore the previous flipped bit */
-				if( index > 0 )
+				if( ( data & ( 1 << ( 11 - bit ) ) ) != 0 )
 				{
-					copy.flip( index - 1 );
+					checksum ^= CHECKSUMS[ bit ];
 				}
-				
-				copy.flip( index );
-				
-				syndromeWeight = MAX_CORRECTABLE_ERRORS - 1;
 			}
-			
-			syndrome = getSyndrome( copy, 0 );
-			
-			if( syndrome > 0 )
+
+			DATA_CHECKSUMS[ data ] = checksum;
+		}
+
+		/* Enumerate the error patterns in order of increasing weight */
+		for( int a = 0; a < 23; a++ )
+		{
+			int single = 1 << a;
+			addErrorPattern( single );
+
+			for( int b = a + 1; b < 23; b++ )
 			{
-				for( int i = 0; i < 23; i++ )
+				int pair = single | ( 1 << b );
+				addErrorPattern( pair );
+
+				for( int c = b + 1; c < 23; c++ )
 				{
-					errors = Integer.bitCount( syndrome );
-					
-					if( errors <= syndromeWeight )
-					{
-						copy.xor( 12, 11, syndrome );
-						
-						copy.rotateRight( i, 0, 22 );
-
-						if( index >= 0 )
-						{
-							errors ++;
-						}
-
-						int corrected = copy.getInt( 0, 22 );
-						int original = frame.getInt( startIndex, startIndex + 22 );
-						
-						int errorCount = Integer.bitCount( original ^ corrected );
-						
-						if( errorCount <= 3 )
-						{
-							frame.load( startIndex, 23, corrected );
-						}
-
-						return errorCount;
-					}
-					else
-					{
-						copy.rotateLeft( 0, 22 );
-						syndrome = getSyndrome( copy, 0 );
-					}
+					addErrorPattern( pair | ( 1 << c ) );
 				}
-				
-				index++;
 			}
 		}
+	}
 
-		/* Return an error count greater than 3 to indicate failed correction attempt */
-		return 4;
+	private static void addErrorPattern( int errorPattern )
+	{
+		ERROR_PATTERNS[ getSyndrome( errorPattern ) ] = errorPattern;
 	}
 
-	private static int getSyndrome( BinaryMessage frame, int startIndex )
+	/**
+	 * Calculates the syndrome for a packed 23-bit codeword where the first (data) bit of the codeword is the most
+	 * significant bit (bit 22) of the value.
+	 *
+	 * @param codeword containing 12 data bits followed by 11 checksum bits
+	 * @return syndrome, 0 - 2047
+	 */
+	public static int getSyndrome( int codeword )
 	{
-		int calculated = calculateChecksum( frame, startIndex );
-		
-		int checksum = frame.getInt( startIndex + 12, startIndex + 22 );
+		return DATA_CHECKSUMS[ ( codeword >>> 11 ) & 0xFFF ] ^ ( codeword & 0x7FF );
+	}
 
-		return ( checksum ^ calculated );
+	/**
+	 * Determines the error pattern for a packed 23-bit codeword.  XOR the codeword with the error pattern to
+	 * correct the codeword.
+	 *
+	 * @param codeword containing 12 data bits followed by 11 checksum bits, right-aligned
+	 * @return error pattern with a weight (bit count) of 0 - 3
+	 */
+	public static int getErrorPattern( int codeword )
+	{
+		return ERROR_PATTERNS[ getSyndrome( codeword ) ];
 	}
-	
-	private static int calculateChecksum( BinaryMessage frame, int startIndex )
+
+	/**
+	 * Implements Golay(23,12,7) error detection and correction.  Returns the
+	 * number of detected errors.  If the error count is less than or equal to
+	 * the max correctable errors (3), then the error bits are corrected.
+	 * Otherwise the message is left intact and an error count greater than 3
+	 * is returned.
+	 * 
+	 * @param frame - message frame bitset
+	 * @param startIndex - first bit index of the golay protected bit sequence
+	 * 
+	 * @return - number of detected errors
+	 */
+	public static int checkAndCorrect( BinaryMessage frame, int startIndex )
 	{
-		int calculated = 0; //Starting value
+		int codeword = frame.getInt( startIndex, startIndex + 22 );
+
+		int errorPattern = getErrorPattern( codeword );
 
-		/* Iterate the set bits and XOR running checksum with lookup value */
-		for (int i = frame.nextSetBit( startIndex ); 
-				 i >= startIndex && i < startIndex + 12; 
-				 i = frame.nextSetBit( i+1 ) ) 
+		/* No errors */
+		if( errorPattern == 0 )
 		{
-			calculated ^= CHECKSUMS[ i - startIndex ];
+			return 0;
 		}
-		
-		return calculated;
+
+		frame.load( startIndex, 23, codeword ^ errorPattern );
+
+		return Integer.bitCount( errorPattern );
 	}
 }
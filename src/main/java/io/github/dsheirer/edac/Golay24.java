@@ -1,6 +1,5 @@
 package io.github.dsheirer.edac;
 
-import io.github.dsheirer.bits.BinaryMessage;
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,7 +26,8 @@ import org.slf4j.LoggerFactory;
  ******************************************************************************/
 
 /**
- * Galois 24/12/7 decoder
+ * Galois 24/12/7 decoder.  Uses the Golay23 precomputed syndrome table to correct up to 3 bit errors and the
+ * overall parity bit to detect 4 bit errors.
  */
 public class Golay24
 {
@@ -45,119 +45,73 @@ public class Golay24
                     0x040, 0x020, 0x010, 0x008, 0x004, 0x002, 0x001
             };
 
-    private static int calculateChecksum(BinaryMessage message, int startIndex)
+    /**
+     * Error pattern value indicating that the codeword contains uncorrectable (4 or more) bit errors
+     */
+    public static final int UNCORRECTABLE = -1;
+
+    /**
+     * Determines the error pattern for a packed 24-bit codeword using the Golay(23,12,7) syndrome table and the
+     * overall (even) parity bit.  XOR the codeword with the error pattern to correct the codeword.
+     *
+     * @param codeword containing 12 data bits, 11 checksum bits and a parity bit, right-aligned, where the first
+     * (data) bit of the codeword is the most significant bit (bit 23) of the value.
+     * @return error pattern with a weight (bit count) of 0 - 3, or UNCORRECTABLE
+     */
+    public static int getErrorPattern(int codeword)
     {
-        int calculated = 0; //Starting value
+        int errorPattern = Golay23.getErrorPattern((codeword >>> 1) & 0x7FFFFF) << 1;
 
-        /* Iterate the set bits and XOR running checksum with lookup value */
-        for(int i = message.nextSetBit(startIndex);
-            i >= startIndex && i < startIndex + 12;
-            i = message.nextSetBit(i + 1))
+        //A valid codeword has even parity.  Odd parity after correcting 3 errors indicates 4 errors.
+        if(Integer.bitCount((codeword ^ errorPattern) & 0xFFFFFF) % 2 != 0)
         {
-            calculated ^= CHECKSUMS[i - startIndex];
+            if(Integer.bitCount(errorPattern) == 3)
+            {
+                return UNCORRECTABLE;
+            }
+
+            errorPattern ^= 1;
         }
 
-        return calculated;
+        return errorPattern;
     }
 
     /**
-     * Performs error detection and returns a corrected copy of the 24-bit
-     * message that starts at the start index.
+     * Performs error detection and correction of the 24-bit codeword that starts at the start index.
+     *
+     * Consistent with the original decoder, the message corrected bit count is only incremented when the parity bit
+     * is the only bit in error.
      *
      * @param message - source message containing startIndex + 24 bits length
      * @param startIndex - start of the 24-bit galois 24 protected bit set
-     * @return - corrected 24-bit galois value
+     * @return 0 = no errors
+     * 1 = errors were corrected
+     * 2 = uncorrectable errors detected - the codeword is left unchanged
      */
     public static int checkAndCorrect(CorrectedBinaryMessage message, int startIndex)
     {
-        boolean parityError = message.cardinality() % 2 != 0;
+        int codeword = message.getInt(startIndex, startIndex + 23);
 
-        int syndrome = getSyndrome(message, startIndex);
+        int errorPattern = getErrorPattern(codeword);
 
-        /* No errors */
-        if(syndrome == 0)
+        if(errorPattern == 0)
         {
-            if(parityError)
-            {
-                message.flip(startIndex + 23);
-                message.incrementCorrectedBitCount(1);
-                return 1;
-            }
-
             return 0;
         }
 
-        /* Get original message value */
-        int original = message.getInt(0, 22);
-
-        int index = -1;
-        int syndromeWeight = 3;
-        int errors = 0;
-
-        while(index < 23)
+        if(errorPattern == UNCORRECTABLE)
         {
-            if(index != -1)
-            {
-                /* restore the previous flipped bit */
-                if(index > 0)
-                {
-                    message.flip(index - 1);
-                }
-
-                message.flip(index);
-
-                syndromeWeight = 2;
-            }
-
-            syndrome = getSyndrome(message, startIndex);
-
-            if(syndrome > 0)
-            {
-                for(int i = 0; i < 23; i++)
-                {
-
-                    errors = Integer.bitCount(syndrome);
-
-                    if(errors <= syndromeWeight)
-                    {
-                        message.xor(12, 11, syndrome);
-
-                        message.rotateRight(i, startIndex, startIndex + 22);
-
-                        if(index >= 0)
-                        {
-                            errors++;
-                        }
-
-                        int corrected = message.getInt(0, 22);
-
-                        if(Integer.bitCount(original ^ corrected) > 3)
-                        {
-                            return 2;
-                        }
-
-                        return 1;
-                    }
-                    else
-                    {
-                        message.rotateLeft(startIndex, startIndex + 22);
-                        syndrome = getSyndrome(message, startIndex);
-                    }
-                }
-
-                index++;
-            }
+            return 2;
         }
 
-        return 2;
-    }
+        message.load(startIndex, 24, codeword ^ errorPattern);
 
-    private static int getSyndrome(BinaryMessage message, int startIndex)
-    {
-        int calculated = calculateChecksum(message, startIndex);
-
-        int checksum = message.getInt(startIndex + 12, startIndex + 22);
+        //Preserve the original decoder's reporting, which only counts a corrected bit for a parity bit only error
+        if(errorPattern == 1)
+        {
+            message.incrementCorrectedBitCount(1);
+        }
 
-        return (checksum ^ calculated);
+        return 1;
     }
 }
@@ -0,0 +1,822 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.edac;
+
+import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+
+/**
+ * Randomized equivalence test of the table-driven Golay and Hamming decoders against the original bit-flipping
+ * decoder implementations, with a simple timing comparison.
+ *
+ * Codewords are randomly generated with a random number of bit errors up to the correction capability of each code
+ * and are decoded with both implementations.  Golay24 and Golay18 compare the decoded data bits, the returned status
+ * and the corrected bit count since the original Golay24 decoder doesn't correct the parity bit when other bits are
+ * also in error.
+ */
+public class SyndromeDecoderTest
+{
+    private final static Logger mLog = LoggerFactory.getLogger(SyndromeDecoderTest.class);
+    private static final int ITERATIONS = 200000;
+
+    private static Random sRandom = new Random(0x25);
+
+    public static void main(String[] args)
+    {
+        int failures = 0;
+
+        failures += testGolay23();
+        failures += testGolay24();
+        failures += testGolay18();
+        failures += testHamming10();
+        failures += testHamming15();
+
+        mLog.info(failures == 0 ? "PASSED - all decoders are equivalent" : "FAILED - mismatch count: " + failures);
+    }
+
+    /**
+     * Creates a random codeword for a Golay23 encoded 12-bit data value
+     */
+    private static int golay23Codeword(int data)
+    {
+        return (data << 11) | Golay23.getSyndrome(data << 11);
+    }
+
+    /**
+     * Flips up to maxErrors distinct random bits in the codeword
+     */
+    private static int addErrors(int codeword, int length, int maxErrors)
+    {
+        int errors = sRandom.nextInt(maxErrors + 1);
+        int pattern = 0;
+
+        while(Integer.bitCount(pattern) < errors)
+        {
+            pattern |= 1 << sRandom.nextInt(length);
+        }
+
+        return codeword ^ pattern;
+    }
+
+    /**
+     * Creates a message containing the codeword at the offset and random surrounding bits
+     */
+    private static CorrectedBinaryMessage message(int codeword, int length, int offset, int size)
+    {
+        CorrectedBinaryMessage message = new CorrectedBinaryMessage(size);
+
+        for(int x = 0; x < size; x++)
+        {
+            if(sRandom.nextBoolean())
+            {
+                message.set(x);
+            }
+        }
+
+        message.load(offset, length, codeword);
+        return message;
+    }
+
+    private static CorrectedBinaryMessage copy(CorrectedBinaryMessage message, int size)
+    {
+        CorrectedBinaryMessage copy = new CorrectedBinaryMessage(size);
+        copy.load(0, message);
+        return copy;
+    }
+
+    private static int testGolay23()
+    {
+        int mismatches = 0;
+        long legacyNanos = 0;
+        long tableNanos = 0;
+
+        for(int x = 0; x < ITERATIONS; x++)
+        {
+            int codeword = addErrors(golay23Codeword(sRandom.nextInt(4096)), 23, 3);
+            int offset = sRandom.nextInt(40);
+            CorrectedBinaryMessage legacy = message(codeword, 23, offset, offset + 23 + sRandom.nextInt(40));
+            CorrectedBinaryMessage table = copy(legacy, legacy.size());
+
+            long start = System.nanoTime();
+            int legacyErrors = LegacyGolay23.checkAndCorrect(legacy, offset);
+            legacyNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int tableErrors = Golay23.checkAndCorrect(table, offset);
+            tableNanos += System.nanoTime() - start;
+
+            if(legacyErrors != tableErrors || !legacy.equals(table))
+            {
+                mismatches++;
+            }
+        }
+
+        log("Golay23", mismatches, legacyNanos, tableNanos);
+        return mismatches;
+    }
+
+    private static int testGolay24()
+    {
+        int mismatches = 0;
+        long legacyNanos = 0;
+        long tableNanos = 0;
+
+        for(int x = 0; x < ITERATIONS; x++)
+        {
+            int data = sRandom.nextInt(4096);
+            int codeword23 = golay23Codeword(data);
+            int codeword = (codeword23 << 1) | (Integer.bitCount(codeword23) & 1);
+            codeword = addErrors(codeword, 24, 3);
+
+            //The original decoder only supports a 24-bit message with the codeword at index 0
+            CorrectedBinaryMessage legacy = message(codeword, 24, 0, 24);
+            CorrectedBinaryMessage table = copy(legacy, 24);
+
+            long start = System.nanoTime();
+            int legacyStatus = LegacyGolay24.checkAndCorrect(legacy, 0);
+            legacyNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int tableStatus = Golay24.checkAndCorrect(table, 0);
+            tableNanos += System.nanoTime() - start;
+
+            if(legacyStatus != tableStatus || legacy.getInt(0, 11) != table.getInt(0, 11) ||
+               table.getInt(0, 11) != data || legacy.getCorrectedBitCount() != table.getCorrectedBitCount())
+            {
+                mismatches++;
+            }
+        }
+
+        //Four bit errors must be detected as uncorrectable
+        int undetected = 0;
+
+        for(int x = 0; x < ITERATIONS; x++)
+        {
+            int codeword23 = golay23Codeword(sRandom.nextInt(4096));
+            int codeword = (codeword23 << 1) | (Integer.bitCount(codeword23) & 1);
+            int pattern = 0;
+
+            while(Integer.bitCount(pattern) < 4)
+            {
+                pattern |= 1 << sRandom.nextInt(24);
+            }
+
+            if(Golay24.getErrorPattern(codeword ^ pattern) != Golay24.UNCORRECTABLE)
+            {
+                undetected++;
+            }
+        }
+
+        mLog.info("Golay24 undetected 4-bit errors: " + undetected);
+
+        log("Golay24", mismatches, legacyNanos, tableNanos);
+        return mismatches + undetected;
+    }
+
+    private static int testGolay18()
+    {
+        int mismatches = 0;
+        long legacyNanos = 0;
+        long tableNanos = 0;
+
+        for(int x = 0; x < ITERATIONS; x++)
+        {
+            int data = sRandom.nextInt(64);
+            int codeword23 = golay23Codeword(data);
+            int codeword = ((codeword23 << 1) | (Integer.bitCount(codeword23) & 1)) & 0x3FFFF;
+            codeword = addErrors(codeword, 18, 3);
+            int offset = sRandom.nextInt(40);
+            CorrectedBinaryMessage legacy = message(codeword, 18, offset, offset + 18 + sRandom.nextInt(40));
+            CorrectedBinaryMessage table = copy(legacy, legacy.size());
+
+            long start = System.nanoTime();
+            LegacyGolay18.checkAndCorrect(legacy, offset);
+            legacyNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Golay18.checkAndCorrect(table, offset);
+            tableNanos += System.nanoTime() - start;
+
+            if(legacy.getInt(offset, offset + 5) != table.getInt(offset, offset + 5) ||
+               table.getInt(offset, offset + 5) != data)
+            {
+                mismatches++;
+            }
+        }
+
+        log("Golay18", mismatches, legacyNanos, tableNanos);
+        return mismatches;
+    }
+
+    private static int testHamming10()
+    {
+        int mismatches = 0;
+        long legacyNanos = 0;
+        long tableNanos = 0;
+
+        for(int x = 0; x < ITERATIONS; x++)
+        {
+            int data = sRandom.nextInt(64);
+            int codeword = addErrors((data << 4) | Hamming10.getSyndrome(data << 4), 10, 2);
+            int offset = sRandom.nextInt(40);
+            CorrectedBinaryMessage legacy = message(codeword, 10, offset, offset + 10 + sRandom.nextInt(40));
+            CorrectedBinaryMessage table = copy(legacy, legacy.size());
+
+            long start = System.nanoTime();
+            int legacyStatus = LegacyHamming10.checkAndCorrect(legacy, offset);
+            legacyNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int tableStatus = Hamming10.checkAndCorrect(table, offset);
+            tableNanos += System.nanoTime() - start;
+
+            if(legacyStatus != tableStatus || !legacy.equals(table) ||
+               legacy.getCorrectedBitCount() != table.getCorrectedBitCount())
+            {
+                mismatches++;
+            }
+        }
+
+        log("Hamming10", mismatches, legacyNanos, tableNanos);
+        return mismatches;
+    }
+
+    private static int testHamming15()
+    {
+        int mismatches = 0;
+        long legacyNanos = 0;
+        long tableNanos = 0;
+
+        for(int x = 0; x < ITERATIONS; x++)
+        {
+            int data = sRandom.nextInt(2048);
+            int codeword = addErrors((data << 4) | Hamming15.getSyndrome(data << 4), 15, 2);
+            int offset = sRandom.nextInt(40);
+            CorrectedBinaryMessage legacy = message(codeword, 15, offset, offset + 15 + sRandom.nextInt(40));
+            CorrectedBinaryMessage table = copy(legacy, legacy.size());
+
+            long start = System.nanoTime();
+            int legacyStatus = LegacyHamming15.checkAndCorrect(legacy, offset);
+            legacyNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int tableStatus = Hamming15.checkAndCorrect(table, offset);
+            tableNanos += System.nanoTime() - start;
+
+            if(legacyStatus != tableStatus || !legacy.equals(table))
+            {
+                mismatches++;
+            }
+        }
+
+        log("Hamming15", mismatches, legacyNanos, tableNanos);
+        return mismatches;
+    }
+
+    private static void log(String code, int mismatches, long legacyNanos, long tableNanos)
+    {
+        mLog.info(code + " mismatches: " + mismatches + " original: " + (legacyNanos / ITERATIONS) +
+            " ns/codeword table: " + (tableNanos / ITERATIONS) + " ns/codeword");
+    }
+
+    /**
+     * Original Golay23 decoder
+     */
+    private static class LegacyGolay23
+    {
+        public static final int MAX_CORRECTABLE_ERRORS = 3;
+
+        public static final int[] CHECKSUMS = new int[]
+        {
+            0x63A, 0x31D, 0x7B4, 0x3DA, 0x1ED, 0x6CC, 0x366, 0x1B3, 
+            0x6E3, 0x54B, 0x49F, 0x475, 0x400, 0x200, 0x100, 0x080, 
+            0x040, 0x020, 0x010, 0x008, 0x004, 0x002, 0x001 
+        };
+
+        /**
+         * Implements Golay(23,12,7) error detection and correction.  Returns the
+         * number of detected errors.  If the error count is less than or equal to
+         * the max correctable errors (3), then the error bits are corrected.
+         * Otherwise the message is left intact and an error count greater than 3
+         * is returned.
+         * 
+         * @param frame - message frame bitset
+         * @param startIndex - first bit index of the golay protected bit sequence
+         * 
+         * @return - number of detected errors
+         */
+        public static int checkAndCorrect( BinaryMessage frame, int startIndex )
+        {
+            int syndrome = getSyndrome( frame, startIndex );
+
+            /* No errors */
+            if( syndrome == 0 )
+            {
+                return 0;
+            }
+
+            BinaryMessage copy = frame.getSubMessage( startIndex, startIndex + 23 );
+
+            int index = -1;
+            int syndromeWeight = MAX_CORRECTABLE_ERRORS;
+            int errors = 0;
+
+            while( index < 23 )
+            {
+                if( index != -1 )
+                {
+                    /* restore the previous flipped bit */
+                    if( index > 0 )
+                    {
+                        copy.flip( index - 1 );
+                    }
+
+                    copy.flip( index );
+
+                    syndromeWeight = MAX_CORRECTABLE_ERRORS - 1;
+                }
+
+                syndrome = getSyndrome( copy, 0 );
+
+                if( syndrome > 0 )
+                {
+                    for( int i = 0; i < 23; i++ )
+                    {
+                        errors = Integer.bitCount( syndrome );
+
+                        if( errors <= syndromeWeight )
+                        {
+                            copy.xor( 12, 11, syndrome );
+
+                            copy.rotateRight( i, 0, 22 );
+
+                            if( index >= 0 )
+                            {
+                                errors ++;
+                            }
+
+                            int corrected = copy.getInt( 0, 22 );
+                            int original = frame.getInt( startIndex, startIndex + 22 );
+
+                            int errorCount = Integer.bitCount( original ^ corrected );
+
+                            if( errorCount <= 3 )
+                            {
+                                frame.load( startIndex, 23, corrected );
+                            }
+
+                            return errorCount;
+                        }
+                        else
+                        {
+                            copy.rotateLeft( 0, 22 );
+                            syndrome = getSyndrome( copy, 0 );
+                        }
+                    }
+
+                    index++;
+                }
+            }
+
+            /* Return an error count greater than 3 to indicate failed correction attempt */
+            return 4;
+        }
+
+        private static int getSyndrome( BinaryMessage frame, int startIndex )
+        {
+            int calculated = calculateChecksum( frame, startIndex );
+
+            int checksum = frame.getInt( startIndex + 12, startIndex + 22 );
+
+            return ( checksum ^ calculated );
+        }
+
+        private static int calculateChecksum( BinaryMessage frame, int startIndex )
+        {
+            int calculated = 0; //Starting value
+
+            /* Iterate the set bits and XOR running checksum with lookup value */
+            for (int i = frame.nextSetBit( startIndex ); 
+                     i >= startIndex && i < startIndex + 12; 
+                     i = frame.nextSetBit( i+1 ) ) 
+            {
+                calculated ^= CHECKSUMS[ i - startIndex ];
+            }
+
+            return calculated;
+        }
+    }
+
+    /**
+     * Original Golay24 decoder
+     */
+    private static class LegacyGolay24
+    {
+        /**
+         * Galois 24/12 checksums generated by:
+         *
+         * CRCUtil.generate( 12, 11, 0xC75, 0x0, true );
+         */
+        public static final int[] CHECKSUMS = new int[]
+                {
+                        0x63A, 0x31D, 0x7B4, 0x3DA, 0x1ED, 0x6CC, 0x366, 0x1B3,
+                        0x6E3, 0x54B, 0x49F, 0x475, 0x400, 0x200, 0x100, 0x080,
+                        0x040, 0x020, 0x010, 0x008, 0x004, 0x002, 0x001
+                };
+
+        private static int calculateChecksum(BinaryMessage message, int startIndex)
+        {
+            int calculated = 0; //Starting value
+
+            /* Iterate the set bits and XOR running checksum with lookup value */
+            for(int i = message.nextSetBit(startIndex);
+                i >= startIndex && i < startIndex + 12;
+                i = message.nextSetBit(i + 1))
+            {
+                calculated ^= CHECKSUMS[i - startIndex];
+            }
+
+            return calculated;
+        }
+
+        /**
+         * Performs error detection and returns a corrected copy of the 24-bit
+         * message that starts at the start index.
+         *
+         * @param message - source message containing startIndex + 24 bits length
+         * @param startIndex - start of the 24-bit galois 24 protected bit set
+         * @return - corrected 24-bit galois value
+         */
+        public static int checkAndCorrect(CorrectedBinaryMessage message, int startIndex)
+        {
+            boolean parityError = message.cardinality() % 2 != 0;
+
+            int syndrome = getSyndrome(message, startIndex);
+
+            /* No errors */
+            if(syndrome == 0)
+            {
+                if(parityError)
+                {
+                    message.flip(startIndex + 23);
+                    message.incrementCorrectedBitCount(1);
+                    return 1;
+                }
+
+                return 0;
+            }
+
+            /* Get original message value */
+            int original = message.getInt(0, 22);
+
+            int index = -1;
+            int syndromeWeight = 3;
+            int errors = 0;
+
+            while(index < 23)
+            {
+                if(index != -1)
+                {
+                    /* restore the previous flipped bit */
+                    if(index > 0)
+                    {
+                        message.flip(index - 1);
+                    }
+
+                    message.flip(index);
+
+                    syndromeWeight = 2;
+                }
+
+                syndrome = getSyndrome(message, startIndex);
+
+                if(syndrome > 0)
+                {
+                    for(int i = 0; i < 23; i++)
+                    {
+
+                        errors = Integer.bitCount(syndrome);
+
+                        if(errors <= syndromeWeight)
+                        {
+                            message.xor(12, 11, syndrome);
+
+                            message.rotateRight(i, startIndex, startIndex + 22);
+
+                            if(index >= 0)
+                            {
+                                errors++;
+                            }
+
+                            int corrected = message.getInt(0, 22);
+
+                            if(Integer.bitCount(original ^ corrected) > 3)
+                            {
+                                return 2;
+                            }
+
+                            return 1;
+                        }
+                        else
+                        {
+                            message.rotateLeft(startIndex, startIndex + 22);
+                            syndrome = getSyndrome(message, startIndex);
+                        }
+                    }
+
+                    index++;
+                }
+            }
+
+            return 2;
+        }
+
+        private static int getSyndrome(BinaryMessage message, int startIndex)
+        {
+            int calculated = calculateChecksum(message, startIndex);
+
+            int checksum = message.getInt(startIndex + 12, startIndex + 22);
+
+            return (checksum ^ calculated);
+        }
+    }
+
+    /**
+     * Original Golay18 decoder
+     */
+    private static class LegacyGolay18
+    {
+        /**
+         * Performs error detection and correction.
+         */
+        public static void checkAndCorrect(CorrectedBinaryMessage message, int startIndex)
+        {
+            int value = message.getInt(startIndex, startIndex + 17);
+
+            CorrectedBinaryMessage temp = new CorrectedBinaryMessage(24);
+            temp.load(6, 18, value);
+
+            int errorsCorrected = LegacyGolay24.checkAndCorrect(temp, 0);
+
+            int correctedValue = temp.getInt(6, 23);
+
+            message.load(startIndex, 18, correctedValue);
+
+            int correctedBitCount = Integer.bitCount(value ^ correctedValue);
+            message.incrementCorrectedBitCount(correctedBitCount);
+        }
+    }
+
+    /**
+     * Original Hamming10 decoder
+     */
+    private static class LegacyHamming10
+    {
+        private static int[] CHECKSUMS = new int[]{0xE, 0xD, 0xB, 0X7, 0x3, 0xC};
+
+        /**
+         * Performs error detection and correction of any single-bit errors.
+         *
+         * @param frame - binary frame containing a Hamming(10,6,3) protected field
+         * @param startIndex - offset to the first bit of the field
+         * @return - 0 = no errors
+         * 1 = a single-bit error was corrected
+         * 2 = more than 1 bit error detected - unable to correct word
+         */
+        public static int checkAndCorrect(CorrectedBinaryMessage frame, int startIndex)
+        {
+            int syndrome = getSyndrome(frame, startIndex);
+
+            switch(syndrome)
+            {
+                case 0:
+                    return 0;
+                case 1:
+                    frame.flip(startIndex + 9); //Parity 1
+                    frame.incrementCorrectedBitCount(1);
+                    return 1;
+                case 2:
+                    frame.flip(startIndex + 8); //Parity 2
+                    frame.incrementCorrectedBitCount(1);
+                    return 1;
+                case 3:
+                    frame.flip(startIndex + 4); //Data 2
+                    frame.incrementCorrectedBitCount(1);
+                    return 1;
+                case 4:
+                    frame.flip(startIndex + 7); //Parity 4
+                    frame.incrementCorrectedBitCount(1);
+                    return 1;
+                case 5:
+                    return 2;
+                case 6:
+                    return 2;
+                case 7:
+                    frame.flip(startIndex + 3); //Data 3
+                    frame.incrementCorrectedBitCount(1);
+                    return 1;
+                case 8:
+                    frame.flip(startIndex + 6); //Parity 8
+                    frame.incrementCorrectedBitCount(1);
+                    return 1;
+                case 9:
+                    return 2;
+                case 10:
+                    return 2;
+                case 11:
+                    frame.flip(startIndex + 2); //Data 4
+                    frame.incrementCorrectedBitCount(1);
+                    return 1;
+                case 12:
+                    frame.flip(startIndex + 5); //Data 1
+                    frame.incrementCorrectedBitCount(1);
+                    return 1;
+                case 13:
+                    frame.flip(startIndex + 1); //Data 5
+                    frame.incrementCorrectedBitCount(1);
+                    return 1;
+                case 14:
+                    frame.flip(startIndex + 0); //Data 6
+                    frame.incrementCorrectedBitCount(1);
+                    return 1;
+                case 15:
+                    return 2;
+            }
+
+            /* We'll never get to here */
+            return 2;
+        }
+
+        /**
+         * Calculates the checksum (Parity 8,4,2,1) for data (6 <> 1 ) bits.
+         *
+         * @param frame - frame containing hamming(10) protected word
+         * @param startIndex - start bit index of the hamming protected word
+         * @return parity value, 0 - 15
+         */
+        private static int calculateChecksum(BinaryMessage frame, int startIndex)
+        {
+            int calculated = 0; //Starting value
+
+            /* Iterate the set bits and XOR running checksum with lookup value */
+            for(int i = frame.nextSetBit(startIndex); i >= startIndex && i < startIndex + 6; i = frame.nextSetBit(i + 1))
+            {
+                calculated ^= CHECKSUMS[i - startIndex];
+            }
+
+            return calculated;
+        }
+
+        /**
+         * Calculates the syndrome - xor of the calculated checksum and the actual
+         * checksum.
+         *
+         * @param frame - binary frame containing a hamming(15,11,4) protected word
+         * @param startIndex - of bit 0 of the hamming protected word
+         * @return - 0 (no errors) or 1 (single bit error corrected)
+         */
+        private static int getSyndrome(BinaryMessage frame, int startIndex)
+        {
+            int calculated = calculateChecksum(frame, startIndex);
+            int checksum = frame.getInt(startIndex + 6, startIndex + 9);
+            return (checksum ^ calculated);
+        }
+    }
+
+    /**
+     * Original Hamming15 decoder
+     */
+    private static class LegacyHamming15
+    {
+        private static int[] CHECKSUMS = new int[] { 0xF,0xE,0xD,0xC,0xB,0XA,0x9,
+            0x7,0x6,0x5,0x3 };
+
+        /**
+         * Performs error detection and correction of any single-bit errors.
+         * 
+         * @param frame - binary frame containing a hamming(15,11,4) protected field
+         * 
+         * @param startIndex - offset to the first bit of the field
+         * 
+         * @return - 0 = no errors 
+         *              1 = a single-bit error was corrected
+         *              2 = two or more errors detected - no corrections made
+         */
+        public static int checkAndCorrect( BinaryMessage frame, int startIndex )
+        {
+            int syndrome = getSyndrome( frame, startIndex );
+
+            switch( syndrome )
+            {
+                case 0:
+                    return 0;
+                case 1:
+                    frame.flip( startIndex + 14 ); //Parity 1
+                    return 1;
+                case 2:
+                    frame.flip( startIndex + 13 ); //Parity 2
+                    return 1;
+                case 3:
+                    frame.flip( startIndex + 10 ); //Data 1
+                    return 1;
+                case 4:
+                    frame.flip( startIndex + 12 ); //Parity 4
+                    return 1;
+                case 5:
+                    frame.flip( startIndex + 9 ); //Data 2
+                    return 1;
+                case 6:
+                    frame.flip( startIndex + 8 ); //Data 3
+                    return 1;
+                case 7:
+                    frame.flip( startIndex + 7 ); //Data 4
+                    return 1;
+                case 8:
+                    frame.flip( startIndex + 11 ); //Parity 8
+                    return 1;
+                case 9:
+                    frame.flip( startIndex + 6 ); //Data 5
+                    return 1;
+                case 10:
+                    frame.flip( startIndex + 5 ); //Data 6
+                    return 1;
+                case 11:
+                    frame.flip( startIndex + 4 ); //Data 7
+                    return 1;
+                case 12:
+                    frame.flip( startIndex + 3 ); //Data 8
+                    return 1;
+                case 13:
+                    frame.flip( startIndex + 2 ); //Data 9
+                    return 1;
+                case 14:
+                    frame.flip( startIndex + 1 ); //Data 10
+                    return 1;
+                case 15:
+                    frame.flip( startIndex ); //Data 11
+                    return 1;
+            }
+
+            /* We'll never get to here */
+            return 2;
+        }
+
+        /**
+         * Calculates the checksum (Parity 8,4,2,1) for data (11 <> 1 ) bits.
+         * @param frame - frame containing hamming(15) protected word
+         * @param startIndex - start bit index of the hamming protected word
+         * @return parity value, 0 - 15
+         */
+        private static int calculateChecksum( BinaryMessage frame, int startIndex )
+        {
+            int calculated = 0; //Starting value
+
+            /* Iterate the set bits and XOR running checksum with lookup value */
+            for (int i = frame.nextSetBit( startIndex ); 
+                     i >= startIndex && i < startIndex + 11; 
+                     i = frame.nextSetBit( i+1 ) ) 
+            {
+                calculated ^= CHECKSUMS[ i - startIndex ];
+            }
+
+            return calculated;
+        }
+
+        /**
+         * Calculates the syndrome - xor of the calculated checksum and the actual
+         * checksum.
+         * 
+         * @param frame - binary frame containing a hamming(15,11,4) protected word
+         * @param startIndex - of bit 0 of the hamming protected word
+         * @return - 0 (no errors) or 1 (single bit error corrected)
+         */
+        private static int getSyndrome( BinaryMessage frame, int startIndex )
+        {
+            int calculated = calculateChecksum( frame, startIndex );
+
+            int checksum = frame.getInt( startIndex + 11, startIndex + 14 );
+
+            return ( checksum ^ calculated );
+        }
+    }
+}
@@ -18,6 +18,9 @@
  ******************************************************************************/
 package io.github.dsheirer.edac.trellis;
 
+import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -25,24 +28,53 @@ import java.util.Map;
 
 public abstract class ViterbiDecoder
 {
+    private static final int INVALID_METRIC = Integer.MAX_VALUE / 2;
+
     private int mInputBitLength;
     private int mInputValueCount;
     private int mOutputBitLength;
     private int mOutputValueCount;
 
+    //Branch error lookup table indexed by [transmitted output value][preceding state * input value count + input value]
+    private int[][] mBranchErrors;
+
+    //Decoding workspace, reused across calls to decodeMessage()
+    private int[] mMetrics;
+    private int[] mNextMetrics;
+    private byte[] mSurvivors = new byte[0];
+
     /**
      * Viterbi decoder for trellis coded modulation (TCM) encoded binary sequences.
      *
      * @param inputBitLength for coding (e.g. 3/4 rate input bit length is 3)
      * @param outputBitLength for coding (e.g. 3/4 rate output bit length is 4)
+     * @param transitionMatrix containing the expected output value for each [preceding state][input value], where the
+     * state is the input value of the preceding time instant.
      */
-    public ViterbiDecoder(int inputBitLength, int outputBitLength)
+    public ViterbiDecoder(int inputBitLength, int outputBitLength, int[][] transitionMatrix)
     {
         mInputBitLength = inputBitLength;
         mOutputBitLength = outputBitLength;
 
         mInputValueCount = (int)Math.pow(2.0, mInputBitLength);
         mOutputValueCount = (int)Math.pow(2.0, mOutputBitLength);
+
+        mBranchErrors = new int[mOutputValueCount][mInputValueCount * mInputValueCount];
+
+        for(int transmitted = 0; transmitted < mOutputValueCount; transmitted++)
+        {
+            for(int state = 0; state < mInputValueCount; state++)
+            {
+                for(int input = 0; input < mInputValueCount; input++)
+                {
+                    mBranchErrors[transmitted][state * mInputValueCount + input] =
+                        Integer.bitCount(transitionMatrix[state][input] ^ transmitted);
+                }
+            }
+        }
+
+        mMetrics = new int[mInputValueCount];
+        mNextMetrics = new int[mInputValueCount];
     }
 
     /**
@@ -118,6 +150,125 @@ public abstract class ViterbiDecoder
         return mOutputValueCount;
     }
 
+    /**
+     * Decodes the TCM encoded message using the precomputed branch error table, primitive path metrics and a survivor
+     * (traceback) table, producing the same decoded message as decoding with paths and nodes, without allocating
+     * any intermediate objects.  The decoding workspace is reused, so this method is synchronized to allow a decoder
+     * instance to be shared across threads.
+     *
+     * Decoding starts from state zero and the final transmitted output value is flushed with an input value of zero.
+     * Ties between candidate paths are resolved in favor of the lowest preceding state, the same as path decoding.
+     *
+     * @param encodedMessage that has already been deinterleaved and contains an integral number of output symbols
+     * @return decoded message with the corrected bit count set to the error value of the most likely path
+     */
+    protected synchronized CorrectedBinaryMessage decodeMessage(BinaryMessage encodedMessage)
+    {
+        if(encodedMessage.size() % mOutputBitLength != 0)
+        {
+            throw new IllegalArgumentException("Encoded message must contain an integral number of " +
+                mOutputBitLength + "-bit symbols - message size: " + encodedMessage.size());
+        }
+
+        int symbolCount = encodedMessage.size() / mOutputBitLength;
+        int decodedCount = symbolCount - 1;
+        int stateCount = mInputValueCount;
+
+        if(mSurvivors.length < decodedCount * stateCount)
+        {
+            mSurvivors = new byte[decodedCount * stateCount];
+        }
+
+        int[] metrics = mMetrics;
+        int[] nextMetrics = mNextMetrics;
+
+        metrics[0] = 0;
+
+        for(int state = 1; state < stateCount; state++)
+        {
+            metrics[state] = INVALID_METRIC;
+        }
+
+        //Add each transmitted value (except the last) to the surviving paths, tracking the lowest error path and the
+        //preceding state for each state
+        for(int x = 0; x < decodedCount; x++)
+        {
+            int symbolOffset = x * mOutputBitLength;
+            int[] branchErrors = mBranchErrors[encodedMessage.getInt(symbolOffset, symbolOffset + mOutputBitLength - 1)];
+            int survivorOffset = x * stateCount;
+
+            for(int input = 0; input < stateCount; input++)
+            {
+                int bestMetric = INVALID_METRIC;
+                int bestState = 0;
+
+                for(int state = 0; state < stateCount; state++)
+                {
+                    if(metrics[state] != INVALID_METRIC)
+                    {
+                        int metric = metrics[state] + branchErrors[state * stateCount + input];
+
+                        if(metric < bestMetric)
+                        {
+                            bestMetric = metric;
+                            bestState = state;
+                        }
+                    }
+                }
+
+                nextMetrics[input] = bestMetric;
+                mSurvivors[survivorOffset + input] = (byte)bestState;
+            }
+
+            int[] swap = metrics;
+            metrics = nextMetrics;
+            nextMetrics = swap;
+        }
+
+        //Flush the surviving paths with the final transmitted value and a flushing input value of zero
+        int symbolOffset = decodedCount * mOutputBitLength;
+        int[] branchErrors = mBranchErrors[encodedMessage.getInt(symbolOffset, symbolOffset + mOutputBitLength - 1)];
+
+        int bestMetric = INVALID_METRIC;
+        int state = 0;
+
+        for(int x = 0; x < stateCount; x++)
+        {
+            if(metrics[x] != INVALID_METRIC)
+            {
+                int metric = metrics[x] + branchErrors[x * stateCount];
+
+                if(metric < bestMetric)
+                {
+                    bestMetric = metric;
+                    state = x;
+                }
+            }
+        }
+
+        //Trace back through the survivors to recover the input value for each time instant
+        CorrectedBinaryMessage message = new CorrectedBinaryMessage(decodedCount * mInputBitLength);
+
+        for(int x = decodedCount - 1; x >= 0; x--)
+        {
+            int messageOffset = x * mInputBitLength;
+
+            for(int bit = 0; bit < mInputBitLength; bit++)
+            {
+                if((state & (1 << (mInputBitLength - bit - 1))) != 0)
+                {
+                    message.set(messageOffset + bit);
+                }
+            }
+
+            state = mSurvivors[x * stateCount + state];
+        }
+
+        message.setCorrectedBitCount(bestMetric);
+
+        return message;
+    }
+
     /**
      * Decodes the TCM encoded transmitted output values and returns a path the represents the most likely transmitted
      * sequence of nodes.
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.edac.trellis;
+
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Randomized equivalence test of the table-driven Viterbi decoder against the original path and node decoder, with a
+ * simple timing comparison.
+ *
+ * Messages are either trellis encoded from random input values with a random number of bit errors, or are completely
+ * random bit sequences that maximize the number of tied candidate paths.  Each message is decoded with both
+ * implementations and the decoded message and corrected bit count are compared.
+ */
+public class ViterbiDecoderTest
+{
+    private final static Logger mLog = LoggerFactory.getLogger(ViterbiDecoderTest.class);
+    private static final int ITERATIONS = 3000;
+    private static final int ENCODED_MESSAGE_LENGTH = 196;
+    private static final int MAX_BIT_ERRORS = 16;
+
+    private static Random sRandom = new Random(0x25);
+
+    public static void main(String[] args)
+    {
+        int failures = 0;
+
+        failures += test("P25 1/2 Rate", new ViterbiDecoder_1_2_P25(), P25_1_2_Node.TRANSITION_MATRIX);
+        failures += test("P25 3/4 Rate", new ViterbiDecoder_3_4_P25(), P25_3_4_Node.TRANSITION_MATRIX);
+        failures += test("DMR 3/4 Rate", new ViterbiDecoder_3_4_DMR(), DMR_3_4_Node.DMR_TRANSITION_MATRIX);
+
+        mLog.info(failures == 0 ? "PASSED - all decoders are equivalent" : "FAILED - mismatch count: " + failures);
+    }
+
+    /**
+     * Trellis encodes random input values starting from state zero and flushes the encoder with an input value of
+     * zero, then flips a random number of bits in the encoded message.
+     */
+    private static CorrectedBinaryMessage encodedMessage(ViterbiDecoder decoder, int[][] transitionMatrix)
+    {
+        int outputBitLength = decoder.getOutputBitLength();
+        int symbolCount = ENCODED_MESSAGE_LENGTH / outputBitLength;
+        CorrectedBinaryMessage message = new CorrectedBinaryMessage(ENCODED_MESSAGE_LENGTH);
+
+        int state = 0;
+
+        for(int x = 0; x < symbolCount; x++)
+        {
+            int input = (x < symbolCount - 1) ? sRandom.nextInt(decoder.getInputValueCount()) : 0;
+            message.load(x * outputBitLength, outputBitLength, transitionMatrix[state][input]);
+            state = input;
+        }
+
+        int errors = sRandom.nextInt(MAX_BIT_ERRORS + 1);
+
+        for(int x = 0; x < errors; x++)
+        {
+            message.flip(sRandom.nextInt(ENCODED_MESSAGE_LENGTH));
+        }
+
+        return message;
+    }
+
+    /**
+     * Creates a completely random encoded message
+     */
+    private static CorrectedBinaryMessage randomMessage()
+    {
+        CorrectedBinaryMessage message = new CorrectedBinaryMessage(ENCODED_MESSAGE_LENGTH);
+
+        for(int x = 0; x < ENCODED_MESSAGE_LENGTH; x++)
+        {
+            if(sRandom.nextBoolean())
+            {
+                message.set(x);
+            }
+        }
+
+        return message;
+    }
+
+    /**
+     * Extracts the decoded message from the surviving path, the same as the original decoder implementations.
+     */
+    private static CorrectedBinaryMessage getMessage(Path path, int inputBitLength)
+    {
+        List<Node> nodes = path.getNodes();
+
+        //Each node contains an input value excluding the starting(0) and final flushing(0) nodes.
+        CorrectedBinaryMessage message = new CorrectedBinaryMessage((nodes.size() - 2) * inputBitLength);
+
+        for(int x = 1; x < nodes.size() - 1; x++)
+        {
+            int inputValue = nodes.get(x).getInputValue();
+            int messageOffset = inputBitLength * (x - 1);
+
+            for(int bit = 0; bit < inputBitLength; bit++)
+            {
+                if((inputValue & (1 << (inputBitLength - bit - 1))) != 0)
+                {
+                    message.set(messageOffset + bit);
+                }
+            }
+        }
+
+        message.setCorrectedBitCount(path.getError());
+
+        return message;
+    }
+
+    private static int test(String code, ViterbiDecoder decoder, int[][] transitionMatrix)
+    {
+        int mismatches = 0;
+        long pathNanos = 0;
+        long tableNanos = 0;
+
+        for(int x = 0; x < ITERATIONS; x++)
+        {
+            CorrectedBinaryMessage encoded = (x % 2 == 0) ? encodedMessage(decoder, transitionMatrix) : randomMessage();
+
+            long start = System.nanoTime();
+            CorrectedBinaryMessage path = getMessage(decoder.decode(getSymbols(decoder, encoded)),
+                decoder.getInputBitLength());
+            pathNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            CorrectedBinaryMessage table = decoder.decodeMessage(encoded);
+            tableNanos += System.nanoTime() - start;
+
+            if(!path.equals(table) || path.size() != table.size() ||
+               path.getCorrectedBitCount() != table.getCorrectedBitCount())
+            {
+                mismatches++;
+            }
+        }
+
+        mLog.info(code + " mismatches: " + mismatches + " original: " + (pathNanos / ITERATIONS / 1000) +
+            " us/message table: " + (tableNanos / ITERATIONS / 1000) + " us/message");
+
+        return mismatches;
+    }
+
+    /**
+     * Splits the encoded message into transmitted output values
+     */
+    private static int[] getSymbols(ViterbiDecoder decoder, CorrectedBinaryMessage encoded)
+    {
+        int outputBitLength = decoder.getOutputBitLength();
+        int[] symbols = new int[encoded.size() / outputBitLength];
+
+        for(int x = 0; x < symbols.length; x++)
+        {
+            symbols[x] = encoded.getInt(x * outputBitLength, x * outputBitLength + outputBitLength - 1);
+        }
+
+        return symbols;
+    }
+}
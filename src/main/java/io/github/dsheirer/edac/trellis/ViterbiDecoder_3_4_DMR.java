@@ -21,8 +21,6 @@ package io.github.dsheirer.edac.trellis;
 import io.github.dsheirer.bits.BinaryMessage;
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
 
-import java.util.List;
-
 public class ViterbiDecoder_3_4_DMR extends ViterbiDecoder
 {
     /**
@@ -30,7 +28,7 @@ public class ViterbiDecoder_3_4_DMR extends ViterbiDecoder
      */
     public ViterbiDecoder_3_4_DMR()
     {
-        super(3,4);
+        super(3, 4, DMR_3_4_Node.DMR_TRANSITION_MATRIX);
     }
 
     /**
@@ -42,55 +40,7 @@ public class ViterbiDecoder_3_4_DMR extends ViterbiDecoder
      */
     public CorrectedBinaryMessage decode(BinaryMessage encodedMessage)
     {
-        int[] symbols = getSymbols(encodedMessage);
-
-        Path mostLikelyPath = decode(symbols);
-
-        return getMessage(mostLikelyPath);
-    }
-
-    /**
-     * Extracts the decoded/corrected message from the surviving path argument.
-     *
-     * @param path to extract a message from
-     * @return corrected binary message.
-     */
-    private static CorrectedBinaryMessage getMessage(Path path)
-    {
-        List<Node> mNodes = path.getNodes();
-
-        //Each node contains an input value excluding the starting(0) and final flushing(0) nodes.
-        CorrectedBinaryMessage message = new CorrectedBinaryMessage((mNodes.size() - 2) * 3);
-
-        if(mNodes.size() > 2)
-        {
-            for(int x = 1; x < mNodes.size() - 1; x++)
-            {
-                int inputValue = mNodes.get(x).getInputValue();
-
-                int messageOffset = 3 * (x - 1);
-
-                if((inputValue & 4) == 4)
-                {
-                    message.set(messageOffset);
-                }
-
-                if((inputValue & 2) == 2)
-                {
-                    message.set(messageOffset + 1);
-                }
-
-                if((inputValue & 1) == 1)
-                {
-                    message.set(messageOffset + 2);
-                }
-            }
-        }
-
-        //Transfer the corrected error count to the message
-        message.setCorrectedBitCount(path.getError());
-
-        return message;
+        return decodeMessage(encodedMessage);
     }
 
     /**
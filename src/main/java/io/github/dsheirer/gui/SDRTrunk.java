@@ -24,7 +24,6 @@ package io.github.dsheirer.gui;
 import com.jidesoft.plaf.LookAndFeelFactory;
 import com.jidesoft.swing.JideSplitPane;
 import io.github.dsheirer.alias.AliasModel;
-import io.github.dsheirer.audio.AudioPacketManager;
 import io.github.dsheirer.audio.broadcast.BroadcastModel;
 import io.github.dsheirer.audio.broadcast.BroadcastStatusPanel;
 import io.github.dsheirer.audio.playback.AudioPlaybackManager;
@@ -39,10 +38,7 @@ import io.github.dsheirer.eventbus.MyEventBus;
 import io.github.dsheirer.gui.preference.PreferenceEditorType;
 import io.github.dsheirer.gui.preference.PreferenceEditorViewRequest;
 import io.github.dsheirer.icon.IconManager;
-import io.github.dsheirer.log.ApplicationLog;
 import io.github.dsheirer.map.MapService;
-import io.github.dsheirer.module.log.EventLogManager;
-import io.github.dsheirer.playlist.PlaylistManager;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.properties.SystemProperties;
 import io.github.dsheirer.record.RecorderManager;
@@ -53,11 +49,9 @@ import io.github.dsheirer.source.tuner.Tuner;
 import io.github.dsheirer.source.tuner.TunerEvent;
 import io.github.dsheirer.source.tuner.TunerModel;
 import io.github.dsheirer.source.tuner.TunerSpectralDisplayManager;
-import io.github.dsheirer.source.tuner.configuration.TunerConfigurationModel;
 import io.github.dsheirer.spectrum.ClearTunerMenuItem;
 import io.github.dsheirer.spectrum.ShowTunerMenuItem;
 import io.github.dsheirer.spectrum.SpectralDisplayPanel;
-import io.github.dsheirer.util.ThreadPool;
 import io.github.dsheirer.util.TimeStamp;
 import jiconfont.icons.font_awesome.FontAwesome;
 import jiconfont.swing.IconFontSwing;
@@ -91,8 +85,6 @@ import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.nio.file.FileSystems;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Locale;
@@ -108,7 +100,7 @@ public class SDRTrunk implements Listener<TunerEvent>
     private static final String WINDOW_FRAME_IDENTIFIER = BASE_WINDOW_NAME + ".frame";
 
     private boolean mBroadcastStatusVisible;
-    private AudioPacketManager mAudioPacketManager;
+    private SDRTrunkCore mCore;
     private IconManager mIconManager;
     private BroadcastStatusPanel mBroadcastStatusPanel;
     private BroadcastModel mBroadcastModel;
@@ -121,15 +113,14 @@ public class SDRTrunk implements Listener<TunerEvent>
     private JFrame mMainGui = new JFrame();
     private JideSplitPane mSplitPane;
     private JavaFxWindowManager mJavaFxWindowManager;
-    private UserPreferences mUserPreferences = new UserPreferences();
-    private ApplicationLog mApplicationLog;
+    private UserPreferences mUserPreferences;
 
     private String mTitle;
 
     public SDRTrunk()
     {
-        mApplicationLog = new ApplicationLog(mUserPreferences);
-        mApplicationLog.start();
+        mCore = new SDRTrunkCore();
+        mUserPreferences = mCore.getUserPreferences();
 
         String operatingSystem = System.getProperty("os.name", "generic").toLowerCase(Locale.ENGLISH);
 
@@ -146,67 +137,27 @@ public class SDRTrunk implements Listener<TunerEvent>
             }
         }
 
-        //Setup the application home directory
-        Path home = getHomePath();
-
-        ThreadPool.logSettings();
-
-        mLog.info("Home path: " + home.toString());
-
-        //Load properties file
-        if(home != null)
-        {
-            loadProperties(home);
-        }
-
-        //Log current properties setting
-        SystemProperties.getInstance().logCurrentSettings();
-
         //Register FontAwesome so we can use the fonts in Swing windows
         IconFontSwing.register(FontAwesome.getIconFont());
 
-        TunerConfigurationModel tunerConfigurationModel = new TunerConfigurationModel();
-        TunerModel tunerModel = new TunerModel(tunerConfigurationModel);
-
-        mIconManager = new IconManager();
-
-        mSettingsManager = new SettingsManager(tunerConfigurationModel);
-
-        AliasModel aliasModel = new AliasModel();
-
-        mChannelModel = new ChannelModel();
-
-        ChannelMapModel channelMapModel = new ChannelMapModel();
-
-        EventLogManager eventLogManager = new EventLogManager(mUserPreferences);
-
-        RecorderManager recorderManager = new RecorderManager(aliasModel, mUserPreferences);
+        TunerModel tunerModel = mCore.getTunerModel();
+        mIconManager = mCore.getIconManager();
+        mSettingsManager = mCore.getSettingsManager();
+        AliasModel aliasModel = mCore.getAliasModel();
+        mChannelModel = mCore.getChannelModel();
+        ChannelMapModel channelMapModel = mCore.getChannelMapModel();
+        RecorderManager recorderManager = mCore.getRecorderManager();
+        mSourceManager = mCore.getSourceManager();
+        mChannelProcessingManager = mCore.getChannelProcessingManager();
+        mBroadcastModel = mCore.getBroadcastModel();
 
         mJavaFxWindowManager = new JavaFxWindowManager(mUserPreferences);
 
-        mSourceManager = new SourceManager(tunerModel, mSettingsManager, mUserPreferences);
-
-        mChannelProcessingManager = new ChannelProcessingManager(channelMapModel, eventLogManager, recorderManager,
-            mSourceManager, aliasModel, mUserPreferences);
-
-        mChannelModel.addListener(mChannelProcessingManager);
-        mChannelProcessingManager.addChannelEventListener(mChannelModel);
-
         ChannelSelectionManager channelSelectionManager = new ChannelSelectionManager(mChannelModel);
         mChannelModel.addListener(channelSelectionManager);
 
         AudioPlaybackManager audioPlaybackManager = new AudioPlaybackManager(mSourceManager.getMixerManager());
-
-        mBroadcastModel = new BroadcastModel(aliasModel, mIconManager, mUserPreferences);
-
-        //Audio packets are routed through the audio packet manager for metadata enrichment and then
-        //distributed to the audio packet processors (ie playback, recording, streaming, etc.)
-        mAudioPacketManager = new AudioPacketManager(aliasModel);
-        mAudioPacketManager.addListener(recorderManager);
-        mAudioPacketManager.addListener(audioPlaybackManager);
-        mAudioPacketManager.addListener(mBroadcastModel);
-        mAudioPacketManager.start();
-        mChannelProcessingManager.addAudioPacketListener(mAudioPacketManager);
+        mCore.getAudioPacketManager().addListener(audioPlaybackManager);
 
         MapService mapService = new MapService(mIconManager);
         mChannelProcessingManager.addDecodeEventListener(mapService);
@@ -223,10 +174,7 @@ public class SDRTrunk implements Listener<TunerEvent>
         tunerModel.addListener(tunerSpectralDisplayManager);
         tunerModel.addListener(this);
 
-        PlaylistManager playlistManager = new PlaylistManager(aliasModel, mBroadcastModel, mChannelModel,
-            channelMapModel, mUserPreferences);
-
-        playlistManager.init();
+        mCore.start();
 
         mLog.info("starting main application gui");
 
@@ -351,7 +299,7 @@ public class SDRTrunk implements Listener<TunerEvent>
             {
                 try
                 {
-                    Desktop.getDesktop().open(getHomePath().toFile());
+                    Desktop.getDesktop().open(SDRTrunkCore.getHomePath().toFile());
                 }
                 catch(Exception e)
                 {
@@ -359,7 +307,7 @@ public class SDRTrunk implements Listener<TunerEvent>
 
                     JOptionPane.showMessageDialog(mMainGui,
                         "Can't launch file explorer - files are located at: " +
-                            getHomePath().toString(),
+                            SDRTrunkCore.getHomePath().toString(),
                         "Can't launch file explorer",
                         JOptionPane.ERROR_MESSAGE);
                 }
@@ -469,14 +417,9 @@ public class SDRTrunk implements Listener<TunerEvent>
         mUserPreferences.getSwingPreference().setDimension(SPECTRAL_PANEL_IDENTIFIER, mSpectralPanel.getSize());
         mUserPreferences.getSwingPreference().setDimension(CONTROLLER_PANEL_IDENTIFIER, mControllerPanel.getSize());
         mJavaFxWindowManager.shutdown();
-        mLog.info("Stopping channels ...");
-        mChannelProcessingManager.shutdown();
-        mAudioPacketManager.stop();
         mLog.info("Stopping spectral display ...");
         mSpectralPanel.clearTuner();
-        mSourceManager.shutdown();
-        mLog.info("Shutdown complete.");
-        mApplicationLog.stop();
+        mCore.shutdown();
     }
 
     /**
@@ -524,73 +467,6 @@ public class SDRTrunk implements Listener<TunerEvent>
     }
 
 
-    /**
-     * Loads the application properties file from the user's home directory,
-     * creating the properties file for the first-time, if necessary
-     */
-    private void loadProperties(Path homePath)
-    {
-        Path propsPath = homePath.resolve("SDRTrunk.properties");
-
-        if(!Files.exists(propsPath))
-        {
-            try
-            {
-                mLog.info("SDRTrunk - creating application properties file [" +
-                    propsPath.toAbsolutePath() + "]");
-
-                Files.createFile(propsPath);
-            }
-            catch(IOException e)
-            {
-                mLog.error("SDRTrunk - couldn't create application properties "
-                    + "file [" + propsPath.toAbsolutePath(), e);
-            }
-        }
-
-        if(Files.exists(propsPath))
-        {
-            SystemProperties.getInstance().load(propsPath);
-        }
-        else
-        {
-            mLog.error("SDRTrunk - couldn't find or recreate the SDRTrunk " +
-                "application properties file");
-        }
-    }
-
-    /**
-     * Gets (or creates) the SDRTRunk application home directory.
-     *
-     * Note: the user can change this setting to allow log files and other
-     * files to reside elsewhere on the file system.
-     */
-    private Path getHomePath()
-    {
-        Path homePath = FileSystems.getDefault()
-            .getPath(System.getProperty("user.home"), "SDRTrunk");
-
-        if(!Files.exists(homePath))
-        {
-            try
-            {
-                Files.createDirectory(homePath);
-
-                mLog.info("SDRTrunk - created application home directory [" +
-                    homePath.toString() + "]");
-            }
-            catch(Exception e)
-            {
-                homePath = null;
-
-                mLog.error("SDRTrunk: exception while creating SDRTrunk home " +
-                    "directory in the user's home directory", e);
-            }
-        }
-
-        return homePath;
-    }
-
     @Override
     public void receive(TunerEvent event)
     {
@@ -662,10 +538,19 @@ public class SDRTrunk implements Listener<TunerEvent>
     }
 
     /**
-     * Launch the application.
+     * Launch the application.  Specify the --headless argument to run without a user interface.
      */
     public static void main(String[] args)
     {
+        for(String arg: args)
+        {
+            if(SDRTrunkHeadless.HEADLESS_ARGUMENT.equals(arg))
+            {
+                SDRTrunkHeadless.main(args);
+                return;
+            }
+        }
+
         new SDRTrunk();
     }
 }
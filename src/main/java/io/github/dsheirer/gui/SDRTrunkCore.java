@@ -0,0 +1,298 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.gui;
+
+import io.github.dsheirer.alias.AliasModel;
+import io.github.dsheirer.audio.AudioPacketManager;
+import io.github.dsheirer.audio.broadcast.BroadcastModel;
+import io.github.dsheirer.controller.channel.ChannelModel;
+import io.github.dsheirer.controller.channel.ChannelProcessingManager;
+import io.github.dsheirer.controller.channel.map.ChannelMapModel;
+import io.github.dsheirer.dsp.filter.design.FilterDesignCache;
+import io.github.dsheirer.icon.IconManager;
+import io.github.dsheirer.log.ApplicationLog;
+import io.github.dsheirer.module.log.EventLogManager;
+import io.github.dsheirer.monitor.PipelineMetricsServer;
+import io.github.dsheirer.playlist.PlaylistManager;
+import io.github.dsheirer.preference.UserPreferences;
+import io.github.dsheirer.properties.SystemProperties;
+import io.github.dsheirer.record.RecorderManager;
+import io.github.dsheirer.settings.SettingsManager;
+import io.github.dsheirer.source.SourceManager;
+import io.github.dsheirer.source.tuner.TunerModel;
+import io.github.dsheirer.source.tuner.configuration.TunerConfigurationModel;
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Core (non user interface) sdrtrunk application components that are shared by the user interface and the headless
+ * application entry points.
+ *
+ * Construction starts the application log, loads the application properties, starts the pipeline metrics server and
+ * the filter design cache, and creates and wires together the models, the tuner/source manager, the channel
+ * processing manager, the recorders, the audio broadcasters and the audio packet manager.  The entry point can then
+ * register any user interface listeners before invoking start() to load the playlist and start audio packet
+ * processing.  Invoke shutdown() to stop the core components.
+ */
+public class SDRTrunkCore
+{
+    private final static Logger mLog = LoggerFactory.getLogger(SDRTrunkCore.class);
+
+    private UserPreferences mUserPreferences = new UserPreferences();
+    private ApplicationLog mApplicationLog;
+    private PipelineMetricsServer mPipelineMetricsServer;
+    private IconManager mIconManager;
+    private TunerModel mTunerModel;
+    private SettingsManager mSettingsManager;
+    private AliasModel mAliasModel;
+    private ChannelModel mChannelModel;
+    private ChannelMapModel mChannelMapModel;
+    private EventLogManager mEventLogManager;
+    private RecorderManager mRecorderManager;
+    private SourceManager mSourceManager;
+    private ChannelProcessingManager mChannelProcessingManager;
+    private BroadcastModel mBroadcastModel;
+    private AudioPacketManager mAudioPacketManager;
+    private PlaylistManager mPlaylistManager;
+
+    public SDRTrunkCore()
+    {
+        mApplicationLog = new ApplicationLog(mUserPreferences);
+        mApplicationLog.start();
+
+        //Setup the application home directory
+        Path home = getHomePath();
+
+        ThreadPool.logSettings();
+
+        //Load properties file
+        if(home != null)
+        {
+            mLog.info("Home path: " + home.toString());
+            loadProperties(home);
+        }
+
+        //Log current properties setting
+        SystemProperties.getInstance().logCurrentSettings();
+
+        mPipelineMetricsServer = PipelineMetricsServer.startIfEnabled();
+
+        //Load previously designed filters so that channel startup doesn't wait on filter design
+        FilterDesignCache.start();
+
+        TunerConfigurationModel tunerConfigurationModel = new TunerConfigurationModel();
+        mTunerModel = new TunerModel(tunerConfigurationModel);
+        mIconManager = new IconManager();
+        mSettingsManager = new SettingsManager(tunerConfigurationModel);
+        mAliasModel = new AliasModel();
+        mChannelModel = new ChannelModel();
+        mChannelMapModel = new ChannelMapModel();
+        mEventLogManager = new EventLogManager(mUserPreferences);
+        mRecorderManager = new RecorderManager(mAliasModel, mUserPreferences);
+        mSourceManager = new SourceManager(mTunerModel, mSettingsManager, mUserPreferences);
+
+        mChannelProcessingManager = new ChannelProcessingManager(mChannelMapModel, mEventLogManager, mRecorderManager,
+            mSourceManager, mAliasModel, mUserPreferences);
+
+        mChannelModel.addListener(mChannelProcessingManager);
+        mChannelProcessingManager.addChannelEventListener(mChannelModel);
+
+        mBroadcastModel = new BroadcastModel(mAliasModel, mIconManager, mUserPreferences);
+
+        //Audio packets are routed through the audio packet manager for metadata enrichment and then
+        //distributed to the audio packet processors (ie recording, streaming and any playback added by the caller)
+        mAudioPacketManager = new AudioPacketManager(mAliasModel);
+        mAudioPacketManager.addListener(mRecorderManager);
+        mAudioPacketManager.addListener(mBroadcastModel);
+        mChannelProcessingManager.addAudioPacketListener(mAudioPacketManager);
+
+        mPlaylistManager = new PlaylistManager(mAliasModel, mBroadcastModel, mChannelModel, mChannelMapModel,
+            mUserPreferences);
+    }
+
+    /**
+     * Starts audio packet processing and loads the playlist.  Invoke this method after registering any additional
+     * model listeners so that the listeners are notified of the channels, aliases and broadcast configurations that
+     * are loaded from the playlist.
+     */
+    public void start()
+    {
+        mAudioPacketManager.start();
+        mPlaylistManager.init();
+    }
+
+    /**
+     * Stops channel processing, event logging, audio packet processing, the tuners, the pipeline metrics server and
+     * the filter design cache, and then stops the application log.
+     */
+    public void shutdown()
+    {
+        mLog.info("Stopping channels ...");
+        mChannelProcessingManager.shutdown();
+        mEventLogManager.shutdown();
+        mAudioPacketManager.stop();
+        mSourceManager.shutdown();
+
+        if(mPipelineMetricsServer != null)
+        {
+            mPipelineMetricsServer.stop();
+        }
+
+        FilterDesignCache.stop();
+
+        mLog.info("Shutdown complete.");
+        mApplicationLog.stop();
+    }
+
+    public UserPreferences getUserPreferences()
+    {
+        return mUserPreferences;
+    }
+
+    public IconManager getIconManager()
+    {
+        return mIconManager;
+    }
+
+    public TunerModel getTunerModel()
+    {
+        return mTunerModel;
+    }
+
+    public SettingsManager getSettingsManager()
+    {
+        return mSettingsManager;
+    }
+
+    public AliasModel getAliasModel()
+    {
+        return mAliasModel;
+    }
+
+    public ChannelModel getChannelModel()
+    {
+        return mChannelModel;
+    }
+
+    public ChannelMapModel getChannelMapModel()
+    {
+        return mChannelMapModel;
+    }
+
+    public RecorderManager getRecorderManager()
+    {
+        return mRecorderManager;
+    }
+
+    public SourceManager getSourceManager()
+    {
+        return mSourceManager;
+    }
+
+    public ChannelProcessingManager getChannelProcessingManager()
+    {
+        return mChannelProcessingManager;
+    }
+
+    public BroadcastModel getBroadcastModel()
+    {
+        return mBroadcastModel;
+    }
+
+    public AudioPacketManager getAudioPacketManager()
+    {
+        return mAudioPacketManager;
+    }
+
+    /**
+     * Loads the application properties file from the user's home directory,
+     * creating the properties file for the first-time, if necessary
+     */
+    static void loadProperties(Path homePath)
+    {
+        Path propsPath = homePath.resolve("SDRTrunk.properties");
+
+        if(!Files.exists(propsPath))
+        {
+            try
+            {
+                mLog.info("SDRTrunk - creating application properties file [" +
+                    propsPath.toAbsolutePath() + "]");
+
+                Files.createFile(propsPath);
+            }
+            catch(IOException e)
+            {
+                mLog.error("SDRTrunk - couldn't create application properties "
+                    + "file [" + propsPath.toAbsolutePath(), e);
+            }
+        }
+
+        if(Files.exists(propsPath))
+        {
+            SystemProperties.getInstance().load(propsPath);
+        }
+        else
+        {
+            mLog.error("SDRTrunk - couldn't find or recreate the SDRTrunk " +
+                "application properties file");
+        }
+    }
+
+    /**
+     * Gets (or creates) the SDRTRunk application home directory.
+     *
+     * Note: the user can change this setting to allow log files and other
+     * files to reside elsewhere on the file system.
+     */
+    static Path getHomePath()
+    {
+        Path homePath = FileSystems.getDefault()
+            .getPath(System.getProperty("user.home"), "SDRTrunk");
+
+        if(!Files.exists(homePath))
+        {
+            try
+            {
+                Files.createDirectory(homePath);
+
+                mLog.info("SDRTrunk - created application home directory [" +
+                    homePath.toString() + "]");
+            }
+            catch(Exception e)
+            {
+                homePath = null;
+
+                mLog.error("SDRTrunk: exception while creating SDRTrunk home " +
+                    "directory in the user's home directory", e);
+            }
+        }
+
+        return homePath;
+    }
+}
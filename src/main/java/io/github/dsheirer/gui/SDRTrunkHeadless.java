@@ -0,0 +1,200 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.gui;
+
+import io.github.dsheirer.audio.broadcast.AudioBroadcaster;
+import io.github.dsheirer.audio.broadcast.BroadcastConfiguration;
+import io.github.dsheirer.audio.broadcast.BroadcastModel;
+import io.github.dsheirer.controller.channel.Channel;
+import io.github.dsheirer.controller.channel.ChannelEvent;
+import io.github.dsheirer.controller.channel.ChannelModel;
+import io.github.dsheirer.controller.channel.ChannelProcessingManager;
+import io.github.dsheirer.properties.SystemProperties;
+import io.github.dsheirer.source.tuner.Tuner;
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless (no user interface) sdrtrunk application for servers that only decode, record and stream.
+ *
+ * Starts the shared core application components (see SDRTrunkCore) and then starts each of the auto-start channels.
+ * None of the Swing or JavaFX user interface components or user interface model listeners (spectral display, channel
+ * selection, map, audio playback) are created, and the JVM runs with java.awt.headless=true.  Application status is
+ * periodically written to the application log.
+ *
+ * Launch with: SDRTrunk --headless
+ */
+public class SDRTrunkHeadless
+{
+    private final static Logger mLog = LoggerFactory.getLogger(SDRTrunkHeadless.class);
+
+    public static final String HEADLESS_ARGUMENT = "--headless";
+    private static final String PROPERTY_STATUS_INTERVAL = "headless.status.interval.seconds";
+    private static final int DEFAULT_STATUS_INTERVAL_SECONDS = 60;
+
+    private SDRTrunkCore mCore;
+    private ChannelModel mChannelModel;
+    private ChannelProcessingManager mChannelProcessingManager;
+    private ScheduledFuture<?> mStatusLogger;
+    private CountDownLatch mShutdownLatch = new CountDownLatch(1);
+
+    public SDRTrunkHeadless()
+    {
+        mCore = new SDRTrunkCore();
+        mChannelModel = mCore.getChannelModel();
+        mChannelProcessingManager = mCore.getChannelProcessingManager();
+
+        //There is no local audio playback in headless mode - audio packets are only recorded and streamed
+        mCore.start();
+
+        mLog.info("Started headless application - tuners [" + mCore.getTunerModel().getTuners().size() +
+            "] channels [" + mChannelModel.getChannels().size() + "]");
+
+        autoStartChannels();
+
+        int interval = SystemProperties.getInstance().get(PROPERTY_STATUS_INTERVAL, DEFAULT_STATUS_INTERVAL_SECONDS);
+
+        if(interval > 0)
+        {
+            mStatusLogger = ThreadPool.SCHEDULED.scheduleAtFixedRate(this::logStatus, interval, interval,
+                TimeUnit.SECONDS);
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::processShutdown, "sdrtrunk shutdown"));
+    }
+
+    /**
+     * Starts each of the channels that are designated for auto-start, in auto-start order.
+     */
+    private void autoStartChannels()
+    {
+        List<Channel> channels = mChannelModel.getAutoStartChannels();
+
+        for(Channel channel: channels)
+        {
+            mLog.info("Auto-starting channel [" + channel.getName() + "]");
+            mChannelProcessingManager.receive(new ChannelEvent(channel, ChannelEvent.Event.REQUEST_ENABLE));
+        }
+    }
+
+    /**
+     * Logs the status of the tuners, processing channels and audio broadcasters
+     */
+    private void logStatus()
+    {
+        try
+        {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Status - tuners [");
+
+            for(Tuner tuner: mCore.getTunerModel().getTuners())
+            {
+                sb.append(" ").append(tuner.getName()).append(":").append(tuner.getTunerController().getFrequency());
+            }
+
+            int processing = 0;
+
+            for(Channel channel: mChannelModel.getChannels())
+            {
+                if(channel.isProcessing())
+                {
+                    processing++;
+                }
+            }
+
+            sb.append(" ] processing channels [").append(processing).append("] broadcasters [");
+
+            BroadcastModel broadcastModel = mCore.getBroadcastModel();
+
+            for(BroadcastConfiguration configuration: broadcastModel.getBroadcastConfigurations())
+            {
+                AudioBroadcaster broadcaster = broadcastModel.getBroadcaster(configuration.getName());
+
+                if(broadcaster != null)
+                {
+                    sb.append(" ").append(configuration.getName()).append(":").append(broadcaster.getBroadcastState())
+                        .append(" streamed:").append(broadcaster.getStreamedAudioCount())
+                        .append(" aged off:").append(broadcaster.getAgedOffAudioCount());
+                }
+            }
+
+            sb.append(" ] memory used [")
+                .append((Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) / 1048576)
+                .append(" MB]");
+
+            mLog.info(sb.toString());
+        }
+        catch(Throwable t)
+        {
+            mLog.error("Error logging application status", t);
+        }
+    }
+
+    /**
+     * Performs shutdown operations.  Invoked by the JVM shutdown hook.
+     */
+    private void processShutdown()
+    {
+        mLog.info("Application shutdown started ...");
+
+        if(mStatusLogger != null)
+        {
+            mStatusLogger.cancel(true);
+        }
+
+        mCore.shutdown();
+        mShutdownLatch.countDown();
+    }
+
+    /**
+     * Blocks the calling thread until the application is shutdown
+     */
+    public void awaitShutdown() throws InterruptedException
+    {
+        mShutdownLatch.await();
+    }
+
+    /**
+     * Launch the application without a user interface.
+     */
+    public static void main(String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+
+        SDRTrunkHeadless sdrTrunk = new SDRTrunkHeadless();
+
+        try
+        {
+            sdrTrunk.awaitShutdown();
+        }
+        catch(InterruptedException ie)
+        {
+            mLog.info("Interrupted - exiting");
+        }
+    }
+}
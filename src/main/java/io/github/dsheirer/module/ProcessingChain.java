@@ -51,6 +51,9 @@ import io.github.dsheirer.module.decode.event.IDecodeEventListener;
 import io.github.dsheirer.module.decode.event.IDecodeEventProvider;
 import io.github.dsheirer.module.decode.event.MessageActivityModel;
 import io.github.dsheirer.module.log.EventLogger;
+import io.github.dsheirer.monitor.MeteredListener;
+import io.github.dsheirer.monitor.PipelineMetrics;
+import io.github.dsheirer.monitor.StageMetrics;
 import io.github.dsheirer.record.binary.BinaryRecorder;
 import io.github.dsheirer.record.wave.ComplexBufferWaveRecorder;
 import io.github.dsheirer.sample.Broadcaster;
@@ -74,12 +77,16 @@ import io.github.dsheirer.source.SourceEvent;
 import io.github.dsheirer.source.heartbeat.Heartbeat;
 import io.github.dsheirer.source.heartbeat.IHeartbeatListener;
 import io.github.dsheirer.source.heartbeat.IHeartbeatProvider;
+import io.github.dsheirer.source.tuner.channel.TunerChannelSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Processing chain provides a framework for connecting a complex or real sample
@@ -104,9 +111,9 @@ public class ProcessingChain implements Listener<ChannelEvent>
     private final static Logger mLog = LoggerFactory.getLogger(ProcessingChain.class);
 
     private ReusableBufferBroadcaster<ReusableAudioPacket> mAudioPacketBroadcaster = new ReusableBufferBroadcaster<>();
-    private ReusableBufferBroadcaster<ReusableFloatBuffer> mDemodulatedAudioBufferBroadcaster = new ReusableBufferBroadcaster();
-    private ReusableBufferBroadcaster<ReusableComplexBuffer> mBasebandComplexBufferBroadcaster = new ReusableBufferBroadcaster();
-    private ReusableBufferBroadcaster<ReusableByteBuffer> mDemodulatedBitstreamBufferBroadcaster = new ReusableBufferBroadcaster();
+    private ReusableBufferBroadcaster<ReusableFloatBuffer> mDemodulatedAudioBufferBroadcaster = new ReusableBufferBroadcaster<>();
+    private ReusableBufferBroadcaster<ReusableComplexBuffer> mBasebandComplexBufferBroadcaster = new ReusableBufferBroadcaster<>();
+    private ReusableBufferBroadcaster<ReusableByteBuffer> mDemodulatedBitstreamBufferBroadcaster = new ReusableBufferBroadcaster<>();
     private Broadcaster<IDecodeEvent> mDecodeEventBroadcaster = new Broadcaster<>();
     private Broadcaster<ChannelEvent> mChannelEventBroadcaster = new Broadcaster<>();
     private Broadcaster<DecoderStateEvent> mDecoderStateEventBroadcaster = new Broadcaster<>();
@@ -121,6 +128,14 @@ public class ProcessingChain implements Listener<ChannelEvent>
     private AbstractChannelState mChannelState;
     private MessageActivityModel mMessageActivityModel;
     protected Source mSource;
+    private String mChannelName;
+    private StageMetrics mSourceMetrics;
+    private boolean mModuleMetricsEnabled = PipelineMetrics.isModuleMetricsEnabled();
+    private Map<Module,StageMetrics> mModuleMetrics = new HashMap<>();
+    private Map<Module,MeteredListener<ReusableFloatBuffer>> mMeteredAudioBufferListeners = new HashMap<>();
+    private Map<Module,MeteredListener<ReusableComplexBuffer>> mMeteredComplexBufferListeners = new HashMap<>();
+    private Map<Module,MeteredListener<ReusableByteBuffer>> mMeteredBitstreamBufferListeners = new HashMap<>();
+    private GrantLatencyMonitor mGrantLatencyMonitor;
 
     /**
      * Creates a processing chain for managing a set of modules
@@ -129,6 +144,8 @@ public class ProcessingChain implements Listener<ChannelEvent>
      */
     public ProcessingChain(Channel channel, AliasModel aliasModel)
     {
+        mChannelName = channel.getName();
+
         if(channel.getDecodeConfiguration().getTimeslotCount() == 1)
         {
             mChannelState = new SingleChannelState(channel, aliasModel);
@@ -350,17 +367,20 @@ public class ProcessingChain implements Listener<ChannelEvent>
 
         if(module instanceof IReusableBufferListener)
         {
-            mDemodulatedAudioBufferBroadcaster.addListener(((IReusableBufferListener)module).getReusableBufferListener());
+            addMeteredListener(module, mDemodulatedAudioBufferBroadcaster,
+                ((IReusableBufferListener)module).getReusableBufferListener(), mMeteredAudioBufferListeners);
         }
 
         if(module instanceof IReusableByteBufferListener)
         {
-            mDemodulatedBitstreamBufferBroadcaster.addListener(((IReusableByteBufferListener)module).getReusableByteBufferListener());
+            addMeteredListener(module, mDemodulatedBitstreamBufferBroadcaster,
+                ((IReusableByteBufferListener)module).getReusableByteBufferListener(), mMeteredBitstreamBufferListeners);
         }
 
         if(module instanceof IReusableComplexBufferListener)
         {
-            mBasebandComplexBufferBroadcaster.addListener(((IReusableComplexBufferListener)module).getReusableComplexBufferListener());
+            addMeteredListener(module, mBasebandComplexBufferBroadcaster,
+                ((IReusableComplexBufferListener)module).getReusableComplexBufferListener(), mMeteredComplexBufferListeners);
         }
 
         if(module instanceof ISourceEventListener)
@@ -417,17 +437,20 @@ public class ProcessingChain implements Listener<ChannelEvent>
 
         if(module instanceof IReusableBufferListener)
         {
-            mDemodulatedAudioBufferBroadcaster.removeListener(((IReusableBufferListener)module).getReusableBufferListener());
+            removeMeteredListener(module, mDemodulatedAudioBufferBroadcaster,
+                ((IReusableBufferListener)module).getReusableBufferListener(), mMeteredAudioBufferListeners);
         }
 
         if(module instanceof IReusableByteBufferListener)
         {
-            mDemodulatedBitstreamBufferBroadcaster.removeListener(((IReusableByteBufferListener)module).getReusableByteBufferListener());
+            removeMeteredListener(module, mDemodulatedBitstreamBufferBroadcaster,
+                ((IReusableByteBufferListener)module).getReusableByteBufferListener(), mMeteredBitstreamBufferListeners);
         }
 
         if(module instanceof IReusableComplexBufferListener)
         {
-            mBasebandComplexBufferBroadcaster.removeListener(((IReusableComplexBufferListener)module).getReusableComplexBufferListener());
+            removeMeteredListener(module, mBasebandComplexBufferBroadcaster,
+                ((IReusableComplexBufferListener)module).getReusableComplexBufferListener(), mMeteredComplexBufferListeners);
         }
 
         if(module instanceof ISourceEventListener)
@@ -444,6 +467,68 @@ public class ProcessingChain implements Listener<ChannelEvent>
         {
             mSquelchStateEventBroadcaster.removeListener(((ISquelchStateListener)module).getSquelchStateListener());
         }
+
+        PipelineMetrics.unregister(mModuleMetrics.remove(module));
+    }
+
+    /**
+     * Adds the module's buffer listener to the broadcaster.  When module metrics are enabled, the listener is wrapped
+     * with a metered listener that records the module's buffer throughput and processing time.  Modules that receive
+     * more than one buffer type share a single metrics instance.
+     *
+     * @param module that owns the listener
+     * @param broadcaster to receive the (metered) listener
+     * @param listener to add
+     * @param meteredListeners map of module to metered listener for the broadcaster
+     */
+    private <T> void addMeteredListener(Module module, Broadcaster<T> broadcaster, Listener<T> listener,
+                                        Map<Module,MeteredListener<T>> meteredListeners)
+    {
+        if(!mModuleMetricsEnabled)
+        {
+            broadcaster.addListener(listener);
+            return;
+        }
+
+        StageMetrics metrics = mModuleMetrics.get(module);
+
+        if(metrics == null)
+        {
+            metrics = new StageMetrics(StageMetrics.Type.MODULE, mChannelName + " " + module.getClass().getSimpleName());
+            mModuleMetrics.put(module, metrics);
+
+            if(mRunning.get())
+            {
+                PipelineMetrics.register(metrics);
+            }
+        }
+
+        MeteredListener<T> meteredListener = new MeteredListener<>(listener, metrics);
+        meteredListeners.put(module, meteredListener);
+        broadcaster.addListener(meteredListener);
+    }
+
+    /**
+     * Removes the module's (metered) buffer listener from the broadcaster
+     *
+     * @param module that owns the listener
+     * @param broadcaster to remove the listener from
+     * @param listener that was added, removed directly from the broadcaster if it was not wrapped
+     * @param meteredListeners map of module to metered listener for the broadcaster
+     */
+    private <T> void removeMeteredListener(Module module, Broadcaster<T> broadcaster, Listener<T> listener,
+                                           Map<Module,MeteredListener<T>> meteredListeners)
+    {
+        MeteredListener<T> meteredListener = meteredListeners.remove(module);
+
+        if(meteredListener != null)
+        {
+            broadcaster.removeListener(meteredListener);
+        }
+        else
+        {
+            broadcaster.removeListener(listener);
+        }
     }
 
     /**
@@ -599,6 +684,18 @@ public class ProcessingChain implements Listener<ChannelEvent>
                 //Setup the channel state to monitor source overflow conditions
                 mSource.setOverflowListener(mChannelState);
 
+                //Register pipeline metrics for the channel source and each of the buffer processing modules
+                if(mSource instanceof TunerChannelSource)
+                {
+                    mSourceMetrics = PipelineMetrics.register(StageMetrics.Type.CHANNEL_SOURCE, mChannelName);
+                    ((TunerChannelSource)mSource).setMetrics(mSourceMetrics);
+                }
+
+                for(StageMetrics moduleMetrics: mModuleMetrics.values())
+                {
+                    PipelineMetrics.register(moduleMetrics);
+                }
+
                 /* Register with the source to receive sample data.  Setup a
                  * timer task to process the buffer queues 50 times a second
                  * (every 20 ms) */
@@ -650,6 +747,11 @@ public class ProcessingChain implements Listener<ChannelEvent>
 
                 mSource.setOverflowListener(null);
 
+                if(mSource instanceof TunerChannelSource)
+                {
+                    ((TunerChannelSource)mSource).setMetrics(null);
+                }
+
                 switch(mSource.getSampleType())
                 {
                     case COMPLEX:
@@ -666,6 +768,20 @@ public class ProcessingChain implements Listener<ChannelEvent>
                 mSource = null;
             }
 
+            PipelineMetrics.unregister(mSourceMetrics);
+            mSourceMetrics = null;
+
+            //Cancel any pending grant to audio latency measurement for calls that didn't produce audio
+            if(mGrantLatencyMonitor != null)
+            {
+                mGrantLatencyMonitor.setGrantNanos(0);
+            }
+
+            for(StageMetrics moduleMetrics: mModuleMetrics.values())
+            {
+                PipelineMetrics.unregister(moduleMetrics);
+            }
+
             /* Stop each of the remaining modules */
             for(Module module : mModules)
             {
@@ -743,6 +859,23 @@ public class ProcessingChain implements Listener<ChannelEvent>
         mAudioPacketBroadcaster.removeListener(listener);
     }
 
+    /**
+     * Sets the time that the channel grant for this (traffic channel) processing chain was processed, so that the
+     * latency from the channel grant to the first audio packet produced by this chain can be measured.
+     *
+     * @param grantNanos System.nanoTime() timestamp of the channel grant
+     */
+    public void setChannelGrantTimestamp(long grantNanos)
+    {
+        if(mGrantLatencyMonitor == null)
+        {
+            mGrantLatencyMonitor = new GrantLatencyMonitor();
+            addAudioPacketListener(mGrantLatencyMonitor);
+        }
+
+        mGrantLatencyMonitor.setGrantNanos(grantNanos);
+    }
+
     /**
      * Adds the listener to receive decode events from all modules.
      */
@@ -889,4 +1022,36 @@ public class ProcessingChain implements Listener<ChannelEvent>
     {
         mIdentifierUpdateNotificationBroadcaster.broadcast(updateNotification);
     }
+
+    /**
+     * Records the latency from a traffic channel grant to the first audio packet produced by the processing chain.
+     */
+    private class GrantLatencyMonitor implements Listener<ReusableAudioPacket>
+    {
+        private final AtomicLong mGrantNanos = new AtomicLong();
+
+        /**
+         * Sets the grant timestamp, or zero to cancel the measurement
+         */
+        public void setGrantNanos(long grantNanos)
+        {
+            mGrantNanos.set(grantNanos);
+        }
+
+        @Override
+        public void receive(ReusableAudioPacket audioPacket)
+        {
+            if(audioPacket.hasAudioSamples())
+            {
+                long grantNanos = mGrantNanos.getAndSet(0);
+
+                if(grantNanos != 0)
+                {
+                    PipelineMetrics.getLatencyMetrics(PipelineMetrics.LATENCY_GRANT_TO_AUDIO).recordSince(grantNanos);
+                }
+            }
+
+            audioPacket.decrementUserCount();
+        }
+    }
 }
@@ -39,6 +39,7 @@ import io.github.dsheirer.gui.editor.ValidatingEditor;
 import io.github.dsheirer.message.IMessage;
 import io.github.dsheirer.message.MessageDirection;
 import io.github.dsheirer.module.Module;
+import io.github.dsheirer.module.decode.afsk.AbstractAFSKDecoder;
 import io.github.dsheirer.module.decode.am.AMDecoder;
 import io.github.dsheirer.module.decode.am.AMDecoderEditor;
 import io.github.dsheirer.module.decode.am.DecodeConfigAM;
@@ -337,6 +338,19 @@ public class DecoderFactory
                         throw new IllegalArgumentException("Unrecognized auxiliary decoder type [" + auxDecoder + "]");
                 }
             }
+
+            //Auxiliary decoders receive the same demodulated channel audio, so demodulate AFSK 1200 once per channel
+            List<AbstractAFSKDecoder> afskDecoders = new ArrayList<>();
+
+            for(Module module: modules)
+            {
+                if(module instanceof AbstractAFSKDecoder)
+                {
+                    afskDecoders.add((AbstractAFSKDecoder)module);
+                }
+            }
+
+            AbstractAFSKDecoder.shareDecoder(afskDecoders);
         }
 
         return modules;
@@ -21,16 +21,25 @@ import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.IReusableBufferListener;
 import io.github.dsheirer.sample.buffer.ReusableFloatBuffer;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Abstract class for Audio Frequency Shift Keying (AFSK) 1200-baud decoder based decoder modules.
  *
  * This class handles the AFSK 1200 decoder and incoming sample stream buffer management.
  *
  * Sub-class implementations should invoke getDecoder().setListener() to receive decoded symbol stream.
+ *
+ * Several AFSK decoders that receive the same channel audio (ie auxiliary decoders) can share a single AFSK 1200
+ * demodulator via shareDecoder(), so that the audio is resampled and correlated once per channel and the decoded
+ * symbol stream is distributed to each decoder's symbol processor.
  */
 public abstract class AbstractAFSKDecoder extends Decoder implements IReusableBufferListener, Listener<ReusableFloatBuffer>
 {
     private AFSK1200Decoder mAFSK1200Decoder;
+    private AFSK1200Decoder mSharedDecoder;
+    private boolean mSharedDecoderFeeder;
 
     public AbstractAFSKDecoder(AFSK1200Decoder decoder)
     {
@@ -50,7 +59,63 @@ public abstract class AbstractAFSKDecoder extends Decoder implements IReusableBu
     @Override
     public void receive(ReusableFloatBuffer reusableFloatBuffer)
     {
-        mAFSK1200Decoder.receive(reusableFloatBuffer);
+        if(mSharedDecoder != null)
+        {
+            //Only one of the decoders that share the demodulator feeds the channel audio to the shared demodulator
+            if(mSharedDecoderFeeder)
+            {
+                mSharedDecoder.receive(reusableFloatBuffer);
+            }
+            else
+            {
+                reusableFloatBuffer.decrementUserCount();
+            }
+        }
+        else
+        {
+            mAFSK1200Decoder.receive(reusableFloatBuffer);
+        }
+    }
+
+    /**
+     * Configures the decoders to share a single AFSK 1200 demodulator.  Each decoder's symbol processor and output
+     * (normal/inverted) setting is transferred to the shared demodulator and the first decoder is designated to feed
+     * the channel audio to the shared demodulator.  The other decoders discard the (identical) channel audio.
+     *
+     * Note: the decoders must receive the same channel audio stream.  Decoders that use a customized (ie instrumented)
+     * AFSK 1200 decoder are not shared.
+     *
+     * @param decoders to share a demodulator
+     */
+    public static void shareDecoder(List<AbstractAFSKDecoder> decoders)
+    {
+        List<AbstractAFSKDecoder> shareable = new ArrayList<>();
+
+        for(AbstractAFSKDecoder decoder: decoders)
+        {
+            if(decoder.mSharedDecoder == null && decoder.mAFSK1200Decoder.getClass() == AFSK1200Decoder.class &&
+                decoder.mAFSK1200Decoder.getSymbolProcessor() != null)
+            {
+                shareable.add(decoder);
+            }
+        }
+
+        if(shareable.size() < 2)
+        {
+            return;
+        }
+
+        AFSK1200Decoder sharedDecoder = new AFSK1200Decoder(AFSK1200Decoder.Output.NORMAL);
+
+        for(AbstractAFSKDecoder decoder: shareable)
+        {
+            AFSK1200Decoder decoderAFSK = decoder.mAFSK1200Decoder;
+            sharedDecoder.addSymbolProcessor(decoderAFSK.getSymbolProcessor(), decoderAFSK.getOutput());
+            decoderAFSK.removeListener();
+            decoder.mSharedDecoder = sharedDecoder;
+        }
+
+        shareable.get(0).mSharedDecoderFeeder = true;
     }
 
     @Override
@@ -0,0 +1,272 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.module.decode.batch;
+
+import io.github.dsheirer.alias.AliasModel;
+import io.github.dsheirer.controller.channel.Channel;
+import io.github.dsheirer.controller.channel.map.ChannelMapModel;
+import io.github.dsheirer.module.ProcessingChain;
+import io.github.dsheirer.module.decode.DecoderFactory;
+import io.github.dsheirer.module.decode.config.DecodeConfiguration;
+import io.github.dsheirer.module.log.DecodeEventLogger;
+import io.github.dsheirer.module.log.EventLogType;
+import io.github.dsheirer.module.log.EventLogWriter;
+import io.github.dsheirer.module.log.MessageEventLogger;
+import io.github.dsheirer.preference.UserPreferences;
+import io.github.dsheirer.source.config.SourceConfigTuner;
+import io.github.dsheirer.source.wave.ComplexWaveSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Decodes a single complex baseband recording as fast as the decoder processing chain can consume the samples and
+ * writes the call event and decoded message logs to the output directory.
+ *
+ * Sample buffers are timestamped from their position in the recording, relative to the recording start time, so that
+ * decoded messages and events carry the original time of transmission.  The recording start time is parsed from the
+ * recording file name (ie channel_baseband_20200101_123456.wav) or, when absent, derived from the file's last
+ * modified time minus the recording duration.
+ */
+public class BatchDecodeJob implements Callable<BatchDecodeJob.Result>
+{
+    private final static Logger mLog = LoggerFactory.getLogger(BatchDecodeJob.class);
+
+    private static final Pattern RECORDING_TIMESTAMP_PATTERN = Pattern.compile(".*_(\\d{8}_\\d{6})\\.wav$");
+    private static final int FRAMES_PER_READ = 8192;
+    private static final int EVENT_LOG_QUEUE_SIZE = 8192;
+
+    private File mRecording;
+    private DecodeConfiguration mDecodeConfiguration;
+    private Path mOutputDirectory;
+    private long mFrequency;
+    private UserPreferences mUserPreferences;
+    private AliasModel mAliasModel;
+    private ChannelMapModel mChannelMapModel;
+
+    /**
+     * Constructs an instance
+     *
+     * @param recording file containing complex baseband samples
+     * @param decodeConfiguration for the primary decoder
+     * @param outputDirectory for the event log files
+     * @param frequency of the recorded channel, used for the log file names and channel frequency identifiers
+     * @param userPreferences shared across jobs
+     * @param aliasModel shared across jobs
+     * @param channelMapModel shared across jobs
+     */
+    public BatchDecodeJob(File recording, DecodeConfiguration decodeConfiguration, Path outputDirectory,
+                          long frequency, UserPreferences userPreferences, AliasModel aliasModel,
+                          ChannelMapModel channelMapModel)
+    {
+        mRecording = recording;
+        mDecodeConfiguration = decodeConfiguration;
+        mOutputDirectory = outputDirectory;
+        mFrequency = frequency;
+        mUserPreferences = userPreferences;
+        mAliasModel = aliasModel;
+        mChannelMapModel = channelMapModel;
+    }
+
+    /**
+     * Recording file for this job
+     */
+    public File getRecording()
+    {
+        return mRecording;
+    }
+
+    @Override
+    public Result call() throws Exception
+    {
+        String name = mRecording.getName().replaceAll("\\.wav$", "");
+
+        Channel channel = new Channel(name);
+        channel.setDecodeConfiguration(mDecodeConfiguration);
+        SourceConfigTuner sourceConfigTuner = new SourceConfigTuner();
+        sourceConfigTuner.setFrequency(mFrequency);
+        channel.setSourceConfiguration(sourceConfigTuner);
+
+        ComplexWaveSource source = new ComplexWaveSource(mRecording);
+        source.open();
+        source.setFrequency(mFrequency);
+
+        double sampleRate = source.getSampleRate();
+        long recordingStart = getRecordingStartTimestamp(mRecording, source.getRecordingSampleCount(), sampleRate);
+        source.setRecordingStartTimestamp(recordingStart);
+
+        ProcessingChain processingChain = new ProcessingChain(channel, mAliasModel);
+        processingChain.addModules(DecoderFactory.getModules(mChannelMapModel, channel, mAliasModel, mUserPreferences));
+
+        //Batch decoding runs faster than real time - wait for log queue space instead of dropping log entries and
+        //don't rotate the log files
+        EventLogWriter eventLogWriter = new EventLogWriter(EVENT_LOG_QUEUE_SIZE, 0, 0, false);
+        eventLogWriter.setDropWhenFull(false);
+        eventLogWriter.start();
+
+        processingChain.addModule(new DecodeEventLogger(eventLogWriter, mOutputDirectory,
+            name + EventLogType.CALL_EVENT.getFileSuffix() + ".log", mFrequency));
+        processingChain.addModule(new MessageEventLogger(eventLogWriter, mOutputDirectory,
+            name + EventLogType.DECODED_MESSAGE.getFileSuffix() + ".log", MessageEventLogger.Type.DECODED, mFrequency));
+
+        AtomicLong messageCount = new AtomicLong();
+        processingChain.addMessageListener(message -> messageCount.incrementAndGet());
+        processingChain.setSource(source);
+
+        long start = System.currentTimeMillis();
+
+        try
+        {
+            processingChain.start();
+
+            while(!source.isEndOfFile())
+            {
+                source.next(FRAMES_PER_READ, true);
+            }
+        }
+        catch(Exception e)
+        {
+            if(!source.isEndOfFile())
+            {
+                throw e;
+            }
+        }
+        finally
+        {
+            processingChain.stop();
+            processingChain.dispose();
+            source.close();
+            eventLogWriter.stop();
+        }
+
+        Result result = new Result(mRecording, source.getSampleCount(), sampleRate, messageCount.get(),
+            System.currentTimeMillis() - start);
+
+        mLog.info(result.toString());
+
+        return result;
+    }
+
+    /**
+     * Determines the start time of the recording from the timestamp in the recording file name or, when the file name
+     * doesn't contain a timestamp, from the file's last modified time minus the recording duration.
+     *
+     * @param recording file
+     * @param sampleCount number of complex samples (frames) in the recording or -1 if unknown
+     * @param sampleRate of the recording
+     * @return recording start timestamp in milliseconds since epoch
+     */
+    public static long getRecordingStartTimestamp(File recording, long sampleCount, double sampleRate)
+    {
+        Matcher matcher = RECORDING_TIMESTAMP_PATTERN.matcher(recording.getName());
+
+        if(matcher.matches())
+        {
+            try
+            {
+                return new SimpleDateFormat("yyyyMMdd_HHmmss").parse(matcher.group(1)).getTime();
+            }
+            catch(ParseException pe)
+            {
+                mLog.debug("Unable to parse recording start time from file name [" + recording.getName() + "]");
+            }
+        }
+
+        long duration = (sampleCount > 0 && sampleRate > 0) ? (long)(sampleCount * 1000.0 / sampleRate) : 0;
+
+        return recording.lastModified() - duration;
+    }
+
+    /**
+     * Batch decode job results
+     */
+    public static class Result
+    {
+        private File mRecording;
+        private long mSampleCount;
+        private double mSampleRate;
+        private long mMessageCount;
+        private long mElapsed;
+
+        public Result(File recording, long sampleCount, double sampleRate, long messageCount, long elapsed)
+        {
+            mRecording = recording;
+            mSampleCount = sampleCount;
+            mSampleRate = sampleRate;
+            mMessageCount = messageCount;
+            mElapsed = elapsed;
+        }
+
+        /**
+         * Recording that was decoded
+         */
+        public File getRecording()
+        {
+            return mRecording;
+        }
+
+        /**
+         * Duration of the recording in milliseconds
+         */
+        public long getRecordingDuration()
+        {
+            return mSampleRate > 0 ? (long)(mSampleCount * 1000.0 / mSampleRate) : 0;
+        }
+
+        /**
+         * Number of messages decoded from the recording
+         */
+        public long getMessageCount()
+        {
+            return mMessageCount;
+        }
+
+        /**
+         * Elapsed processing time in milliseconds
+         */
+        public long getElapsed()
+        {
+            return mElapsed;
+        }
+
+        /**
+         * Ratio of recording duration to processing time (ie 10.0 is ten times faster than real time)
+         */
+        public double getSpeed()
+        {
+            return (double)getRecordingDuration() / Math.max(mElapsed, 1);
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Decoded [" + mRecording.getName() + "] duration [" + getRecordingDuration() + " ms] in [" +
+                mElapsed + " ms] speed [" + String.format("%.1f", getSpeed()) + "x real time] messages [" +
+                mMessageCount + "]";
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.module.decode.batch;
+
+import io.github.dsheirer.alias.AliasModel;
+import io.github.dsheirer.controller.NamingThreadFactory;
+import io.github.dsheirer.controller.channel.map.ChannelMapModel;
+import io.github.dsheirer.module.decode.DecoderFactory;
+import io.github.dsheirer.module.decode.DecoderType;
+import io.github.dsheirer.module.decode.config.DecodeConfiguration;
+import io.github.dsheirer.module.decode.p25.phase1.DecodeConfigP25Phase1;
+import io.github.dsheirer.module.decode.p25.phase1.P25P1Decoder;
+import io.github.dsheirer.preference.UserPreferences;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Faster than real time batch decoder for complex baseband recordings.
+ *
+ * Each recording is decoded by an independent processing chain that pulls samples from the recording as fast as the
+ * decoders can process them, with sample timestamps derived from the sample position in the recording.  Multiple
+ * recordings are decoded in parallel across a fixed pool of threads, and each recording produces call event and
+ * decoded message logs in the output directory.
+ *
+ * Usage: BatchRecordingDecoder --decoder=P25_PHASE1 [--modulation=CQPSK] [--threads=4] [--frequency=851000000]
+ *        [--output=/path/to/logs] recording.wav|directory ...
+ */
+public class BatchRecordingDecoder
+{
+    private final static Logger mLog = LoggerFactory.getLogger(BatchRecordingDecoder.class);
+
+    private int mThreadCount;
+    private UserPreferences mUserPreferences = new UserPreferences();
+    private AliasModel mAliasModel = new AliasModel();
+    private ChannelMapModel mChannelMapModel = new ChannelMapModel();
+
+    /**
+     * Constructs an instance
+     *
+     * @param threadCount number of recordings to decode in parallel
+     */
+    public BatchRecordingDecoder(int threadCount)
+    {
+        mThreadCount = Math.max(threadCount, 1);
+    }
+
+    /**
+     * Decodes each of the recordings in parallel and blocks until all recordings have been decoded.
+     *
+     * @param recordings to decode
+     * @param decodeConfiguration for the primary decoder used with each recording.  A copy of the configuration is
+     * used for each recording.
+     * @param outputDirectory for the event log files
+     * @param frequency of the recorded channel(s)
+     * @return results for each of the successfully decoded recordings
+     */
+    public List<BatchDecodeJob.Result> decode(List<File> recordings, DecodeConfiguration decodeConfiguration,
+                                              Path outputDirectory, long frequency)
+    {
+        List<BatchDecodeJob.Result> results = new ArrayList<>();
+
+        if(recordings.isEmpty())
+        {
+            return results;
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(mThreadCount, recordings.size()),
+            new NamingThreadFactory("sdrtrunk batch decoder"));
+
+        List<BatchDecodeJob> jobs = new ArrayList<>();
+        List<Future<BatchDecodeJob.Result>> futures = new ArrayList<>();
+
+        for(File recording: recordings)
+        {
+            BatchDecodeJob job = new BatchDecodeJob(recording, DecoderFactory.copy(decodeConfiguration),
+                outputDirectory, frequency, mUserPreferences, mAliasModel, mChannelMapModel);
+            jobs.add(job);
+            futures.add(executorService.submit(job));
+        }
+
+        executorService.shutdown();
+
+        for(int x = 0; x < futures.size(); x++)
+        {
+            try
+            {
+                results.add(futures.get(x).get());
+            }
+            catch(InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+                executorService.shutdownNow();
+                break;
+            }
+            catch(ExecutionException ee)
+            {
+                mLog.error("Error decoding recording [" + jobs.get(x).getRecording() + "]", ee.getCause());
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Expands the file and directory arguments into a sorted list of wave recording files
+     */
+    public static List<File> getRecordings(List<String> paths)
+    {
+        List<File> recordings = new ArrayList<>();
+
+        for(String path: paths)
+        {
+            File file = new File(path);
+
+            if(file.isDirectory())
+            {
+                File[] files = file.listFiles((dir, name) -> name.toLowerCase().endsWith(".wav"));
+
+                if(files != null)
+                {
+                    Arrays.sort(files);
+                    recordings.addAll(Arrays.asList(files));
+                }
+            }
+            else if(file.isFile())
+            {
+                recordings.add(file);
+            }
+            else
+            {
+                mLog.warn("Recording not found [" + path + "]");
+            }
+        }
+
+        return recordings;
+    }
+
+    public static void main(String[] args)
+    {
+        DecoderType decoderType = null;
+        P25P1Decoder.Modulation modulation = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long frequency = 0;
+        Path outputDirectory = Paths.get(System.getProperty("user.dir"));
+        List<String> paths = new ArrayList<>();
+
+        try
+        {
+            for(String arg: args)
+            {
+                if(arg.startsWith("--decoder="))
+                {
+                    decoderType = DecoderType.valueOf(arg.substring(10).toUpperCase());
+                }
+                else if(arg.startsWith("--modulation="))
+                {
+                    modulation = P25P1Decoder.Modulation.valueOf(arg.substring(13).toUpperCase());
+                }
+                else if(arg.startsWith("--threads="))
+                {
+                    threads = Integer.parseInt(arg.substring(10));
+                }
+                else if(arg.startsWith("--frequency="))
+                {
+                    frequency = Long.parseLong(arg.substring(12));
+                }
+                else if(arg.startsWith("--output="))
+                {
+                    outputDirectory = Paths.get(arg.substring(9));
+                }
+                else
+                {
+                    paths.add(arg);
+                }
+            }
+        }
+        catch(IllegalArgumentException iae)
+        {
+            mLog.error("Invalid argument - " + iae.getMessage());
+            decoderType = null;
+        }
+
+        if(decoderType == null || paths.isEmpty())
+        {
+            mLog.info("Usage: BatchRecordingDecoder --decoder=P25_PHASE1 [--modulation=CQPSK] [--threads=" + threads +
+                "] [--frequency=0] [--output=directory] recording.wav|directory ...");
+            mLog.info("Decoders: " + Arrays.toString(DecoderType.PRIMARY_DECODERS.toArray()));
+            return;
+        }
+
+        DecodeConfiguration decodeConfiguration = DecoderFactory.getDecodeConfiguration(decoderType);
+
+        if(modulation != null && decodeConfiguration instanceof DecodeConfigP25Phase1)
+        {
+            ((DecodeConfigP25Phase1)decodeConfiguration).setModulation(modulation);
+        }
+
+        try
+        {
+            Files.createDirectories(outputDirectory);
+        }
+        catch(Exception e)
+        {
+            mLog.error("Unable to create output directory [" + outputDirectory + "]", e);
+            return;
+        }
+
+        List<File> recordings = getRecordings(paths);
+
+        mLog.info("Decoding [" + recordings.size() + "] recordings with [" + threads + "] threads");
+
+        long start = System.currentTimeMillis();
+
+        List<BatchDecodeJob.Result> results = new BatchRecordingDecoder(threads)
+            .decode(recordings, decodeConfiguration, outputDirectory, frequency);
+
+        long duration = 0;
+        long messages = 0;
+
+        for(BatchDecodeJob.Result result: results)
+        {
+            duration += result.getRecordingDuration();
+            messages += result.getMessageCount();
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+
+        mLog.info("Batch complete - decoded [" + results.size() + "/" + recordings.size() + "] recordings totaling [" +
+            (duration / 1000) + " seconds] in [" + elapsed + " ms] messages [" + messages + "] speed [" +
+            String.format("%.1f", (double)duration / Math.max(elapsed, 1)) + "x real time]");
+
+        System.exit(0);
+    }
+}
@@ -56,6 +56,7 @@ import io.github.dsheirer.module.decode.p25.phase2.enumeration.ScrambleParameter
 import io.github.dsheirer.module.decode.p25.reference.ServiceOptions;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.source.config.SourceConfigTuner;
+import io.github.dsheirer.util.ThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -67,6 +68,7 @@ import java.util.Objects;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Monitors channel grant and channel grant update messages to allocate traffic channels to capture
@@ -109,6 +111,8 @@ public class P25TrafficChannelManager extends Module implements IDecodeEventProv
     private Channel mParentChannel;
     private ScrambleParameters mPhase2ScrambleParameters;
     private Listener<IMessage> mMessageListener;
+    private AtomicBoolean mPhase1TrafficChannelsPrepared = new AtomicBoolean();
+    private AtomicBoolean mPhase2TrafficChannelsPrepared = new AtomicBoolean();
 
     private boolean mIgnoreDataCalls;
 
@@ -385,6 +389,9 @@ public class P25TrafficChannelManager extends Module implements IDecodeEventProv
     private void processPhase2ChannelGrant(APCO25Channel apco25Channel, ServiceOptions serviceOptions,
                                            IdentifierCollection identifierCollection, Opcode opcode, long timestamp)
     {
+        //Phase 2 traffic channels are only prepared once we know that the system uses phase 2 channels
+        prepareTrafficChannels(mManagedPhase2TrafficChannels, mPhase2TrafficChannelsPrepared);
+
         if(mPhase2ScrambleParameters != null && identifierCollection instanceof MutableIdentifierCollection)
         {
             ((MutableIdentifierCollection)identifierCollection).silentUpdate(ScrambleParameterIdentifier.create(mPhase2ScrambleParameters));
@@ -652,12 +659,59 @@ public class P25TrafficChannelManager extends Module implements IDecodeEventProv
         return null;
     }
 
+    /**
+     * Requests that the processing chain for each of the traffic channels be constructed in advance so that a
+     * channel grant doesn't have to wait for decoders, filters and audio modules to be created before the traffic
+     * channel can start processing.  Requests are dispatched on a separate thread, one channel at a time, so that
+     * channel grants can be processed in between.
+     *
+     * @param trafficChannels to prepare
+     * @param prepared flag to ensure the traffic channels are only prepared once
+     */
+    private void prepareTrafficChannels(List<Channel> trafficChannels, AtomicBoolean prepared)
+    {
+        if(trafficChannels.isEmpty() || !prepared.compareAndSet(false, true))
+        {
+            return;
+        }
+
+        ThreadPool.SCHEDULED.submit(() -> {
+            for(Channel trafficChannel: trafficChannels)
+            {
+                //Stop preparing if this traffic channel manager has been shutdown
+                if(!prepared.get() || mChannelEventListener == null)
+                {
+                    return;
+                }
+
+                try
+                {
+                    broadcast(new ChannelEvent(trafficChannel, Event.REQUEST_PREPARE));
+                }
+                catch(Exception e)
+                {
+                    mLog.error("Error preparing traffic channel processing chain", e);
+                }
+            }
+        });
+    }
+
     @Override
     public void dispose()
     {
-        for(Channel trafficChannel : mAvailablePhase1TrafficChannelQueue)
+        mPhase1TrafficChannelsPrepared.set(false);
+        mPhase2TrafficChannelsPrepared.set(false);
+
+        //Release the processing chains retained for reuse by each of the traffic channels.  Idle chains are disposed
+        //immediately and traffic channels with an active call continue until the call ends, and are disposed then.
+        for(Channel trafficChannel : mManagedPhase1TrafficChannels)
+        {
+            broadcast(new ChannelEvent(trafficChannel, Event.REQUEST_RELEASE));
+        }
+
+        for(Channel trafficChannel : mManagedPhase2TrafficChannels)
         {
-            broadcast(new ChannelEvent(trafficChannel, Event.REQUEST_DISABLE));
+            broadcast(new ChannelEvent(trafficChannel, Event.REQUEST_RELEASE));
         }
     }
 
@@ -687,6 +741,7 @@ public class P25TrafficChannelManager extends Module implements IDecodeEventProv
     @Override
     public void start()
     {
+        prepareTrafficChannels(mManagedPhase1TrafficChannels, mPhase1TrafficChannelsPrepared);
     }
 
     @Override
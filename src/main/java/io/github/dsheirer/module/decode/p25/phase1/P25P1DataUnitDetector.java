@@ -127,22 +127,23 @@ public class P25P1DataUnitDetector implements Listener<Dibit>, ISyncDetectListen
     {
         if(bitErrorCount <= MAXIMUM_SYNC_MATCH_BIT_ERRORS)
         {
-            int[] nid = mSyncDelayBuffer.getNID();
-            int[] correctedNid = new int[63];
+            long nid = mSyncDelayBuffer.getPackedNID();
+            long correctedNid = mNIDDecoder.correct(nid);
 
             //If decoder indicates there are no unrecoverable errors ....
-            if(!mNIDDecoder.decode(nid, correctedNid))
+            if(correctedNid != BCH_63_16_11.UNCORRECTABLE)
             {
                 mNIDDetectionCount++;
 
-                int nidBitErrorCount = getBitErrorCount(nid, correctedNid);
+                int nidBitErrorCount = Long.bitCount(nid ^ correctedNid);
 
                 if(mDataUnitDetectListener != null)
                 {
                     mPreviousDataUnitId = getDataUnitID(correctedNid);
 
                     mDataUnitDetectListener.dataUnitDetected(mPreviousDataUnitId, getNAC(correctedNid),
-                        (bitErrorCount + nidBitErrorCount), (mDibitsProcessed - DATA_UNIT_DIBIT_LENGTH), correctedNid);
+                        (bitErrorCount + nidBitErrorCount), (mDibitsProcessed - DATA_UNIT_DIBIT_LENGTH),
+                        unpack(correctedNid));
                 }
             }
             else if(mPreviousDataUnitId == P25P1DataUnitID.LOGICAL_LINK_DATA_UNIT_1)
@@ -170,106 +171,39 @@ public class P25P1DataUnitDetector implements Listener<Dibit>, ISyncDetectListen
 
     /**
      * Determines the data unit ID present in the nid value.
-     * @param nid in reverse bit order
+     * @param nid packed in reverse bit order
      * @return
      */
-    public P25P1DataUnitID getDataUnitID(int[] nid)
+    public P25P1DataUnitID getDataUnitID(long nid)
     {
-        int duid = 0;
-
-        if(nid[47] == 1)
-        {
-            duid ^= 1;
-        }
-
-        if(nid[48] == 1)
-        {
-            duid ^= 2;
-        }
-
-        if(nid[49] == 1)
-        {
-            duid ^= 4;
-        }
-
-        if(nid[50] == 1)
-        {
-            duid ^= 8;
-        }
-
-        return P25P1DataUnitID.fromValue(duid);
+        return P25P1DataUnitID.fromValue((int)((nid >>> 47) & 0xF));
     }
 
     /**
      * Determines the Network Access Code (NAC) present in the nid value.
-     * @param nid in reverse bit order
+     * @param nid packed in reverse bit order
      * @return nac
      */
-    public int getNAC(int[] nid)
+    public int getNAC(long nid)
     {
-        int nac = 0;
-
-        if(nid[51] == 1)
-        {
-            nac ^= 1;
-        }
-
-        if(nid[52] == 1)
-        {
-            nac ^= 2;
-        }
-
-        if(nid[53] == 1)
-        {
-            nac ^= 4;
-        }
-
-        if(nid[54] == 1)
-        {
-            nac ^= 8;
-        }
-
-        if(nid[55] == 1)
-        {
-            nac ^= 16;
-        }
-
-        if(nid[56] == 1)
-        {
-            nac ^= 32;
-        }
-
-        if(nid[57] == 1)
-        {
-            nac ^= 64;
-        }
-
-        if(nid[58] == 1)
-        {
-            nac ^= 128;
-        }
-
-        if(nid[59] == 1)
-        {
-            nac ^= 256;
-        }
-
-        if(nid[60] == 1)
-        {
-            nac ^= 512;
-        }
+        return (int)((nid >>> 51) & 0xFFF);
+    }
 
-        if(nid[61] == 1)
-        {
-            nac ^= 1024;
-        }
+    /**
+     * Unpacks the nid value to an array of bits in reverse bit order
+     * @param nid packed in reverse bit order
+     * @return nid bit array
+     */
+    public static int[] unpack(long nid)
+    {
+        int[] bits = new int[63];
 
-        if(nid[62] == 1)
+        for(int x = 0; x < 63; x++)
         {
-            nac ^= 2048;
+            bits[x] = (int)((nid >>> x) & 1);
         }
 
-        return nac;
+        return bits;
     }
 
     public int getNIDDetectionCount()
@@ -349,11 +283,12 @@ public class P25P1DataUnitDetector implements Listener<Dibit>, ISyncDetectListen
         }
 
         /**
-         * Fetches the NID in reverse order format required for the ECC code
+         * Fetches the NID packed in reverse order format required for the ECC code where bit i of the returned value
+         * holds NID bit i.
          */
-        public int[] getNID()
+        public long getPackedNID()
         {
-            int[] nid = new int[63];
+            long nid = 0;
 
             int nidPointer = 0;
             int bufferPointer = mPointer - 1;
@@ -366,7 +301,7 @@ public class P25P1DataUnitDetector implements Listener<Dibit>, ISyncDetectListen
             //Skip bit 2 of the starting (ie last) dibit ... we only want 63 of the 64 bits from the dibit buffer
             if(mBuffer[bufferPointer].getBit1())
             {
-                nid[nidPointer] = 1;
+                nid |= 1l << nidPointer;
             }
 
             nidPointer++;
@@ -382,14 +317,14 @@ public class P25P1DataUnitDetector implements Listener<Dibit>, ISyncDetectListen
             {
                 if(mBuffer[bufferPointer].getBit2())
                 {
-                    nid[nidPointer] = 1;
+                    nid |= 1l << nidPointer;
                 }
 
                 nidPointer++;
 
                 if(mBuffer[bufferPointer].getBit1())
                 {
-                    nid[nidPointer] = 1;
+                    nid |= 1l << nidPointer;
                 }
 
                 nidPointer++;
@@ -20,6 +20,7 @@
 package io.github.dsheirer.module.decode.p25.phase1;
 
 import io.github.dsheirer.dsp.filter.FilterFactory;
+import io.github.dsheirer.dsp.filter.design.FilterDesignCache;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
 import io.github.dsheirer.dsp.filter.fir.complex.ComplexFIRFilter2;
@@ -34,9 +35,6 @@ import io.github.dsheirer.source.SourceEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public class P25P1DecoderC4FM extends P25P1Decoder
 {
     private final static Logger mLog = LoggerFactory.getLogger(P25P1DecoderC4FM.class);
@@ -48,7 +46,6 @@ public class P25P1DecoderC4FM extends P25P1Decoder
     protected AdaptivePLLGainMonitor mPLLGainMonitor;
     protected P25P1MessageFramer mMessageFramer;
     private ComplexFeedForwardGainControl mAGC = new ComplexFeedForwardGainControl(32);
-    private Map<Double,float[]> mBasebandFilters = new HashMap<>();
     private ComplexFIRFilter2 mBasebandFilter;
 
     /**
@@ -125,37 +122,33 @@ public class P25P1DecoderC4FM extends P25P1Decoder
     private float[] getBasebandFilter()
     {
         //Attempt to reuse a cached (ie already-designed) filter if available
-        float[] filter = mBasebandFilters.get(getSampleRate());
+        String key = FilterDesignCache.key("remez-lowpass", (double)(int)getSampleRate(), 5100.0, 6500.0, 0.01, 0.01);
+        float[] filter = null;
+
+        try
+        {
+            filter = FilterDesignCache.get(key, () -> {
+                FIRFilterSpecification specification = FIRFilterSpecification.lowPassBuilder()
+                    .sampleRate((int)getSampleRate())
+                    .passBandCutoff(5100)
+                    .passBandAmplitude(1.0)
+                    .passBandRipple(0.01)
+                    .stopBandAmplitude(0.0)
+                    .stopBandStart(6500)
+                    .stopBandRipple(0.01)
+                    .build();
+
+                return FilterFactory.getTaps(specification);
+            });
+        }
+        catch(FilterDesignException fde)
+        {
+            mLog.error("Couldn't design low pass baseband filter for sample rate: " + getSampleRate());
+        }
 
         if(filter == null)
         {
-            FIRFilterSpecification specification = FIRFilterSpecification.lowPassBuilder()
-                .sampleRate((int)getSampleRate())
-                .passBandCutoff(5100)
-                .passBandAmplitude(1.0)
-                .passBandRipple(0.01)
-                .stopBandAmplitude(0.0)
-                .stopBandStart(6500)
-                .stopBandRipple(0.01)
-                .build();
-
-            try
-            {
-                filter = FilterFactory.getTaps(specification);
-            }
-            catch(FilterDesignException fde)
-            {
-                mLog.error("Couldn't design low pass baseband filter for sample rate: " + getSampleRate());
-            }
-
-            if(filter != null)
-            {
-                mBasebandFilters.put(getSampleRate(), filter);
-            }
-            else
-            {
-                throw new IllegalStateException("Couldn't design a C4FM baseband filter for sample rate: " + getSampleRate());
-            }
+            throw new IllegalStateException("Couldn't design a C4FM baseband filter for sample rate: " + getSampleRate());
         }
 
         return filter;
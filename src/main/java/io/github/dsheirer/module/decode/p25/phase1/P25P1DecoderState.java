@@ -153,6 +153,7 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
     private P25TrafficChannelManager mTrafficChannelManager;
     private Listener<ChannelEvent> mChannelEventListener;
     private DecodeEvent mCurrentCallEvent;
+    private long mLastMessageTimestamp;
 
     /**
      * Constructs an APCO-25 decoder state with an optional traffic channel manager.
@@ -233,7 +234,8 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
 
         if(mCurrentCallEvent != null)
         {
-            mCurrentCallEvent.end(System.currentTimeMillis());
+            //End the call using the (sample-derived) timestamp of the most recent message rather than the wall clock
+            mCurrentCallEvent.end(mLastMessageTimestamp > 0 ? mLastMessageTimestamp : System.currentTimeMillis());
             broadcast(mCurrentCallEvent);
             mCurrentCallEvent = null;
         }
@@ -249,6 +251,7 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
         {
             P25Message message = (P25Message)iMessage;
 
+            mLastMessageTimestamp = message.getTimestamp();
             getIdentifierCollection().update(message.getNAC());
 
             switch(message.getDUID())
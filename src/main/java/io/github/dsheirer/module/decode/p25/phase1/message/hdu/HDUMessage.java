@@ -37,6 +37,10 @@ public class HDUMessage extends P25Message
 {
     private final static Logger mLog = LoggerFactory.getLogger(HDUMessage.class);
 
+    //Reusable per-thread RS(36,20,17) decoder and codeword buffers
+    private static final ThreadLocal<ReedSolomon_63_47_17> REED_SOLOMON_63_47_17 =
+        ThreadLocal.withInitial(() -> new ReedSolomon_63_47_17(8));
+
     private static final int[] GOLAY_WORD_STARTS = {0, 18, 36, 54, 72, 90, 108, 126, 144, 162, 180, 198, 216, 234, 252,
         270, 288, 306, 324, 342, 360, 278, 396, 414, 432, 450, 468, 486, 504, 522, 540, 558, 576, 594, 612, 630};
 
@@ -115,8 +119,9 @@ public class HDUMessage extends P25Message
          * control data and reed solomon parity hex codewords in reverse order.
          * The RS(24,12,13) code used by P25 removes the left-hand 47 data hex
          * words, so we replace them with zeros. */
-        int[] input = new int[63];
-        int[] output = new int[63];
+        ReedSolomon_63_47_17 reedSolomon_63_47_17 = REED_SOLOMON_63_47_17.get();
+        int[] input = reedSolomon_63_47_17.getInputBuffer();
+        int[] output = reedSolomon_63_47_17.getOutputBuffer();
 
         input[0] = getMessage().getInt(RS_HEX_15);
         input[1] = getMessage().getInt(RS_HEX_14);
@@ -158,8 +163,6 @@ public class HDUMessage extends P25Message
         /* indexes 36 - 62 are defaulted to zero */
 
         //Reed-Solomon(36,20,17) code protects the header word.  Maximum correctable errors are: 8
-        ReedSolomon_63_47_17 reedSolomon_63_47_17 = new ReedSolomon_63_47_17(8);
-
         boolean irrecoverableErrors;
 
         try
@@ -36,6 +36,10 @@ public class LDU2Message extends LDUMessage
 {
     private final static Logger mLog = LoggerFactory.getLogger(LDU2Message.class);
 
+    //Reusable per-thread RS(24,16,9) decoder and codeword buffers
+    private static final ThreadLocal<ReedSolomon_63_47_17> REED_SOLOMON_63_47_17 =
+        ThreadLocal.withInitial(() -> new ReedSolomon_63_47_17(4));
+
     private static final int[] GOLAY_WORD_STARTS = {288, 298, 308, 318, 472, 482, 492, 502, 656, 666, 676, 686,
         840, 850, 860, 870, 1024, 1034, 1044, 1054, 1208, 1218, 1228, 1238};
     private static final int[] CW_HEX_0 = {288, 289, 290, 291, 292, 293};
@@ -107,8 +111,9 @@ public class LDU2Message extends LDUMessage
          * words and reed solomon parity hex codewords in reverse order.
          *
          * Since this is a truncated RS(63) codes, we pad the code with zeros */
-        int[] input = new int[63];
-        int[] output = new int[63];
+        ReedSolomon_63_47_17 reedSolomon_63_47_17 = REED_SOLOMON_63_47_17.get();
+        int[] input = reedSolomon_63_47_17.getInputBuffer();
+        int[] output = reedSolomon_63_47_17.getOutputBuffer();
 
         input[0] = getMessage().getInt(RS_HEX_7);
         input[1] = getMessage().getInt(RS_HEX_6);
@@ -138,7 +143,6 @@ public class LDU2Message extends LDUMessage
         /* indexes 24 - 62 are defaulted to zero */
 
         //Reed-Solomon(24,16,9) code protects the encryption sync word.  Maximum correctable errors are: 4
-        ReedSolomon_63_47_17 reedSolomon_63_47_17 = new ReedSolomon_63_47_17(4);
         boolean irrecoverableErrors = reedSolomon_63_47_17.decode(input, output);
 
         BinaryMessage binaryMessage = new BinaryMessage(96);
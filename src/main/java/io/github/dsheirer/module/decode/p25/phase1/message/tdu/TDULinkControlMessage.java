@@ -36,6 +36,10 @@ import java.util.List;
 
 public class TDULinkControlMessage extends P25Message implements IFrequencyBandReceiver
 {
+    //Reusable per-thread RS(24,12,13) decoder and codeword buffers
+    private static final ThreadLocal<ReedSolomon_63_47_17> REED_SOLOMON_63_47_17 =
+        ThreadLocal.withInitial(() -> new ReedSolomon_63_47_17(6));
+
     public static final int[] LC_HEX_0 = {0, 1, 2, 3, 4, 5};
     public static final int[] LC_HEX_1 = {6, 7, 8, 9, 10, 11};
     public static final int[] LC_HEX_2 = {24, 25, 26, 27, 28, 29};
@@ -114,8 +118,9 @@ public class TDULinkControlMessage extends P25Message implements IFrequencyBandR
         //Check the Reed-Solomon parity bits. The RS decoder expects the link control data and reed solomon parity hex
         // codewords in reverse order. The RS(24,12,13) code used by P25 removes the left-hand 47 data hex words, so we
         // replace them with zeros. */
-        int[] input = new int[63];
-        int[] output = new int[63];
+        ReedSolomon_63_47_17 reedSolomon_63_47_17 = REED_SOLOMON_63_47_17.get();
+        int[] input = reedSolomon_63_47_17.getInputBuffer();
+        int[] output = reedSolomon_63_47_17.getOutputBuffer();
 
         input[0] = getMessage().getInt(RS_HEX_11);
         input[1] = getMessage().getInt(RS_HEX_10);
@@ -144,8 +149,6 @@ public class TDULinkControlMessage extends P25Message implements IFrequencyBandR
         /* indexes 24 - 62 are defaulted to zero */
 
         //Reed-Solomon(24,12,13) code protects the link control word.  Maximum correctable errors are:  6
-        ReedSolomon_63_47_17 reedSolomon_63_47_17 = new ReedSolomon_63_47_17(6);
-
         boolean irrecoverableErrors = reedSolomon_63_47_17.decode(input, output);
 
         //Transfer error corrected output to a new binary message
@@ -22,6 +22,7 @@
 package io.github.dsheirer.module.decode.p25.phase2;
 
 import io.github.dsheirer.dsp.filter.FilterFactory;
+import io.github.dsheirer.dsp.filter.design.FilterDesignCache;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
 import io.github.dsheirer.dsp.filter.fir.complex.ComplexFIRFilter2;
@@ -47,8 +48,6 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * P25 Phase 2 HDQPSK 2-timeslot Decoder
@@ -63,7 +62,6 @@ public class P25P2DecoderHDQPSK extends P25P2Decoder implements IdentifierUpdate
     protected CostasLoop mCostasLoop;
     protected P25P2MessageFramer mMessageFramer;
     private ComplexFeedForwardGainControl mAGC = new ComplexFeedForwardGainControl(32);
-    private Map<Double,float[]> mBasebandFilters = new HashMap<>();
     private ComplexFIRFilter2 mBasebandFilter;
     private DecodeConfigP25Phase2 mDecodeConfigP25Phase2;
 
@@ -135,37 +133,33 @@ public class P25P2DecoderHDQPSK extends P25P2Decoder implements IdentifierUpdate
     private float[] getBasebandFilter()
     {
         //Attempt to reuse a cached (ie already-designed) filter if available
-        float[] filter = mBasebandFilters.get(getSampleRate());
+        String key = FilterDesignCache.key("remez-lowpass", 50000.0, 6500.0, 7200.0, 0.005, 0.01);
+        float[] filter = null;
 
-        if(filter == null)
+        try
         {
-            FIRFilterSpecification specification = FIRFilterSpecification.lowPassBuilder()
-                .sampleRate(50000.0)
-                .passBandCutoff(6500)
-                .passBandAmplitude(1.0)
-                .passBandRipple(0.005)
-                .stopBandAmplitude(0.0)
-                .stopBandStart(7200)
-                .stopBandRipple(0.01)
-                .build();
-
-            try
-            {
-                filter = FilterFactory.getTaps(specification);
-            }
-            catch(FilterDesignException fde)
-            {
-                mLog.error("Couldn't design low pass baseband filter for sample rate: " + getSampleRate());
-            }
+            filter = FilterDesignCache.get(key, () -> {
+                FIRFilterSpecification specification = FIRFilterSpecification.lowPassBuilder()
+                    .sampleRate(50000.0)
+                    .passBandCutoff(6500)
+                    .passBandAmplitude(1.0)
+                    .passBandRipple(0.005)
+                    .stopBandAmplitude(0.0)
+                    .stopBandStart(7200)
+                    .stopBandRipple(0.01)
+                    .build();
+
+                return FilterFactory.getTaps(specification);
+            });
+        }
+        catch(FilterDesignException fde)
+        {
+            mLog.error("Couldn't design low pass baseband filter for sample rate: " + getSampleRate());
+        }
 
-            if(filter != null)
-            {
-                mBasebandFilters.put(getSampleRate(), filter);
-            }
-            else
-            {
-                throw new IllegalStateException("Couldn't design a C4FM baseband filter for sample rate: " + getSampleRate());
-            }
+        if(filter == null)
+        {
+            throw new IllegalStateException("Couldn't design a C4FM baseband filter for sample rate: " + getSampleRate());
         }
 
         return filter;
@@ -101,6 +101,7 @@ public class P25P2DecoderState extends TimeslotDecoderState implements Identifie
     private PatchGroupManager mPatchGroupManager = new PatchGroupManager();
     private P25P2NetworkConfigurationMonitor mNetworkConfigurationMonitor = new P25P2NetworkConfigurationMonitor();
     private DecodeEvent mCurrentCallEvent;
+    private long mLastMessageTimestamp;
 
     /**
      * Constructs an APCO-25 decoder state for a traffic channel.
@@ -137,7 +138,9 @@ public class P25P2DecoderState extends TimeslotDecoderState implements Identifie
     protected void resetState()
     {
         super.resetState();
-        closeCurrentCallEvent(System.currentTimeMillis(), true);
+
+        //End the call using the (sample-derived) timestamp of the most recent message rather than the wall clock
+        closeCurrentCallEvent(mLastMessageTimestamp > 0 ? mLastMessageTimestamp : System.currentTimeMillis(), true);
     }
 
     /**
@@ -148,6 +151,8 @@ public class P25P2DecoderState extends TimeslotDecoderState implements Identifie
     {
         if(message.isValid() && message.getTimeslot() == getTimeslot())
         {
+            mLastMessageTimestamp = message.getTimestamp();
+
             if(message instanceof MacMessage)
             {
                 processMacMessage((MacMessage)message);
@@ -45,6 +45,10 @@ public class EncryptionSynchronizationSequenceProcessor
 {
     private final static Logger mLog = LoggerFactory.getLogger(EncryptionSynchronizationSequenceProcessor.class);
 
+    //Reusable per-thread RS(44,16,29) decoder and codeword buffers
+    private static final ThreadLocal<ReedSolomon_44_16_29> REED_SOLOMON_44_16_29 =
+        ThreadLocal.withInitial(ReedSolomon_44_16_29::new);
+
     private BinaryMessage mESSA;
     private BinaryMessage mESSB1;
     private BinaryMessage mESSB2;
@@ -122,7 +126,8 @@ public class EncryptionSynchronizationSequenceProcessor
         {
             //We have to reverse the order of the information hexbits and the RS parity hexbits in the array for
             //the RS algorithm.
-            int[] input = new int[63];
+            ReedSolomon_44_16_29 rs = REED_SOLOMON_44_16_29.get();
+            int[] input = rs.getInputBuffer();
 
             int inputPointer = 0;
 
@@ -175,9 +180,7 @@ public class EncryptionSynchronizationSequenceProcessor
                 }
             }
 
-            int[] output = new int[63];
-
-            ReedSolomon_44_16_29 rs = new ReedSolomon_44_16_29();
+            int[] output = rs.getOutputBuffer();
 
             boolean irrecoverableErrors = rs.decode(input, output);
 
@@ -41,6 +41,10 @@ public class FacchTimeslot extends AbstractSignalingTimeslot
 {
     private final static Logger mLog = LoggerFactory.getLogger(FacchTimeslot.class);
 
+    //Reusable per-thread RS(45,26,20) decoder and codeword buffers
+    private static final ThreadLocal<ReedSolomon_63_35_29> REED_SOLOMON_63_35_29 =
+        ThreadLocal.withInitial(() -> new ReedSolomon_63_35_29(13));
+
     private static final int[] INFO_1 = {2,3,4,5,6,7};
     private static final int[] INFO_2 = {8,9,10,11,12,13};
     private static final int[] INFO_3 = {14,15,16,17,18,19};
@@ -137,8 +141,9 @@ public class FacchTimeslot extends AbstractSignalingTimeslot
     {
         if(mMacMessages == null)
         {
-            int[] input = new int[63];
-            int[] output = new int[63];
+            ReedSolomon_63_35_29 reedSolomon_63_35_29 = REED_SOLOMON_63_35_29.get();
+            int[] input = reedSolomon_63_35_29.getInputBuffer();
+            int[] output = reedSolomon_63_35_29.getOutputBuffer();
 
 //            input[0] = 0; //Punctured
 //            input[1] = 0; //Punctured
@@ -205,8 +210,6 @@ public class FacchTimeslot extends AbstractSignalingTimeslot
 //            input[62] = 0; //Shortened
 
             //Reed-Solomon(45,26,20) code protects the SOEMI word.  Maximum correctable errors are: 13 (53 - 26 / 2)
-            ReedSolomon_63_35_29 reedSolomon_63_35_29 = new ReedSolomon_63_35_29(13);
-
             boolean irrecoverableErrors;
 
             try
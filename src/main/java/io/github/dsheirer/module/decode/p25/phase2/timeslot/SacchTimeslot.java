@@ -37,6 +37,10 @@ import java.util.List;
  */
 public class SacchTimeslot extends AbstractSignalingTimeslot
 {
+    //Reusable per-thread RS(52,30,23) decoder and codeword buffers
+    private static final ThreadLocal<ReedSolomon_63_35_29> REED_SOLOMON_63_35_29 =
+        ThreadLocal.withInitial(() -> new ReedSolomon_63_35_29(14));
+
     private static final int[] INFO_1 = {2, 3, 4, 5, 6, 7};
     private static final int[] INFO_2 = {8, 9, 10, 11, 12, 13};
     private static final int[] INFO_3 = {14, 15, 16, 17, 18, 19};
@@ -147,8 +151,9 @@ public class SacchTimeslot extends AbstractSignalingTimeslot
     {
         if(mMacMessages == null)
         {
-            int[] input = new int[63];
-            int[] output = new int[63];
+            ReedSolomon_63_35_29 reedSolomon_63_35_29 = REED_SOLOMON_63_35_29.get();
+            int[] input = reedSolomon_63_35_29.getInputBuffer();
+            int[] output = reedSolomon_63_35_29.getOutputBuffer();
 
 //            input[0] = 0; //Punctured
 //            input[1] = 0; //Punctured
@@ -215,8 +220,6 @@ public class SacchTimeslot extends AbstractSignalingTimeslot
 //            input[62] = 0; //Shortened
 
             //Reed-Solomon(52,30,23) code protects the IOEMI word.  Maximum correctable errors are: 14 (58 - 30 / 2)
-            ReedSolomon_63_35_29 reedSolomon_63_35_29 = new ReedSolomon_63_35_29(14);
-
             boolean irrecoverableErrors;
 
             try
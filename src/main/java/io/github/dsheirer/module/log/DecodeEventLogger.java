@@ -34,18 +34,16 @@ import io.github.dsheirer.sample.Listener;
 
 import java.nio.file.Path;
 import java.text.DecimalFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.List;
 
 public class DecodeEventLogger extends EventLogger implements IDecodeEventListener, Listener<IDecodeEvent>
 {
-    private SimpleDateFormat mTimestampFormat = TimestampFormat.TIMESTAMP_COLONS.getFormatter();
+    private TimestampCache mTimestampFormat = new TimestampCache(TimestampFormat.TIMESTAMP_COLONS.getFormat());
     private DecimalFormat mFrequencyFormat = new DecimalFormat("0.000000");
 
-    public DecodeEventLogger(Path logDirectory, String fileNameSuffix, long frequency)
+    public DecodeEventLogger(EventLogWriter eventLogWriter, Path logDirectory, String fileNameSuffix, long frequency)
     {
-        super(logDirectory, fileNameSuffix, frequency);
+        super(eventLogWriter, logDirectory, fileNameSuffix, frequency);
     }
 
     @Override
@@ -86,7 +84,7 @@ public class DecodeEventLogger extends EventLogger implements IDecodeEventListen
     {
         StringBuilder sb = new StringBuilder();
 
-        sb.append("\"").append(mTimestampFormat.format(new Date(event.getTimeStart()))).append("\"");
+        sb.append("\"").append(mTimestampFormat.format(event.getTimeStart())).append("\"");
         sb.append(",\"").append(event.getDuration() > 0 ? event.getDuration() : "").append("\"");
         sb.append(",\"").append(event.getProtocol()).append("\"");
 
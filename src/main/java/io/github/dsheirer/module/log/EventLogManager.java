@@ -37,10 +37,28 @@ public class EventLogManager
     private final static Logger mLog = LoggerFactory.getLogger(EventLogManager.class);
 
     private UserPreferences mUserPreferences;
+    private EventLogWriter mEventLogWriter = new EventLogWriter();
 
     public EventLogManager(UserPreferences userPreferences)
     {
         mUserPreferences = userPreferences;
+        mEventLogWriter.start();
+    }
+
+    /**
+     * Stops the event log writer after writing any queued log entries and closes any open log files.
+     */
+    public void shutdown()
+    {
+        mEventLogWriter.stop();
+    }
+
+    /**
+     * Asynchronous writer used by the event loggers created by this manager
+     */
+    public EventLogWriter getEventLogWriter()
+    {
+        return mEventLogWriter;
     }
 
     public List<Module> getLoggers(Channel channel)
@@ -93,13 +111,15 @@ public class EventLogManager
         switch(eventLogType)
         {
             case CALL_EVENT:
-                return new DecodeEventLogger(eventLogDirectory, sb.toString(), frequency);
+                return new DecodeEventLogger(mEventLogWriter, eventLogDirectory, sb.toString(), frequency);
             case DECODED_MESSAGE:
-                return new MessageEventLogger(eventLogDirectory, sb.toString(), MessageEventLogger.Type.DECODED, frequency);
+                return new MessageEventLogger(mEventLogWriter, eventLogDirectory, sb.toString(),
+                    MessageEventLogger.Type.DECODED, frequency);
             case TRAFFIC_CALL_EVENT:
-                return new DecodeEventLogger(eventLogDirectory, sb.toString(), frequency);
+                return new DecodeEventLogger(mEventLogWriter, eventLogDirectory, sb.toString(), frequency);
             case TRAFFIC_DECODED_MESSAGE:
-                return new MessageEventLogger(eventLogDirectory, sb.toString(), MessageEventLogger.Type.DECODED, frequency);
+                return new MessageEventLogger(mEventLogWriter, eventLogDirectory, sb.toString(),
+                    MessageEventLogger.Type.DECODED, frequency);
             default:
                 return null;
         }
@@ -0,0 +1,685 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.module.log;
+
+import io.github.dsheirer.monitor.PipelineMetrics;
+import io.github.dsheirer.monitor.StageMetrics;
+import io.github.dsheirer.properties.SystemProperties;
+import io.github.dsheirer.util.TimeStamp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Asynchronous event log writer.  Event loggers submit formatted log lines to a bounded queue and a dedicated writer
+ * thread writes the lines to the buffered log files, flushing each log file once per batch of queued lines (group
+ * commit) so that the decoder threads never wait on disk access.  When the queue is full, log lines are dropped and
+ * counted rather than blocking the submitting thread.
+ *
+ * Log files are rotated to a new, timestamped log file when the file size or the file age exceeds the rotation
+ * thresholds and rotated log files can optionally be gzip compressed on a low priority background thread.
+ *
+ * Open, close and stop requests wait for queue space, but give up and log an error when the writer thread is not
+ * running or the queue stays full for longer than the request timeout, so that channel start and stop never hang on
+ * the event log writer.
+ *
+ * Settings (system properties):
+ *
+ * event.log.queue.size - maximum queued log lines (default: 16384)
+ * event.log.rotation.size.mb - rotate log files that exceed this size in megabytes, 0 to disable (default: 100)
+ * event.log.rotation.hours - rotate log files that are older than this number of hours, 0 to disable (default: 24)
+ * event.log.rotation.compress - gzip compress rotated log files (default: false)
+ */
+public class EventLogWriter
+{
+    private final static Logger mLog = LoggerFactory.getLogger(EventLogWriter.class);
+
+    public static final String PROPERTY_QUEUE_SIZE = "event.log.queue.size";
+    public static final String PROPERTY_ROTATION_SIZE_MB = "event.log.rotation.size.mb";
+    public static final String PROPERTY_ROTATION_HOURS = "event.log.rotation.hours";
+    public static final String PROPERTY_ROTATION_COMPRESS = "event.log.rotation.compress";
+
+    private static final int DEFAULT_QUEUE_SIZE = 16384;
+    private static final int DEFAULT_ROTATION_SIZE_MB = 100;
+    private static final int DEFAULT_ROTATION_HOURS = 24;
+    private static final int MAXIMUM_BATCH_SIZE = 1024;
+    private static final int FILE_BUFFER_SIZE = 65536;
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+    private static final long REQUEST_TIMEOUT_MS = 5000;
+    private static final long ENQUEUE_POLL_INTERVAL_MS = 100;
+
+    private static final ExecutorService COMPRESSION_EXECUTOR = Executors.newSingleThreadExecutor(runnable ->
+    {
+        Thread thread = new Thread(runnable, "sdrtrunk event log compression");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private final BlockingQueue<Command> mQueue;
+    private final long mRotationSizeBytes;
+    private final long mRotationIntervalMs;
+    private final boolean mCompressRotatedFiles;
+    private final AtomicLong mWrittenLineCount = new AtomicLong();
+    private final AtomicLong mDroppedLineCount = new AtomicLong();
+    private final StageMetrics mStageMetrics = new StageMetrics(StageMetrics.Type.EVENT_LOG, "Event Log Writer");
+    private final Set<LogFile> mOpenFiles = new HashSet<>();
+    private volatile Thread mWriterThread;
+    private boolean mDropWhenFull = true;
+
+    /**
+     * Constructs an instance using the queue and rotation settings from the system properties.
+     */
+    public EventLogWriter()
+    {
+        this(SystemProperties.getInstance().get(PROPERTY_QUEUE_SIZE, DEFAULT_QUEUE_SIZE),
+            SystemProperties.getInstance().get(PROPERTY_ROTATION_SIZE_MB, DEFAULT_ROTATION_SIZE_MB) * 1024l * 1024l,
+            TimeUnit.HOURS.toMillis(SystemProperties.getInstance().get(PROPERTY_ROTATION_HOURS, DEFAULT_ROTATION_HOURS)),
+            SystemProperties.getInstance().get(PROPERTY_ROTATION_COMPRESS, false));
+    }
+
+    /**
+     * Constructs an instance
+     *
+     * @param queueSize maximum number of queued log lines
+     * @param rotationSizeBytes file size that triggers rotation, or 0 to disable size-based rotation
+     * @param rotationIntervalMs file age that triggers rotation, or 0 to disable time-based rotation
+     * @param compressRotatedFiles to gzip compress the log files that are closed by rotation
+     */
+    public EventLogWriter(int queueSize, long rotationSizeBytes, long rotationIntervalMs, boolean compressRotatedFiles)
+    {
+        mQueue = new ArrayBlockingQueue<>(Math.max(queueSize, 16));
+        mRotationSizeBytes = rotationSizeBytes;
+        mRotationIntervalMs = rotationIntervalMs;
+        mCompressRotatedFiles = compressRotatedFiles;
+        mStageMetrics.setQueueDepthSupplier(mQueue::size);
+    }
+
+    /**
+     * Starts the writer thread
+     */
+    public synchronized void start()
+    {
+        if(mWriterThread == null)
+        {
+            mWriterThread = new Thread(this::process, "sdrtrunk event log writer");
+            mWriterThread.setDaemon(true);
+            mWriterThread.start();
+            PipelineMetrics.register(mStageMetrics);
+        }
+    }
+
+    /**
+     * Stops the writer thread after writing any queued log lines and closes all open log files.
+     */
+    public synchronized void stop()
+    {
+        if(mWriterThread != null)
+        {
+            enqueue(new Command(Command.STOP, null, null), REQUEST_TIMEOUT_MS);
+
+            try
+            {
+                mWriterThread.join(SHUTDOWN_TIMEOUT_MS);
+            }
+            catch(InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            mWriterThread = null;
+            PipelineMetrics.unregister(mStageMetrics);
+
+            mLog.info("Event log writer stopped - lines written [" + getWrittenLineCount() + "] dropped [" +
+                getDroppedLineCount() + "]");
+        }
+    }
+
+    /**
+     * Sets the full queue policy.  Log lines are dropped by default when the queue is full so that the submitting
+     * thread is never blocked.  Offline processing (ie batch decoding) can instead wait for queue space so that no log
+     * lines are lost.
+     *
+     * @param dropWhenFull true to drop log lines or false to wait for queue space
+     */
+    public void setDropWhenFull(boolean dropWhenFull)
+    {
+        mDropWhenFull = dropWhenFull;
+    }
+
+    /**
+     * Number of log lines written to log files
+     */
+    public long getWrittenLineCount()
+    {
+        return mWrittenLineCount.get();
+    }
+
+    /**
+     * Number of log lines dropped because the queue was full
+     */
+    public long getDroppedLineCount()
+    {
+        return mDroppedLineCount.get();
+    }
+
+    /**
+     * Creates a log file and queues a request to open the file and write the header.
+     *
+     * @param directory for the log file
+     * @param fileNameSuffix for the log file name
+     * @param frequency to include in the log file name
+     * @param header to write at the start of the log file and each rotated log file
+     * @return log file for writing log lines
+     */
+    public LogFile open(Path directory, String fileNameSuffix, long frequency, String header)
+    {
+        LogFile logFile = new LogFile(directory, fileNameSuffix, frequency, header);
+        enqueue(new Command(Command.OPEN, logFile, null), REQUEST_TIMEOUT_MS);
+        return logFile;
+    }
+
+    /**
+     * Queues the log line for writing to the log file.  The line is dropped if the queue is full, unless the drop when
+     * full policy is disabled.
+     *
+     * @param logFile to write to
+     * @param line to write, without a line terminator
+     * @return true if the line was queued or false if the line was dropped
+     */
+    public boolean write(LogFile logFile, String line)
+    {
+        Command command = new Command(Command.WRITE, logFile, line);
+
+        if(mQueue.offer(command))
+        {
+            return true;
+        }
+
+        if(!mDropWhenFull && enqueue(command, Long.MAX_VALUE))
+        {
+            return true;
+        }
+
+        mDroppedLineCount.incrementAndGet();
+        mStageMetrics.overflow();
+        return false;
+    }
+
+    /**
+     * Queues a request to close the log file after any log lines that are already queued for the file are written.
+     */
+    public void close(LogFile logFile)
+    {
+        enqueue(new Command(Command.CLOSE, logFile, null), REQUEST_TIMEOUT_MS);
+    }
+
+    /**
+     * Queues a request, waiting for queue space while the writer thread is running.  The request is discarded when the
+     * queue is full and the writer thread has stopped, or when the timeout expires.
+     *
+     * @param command to queue
+     * @param timeoutMs maximum time to wait for queue space
+     * @return true if the request was queued
+     */
+    private boolean enqueue(Command command, long timeoutMs)
+    {
+        long deadline = timeoutMs == Long.MAX_VALUE ? Long.MAX_VALUE : System.currentTimeMillis() + timeoutMs;
+
+        try
+        {
+            while(!mQueue.offer(command, ENQUEUE_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS))
+            {
+                Thread writerThread = mWriterThread;
+
+                if(writerThread == null || !writerThread.isAlive())
+                {
+                    mLog.error("Event log writer is not running - discarding event log writer request for " +
+                        command.mLogFile);
+                    return false;
+                }
+
+                if(System.currentTimeMillis() >= deadline)
+                {
+                    mLog.error("Timeout waiting for event log writer queue space - discarding event log writer " +
+                        "request for " + command.mLogFile);
+                    return false;
+                }
+            }
+
+            return true;
+        }
+        catch(InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            mLog.error("Interrupted while queueing event log writer request for " + command.mLogFile);
+            return false;
+        }
+    }
+
+    /**
+     * Writer thread processing loop.  Waits for a queued command and then processes up to the maximum batch size of
+     * queued commands before flushing each log file that was written to.  Runtime exceptions are logged and the failed
+     * command is skipped so that a single bad command doesn't stop the writer thread.
+     */
+    private void process()
+    {
+        List<Command> batch = new ArrayList<>(MAXIMUM_BATCH_SIZE);
+        Set<LogFile> written = new HashSet<>();
+
+        boolean running = true;
+
+        while(running)
+        {
+            try
+            {
+                batch.add(mQueue.take());
+            }
+            catch(InterruptedException ie)
+            {
+                mLog.error("Event log writer interrupted - closing log files");
+                break;
+            }
+
+            mQueue.drainTo(batch, MAXIMUM_BATCH_SIZE - 1);
+
+            long start = System.nanoTime();
+            int lines = 0;
+
+            for(Command command : batch)
+            {
+                try
+                {
+                    switch(command.mType)
+                    {
+                        case Command.OPEN:
+                            openFile(command.mLogFile);
+                            break;
+                        case Command.WRITE:
+                            if(writeLine(command.mLogFile, command.mLine))
+                            {
+                                written.add(command.mLogFile);
+                                lines++;
+                            }
+                            break;
+                        case Command.CLOSE:
+                            written.remove(command.mLogFile);
+                            closeFile(command.mLogFile, false);
+                            break;
+                        case Command.STOP:
+                            running = false;
+                            break;
+                    }
+                }
+                catch(RuntimeException re)
+                {
+                    mLog.error("Error processing event log writer request for " + command.mLogFile, re);
+                }
+            }
+
+            for(LogFile logFile : written)
+            {
+                try
+                {
+                    logFile.flush();
+                }
+                catch(RuntimeException re)
+                {
+                    mLog.error("Error flushing event log file " + logFile, re);
+                }
+            }
+
+            mWrittenLineCount.addAndGet(lines);
+            mStageMetrics.processed(lines, System.nanoTime() - start);
+            batch.clear();
+            written.clear();
+        }
+
+        for(LogFile logFile : new ArrayList<>(mOpenFiles))
+        {
+            try
+            {
+                closeFile(logFile, false);
+            }
+            catch(RuntimeException re)
+            {
+                mLog.error("Error closing event log file " + logFile, re);
+            }
+        }
+    }
+
+    /**
+     * Opens the log file and writes the header
+     */
+    private void openFile(LogFile logFile)
+    {
+        if(logFile.open())
+        {
+            mOpenFiles.add(logFile);
+        }
+    }
+
+    /**
+     * Writes the line to the log file, rotating the log file first when it exceeds the rotation thresholds.
+     *
+     * @return true if the line was written
+     */
+    private boolean writeLine(LogFile logFile, String line)
+    {
+        if(!logFile.isOpen())
+        {
+            return false;
+        }
+
+        if((mRotationSizeBytes > 0 && logFile.getSize() >= mRotationSizeBytes) ||
+           (mRotationIntervalMs > 0 && System.currentTimeMillis() - logFile.getOpenedTimestamp() >= mRotationIntervalMs))
+        {
+            closeFile(logFile, true);
+            openFile(logFile);
+        }
+
+        return logFile.write(line);
+    }
+
+    /**
+     * Closes the log file
+     *
+     * @param rotated indicates the log file was closed for rotation and should be compressed if enabled
+     */
+    private void closeFile(LogFile logFile, boolean rotated)
+    {
+        mOpenFiles.remove(logFile);
+
+        Path path = logFile.close();
+
+        if(rotated && path != null && mCompressRotatedFiles)
+        {
+            COMPRESSION_EXECUTOR.submit(() -> compress(path));
+        }
+    }
+
+    /**
+     * Gzip compresses the log file to a .gz file and deletes the original log file
+     */
+    private static void compress(Path path)
+    {
+        Path compressed = path.resolveSibling(path.getFileName().toString() + ".gz");
+
+        try(InputStream in = Files.newInputStream(path);
+            OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed), FILE_BUFFER_SIZE))
+        {
+            byte[] buffer = new byte[FILE_BUFFER_SIZE];
+            int read;
+
+            while((read = in.read(buffer)) > 0)
+            {
+                out.write(buffer, 0, read);
+            }
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Error compressing rotated event log file [" + path + "]", ioe);
+
+            try
+            {
+                Files.deleteIfExists(compressed);
+            }
+            catch(IOException ioe2)
+            {
+                //Do nothing
+            }
+
+            return;
+        }
+
+        try
+        {
+            Files.delete(path);
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Error deleting rotated event log file [" + path + "] after compression", ioe);
+        }
+    }
+
+    /**
+     * Event log file.  Each time the log file is opened (ie at start and at each rotation) a new file is created that
+     * is named with the current timestamp, the frequency and the file name suffix.  Log file IO is performed only by
+     * the writer thread.
+     */
+    public static class LogFile
+    {
+        private Path mDirectory;
+        private String mFileNameSuffix;
+        private long mFrequency;
+        private String mHeader;
+        private volatile String mFileName;
+        private Writer mWriter;
+        private Path mPath;
+        private long mSize;
+        private long mOpenedTimestamp;
+
+        private LogFile(Path directory, String fileNameSuffix, long frequency, String header)
+        {
+            mDirectory = directory;
+            mFileNameSuffix = fileNameSuffix;
+            mFrequency = frequency;
+            mHeader = header;
+            mFileName = createFileName();
+        }
+
+        /**
+         * Name of the current log file
+         */
+        public String getFileName()
+        {
+            return mFileName;
+        }
+
+        private String createFileName()
+        {
+            StringBuilder sb = new StringBuilder();
+            sb.append(mDirectory);
+            sb.append(File.separator);
+            sb.append(TimeStamp.getLongTimeStamp("_"));
+            sb.append("_");
+            sb.append(mFrequency);
+            sb.append("_Hz_");
+            sb.append(mFileNameSuffix);
+            return sb.toString();
+        }
+
+        /**
+         * Indicates if a log file or compressed log file already exists with the file name
+         */
+        private static boolean exists(String fileName)
+        {
+            return Files.exists(Path.of(fileName)) || Files.exists(Path.of(fileName + ".gz"));
+        }
+
+        private boolean isOpen()
+        {
+            return mWriter != null;
+        }
+
+        private long getSize()
+        {
+            return mSize;
+        }
+
+        private long getOpenedTimestamp()
+        {
+            return mOpenedTimestamp;
+        }
+
+        /**
+         * Creates the log file and writes the header.  When the log file is reopened for rotation, a new file name is
+         * created, adding a sequence number when a log file (or compressed log file) with that name already exists.
+         */
+        private boolean open()
+        {
+            if(mPath != null)
+            {
+                String fileName = createFileName();
+                String candidate = fileName;
+                int sequence = 1;
+
+                while(exists(candidate))
+                {
+                    candidate = fileName + "." + sequence++;
+                }
+
+                mFileName = candidate;
+            }
+
+            mPath = Path.of(mFileName);
+
+            mLog.info("Creating log file:" + mFileName);
+
+            try
+            {
+                mWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(mPath.toFile())), FILE_BUFFER_SIZE);
+                mSize = 0;
+                mOpenedTimestamp = System.currentTimeMillis();
+
+                if(mHeader != null)
+                {
+                    write(mHeader);
+                    flush();
+                }
+
+                return true;
+            }
+            catch(IOException ioe)
+            {
+                mLog.error("Couldn't create log file in directory:" + mDirectory);
+                mWriter = null;
+            }
+
+            return false;
+        }
+
+        private boolean write(String line)
+        {
+            try
+            {
+                mWriter.write(line);
+                mWriter.write('\n');
+                mSize += line.length() + 1;
+                return true;
+            }
+            catch(IOException ioe)
+            {
+                mLog.error("Error writing entry to event log file", ioe);
+            }
+
+            return false;
+        }
+
+        private void flush()
+        {
+            if(mWriter != null)
+            {
+                try
+                {
+                    mWriter.flush();
+                }
+                catch(IOException ioe)
+                {
+                    mLog.error("Error flushing event log file", ioe);
+                }
+            }
+        }
+
+        /**
+         * Closes the log file
+         *
+         * @return path of the closed log file or null if the log file was not open
+         */
+        private Path close()
+        {
+            if(mWriter != null)
+            {
+                try
+                {
+                    mWriter.flush();
+                    mWriter.close();
+                }
+                catch(IOException ioe)
+                {
+                    mLog.error("Couldn't close log file:" + mFileName);
+                }
+
+                mWriter = null;
+                return mPath;
+            }
+
+            return null;
+        }
+
+        @Override
+        public String toString()
+        {
+            return mFileName;
+        }
+    }
+
+    /**
+     * Queued writer thread request
+     */
+    private static class Command
+    {
+        private static final int OPEN = 0;
+        private static final int WRITE = 1;
+        private static final int CLOSE = 2;
+        private static final int STOP = 3;
+
+        private final int mType;
+        private final LogFile mLogFile;
+        private final String mLine;
+
+        private Command(int type, LogFile logFile, String line)
+        {
+            mType = type;
+            mLogFile = logFile;
+            mLine = line;
+        }
+    }
+}
@@ -19,29 +19,25 @@
 package io.github.dsheirer.module.log;
 
 import io.github.dsheirer.module.Module;
-import io.github.dsheirer.util.TimeStamp;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.nio.file.Path;
 
+/**
+ * Base event logger.  Log entries are written to the log file asynchronously by the event log writer so that the
+ * calling (decoder) thread doesn't wait on disk access.
+ */
 public abstract class EventLogger extends Module
 {
-    private final static Logger mLog = LoggerFactory.getLogger(EventLogger.class);
-
+    private EventLogWriter mEventLogWriter;
     private Path mLogDirectory;
     private String mFileNameSuffix;
-    private String mLogFileName;
     private long mFrequency;
-    protected Writer mLogFile;
+    private volatile EventLogWriter.LogFile mLogFile;
+    private String mLogFileName;
 
-    public EventLogger(Path logDirectory, String fileNameSuffix, long frequency)
+    public EventLogger(EventLogWriter eventLogWriter, Path logDirectory, String fileNameSuffix, long frequency)
     {
+        mEventLogWriter = eventLogWriter;
         mLogDirectory = logDirectory;
         mFileNameSuffix = fileNameSuffix;
         mFrequency = frequency;
@@ -49,7 +45,13 @@ public abstract class EventLogger extends Module
 
     public String toString()
     {
-        if(mLogFileName != null)
+        EventLogWriter.LogFile logFile = mLogFile;
+
+        if(logFile != null)
+        {
+            return logFile.getFileName();
+        }
+        else if(mLogFileName != null)
         {
             return mLogFileName;
         }
@@ -66,62 +68,32 @@ public abstract class EventLogger extends Module
     {
         if(mLogFile == null)
         {
-            try
-            {
-                StringBuilder sb = new StringBuilder();
-                sb.append(mLogDirectory);
-                sb.append(File.separator);
-                sb.append(TimeStamp.getLongTimeStamp("_"));
-                sb.append("_");
-                sb.append(mFrequency);
-                sb.append("_Hz_");
-                sb.append(mFileNameSuffix);
-
-                mLogFileName = sb.toString();
-
-                mLog.info("Creating log file:" + mLogFileName);
-
-                mLogFile = new OutputStreamWriter(new FileOutputStream(mLogFileName));
-
-                write(getHeader());
-            }
-            catch(FileNotFoundException e)
-            {
-                mLog.error("Couldn't create log file in directory:" + mLogDirectory);
-            }
+            mLogFile = mEventLogWriter.open(mLogDirectory, mFileNameSuffix, mFrequency, getHeader());
         }
     }
 
     public void stop()
     {
-        if(mLogFile != null)
+        EventLogWriter.LogFile logFile = mLogFile;
+
+        if(logFile != null)
         {
-            try
-            {
-                mLogFile.flush();
-                mLogFile.close();
-                mLogFile = null;
-            }
-            catch(Exception e)
-            {
-                mLog.error("Couldn't close log file:" + mFileNameSuffix);
-            }
+            mLogFile = null;
+            mLogFileName = logFile.getFileName();
+            mEventLogWriter.close(logFile);
         }
     }
 
+    /**
+     * Queues the event log entry for writing to the log file.
+     */
     protected void write(String eventLogEntry)
     {
-        try
-        {
-            if(mLogFile != null)
-            {
-                mLogFile.write((eventLogEntry != null ? eventLogEntry : "") + "\n");
-                mLogFile.flush();
-            }
-        }
-        catch(Exception e)
+        EventLogWriter.LogFile logFile = mLogFile;
+
+        if(logFile != null)
         {
-            mLog.error("Error writing entry to event log file", e);
+            mEventLogWriter.write(logFile, eventLogEntry != null ? eventLogEntry : "");
         }
     }
 }
@@ -20,7 +20,6 @@ package io.github.dsheirer.module.log;
 import io.github.dsheirer.message.IMessage;
 import io.github.dsheirer.message.IMessageListener;
 import io.github.dsheirer.sample.Listener;
-import io.github.dsheirer.util.TimeStamp;
 
 import java.nio.file.Path;
 
@@ -32,10 +31,12 @@ public class MessageEventLogger extends EventLogger implements IMessageListener,
     }
 
     private Type mType;
+    private TimestampCache mTimestampFormat = new TimestampCache("yyyyMMdd HHmmss");
 
-    public MessageEventLogger(Path logDirectory, String fileNameSuffix, Type type, long frequency)
+    public MessageEventLogger(EventLogWriter eventLogWriter, Path logDirectory, String fileNameSuffix, Type type,
+                              long frequency)
     {
-        super(logDirectory, fileNameSuffix, frequency);
+        super(eventLogWriter, logDirectory, fileNameSuffix, frequency);
         mType = type;
     }
 
@@ -60,7 +61,7 @@ public class MessageEventLogger extends EventLogger implements IMessageListener,
     public void receive(IMessage message)
     {
         StringBuilder sb = new StringBuilder();
-        sb.append(TimeStamp.getTimeStamp(message.getTimestamp(), " "));
+        sb.append(mTimestampFormat.format(message.getTimestamp()));
         sb.append(",");
         sb.append((message.isValid() ? "PASSED" : "FAILED"));
         sb.append(",");
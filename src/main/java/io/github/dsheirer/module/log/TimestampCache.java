@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.module.log;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Thread-safe timestamp formatter for event log entries with a resolution of one second.  The most recently formatted
+ * timestamp is reused for all events that occur within the same second.
+ */
+public class TimestampCache
+{
+    private DateTimeFormatter mFormatter;
+    private volatile Entry mEntry = new Entry(Long.MIN_VALUE, null);
+
+    /**
+     * Constructs an instance
+     *
+     * @param pattern for the timestamp, with a resolution of one second or less
+     */
+    public TimestampCache(String pattern)
+    {
+        mFormatter = DateTimeFormatter.ofPattern(pattern).withZone(ZoneId.systemDefault());
+    }
+
+    /**
+     * Formats the timestamp
+     *
+     * @param timestamp in milliseconds since epoch
+     * @return formatted timestamp
+     */
+    public String format(long timestamp)
+    {
+        long second = Math.floorDiv(timestamp, 1000);
+
+        Entry entry = mEntry;
+
+        if(entry.mSecond != second)
+        {
+            entry = new Entry(second, mFormatter.format(Instant.ofEpochSecond(second)));
+            mEntry = entry;
+        }
+
+        return entry.mFormatted;
+    }
+
+    private static class Entry
+    {
+        private final long mSecond;
+        private final String mFormatted;
+
+        private Entry(long second, String formatted)
+        {
+            mSecond = second;
+            mFormatted = formatted;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.monitor;
+
+/**
+ * Latency statistics for an event that is measured from a start time to an end time, for example from a traffic
+ * channel grant to the first audio packet produced by the traffic channel.
+ */
+public class LatencyMetrics implements LatencyMetricsMBean
+{
+    private static final double NANOS_PER_MILLISECOND = 1E6;
+
+    private String mName;
+    private long mCount;
+    private long mLastNanos;
+    private long mMinimumNanos;
+    private long mMaximumNanos;
+    private long mTotalNanos;
+
+    /**
+     * Constructs an instance.  Use PipelineMetrics to obtain a registered instance that is exposed via JMX and HTTP.
+     *
+     * @param name of the measured latency
+     */
+    public LatencyMetrics(String name)
+    {
+        mName = name;
+    }
+
+    @Override
+    public String getName()
+    {
+        return mName;
+    }
+
+    /**
+     * Records a latency measurement.
+     *
+     * @param startNanos start time of the measured event from System.nanoTime()
+     */
+    public void recordSince(long startNanos)
+    {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records a latency measurement.
+     *
+     * @param nanos elapsed time
+     */
+    public synchronized void record(long nanos)
+    {
+        if(mCount == 0 || nanos < mMinimumNanos)
+        {
+            mMinimumNanos = nanos;
+        }
+
+        if(nanos > mMaximumNanos)
+        {
+            mMaximumNanos = nanos;
+        }
+
+        mLastNanos = nanos;
+        mTotalNanos += nanos;
+        mCount++;
+    }
+
+    @Override
+    public synchronized long getCount()
+    {
+        return mCount;
+    }
+
+    @Override
+    public synchronized double getLastMillis()
+    {
+        return mLastNanos / NANOS_PER_MILLISECOND;
+    }
+
+    @Override
+    public synchronized double getMinimumMillis()
+    {
+        return mMinimumNanos / NANOS_PER_MILLISECOND;
+    }
+
+    @Override
+    public synchronized double getMaximumMillis()
+    {
+        return mMaximumNanos / NANOS_PER_MILLISECOND;
+    }
+
+    @Override
+    public synchronized double getAverageMillis()
+    {
+        return mCount > 0 ? (mTotalNanos / (double)mCount) / NANOS_PER_MILLISECOND : 0.0;
+    }
+
+    @Override
+    public synchronized void reset()
+    {
+        mCount = 0;
+        mLastNanos = 0;
+        mMinimumNanos = 0;
+        mMaximumNanos = 0;
+        mTotalNanos = 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        return getName();
+    }
+}
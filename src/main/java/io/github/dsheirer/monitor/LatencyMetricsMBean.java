@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.monitor;
+
+/**
+ * JMX management interface for a latency metrics instance.
+ */
+public interface LatencyMetricsMBean
+{
+    /**
+     * Name of the measured latency
+     */
+    String getName();
+
+    /**
+     * Number of latency measurements since startup or the last reset
+     */
+    long getCount();
+
+    /**
+     * Most recent latency measurement in milliseconds
+     */
+    double getLastMillis();
+
+    /**
+     * Smallest latency measurement in milliseconds
+     */
+    double getMinimumMillis();
+
+    /**
+     * Largest latency measurement in milliseconds
+     */
+    double getMaximumMillis();
+
+    /**
+     * Average latency in milliseconds
+     */
+    double getAverageMillis();
+
+    /**
+     * Clears all latency measurements
+     */
+    void reset();
+}
@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.monitor;
+
+import io.github.dsheirer.sample.Listener;
+
+/**
+ * Listener wrapper that records the number of elements received and the time spent by the wrapped listener
+ * processing each element.
+ *
+ * @param <T> element type
+ */
+public class MeteredListener<T> implements Listener<T>
+{
+    private Listener<T> mListener;
+    private StageMetrics mMetrics;
+
+    /**
+     * Constructs an instance
+     * @param listener to receive elements
+     * @param metrics to record the element count and processing time
+     */
+    public MeteredListener(Listener<T> listener, StageMetrics metrics)
+    {
+        mListener = listener;
+        mMetrics = metrics;
+    }
+
+    @Override
+    public void receive(T t)
+    {
+        long start = System.nanoTime();
+        mListener.receive(t);
+        mMetrics.processed(1, System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.monitor;
+
+import io.github.dsheirer.properties.SystemProperties;
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Application-wide registry of sample processing pipeline stage metrics.  Registered stages are exposed as JMX
+ * MBeans (domain io.github.dsheirer, type PipelineStage) and via the PipelineMetricsServer HTTP/JSON endpoint.
+ *
+ * Stage throughput (buffers per second) is updated once a second for all registered stages.
+ *
+ * The registry also provides application-wide latency metrics (JMX type Latency), such as the traffic channel
+ * grant to first audio packet latency.
+ */
+public class PipelineMetrics
+{
+    private final static Logger mLog = LoggerFactory.getLogger(PipelineMetrics.class);
+    private static final String JMX_DOMAIN = "io.github.dsheirer";
+    private static final long RATE_UPDATE_INTERVAL_MS = 1000;
+    public static final String LATENCY_GRANT_TO_AUDIO = "Traffic Channel Grant To First Audio";
+    public static final String PROPERTY_MODULE_METRICS_ENABLED = "metrics.module.enabled";
+
+    private static final Map<StageMetrics,ObjectName> sRegisteredStages = new ConcurrentHashMap<>();
+    private static final Map<String,LatencyMetrics> sLatencyMetrics = new ConcurrentHashMap<>();
+    private static final AtomicLong sIdGenerator = new AtomicLong();
+    private static ScheduledFuture<?> sRateUpdater;
+
+    /**
+     * Application-wide pipeline metrics registry.
+     */
+    private PipelineMetrics()
+    {
+    }
+
+    /**
+     * Indicates if per-module metrics are enabled for processing chains.  When enabled, each module's buffer listener
+     * is wrapped to record the module's throughput and processing time.  Disabled by default.  Set the
+     * metrics.module.enabled property to true to enable.
+     */
+    public static boolean isModuleMetricsEnabled()
+    {
+        return SystemProperties.getInstance().get(PROPERTY_MODULE_METRICS_ENABLED, false);
+    }
+
+    /**
+     * Creates and registers a stage metrics instance.
+     *
+     * @param type of stage
+     * @param name of the stage instance (ie tuner or channel name)
+     * @return registered metrics instance
+     */
+    public static StageMetrics register(StageMetrics.Type type, String name)
+    {
+        StageMetrics metrics = new StageMetrics(type, name);
+        register(metrics);
+        return metrics;
+    }
+
+    /**
+     * Registers the stage metrics with the platform MBean server and includes the stage in the metrics snapshot.
+     * Registering a stage that is already registered has no effect.
+     */
+    public static void register(StageMetrics metrics)
+    {
+        if(metrics == null || sRegisteredStages.containsKey(metrics))
+        {
+            return;
+        }
+
+        ObjectName objectName = null;
+
+        try
+        {
+            objectName = new ObjectName(JMX_DOMAIN + ":type=PipelineStage,stage=" + ObjectName.quote(metrics.getType()) +
+                ",name=" + ObjectName.quote(metrics.getName()) + ",id=" + sIdGenerator.incrementAndGet());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, objectName);
+        }
+        catch(Exception e)
+        {
+            mLog.error("Unable to register JMX MBean for pipeline stage " + metrics, e);
+            objectName = null;
+        }
+
+        //Map doesn't support null values - use the wildcard name as a placeholder when JMX registration fails
+        sRegisteredStages.put(metrics, objectName != null ? objectName : ObjectName.WILDCARD);
+
+        startRateUpdater();
+    }
+
+    /**
+     * Removes the stage metrics from the platform MBean server and the metrics snapshot.
+     */
+    public static void unregister(StageMetrics metrics)
+    {
+        if(metrics == null)
+        {
+            return;
+        }
+
+        ObjectName objectName = sRegisteredStages.remove(metrics);
+
+        if(objectName != null && objectName != ObjectName.WILDCARD)
+        {
+            try
+            {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+                if(server.isRegistered(objectName))
+                {
+                    server.unregisterMBean(objectName);
+                }
+            }
+            catch(Exception e)
+            {
+                mLog.error("Unable to unregister JMX MBean for pipeline stage " + metrics, e);
+            }
+        }
+    }
+
+    /**
+     * Snapshot list of the currently registered stage metrics, ordered by stage type and name.
+     */
+    public static List<StageMetrics> getStageMetrics()
+    {
+        List<StageMetrics> stages = new ArrayList<>(sRegisteredStages.keySet());
+        stages.sort((o1, o2) -> {
+            int comparison = o1.getStageType().compareTo(o2.getStageType());
+            return comparison != 0 ? comparison : o1.getName().compareTo(o2.getName());
+        });
+        return stages;
+    }
+
+    /**
+     * Returns the named latency metrics instance, creating and registering the instance with the platform MBean
+     * server on first use.
+     *
+     * @param name of the latency (ie LATENCY_GRANT_TO_AUDIO)
+     * @return registered latency metrics
+     */
+    public static LatencyMetrics getLatencyMetrics(String name)
+    {
+        return sLatencyMetrics.computeIfAbsent(name, key -> {
+            LatencyMetrics metrics = new LatencyMetrics(key);
+
+            try
+            {
+                ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=Latency,name=" + ObjectName.quote(key));
+                ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, objectName);
+            }
+            catch(Exception e)
+            {
+                mLog.error("Unable to register JMX MBean for latency " + key, e);
+            }
+
+            return metrics;
+        });
+    }
+
+    /**
+     * Snapshot list of the latency metrics, ordered by name.
+     */
+    public static List<LatencyMetrics> getLatencyMetrics()
+    {
+        List<LatencyMetrics> latencies = new ArrayList<>(sLatencyMetrics.values());
+        latencies.sort((o1, o2) -> o1.getName().compareTo(o2.getName()));
+        return latencies;
+    }
+
+    /**
+     * Starts the scheduled throughput rate updater, if not already started
+     */
+    private static synchronized void startRateUpdater()
+    {
+        if(sRateUpdater == null)
+        {
+            sRateUpdater = ThreadPool.SCHEDULED.scheduleAtFixedRate(() -> {
+                for(StageMetrics metrics: sRegisteredStages.keySet())
+                {
+                    metrics.updateRate();
+                }
+            }, RATE_UPDATE_INTERVAL_MS, RATE_UPDATE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+}
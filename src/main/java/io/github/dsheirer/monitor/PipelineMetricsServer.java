@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.monitor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.dsheirer.controller.NamingThreadFactory;
+import io.github.dsheirer.properties.SystemProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local HTTP server that provides a JSON snapshot of the registered pipeline stage and latency metrics for scraping
+ * by external monitoring tools.  The server binds to the loopback interface only.
+ *
+ * GET http://localhost:{port}/metrics
+ *
+ * The server is disabled by default.  Enable it by setting the metrics.http.port system property (SDRTrunk.properties)
+ * to the desired port number.
+ */
+public class PipelineMetricsServer
+{
+    private final static Logger mLog = LoggerFactory.getLogger(PipelineMetricsServer.class);
+
+    public static final String PROPERTY_METRICS_HTTP_PORT = "metrics.http.port";
+    public static final String METRICS_PATH = "/metrics";
+
+    private ObjectMapper mObjectMapper = new ObjectMapper();
+    private HttpServer mHttpServer;
+    private ExecutorService mExecutorService;
+    private int mPort;
+
+    /**
+     * Constructs an instance
+     * @param port to listen on
+     */
+    public PipelineMetricsServer(int port)
+    {
+        mPort = port;
+    }
+
+    /**
+     * Creates and starts a metrics server when the metrics.http.port system property is set to a valid port number.
+     *
+     * @return started server or null if the server is disabled or can't be started
+     */
+    public static PipelineMetricsServer startIfEnabled()
+    {
+        int port = SystemProperties.getInstance().get(PROPERTY_METRICS_HTTP_PORT, 0);
+
+        if(port <= 0 || port > 65535)
+        {
+            return null;
+        }
+
+        PipelineMetricsServer server = new PipelineMetricsServer(port);
+
+        try
+        {
+            server.start();
+            return server;
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Unable to start pipeline metrics server on port [" + port + "]", ioe);
+        }
+
+        return null;
+    }
+
+    /**
+     * Starts the HTTP server
+     * @throws IOException if the server can't bind to the port
+     */
+    public void start() throws IOException
+    {
+        if(mHttpServer == null)
+        {
+            mHttpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), mPort), 0);
+            mHttpServer.createContext(METRICS_PATH, this::handle);
+            mExecutorService = Executors.newSingleThreadExecutor(new NamingThreadFactory("sdrtrunk metrics server"));
+            mHttpServer.setExecutor(mExecutorService);
+            mHttpServer.start();
+            mLog.info("Pipeline metrics available at http://localhost:" + mPort + METRICS_PATH);
+        }
+    }
+
+    /**
+     * Stops the HTTP server
+     */
+    public void stop()
+    {
+        if(mHttpServer != null)
+        {
+            mHttpServer.stop(0);
+            mHttpServer = null;
+            mExecutorService.shutdownNow();
+            mExecutorService = null;
+        }
+    }
+
+    /**
+     * Responds to a metrics request with the JSON snapshot
+     */
+    private void handle(HttpExchange exchange) throws IOException
+    {
+        try
+        {
+            if(!"GET".equalsIgnoreCase(exchange.getRequestMethod()))
+            {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] json = mObjectMapper.writeValueAsBytes(getSnapshot());
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, json.length);
+
+            try(OutputStream outputStream = exchange.getResponseBody())
+            {
+                outputStream.write(json);
+            }
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Creates a snapshot of the currently registered stage metrics and latency metrics
+     */
+    public static Map<String,Object> getSnapshot()
+    {
+        List<Map<String,Object>> stages = new ArrayList<>();
+
+        for(StageMetrics metrics: PipelineMetrics.getStageMetrics())
+        {
+            Map<String,Object> stage = new LinkedHashMap<>();
+            stage.put("type", metrics.getType());
+            stage.put("name", metrics.getName());
+            stage.put("bufferCount", metrics.getBufferCount());
+            stage.put("buffersPerSecond", Math.round(metrics.getBuffersPerSecond() * 10.0) / 10.0);
+            stage.put("queueDepth", metrics.getQueueDepth());
+            stage.put("maxQueueDepth", metrics.getMaxQueueDepth());
+            stage.put("overflowCount", metrics.getOverflowCount());
+            stage.put("starvedCount", metrics.getStarvedCount());
+            stage.put("nanosPerBuffer", metrics.getNanosPerBuffer());
+            stages.add(stage);
+        }
+
+        List<Map<String,Object>> latencies = new ArrayList<>();
+
+        for(LatencyMetrics metrics: PipelineMetrics.getLatencyMetrics())
+        {
+            Map<String,Object> latency = new LinkedHashMap<>();
+            latency.put("name", metrics.getName());
+            latency.put("count", metrics.getCount());
+            latency.put("lastMillis", Math.round(metrics.getLastMillis() * 10.0) / 10.0);
+            latency.put("minimumMillis", Math.round(metrics.getMinimumMillis() * 10.0) / 10.0);
+            latency.put("maximumMillis", Math.round(metrics.getMaximumMillis() * 10.0) / 10.0);
+            latency.put("averageMillis", Math.round(metrics.getAverageMillis() * 10.0) / 10.0);
+            latencies.add(latency);
+        }
+
+        Map<String,Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("timestamp", System.currentTimeMillis());
+        snapshot.put("stages", stages);
+        snapshot.put("latencies", latencies);
+        return snapshot;
+    }
+}
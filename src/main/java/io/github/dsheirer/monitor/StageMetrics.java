@@ -0,0 +1,257 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.monitor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Throughput, queue depth, overflow, starvation and processing time statistics for a single sample processing pipeline stage
+ * (ie USB transfer, channelizer, channel source or processing chain module).
+ *
+ * Statistics are updated by the stage on its processing thread(s) and read by the pipeline metrics registry, JMX and
+ * the metrics HTTP server.  The update methods are lightweight so that they can be invoked for each buffer.
+ */
+public class StageMetrics implements StageMetricsMBean
+{
+    public enum Type
+    {
+        USB_TRANSFER("USB Transfer"),
+        CHANNELIZER("Channelizer"),
+        CHANNEL_SOURCE("Channel Source"),
+        MODULE("Module"),
+        EVENT_LOG("Event Log"),
+        MP3_ENCODER("MP3 Encoder");
+
+        private String mLabel;
+
+        Type(String label)
+        {
+            mLabel = label;
+        }
+
+        @Override
+        public String toString()
+        {
+            return mLabel;
+        }
+    }
+
+    private Type mType;
+    private String mName;
+    private AtomicLong mBufferCount = new AtomicLong();
+    private AtomicLong mOverflowCount = new AtomicLong();
+    private AtomicLong mStarvedCount = new AtomicLong();
+    private AtomicLong mProcessingNanos = new AtomicLong();
+    private AtomicInteger mMaxQueueDepth = new AtomicInteger();
+    private IntSupplier mQueueDepthSupplier;
+    private volatile double mBuffersPerSecond;
+    private volatile long mNanosPerBuffer;
+    private long mPreviousBufferCount;
+    private long mPreviousProcessingNanos;
+    private long mPreviousUpdateTimestamp = System.nanoTime();
+
+    /**
+     * Constructs an instance.  Register the instance with PipelineMetrics to expose the statistics via JMX and HTTP.
+     *
+     * @param type of stage
+     * @param name of the stage instance (ie tuner or channel name)
+     */
+    public StageMetrics(Type type, String name)
+    {
+        mType = type;
+        mName = name;
+    }
+
+    /**
+     * Type of stage
+     */
+    public Type getStageType()
+    {
+        return mType;
+    }
+
+    @Override
+    public String getType()
+    {
+        return mType.toString();
+    }
+
+    @Override
+    public String getName()
+    {
+        return mName;
+    }
+
+    /**
+     * Records the number of buffers received by the stage.
+     */
+    public void buffersReceived(int count)
+    {
+        mBufferCount.addAndGet(count);
+    }
+
+    /**
+     * Records the time spent processing buffers.  Use this method when buffer counts are recorded separately (ie by
+     * the stage's queue).
+     *
+     * @param nanos elapsed processing time
+     */
+    public void processingTime(long nanos)
+    {
+        mProcessingNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Records buffers processed by the stage and the time spent processing those buffers.
+     *
+     * @param count of buffers
+     * @param nanos elapsed processing time
+     */
+    public void processed(int count, long nanos)
+    {
+        mBufferCount.addAndGet(count);
+        mProcessingNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Records an overflow or dropped buffer.
+     */
+    public void overflow()
+    {
+        mOverflowCount.incrementAndGet();
+    }
+
+    /**
+     * Records that the stage was momentarily starved of buffers (ie no receive buffers available to the source).
+     * Starvation indicates a risk of lost samples but is not a counted loss, so it is tracked separately from the
+     * overflow count.
+     */
+    public void starved()
+    {
+        mStarvedCount.incrementAndGet();
+    }
+
+    /**
+     * Sets the supplier for the current queue depth of the stage.
+     */
+    public void setQueueDepthSupplier(IntSupplier supplier)
+    {
+        mQueueDepthSupplier = supplier;
+    }
+
+    /**
+     * Updates the maximum queue depth if the depth argument exceeds the current maximum.
+     */
+    public void updateMaxQueueDepth(int depth)
+    {
+        int max = mMaxQueueDepth.get();
+
+        while(depth > max && !mMaxQueueDepth.compareAndSet(max, depth))
+        {
+            max = mMaxQueueDepth.get();
+        }
+    }
+
+    /**
+     * Updates the buffers per second throughput value and the average processing time per buffer using the buffer
+     * count and processing time since the previous update.  Invoked periodically by the pipeline metrics registry.
+     */
+    void updateRate()
+    {
+        long now = System.nanoTime();
+        long count = mBufferCount.get();
+        long processingNanos = mProcessingNanos.get();
+        long elapsed = now - mPreviousUpdateTimestamp;
+        long buffers = count - mPreviousBufferCount;
+
+        if(elapsed > 0)
+        {
+            mBuffersPerSecond = buffers * 1E9 / elapsed;
+        }
+
+        mNanosPerBuffer = buffers > 0 ? (processingNanos - mPreviousProcessingNanos) / buffers : 0;
+
+        mPreviousBufferCount = count;
+        mPreviousProcessingNanos = processingNanos;
+        mPreviousUpdateTimestamp = now;
+    }
+
+    @Override
+    public long getBufferCount()
+    {
+        return mBufferCount.get();
+    }
+
+    @Override
+    public double getBuffersPerSecond()
+    {
+        return mBuffersPerSecond;
+    }
+
+    @Override
+    public int getQueueDepth()
+    {
+        IntSupplier supplier = mQueueDepthSupplier;
+        return supplier != null ? supplier.getAsInt() : 0;
+    }
+
+    @Override
+    public int getMaxQueueDepth()
+    {
+        return mMaxQueueDepth.get();
+    }
+
+    @Override
+    public long getOverflowCount()
+    {
+        return mOverflowCount.get();
+    }
+
+    @Override
+    public long getStarvedCount()
+    {
+        return mStarvedCount.get();
+    }
+
+    @Override
+    public long getNanosPerBuffer()
+    {
+        return mNanosPerBuffer;
+    }
+
+    @Override
+    public long getProcessingNanos()
+    {
+        return mProcessingNanos.get();
+    }
+
+    @Override
+    public void resetMaxQueueDepth()
+    {
+        mMaxQueueDepth.set(getQueueDepth());
+    }
+
+    @Override
+    public String toString()
+    {
+        return getType() + " [" + mName + "]";
+    }
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.monitor;
+
+/**
+ * JMX management interface for a pipeline stage metrics instance.
+ */
+public interface StageMetricsMBean
+{
+    /**
+     * Name of the stage instance (ie tuner or channel name)
+     */
+    String getName();
+
+    /**
+     * Type of stage
+     */
+    String getType();
+
+    /**
+     * Total number of buffers received or processed by the stage
+     */
+    long getBufferCount();
+
+    /**
+     * Buffer throughput measured over the most recent update interval
+     */
+    double getBuffersPerSecond();
+
+    /**
+     * Current number of buffers queued for the stage, or zero if the stage doesn't have a queue
+     */
+    int getQueueDepth();
+
+    /**
+     * Largest queue depth observed since startup or the last reset
+     */
+    int getMaxQueueDepth();
+
+    /**
+     * Number of times the stage has overflowed or dropped a buffer
+     */
+    long getOverflowCount();
+
+    /**
+     * Number of times the stage was momentarily starved of buffers
+     */
+    long getStarvedCount();
+
+    /**
+     * Average processing time per buffer in nanoseconds, measured over the most recent update interval
+     */
+    long getNanosPerBuffer();
+
+    /**
+     * Total processing time in nanoseconds
+     */
+    long getProcessingNanos();
+
+    /**
+     * Resets the maximum queue depth to the current queue depth
+     */
+    void resetMaxQueueDepth();
+}
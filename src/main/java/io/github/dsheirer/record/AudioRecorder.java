@@ -45,7 +45,7 @@ public abstract class AudioRecorder extends Module implements Listener<ReusableA
     private LinkedBlockingQueue<ReusableAudioPacket> mAudioPacketQueue = new LinkedBlockingQueue<>(500);
     private List<ReusableAudioPacket> mPacketsToProcess = new ArrayList<>();
 
-    private FileOutputStream mFileOutputStream;
+    private OutputStream mOutputStream;
     private AtomicBoolean mRunning = new AtomicBoolean();
 
     protected Path mPath;
@@ -68,6 +68,19 @@ public abstract class AudioRecorder extends Module implements Listener<ReusableA
         mPath = path;
     }
 
+    /**
+     * Abstract audio recorder that implements audio packet queueing and threaded audio conversion/writing to the
+     * output stream instead of to a file.
+     *
+     * @param path that describes the recording (not created)
+     * @param outputStream for the recording.  The output stream is closed when the recorder is closed.
+     */
+    public AudioRecorder(Path path, OutputStream outputStream)
+    {
+        mPath = path;
+        mOutputStream = outputStream;
+    }
+
     /**
      * Path for the audio recording file
      */
@@ -150,11 +163,11 @@ public abstract class AudioRecorder extends Module implements Listener<ReusableA
     }
 
     /**
-     * File output stream for the current recording.  Intended to allow sub-classes to write binary data to the file.
+     * Output stream for the current recording.  Intended to allow sub-classes to write binary data to the file.
      */
     protected OutputStream getOutputStream()
     {
-        return mFileOutputStream;
+        return mOutputStream;
     }
 
     /**
@@ -212,7 +225,10 @@ public abstract class AudioRecorder extends Module implements Listener<ReusableA
 
             try
             {
-                mFileOutputStream = new FileOutputStream(mPath.toFile());
+                if(mOutputStream == null)
+                {
+                    mOutputStream = new FileOutputStream(mPath.toFile());
+                }
 
                 /* Schedule the handler to run every half second */
                 mProcessorHandle = ThreadPool.SCHEDULED.scheduleAtFixedRate(mBufferProcessor, 0, 500, TimeUnit.MILLISECONDS);
@@ -304,12 +320,12 @@ public abstract class AudioRecorder extends Module implements Listener<ReusableA
                     //Allow sub-classes to flush remaining audio frame data to disk.
                     flush();
 
-                    if(mFileOutputStream != null)
+                    if(mOutputStream != null)
                     {
                         try
                         {
-                            mFileOutputStream.flush();
-                            mFileOutputStream.close();
+                            mOutputStream.flush();
+                            mOutputStream.close();
                         }
                         catch(IOException e)
                         {
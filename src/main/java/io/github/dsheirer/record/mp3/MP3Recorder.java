@@ -18,7 +18,9 @@
  ******************************************************************************/
 package io.github.dsheirer.record.mp3;
 
+import io.github.dsheirer.audio.AudioUtils;
 import io.github.dsheirer.audio.convert.MP3AudioConverter;
+import io.github.dsheirer.audio.convert.MP3EncodingService;
 import io.github.dsheirer.record.AudioRecorder;
 import io.github.dsheirer.sample.buffer.ReusableAudioPacket;
 import org.slf4j.Logger;
@@ -31,6 +33,9 @@ import java.util.List;
 
 /**
  * MP3 recorder for converting 8 kHz PCM audio packets to MP3 and writing to .mp3 file.
+ *
+ * Audio packets are converted to PCM samples on the recorder thread and the MP3 encoding and writing is performed in
+ * order by the shared MP3 encoding service.
  */
 public class MP3Recorder extends AudioRecorder
 {
@@ -38,8 +43,12 @@ public class MP3Recorder extends AudioRecorder
 
     public static final int MP3_BIT_RATE = 16;
     public static final boolean CONSTANT_BIT_RATE = false;
+    private static final long FLUSH_TIMEOUT_MS = 5000;
 
     private MP3AudioConverter mMP3Converter;
+    private MP3EncodingService.EncodingQueue mEncodingQueue = MP3EncodingService.getInstance().createEncodingQueue();
+    private volatile boolean mWriteError;
+    private volatile boolean mEncodingCancelled;
 
     /**
      * MP3 audio recorder module for converting audio packets to 16 kHz constant bit rate MP3 format and
@@ -54,6 +63,20 @@ public class MP3Recorder extends AudioRecorder
         mMP3Converter = new MP3AudioConverter(MP3_BIT_RATE, CONSTANT_BIT_RATE);
     }
 
+    /**
+     * MP3 audio recorder module for converting audio packets to 16 kHz constant bit rate MP3 format and writing the
+     * MP3 frames to the output stream.
+     *
+     * @param path that describes the recording
+     * @param outputStream to receive the MP3 frames
+     */
+    public MP3Recorder(Path path, OutputStream outputStream)
+    {
+        super(path, outputStream);
+
+        mMP3Converter = new MP3AudioConverter(MP3_BIT_RATE, CONSTANT_BIT_RATE);
+    }
+
     @Override
     protected void record(List<ReusableAudioPacket> audioPackets) throws IOException
     {
@@ -61,28 +84,61 @@ public class MP3Recorder extends AudioRecorder
 
         if(outputStream != null)
         {
+            if(mWriteError)
+            {
+                throw new IOException("Error writing MP3 audio to [" + getPath().toString() + "]");
+            }
+
             processMetadata(audioPackets);
 
-            byte[] mp3Audio = mMP3Converter.convert(audioPackets);
+            byte[] pcmAudio = AudioUtils.convertTo16BitSamples(audioPackets);
 
-            outputStream.write(mp3Audio);
+            mEncodingQueue.submit(pcmAudio.length / 2, () -> write(outputStream, mMP3Converter.convert(pcmAudio)));
         }
     }
 
     @Override
     protected void flush()
     {
-        byte[] partialFrame = mMP3Converter.flush();
+        OutputStream outputStream = getOutputStream();
 
-        if(partialFrame != null && partialFrame.length > 0)
+        mEncodingQueue.submit(0, () ->
+        {
+            byte[] partialFrame = mMP3Converter.flush();
+
+            if(partialFrame != null && partialFrame.length > 0)
+            {
+                write(outputStream, partialFrame);
+            }
+        });
+
+        //Wait for the queued audio to be encoded and written before the recording is closed.  On timeout, cancel the
+        //remaining encoding tasks and stop writing so that nothing is written after the output stream is closed.
+        if(!mEncodingQueue.await(FLUSH_TIMEOUT_MS))
+        {
+            mEncodingCancelled = true;
+            int cancelled = mEncodingQueue.cancel();
+
+            mLog.error("Timeout waiting for MP3 encoding to complete for recording [" + getPath().toString() +
+                "] - cancelled [" + cancelled + "] pending encoding tasks");
+        }
+    }
+
+    /**
+     * Writes the MP3 audio to the output stream.  Invoked on the MP3 encoding service thread.
+     */
+    private void write(OutputStream outputStream, byte[] mp3Audio)
+    {
+        if(outputStream != null && !mWriteError && !mEncodingCancelled && mp3Audio.length > 0)
         {
             try
             {
-                getOutputStream().write(partialFrame);
+                outputStream.write(mp3Audio);
             }
             catch(IOException ioe)
             {
-                mLog.error("Error writing final audio frame data to file", ioe);
+                mLog.error("Error writing MP3 audio to [" + getPath().toString() + "]", ioe);
+                mWriteError = true;
             }
         }
     }
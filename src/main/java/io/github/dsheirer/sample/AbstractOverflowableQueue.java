@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.sample;
+
+import io.github.dsheirer.monitor.StageMetrics;
+import io.github.dsheirer.source.Source;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base class for bounded queues with overflow state.  When the queue size exceeds maximum size (overflow), all inbound
+ * elements are ignored until the queue size is reduced to or below the reset threshold.  Overflow state changes are
+ * broadcast to the registered overflow listeners.
+ */
+public abstract class AbstractOverflowableQueue<E>
+{
+    private IOverflowListener mOverflowListener;
+    private Source mSourceOverflowListener;
+
+    protected AtomicInteger mCounter = new AtomicInteger();
+    protected AtomicBoolean mOverflow = new AtomicBoolean();
+    private int mMaximumSize;
+    private int mResetThreshold;
+    protected StageMetrics mMetrics;
+
+    /**
+     * Constructs an instance
+     *
+     * @param maximumSize of the queue.  Overflow state will occur once queue size exceeds this value.
+     * @param resetThreshold for resetting overflow state to normal, once queue size is at or below this value.
+     */
+    public AbstractOverflowableQueue(int maximumSize, int resetThreshold)
+    {
+        mMaximumSize = maximumSize;
+        mResetThreshold = resetThreshold;
+    }
+
+    /**
+     * Maximum queue size.  Overflow state occurs once queue size exceeds this value.
+     */
+    protected int getMaximumSize()
+    {
+        return mMaximumSize;
+    }
+
+    /**
+     * Queue size at or below which the overflow state is reset to normal.
+     */
+    protected int getResetThreshold()
+    {
+        return mResetThreshold;
+    }
+
+    public void dispose()
+    {
+        clear();
+        mOverflowListener = null;
+        mSourceOverflowListener = null;
+    }
+
+    /**
+     * Adds the element to the queue if able to do so without exceeding maximum queue size.  Otherwise, ignores
+     * the element.
+     */
+    public abstract void offer(E e);
+
+    /**
+     * Removes and returns a single element from the head of the queue or null if the queue is empty
+     */
+    public abstract E poll();
+
+    /**
+     * Removes and returns a single element from the head of the queue, waiting up to the specified timeout for an
+     * element to become available.
+     *
+     * @param timeout to wait
+     * @param unit for the timeout
+     * @return element or null if the timeout elapsed before an element became available
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public abstract E poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Retrieves elements from the queue into the collection up to the maximum number of elements specified
+     */
+    public abstract int drainTo(Collection<? super E> collection, int maxElements);
+
+    /**
+     * Retrieves all elements from the queue into the collection
+     */
+    public abstract int drainTo(Collection<? super E> collection);
+
+    /**
+     * Clears all elements from the queue and resets the overflow state
+     */
+    public abstract void clear();
+
+    /**
+     * Invoked when the buffer is in an overflow state.  The element argument is thrown away.  Override this method
+     * in subclasses to perform any necessary cleanup action(s).
+     *
+     * @param e element that is being thrown away due to an overflow condition
+     */
+    protected void overflow(E e)
+    {
+        //No-op.  Override in subclass to perform any cleanup actions during overflow
+    }
+
+    /**
+     * Sets a listener to receive overflow state change events.
+     */
+    public void setOverflowListener(IOverflowListener listener)
+    {
+        mOverflowListener = listener;
+    }
+
+    /**
+     * Sets the source to receive overflow state change events (in addition to an IOverflow listener)
+     */
+    public void setSourceOverflowListener(Source source)
+    {
+        mSourceOverflowListener = source;
+    }
+
+    /**
+     * Sets the metrics instance to receive the queued element count, queue depth and overflow statistics for this
+     * queue.  Note: this method can be invoked with a null argument to stop recording statistics.
+     */
+    public void setMetrics(StageMetrics metrics)
+    {
+        mMetrics = metrics;
+
+        if(metrics != null)
+        {
+            metrics.setQueueDepthSupplier(mCounter::get);
+        }
+    }
+
+    /**
+     * Toggles the overflow state and broadcast state change to listener
+     */
+    protected void setOverflow(boolean overflow)
+    {
+        if(mOverflow.compareAndSet(!overflow, overflow))
+        {
+            if(mOverflowListener != null)
+            {
+                mOverflowListener.sourceOverflow(overflow);
+            }
+
+            if(mSourceOverflowListener != null)
+            {
+                mSourceOverflowListener.broadcastOverflowState(overflow);
+            }
+        }
+    }
+}
@@ -0,0 +1,316 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.sample;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded, array-backed ring queue for handing off elements from a single producer thread to a consumer thread.
+ *
+ * The consumer can wait for elements using await(timeout, unit) or poll(timeout, unit) where the consumer thread is
+ * parked until the producer offers a new element, so elements are processed as soon as they arrive rather than on a
+ * polling interval, and an idle consumer doesn't consume any processor time.
+ *
+ * This queue preserves the overflow semantics of the overflowable transfer queue: once the queue size exceeds the
+ * maximum size, all inbound elements are ignored until the queue size is reduced to or below the reset threshold.  The
+ * ring capacity is sized larger than the maximum size so that the ring itself never fills before overflow occurs.
+ *
+ * Note: offer() must only be invoked by a single producer thread.  Elements can be removed by more than one thread
+ * (ie a consumer thread and a thread that invokes clear() during shutdown) and element removal is serialized.
+ */
+public class OverflowableRingQueue<E> extends AbstractOverflowableQueue<E>
+{
+    private final Object[] mElements;
+    private final int mMask;
+    private final Object mConsumerLock = new Object();
+    private volatile long mHead;
+    private volatile long mTail;
+    private volatile Thread mWaitingConsumer;
+
+    /**
+     * Constructs an instance
+     *
+     * @param maximumSize of the queue.  Overflow state will occur once queue size exceeds this value.
+     * @param resetThreshold for resetting overflow state to normal, once queue size is at or below this value.
+     */
+    public OverflowableRingQueue(int maximumSize, int resetThreshold)
+    {
+        super(maximumSize, resetThreshold);
+
+        //Capacity is the next power of two that can hold maximum size + 1 elements
+        int capacity = Integer.highestOneBit(maximumSize + 1);
+
+        if(capacity < maximumSize + 1)
+        {
+            capacity <<= 1;
+        }
+
+        mElements = new Object[capacity];
+        mMask = capacity - 1;
+    }
+
+    /**
+     * Adds the element to the queue if able to do so without exceeding maximum queue size.  Otherwise, ignores
+     * the element.  Unparks the consumer if it is waiting for an element.
+     */
+    @Override
+    public void offer(E e)
+    {
+        if(mOverflow.get())
+        {
+            if(mMetrics != null)
+            {
+                mMetrics.overflow();
+            }
+
+            overflow(e);
+            return;
+        }
+
+        long tail = mTail;
+
+        if(tail - mHead >= mElements.length)
+        {
+            setOverflow(true);
+
+            if(mMetrics != null)
+            {
+                mMetrics.overflow();
+            }
+
+            overflow(e);
+            return;
+        }
+
+        mElements[(int)(tail & mMask)] = e;
+        mTail = tail + 1;
+
+        int size = mCounter.incrementAndGet();
+
+        if(mMetrics != null)
+        {
+            mMetrics.buffersReceived(1);
+            mMetrics.updateMaxQueueDepth(size);
+        }
+
+        Thread consumer = mWaitingConsumer;
+
+        if(consumer != null)
+        {
+            LockSupport.unpark(consumer);
+        }
+
+        if(size > getMaximumSize())
+        {
+            setOverflow(true);
+        }
+    }
+
+    /**
+     * Indicates if the queue is empty
+     */
+    public boolean isEmpty()
+    {
+        return mHead >= mTail;
+    }
+
+    /**
+     * Removes and returns a single element from the head of the queue or null if the queue is empty.  Resets the
+     * overflow state once the queue size is at or below the reset threshold.
+     */
+    @Override
+    public E poll()
+    {
+        E element = next();
+        checkReset();
+        return element;
+    }
+
+    /**
+     * Removes and returns the element at the head of the queue and releases the ring slot so that the queue doesn't
+     * retain a reference to the element.
+     */
+    @SuppressWarnings("unchecked")
+    private E next()
+    {
+        synchronized(mConsumerLock)
+        {
+            long head = mHead;
+
+            if(head >= mTail)
+            {
+                return null;
+            }
+
+            int index = (int)(head & mMask);
+            E element = (E)mElements[index];
+            mElements[index] = null;
+            mHead = head + 1;
+            mCounter.decrementAndGet();
+            return element;
+        }
+    }
+
+    /**
+     * Parks the calling thread for up to the specified timeout until the queue contains at least one element.  Only
+     * one thread should wait on this queue at a time.
+     *
+     * @param timeout to wait
+     * @param unit for the timeout
+     * @return true if the queue contains an element or false if the timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        if(!isEmpty())
+        {
+            return true;
+        }
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        mWaitingConsumer = Thread.currentThread();
+
+        try
+        {
+            while(true)
+            {
+                //Check again after registering as the waiting consumer to avoid a missed wakeup
+                if(!isEmpty())
+                {
+                    return true;
+                }
+
+                long remaining = deadline - System.nanoTime();
+
+                if(remaining <= 0)
+                {
+                    return false;
+                }
+
+                LockSupport.parkNanos(this, remaining);
+
+                if(Thread.interrupted())
+                {
+                    throw new InterruptedException();
+                }
+            }
+        }
+        finally
+        {
+            mWaitingConsumer = null;
+        }
+    }
+
+    /**
+     * Removes and returns a single element from the head of the queue, parking the calling thread for up to the
+     * specified timeout until an element is offered.
+     *
+     * @param timeout to wait
+     * @param unit for the timeout
+     * @return element or null if the timeout elapsed before an element became available
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        if(await(timeout, unit))
+        {
+            return poll();
+        }
+
+        return null;
+    }
+
+    /**
+     * Retrieves elements from the queue into the collection up to the maximum number of elements specified
+     */
+    @Override
+    public int drainTo(Collection<? super E> collection, int maxElements)
+    {
+        int drainCount = 0;
+
+        while(drainCount < maxElements)
+        {
+            E element = next();
+
+            if(element == null)
+            {
+                break;
+            }
+
+            collection.add(element);
+            drainCount++;
+        }
+
+        checkReset();
+
+        return drainCount;
+    }
+
+    /**
+     * Retrieves all elements from the queue into the collection
+     */
+    @Override
+    public int drainTo(Collection<? super E> collection)
+    {
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Resets the overflow state once the queue size is at or below the reset threshold
+     */
+    private void checkReset()
+    {
+        if(mOverflow.get() && mCounter.get() <= getResetThreshold())
+        {
+            setOverflow(false);
+        }
+    }
+
+    /**
+     * Clears all elements from the queue, invoking discard() for each element, and resets the overflow state.
+     */
+    @Override
+    public void clear()
+    {
+        E element = next();
+
+        while(element != null)
+        {
+            discard(element);
+            element = next();
+        }
+
+        mOverflow.set(false);
+    }
+
+    /**
+     * Invoked for each element that is removed from the queue by clear().  Override this method in subclasses to
+     * perform any necessary cleanup action(s).
+     *
+     * @param e element that is being cleared from the queue
+     */
+    protected void discard(E e)
+    {
+        //No-op.  Override in subclass to perform any cleanup actions
+    }
+}
@@ -18,28 +18,20 @@
  ******************************************************************************/
 package io.github.dsheirer.sample;
 
-import io.github.dsheirer.source.Source;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.concurrent.LinkedTransferQueue;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
 
-public class OverflowableTransferQueue<E>
+public class OverflowableTransferQueue<E> extends AbstractOverflowableQueue<E>
 {
     private final static Logger mLog = LoggerFactory.getLogger(OverflowableTransferQueue.class);
 
     public enum State {NORMAL, OVERFLOW};
-    private IOverflowListener mOverflowListener;
-    private Source mSourceOverflowListener;
 
     protected LinkedTransferQueue<E> mQueue = new LinkedTransferQueue<E>();
-    protected AtomicInteger mCounter = new AtomicInteger();
-    protected AtomicBoolean mOverflow = new AtomicBoolean();
-    private int mMaximumSize;
-    private int mResetThreshold;
 
     /**
      * Concurrent transfer queue that couples a higher-throughput linked transfer queue with an atomic integer for
@@ -51,21 +43,14 @@ public class OverflowableTransferQueue<E>
      */
     public OverflowableTransferQueue(int maximumSize, int resetThreshold)
     {
-        mMaximumSize = maximumSize;
-        mResetThreshold = resetThreshold;
-    }
-
-    public void dispose()
-    {
-        clear();
-        mOverflowListener = null;
-        mSourceOverflowListener = null;
+        super(maximumSize, resetThreshold);
     }
 
     /**
      * Adds the element to the queue if able to do so without exceeding maximum queue size.  Otherwise, ignores
      * the element.
      */
+    @Override
     public void offer(E e)
     {
         if(!mOverflow.get())
@@ -74,34 +59,57 @@ public class OverflowableTransferQueue<E>
 
             int size = mCounter.incrementAndGet();
 
-            if(size > mMaximumSize)
+            if(mMetrics != null)
+            {
+                mMetrics.buffersReceived(1);
+                mMetrics.updateMaxQueueDepth(size);
+            }
+
+            if(size > getMaximumSize())
             {
                 setOverflow(true);
             }
         }
         else
         {
+            if(mMetrics != null)
+            {
+                mMetrics.overflow();
+            }
+
             overflow(e);
         }
     }
 
     /**
-     * Invoked when the buffer is in an overflow state.  The element argument is thrown away.  Override this method
-     * in subclasses to perform any necessary cleanup action(s).
-     *
-     * @param e element that is being thrown away due to an overflow condition
+     * Removes and returns a single element from the head of the queue or null if the queue is empty
      */
-    protected void overflow(E e)
+    @Override
+    public E poll()
     {
-        //No-op.  Override in subclass to perform any cleanup actions during overflow
+        E element = mQueue.poll();
+
+        if(element != null)
+        {
+            mCounter.decrementAndGet();
+        }
+
+        return element;
     }
 
     /**
-     * Removes and returns a single element from the head of the queue or null if the queue is empty
+     * Removes and returns a single element from the head of the queue, waiting up to the specified timeout for an
+     * element to become available.
+     *
+     * @param timeout to wait
+     * @param unit for the timeout
+     * @return element or null if the timeout elapsed before an element became available
+     * @throws InterruptedException if interrupted while waiting
      */
-    public E poll()
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException
     {
-        E element = mQueue.poll();
+        E element = mQueue.poll(timeout, unit);
 
         if(element != null)
         {
@@ -114,13 +122,14 @@ public class OverflowableTransferQueue<E>
     /**
      * Retrieves elements from the queue into the collection up to the maximum number of elements specified
      */
+    @Override
     public int drainTo(Collection<? super E> collection, int maxElements)
     {
         int drainCount = mQueue.drainTo(collection, maxElements);
 
         int size = mCounter.addAndGet(-drainCount);
 
-        if(mOverflow.get() && size <= mResetThreshold)
+        if(mOverflow.get() && size <= getResetThreshold())
         {
             setOverflow(false);
         }
@@ -131,13 +140,14 @@ public class OverflowableTransferQueue<E>
     /**
      * Retrieves elements from the queue into the collection up to the maximum number of elements specified
      */
+    @Override
     public int drainTo(Collection<? super E> collection)
     {
         int drainCount = mQueue.drainTo(collection);
 
         int size = mCounter.addAndGet(-drainCount);
 
-        if(mOverflow.get() && size <= mResetThreshold)
+        if(mOverflow.get() && size <= getResetThreshold())
         {
             setOverflow(false);
         }
@@ -145,45 +155,10 @@ public class OverflowableTransferQueue<E>
         return drainCount;
     }
 
-    /**
-     * Sets a listener to receive overflow state change events.
-     */
-    public void setOverflowListener(IOverflowListener listener)
-    {
-        mOverflowListener = listener;
-    }
-
-    /**
-     * Sets the source to receive overflow state change events (in addition to an IOverflow listener)
-     */
-    public void setSourceOverflowListener(Source source)
-    {
-        mSourceOverflowListener = source;
-    }
-
-
-    /**
-     * Toggles the overflow state and broadcast state change to listener
-     */
-    private void setOverflow(boolean overflow)
-    {
-        if(mOverflow.compareAndSet(!overflow, overflow))
-        {
-            if(mOverflowListener != null)
-            {
-                mOverflowListener.sourceOverflow(overflow);
-            }
-
-            if(mSourceOverflowListener != null)
-            {
-                mSourceOverflowListener.broadcastOverflowState(overflow);
-            }
-        }
-    }
-
     /**
      * Clears all elements from the queue and resets the internal counter to 0
      */
+    @Override
     public void clear()
     {
         synchronized(mQueue)
@@ -91,36 +91,48 @@ public abstract class AbstractReusableBuffer
      * indicate that they have finished processing the buffer so that when the user count reaches zero, this buffer
      * can be reused.
      *
-     * This method is thread-safe.
+     * This method is thread-safe and lock-free.  Only the user that decrements the count to zero recycles the buffer.
      */
-    public synchronized void decrementUserCount()
+    public void decrementUserCount()
     {
-        if(mUserCount.decrementAndGet() <= 0)
+        int count = mUserCount.decrementAndGet();
+
+        if(count == 0)
         {
             recycle();
         }
+        else if(count < 0)
+        {
+            mUserCount.set(0);
+            throw new IllegalStateException("User count is below zero.  This indicates that this buffer's decrement" +
+                " user count was invoked by more than the expected user count");
+        }
     }
 
     /**
      * Sends this buffer back to the owning buffer queue for reuse
      */
-    private synchronized void recycle()
+    private void recycle()
     {
         prepareForRecycle();
 
-        if(mBufferDisposedListener != null)
-        {
-            mBufferDisposedListener.disposed(this);
-        }
+        IReusableBufferDisposedListener listener = mBufferDisposedListener;
 
-        if(mUserCount.get() < 0)
+        if(listener != null)
         {
-            mUserCount.set(0);
-            throw new IllegalStateException("User count is below zero.  This indicates that this buffer's decrement" +
-                " user count was invoked by more than the expected user count");
+            listener.disposed(this);
         }
     }
 
+    /**
+     * Assigns the buffer queue that owns this buffer and will be notified when the buffer is ready for reuse.  Used
+     * by buffer queues to take ownership of a buffer obtained from the shared reusable buffer pool.
+     */
+    void setBufferDisposedListener(IReusableBufferDisposedListener bufferDisposedListener)
+    {
+        mBufferDisposedListener = bufferDisposedListener;
+    }
+
     /**
      * Invoked just prior to notifying the owner that this buffer is ready for prepareForRecycle.  This method
      * is intended for sub-class implementations to perform any prepareForRecycle cleanup actions.
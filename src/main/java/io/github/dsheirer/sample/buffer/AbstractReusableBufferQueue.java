@@ -27,6 +27,7 @@ public abstract class AbstractReusableBufferQueue<T extends AbstractReusableBuff
     private final static Logger mLog = LoggerFactory.getLogger(AbstractReusableBufferQueue.class);
 
     private Queue<T> mReusableBufferQueue = new LinkedTransferQueue<>();
+    private ReusableBufferPool<T> mReusableBufferPool;
     private int mBufferCount = 0;
     private String mDebugName;
 
@@ -51,7 +52,21 @@ public abstract class AbstractReusableBufferQueue<T extends AbstractReusableBuff
     }
 
     /**
-     * Disposes of any reclaimed buffers to prepare this queue for disposal.
+     * Base queue for managing reusable buffers that are recycled through the shared reusable buffer pool instead of
+     * an internal recycling queue.
+     *
+     * @param debugName to associate a debug string with this buffer instance
+     * @param reusableBufferPool to use for obtaining and returning recycled buffers
+     */
+    public AbstractReusableBufferQueue(String debugName, ReusableBufferPool<T> reusableBufferPool)
+    {
+        mDebugName = debugName;
+        mReusableBufferPool = reusableBufferPool;
+    }
+
+    /**
+     * Disposes of any reclaimed buffers to prepare this queue for disposal.  Buffers recycled through the shared
+     * reusable buffer pool remain available for reuse by other queues.
      */
     public void dispose()
     {
@@ -75,7 +90,14 @@ public abstract class AbstractReusableBufferQueue<T extends AbstractReusableBuff
     @Override
     public void disposed(T reusableBuffer)
     {
-        mReusableBufferQueue.offer(reusableBuffer);
+        if(mReusableBufferPool != null)
+        {
+            mReusableBufferPool.release(reusableBuffer);
+        }
+        else
+        {
+            mReusableBufferQueue.offer(reusableBuffer);
+        }
     }
 
     /**
@@ -86,6 +108,43 @@ public abstract class AbstractReusableBufferQueue<T extends AbstractReusableBuff
         return mReusableBufferQueue.poll();
     }
 
+    /**
+     * Get a recycled buffer with the specified array length from the shared reusable buffer pool, or from the
+     * internal queue when this queue is not using a shared pool.  Buffers obtained from the shared pool are owned by
+     * this queue until they are recycled again.
+     *
+     * @param length of the buffer's array
+     * @return recycled buffer or null if there are no recycled buffers available
+     */
+    protected T getRecycledBuffer(int length)
+    {
+        if(mReusableBufferPool != null)
+        {
+            T buffer = mReusableBufferPool.acquire(length);
+
+            if(buffer != null)
+            {
+                buffer.setBufferDisposedListener(this);
+            }
+
+            return buffer;
+        }
+
+        return getRecycledBuffer();
+    }
+
+    /**
+     * Registers the buffer with the shared reusable buffer pool leak detector (when enabled) as handed out by this
+     * queue.
+     */
+    protected void trackAllocation(T buffer)
+    {
+        if(mReusableBufferPool != null)
+        {
+            mReusableBufferPool.track(buffer, mDebugName);
+        }
+    }
+
     /**
      * Increments the count of buffers managed by this queue.  Note: this method is NOT thread safe
      */
@@ -17,7 +17,7 @@ package io.github.dsheirer.sample.buffer;
 
 import io.github.dsheirer.sample.Listener;
 
-public interface IReusableByteBufferListener<ReusableByteBuffer>
+public interface IReusableByteBufferListener
 {
 	Listener<ReusableByteBuffer> getReusableByteBufferListener();
 }
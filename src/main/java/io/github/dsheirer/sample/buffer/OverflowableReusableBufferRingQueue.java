@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.sample.buffer;
+
+import io.github.dsheirer.sample.OverflowableRingQueue;
+
+public class OverflowableReusableBufferRingQueue<T extends AbstractReusableBuffer> extends OverflowableRingQueue<T>
+{
+    /**
+     * Single-producer ring queue for reusable buffers.  When the queue size exceeds maximum size (overflow), all
+     * inbound elements are ignored until the queue size is reduced to or below the reset threshold.
+     *
+     * This implementation decrements the user count on buffers that are discarded due to overflow or cleared from
+     * the queue.
+     *
+     * @param maximumSize of the queue.  Overflow state will occur once queue size exceeds this value.
+     * @param resetThreshold for resetting overflow state to normal, once queue size is at or below this value.
+     */
+    public OverflowableReusableBufferRingQueue(int maximumSize, int resetThreshold)
+    {
+        super(maximumSize, resetThreshold);
+    }
+
+    /**
+     * Decrements the user count on buffers that are discarded while the queue is in an overflow state.
+     *
+     * @param t reusableBuffer that will be discarded
+     */
+    @Override
+    protected void overflow(T t)
+    {
+        t.decrementUserCount();
+    }
+
+    /**
+     * Decrements the user count on each buffer that is cleared from the queue.
+     *
+     * @param t reusableBuffer that was cleared from the queue
+     */
+    @Override
+    protected void discard(T t)
+    {
+        t.decrementUserCount();
+    }
+}
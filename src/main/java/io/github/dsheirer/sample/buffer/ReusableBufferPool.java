@@ -0,0 +1,546 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.sample.buffer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ToIntFunction;
+
+/**
+ * Application-wide pool of recycled reusable buffers that is shared by the reusable buffer queues, so that idle
+ * buffers released by one queue can be reused by any other queue instead of each queue retaining its own private set
+ * of buffers indefinitely.
+ *
+ * Buffers are pooled by size class.  Each size class is an exact buffer length since buffer consumers use the
+ * length of the sample array as the sample count.  Size classes are indexed by power-of-two length bucket so that a
+ * lookup only compares the few size classes within the bucket.  Each thread keeps a small cache of buffers per size
+ * class so that a thread that releases and then acquires buffers of the same size (ie a filter or demodulator)
+ * doesn't touch the shared pool, and the shared pool uses lock-free queues.  Each shared size class is bounded.
+ *
+ * A daemon maintenance thread periodically removes shared size classes that have not been used for a while so that
+ * buffers from stopped channels can be garbage collected, and logs leaked buffers.  Each thread cache is trimmed the
+ * same way by its owning thread on the first pool access after each maintenance interval, so that the thread cache
+ * doesn't need any locking.
+ *
+ * Optional leak detection tracks each buffer from the time it is handed out by a queue until it is returned and
+ * periodically logs the owning queue and the allocating call stack for buffers that have not been returned.  Enable
+ * leak detection with the java system property: -Dsdrtrunk.buffer.leak.detection=true
+ */
+public class ReusableBufferPool<T extends AbstractReusableBuffer>
+{
+    private final static Logger mLog = LoggerFactory.getLogger(ReusableBufferPool.class);
+
+    public static final String PROPERTY_LEAK_DETECTION = "sdrtrunk.buffer.leak.detection";
+    private static final int MAXIMUM_POOLED_BUFFERS_PER_SIZE = 128;
+    private static final int THREAD_CACHE_BUFFERS_PER_SIZE = 4;
+    private static final int THREAD_CACHE_MAXIMUM_SIZE_CLASSES = 16;
+    private static final long MAINTENANCE_INTERVAL_MS = 30000;
+    private static final int IDLE_MAINTENANCE_INTERVALS = 2;
+    private static final long LEAK_AGE_MS = 30000;
+
+    //One bucket for each power-of-two length range: bucket n holds lengths in the range [2^(n-1), 2^n)
+    private static final int BUCKET_COUNT = 33;
+
+    private static final ScheduledExecutorService MAINTENANCE_EXECUTOR =
+        Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "sdrtrunk reusable buffer pool maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    public static final ReusableBufferPool<ReusableFloatBuffer> FLOAT =
+        new ReusableBufferPool<>("float", buffer -> buffer.getSamples().length);
+    public static final ReusableBufferPool<ReusableComplexBuffer> COMPLEX =
+        new ReusableBufferPool<>("complex", buffer -> buffer.getSamples().length);
+    public static final ReusableBufferPool<ReusableByteBuffer> BYTE =
+        new ReusableBufferPool<>("byte", buffer -> buffer.getBytes().length);
+
+    private static volatile boolean sLeakDetectionEnabled = Boolean.getBoolean(PROPERTY_LEAK_DETECTION);
+
+    private String mName;
+    private ToIntFunction<T> mLengthFunction;
+    private AtomicReferenceArray<SizeClass<T>> mSizeClassBuckets = new AtomicReferenceArray<>(BUCKET_COUNT);
+    private ThreadLocal<ThreadCache> mThreadCache = ThreadLocal.withInitial(ThreadCache::new);
+    private Map<AbstractReusableBuffer,Allocation> mOutstandingBuffers = new ConcurrentHashMap<>();
+    private AtomicLong mReusedCount = new AtomicLong();
+    private AtomicLong mDiscardedCount = new AtomicLong();
+
+    //Incremented at each maintenance interval and used to timestamp size class and thread cache usage
+    private volatile int mEpoch;
+
+    /**
+     * Constructs an instance
+     *
+     * @param name of the buffer type for logging
+     * @param lengthFunction to determine the size class (ie array length) of a buffer
+     */
+    public ReusableBufferPool(String name, ToIntFunction<T> lengthFunction)
+    {
+        mName = name;
+        mLengthFunction = lengthFunction;
+
+        MAINTENANCE_EXECUTOR.scheduleAtFixedRate(this::maintenance, MAINTENANCE_INTERVAL_MS, MAINTENANCE_INTERVAL_MS,
+            TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Enables or disables buffer leak detection for all pools.  Buffers that were handed out while detection was
+     * disabled are not tracked.
+     */
+    public static void setLeakDetectionEnabled(boolean enabled)
+    {
+        sLeakDetectionEnabled = enabled;
+    }
+
+    /**
+     * Indicates if buffer leak detection is enabled
+     */
+    public static boolean isLeakDetectionEnabled()
+    {
+        return sLeakDetectionEnabled;
+    }
+
+    /**
+     * Removes a recycled buffer of the requested length from the pool.
+     *
+     * @param length of the buffer array
+     * @return recycled buffer or null if there are no recycled buffers of the requested length
+     */
+    public T acquire(int length)
+    {
+        int epoch = mEpoch;
+        T buffer = mThreadCache.get().poll(length, epoch);
+
+        if(buffer == null)
+        {
+            SizeClass<T> sizeClass = getSizeClass(length, false);
+
+            if(sizeClass != null)
+            {
+                buffer = sizeClass.poll(epoch);
+            }
+        }
+
+        if(buffer != null)
+        {
+            mReusedCount.incrementAndGet();
+        }
+
+        return buffer;
+    }
+
+    /**
+     * Returns the buffer to the pool for reuse.  Buffers that exceed the capacity of the size class are discarded.
+     */
+    public void release(T buffer)
+    {
+        if(!mOutstandingBuffers.isEmpty())
+        {
+            mOutstandingBuffers.remove(buffer);
+        }
+
+        int length = mLengthFunction.applyAsInt(buffer);
+
+        if(!mThreadCache.get().offer(length, buffer, mEpoch))
+        {
+            getSizeClass(length, true).offer(buffer);
+        }
+    }
+
+    /**
+     * Records the buffer as handed out by the owner, when leak detection is enabled.
+     *
+     * @param buffer that was handed out
+     * @param owner of the buffer (ie the debug name of the reusable buffer queue)
+     */
+    public void track(T buffer, String owner)
+    {
+        if(sLeakDetectionEnabled)
+        {
+            mOutstandingBuffers.put(buffer, new Allocation(owner));
+        }
+    }
+
+    /**
+     * Number of buffers currently pooled in the shared size classes (excludes thread cached buffers)
+     */
+    public int getPooledBufferCount()
+    {
+        int count = 0;
+
+        for(int bucket = 0; bucket < BUCKET_COUNT; bucket++)
+        {
+            for(SizeClass<T> sizeClass = mSizeClassBuckets.get(bucket); sizeClass != null; sizeClass = sizeClass.mNext)
+            {
+                count += sizeClass.mCount.get();
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Number of tracked buffers that have been handed out and not yet returned.  Always zero when leak detection is
+     * disabled.
+     */
+    public int getOutstandingBufferCount()
+    {
+        return mOutstandingBuffers.size();
+    }
+
+    /**
+     * Power-of-two bucket index for the buffer length
+     */
+    private static int getBucket(int length)
+    {
+        return 32 - Integer.numberOfLeadingZeros(length);
+    }
+
+    /**
+     * Finds the size class for the length, optionally creating a size class if one doesn't exist.
+     */
+    private SizeClass<T> getSizeClass(int length, boolean create)
+    {
+        int bucket = getBucket(length);
+
+        for(SizeClass<T> sizeClass = mSizeClassBuckets.get(bucket); sizeClass != null; sizeClass = sizeClass.mNext)
+        {
+            if(sizeClass.mLength == length)
+            {
+                return sizeClass;
+            }
+        }
+
+        if(!create)
+        {
+            return null;
+        }
+
+        synchronized(this)
+        {
+            SizeClass<T> head = mSizeClassBuckets.get(bucket);
+
+            for(SizeClass<T> sizeClass = head; sizeClass != null; sizeClass = sizeClass.mNext)
+            {
+                if(sizeClass.mLength == length)
+                {
+                    return sizeClass;
+                }
+            }
+
+            SizeClass<T> sizeClass = new SizeClass<>(length, head, mDiscardedCount, mEpoch);
+            mSizeClassBuckets.set(bucket, sizeClass);
+            return sizeClass;
+        }
+    }
+
+    /**
+     * Removes idle size classes, advances the epoch so that thread caches trim their idle entries, and logs any
+     * leaked buffers
+     */
+    private void maintenance()
+    {
+        try
+        {
+            int epoch = ++mEpoch;
+
+            synchronized(this)
+            {
+                for(int bucket = 0; bucket < BUCKET_COUNT; bucket++)
+                {
+                    SizeClass<T> previous = null;
+
+                    for(SizeClass<T> sizeClass = mSizeClassBuckets.get(bucket); sizeClass != null;
+                        sizeClass = sizeClass.mNext)
+                    {
+                        if(epoch - sizeClass.mLastUsedEpoch >= IDLE_MAINTENANCE_INTERVALS)
+                        {
+                            sizeClass.clear();
+
+                            if(previous == null)
+                            {
+                                mSizeClassBuckets.set(bucket, sizeClass.mNext);
+                            }
+                            else
+                            {
+                                previous.mNext = sizeClass.mNext;
+                            }
+                        }
+                        else
+                        {
+                            previous = sizeClass;
+                        }
+                    }
+                }
+            }
+
+            if(sLeakDetectionEnabled)
+            {
+                logLeaks(System.currentTimeMillis() - LEAK_AGE_MS);
+            }
+        }
+        catch(Throwable throwable)
+        {
+            mLog.error("Error during reusable buffer pool maintenance", throwable);
+        }
+    }
+
+    /**
+     * Logs the count of buffers handed out before the threshold timestamp that have not been returned, grouped by
+     * owner, along with the allocating call stack of one buffer for each owner.
+     *
+     * @param threshold timestamp
+     */
+    public void logLeaks(long threshold)
+    {
+        Map<String,Integer> counts = new HashMap<>();
+        Map<String,Allocation> examples = new HashMap<>();
+
+        for(Allocation allocation: mOutstandingBuffers.values())
+        {
+            if(allocation.mTimestamp < threshold)
+            {
+                counts.merge(allocation.mOwner, 1, Integer::sum);
+                examples.putIfAbsent(allocation.mOwner, allocation);
+            }
+        }
+
+        for(Map.Entry<String,Integer> entry: counts.entrySet())
+        {
+            Allocation example = examples.get(entry.getKey());
+            mLog.warn("Reusable " + mName + " buffer leak - owner [" + entry.getKey() + "] buffers not returned [" +
+                entry.getValue() + "] - allocated by thread [" + example.mThread + "] at:", example.mStackTrace);
+        }
+
+        if(!counts.isEmpty())
+        {
+            mLog.info("Reusable " + mName + " buffer pool - reused [" + mReusedCount.get() + "] discarded [" +
+                mDiscardedCount.get() + "] pooled [" + getPooledBufferCount() + "] outstanding [" +
+                getOutstandingBufferCount() + "]");
+        }
+    }
+
+    /**
+     * Shared, bounded, lock-free queue of buffers for a single buffer length.  Size classes within the same length
+     * bucket are linked together.
+     */
+    private static class SizeClass<E>
+    {
+        private final int mLength;
+        private volatile SizeClass<E> mNext;
+        private final ConcurrentLinkedQueue<E> mBuffers = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger mCount = new AtomicInteger();
+        private final AtomicLong mDiscardedCount;
+        private volatile int mLastUsedEpoch;
+
+        SizeClass(int length, SizeClass<E> next, AtomicLong discardedCount, int epoch)
+        {
+            mLength = length;
+            mNext = next;
+            mDiscardedCount = discardedCount;
+            mLastUsedEpoch = epoch;
+        }
+
+        E poll(int epoch)
+        {
+            if(mLastUsedEpoch != epoch)
+            {
+                mLastUsedEpoch = epoch;
+            }
+
+            E buffer = mBuffers.poll();
+
+            if(buffer != null)
+            {
+                mCount.decrementAndGet();
+            }
+
+            return buffer;
+        }
+
+        void offer(E buffer)
+        {
+            if(mCount.incrementAndGet() <= MAXIMUM_POOLED_BUFFERS_PER_SIZE)
+            {
+                mBuffers.offer(buffer);
+            }
+            else
+            {
+                //Discard the buffer and let the garbage collector reclaim it
+                mCount.decrementAndGet();
+                mDiscardedCount.incrementAndGet();
+            }
+        }
+
+        void clear()
+        {
+            E buffer = mBuffers.poll();
+
+            while(buffer != null)
+            {
+                mCount.decrementAndGet();
+                mDiscardedCount.incrementAndGet();
+                buffer = mBuffers.poll();
+            }
+        }
+    }
+
+    /**
+     * Per-thread cache of a few buffers for each of the most recently used buffer lengths.  Accessed only by the
+     * owning thread.  Buffer lengths that have not been acquired for the idle timeout period are removed the first time
+     * the cache is accessed after each maintenance interval.
+     */
+    private class ThreadCache
+    {
+        private int[] mLengths = new int[THREAD_CACHE_MAXIMUM_SIZE_CLASSES];
+        private int[] mLastUsedEpochs = new int[THREAD_CACHE_MAXIMUM_SIZE_CLASSES];
+        private List<ArrayDeque<T>> mBuffers = new ArrayList<>(THREAD_CACHE_MAXIMUM_SIZE_CLASSES);
+        private int mTrimEpoch;
+
+        T poll(int length, int epoch)
+        {
+            if(epoch != mTrimEpoch)
+            {
+                trim(epoch);
+            }
+
+            for(int x = 0; x < mBuffers.size(); x++)
+            {
+                if(mLengths[x] == length)
+                {
+                    mLastUsedEpochs[x] = epoch;
+                    return mBuffers.get(x).pollFirst();
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * Adds the buffer to this cache
+         * @return true if the buffer was cached or false if the cache for this buffer length is full
+         */
+        boolean offer(int length, T buffer, int epoch)
+        {
+            if(epoch != mTrimEpoch)
+            {
+                trim(epoch);
+            }
+
+            for(int x = 0; x < mBuffers.size(); x++)
+            {
+                if(mLengths[x] == length)
+                {
+                    ArrayDeque<T> buffers = mBuffers.get(x);
+
+                    if(buffers.size() < THREAD_CACHE_BUFFERS_PER_SIZE)
+                    {
+                        buffers.offerFirst(buffer);
+                        return true;
+                    }
+
+                    return false;
+                }
+            }
+
+            int index = mBuffers.size();
+
+            if(index < THREAD_CACHE_MAXIMUM_SIZE_CLASSES)
+            {
+                ArrayDeque<T> buffers = new ArrayDeque<>(THREAD_CACHE_BUFFERS_PER_SIZE);
+                buffers.offerFirst(buffer);
+                mLengths[index] = length;
+                mLastUsedEpochs[index] = epoch;
+                mBuffers.add(buffers);
+                return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * Removes the cached buffers for each buffer length that has not been acquired for the idle timeout period.
+         *
+         * @param epoch current maintenance epoch
+         */
+        private void trim(int epoch)
+        {
+            mTrimEpoch = epoch;
+
+            int discarded = 0;
+            int retained = 0;
+
+            for(int x = 0; x < mBuffers.size(); x++)
+            {
+                if(epoch - mLastUsedEpochs[x] >= IDLE_MAINTENANCE_INTERVALS)
+                {
+                    discarded += mBuffers.get(x).size();
+                }
+                else
+                {
+                    mLengths[retained] = mLengths[x];
+                    mLastUsedEpochs[retained] = mLastUsedEpochs[x];
+                    mBuffers.set(retained, mBuffers.get(x));
+                    retained++;
+                }
+            }
+
+            while(mBuffers.size() > retained)
+            {
+                mBuffers.remove(mBuffers.size() - 1);
+            }
+
+            if(discarded > 0)
+            {
+                mDiscardedCount.addAndGet(discarded);
+            }
+        }
+    }
+
+    /**
+     * Leak detection record of a buffer that has been handed out
+     */
+    private static class Allocation
+    {
+        private final String mOwner;
+        private final String mThread;
+        private final long mTimestamp;
+        private final Throwable mStackTrace;
+
+        Allocation(String owner)
+        {
+            mOwner = owner != null ? owner : "(unnamed)";
+            mThread = Thread.currentThread().getName();
+            mTimestamp = System.currentTimeMillis();
+            mStackTrace = new Throwable("Buffer allocation");
+        }
+    }
+}
@@ -24,7 +24,7 @@ public class ReusableBufferQueue extends AbstractReusableBufferQueue<ReusableFlo
 
     public ReusableBufferQueue(String debugName)
     {
-        super(debugName);
+        super(debugName, ReusableBufferPool.FLOAT);
     }
 
     /**
@@ -37,7 +37,7 @@ public class ReusableBufferQueue extends AbstractReusableBufferQueue<ReusableFlo
      */
     public ReusableFloatBuffer getBuffer(int size)
     {
-        ReusableFloatBuffer buffer = getRecycledBuffer();
+        ReusableFloatBuffer buffer = getRecycledBuffer(size);
 
         if(buffer == null)
         {
@@ -48,6 +48,7 @@ public class ReusableBufferQueue extends AbstractReusableBufferQueue<ReusableFlo
 
         buffer.resize(size);
         buffer.incrementUserCount();
+        trackAllocation(buffer);
 
         return buffer;
     }
@@ -24,7 +24,7 @@ public class ReusableByteBufferQueue extends AbstractReusableBufferQueue<Reusabl
 
     public ReusableByteBufferQueue(String debugName)
     {
-        super(debugName);
+        super(debugName, ReusableBufferPool.BYTE);
     }
 
     /**
@@ -37,7 +37,7 @@ public class ReusableByteBufferQueue extends AbstractReusableBufferQueue<Reusabl
      */
     public ReusableByteBuffer getBuffer(int size)
     {
-        ReusableByteBuffer buffer = getRecycledBuffer();
+        ReusableByteBuffer buffer = getRecycledBuffer(size);
 
         if(buffer == null)
         {
@@ -48,6 +48,7 @@ public class ReusableByteBufferQueue extends AbstractReusableBufferQueue<Reusabl
 
         buffer.resize(size);
         buffer.incrementUserCount();
+        trackAllocation(buffer);
 
         return buffer;
     }
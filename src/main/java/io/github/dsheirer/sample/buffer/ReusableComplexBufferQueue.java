@@ -28,7 +28,7 @@ public class ReusableComplexBufferQueue extends AbstractReusableBufferQueue<Reus
      */
     public ReusableComplexBufferQueue(String debugName)
     {
-        super(debugName);
+        super(debugName, ReusableBufferPool.COMPLEX);
     }
 
     /**
@@ -36,6 +36,7 @@ public class ReusableComplexBufferQueue extends AbstractReusableBufferQueue<Reus
      */
     public ReusableComplexBufferQueue()
     {
+        super(null, ReusableBufferPool.COMPLEX);
     }
 
     /**
@@ -47,7 +48,7 @@ public class ReusableComplexBufferQueue extends AbstractReusableBufferQueue<Reus
      */
     public ReusableComplexBuffer getBuffer(int size)
     {
-        ReusableComplexBuffer buffer = getRecycledBuffer();
+        ReusableComplexBuffer buffer = getRecycledBuffer(size);
 
         if(buffer == null)
         {
@@ -58,6 +59,7 @@ public class ReusableComplexBufferQueue extends AbstractReusableBufferQueue<Reus
 
         buffer.resize(size);
         buffer.incrementUserCount();
+        trackAllocation(buffer);
 
         return buffer;
     }
@@ -0,0 +1,206 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.source.tuner;
+
+import io.github.dsheirer.monitor.StageMetrics;
+import io.github.dsheirer.properties.SystemProperties;
+import io.github.dsheirer.source.tuner.manager.ChannelSourceManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tuner allocation policy that orders tuners by current load so that new channels are sourced from the least-loaded
+ * tuner that can provide the channel.
+ *
+ * Tuner load is calculated from live channelizer metrics for each tuner:
+ *
+ * - Channel count: each sourced channel adds a fixed weight
+ * - Channelizer utilization: channelizer processing time per second of elapsed time (ie fraction of a CPU core)
+ * - Overflow rate: a tuner whose channelizer dropped buffers since the previous load sample is saturated
+ *
+ * Saturated tuners (overflowing, or utilization at or above the saturation threshold) are ordered after all other
+ * tuners.  Load samples are refreshed at most once per sample interval so that the utilization and overflow rate are
+ * measured over a meaningful window.
+ *
+ * Settings (system properties):
+ *
+ * tuner.allocation.load.balanced - true to order tuners by load or false to use tuner discovery order (default: true)
+ * tuner.allocation.saturation.percent - channelizer utilization that marks a tuner as saturated (default: 80)
+ */
+public class TunerLoadBalancer
+{
+    private final static Logger mLog = LoggerFactory.getLogger(TunerLoadBalancer.class);
+
+    public static final String PROPERTY_LOAD_BALANCED = "tuner.allocation.load.balanced";
+    public static final String PROPERTY_SATURATION_PERCENT = "tuner.allocation.saturation.percent";
+
+    private static final long SAMPLE_INTERVAL_NANOS = 1_000_000_000l;
+    private static final double CHANNEL_WEIGHT = 0.05;
+    private static final double SATURATED_PENALTY = 1000.0;
+
+    private final boolean mLoadBalanced;
+    private final double mSaturationThreshold;
+    private Map<Tuner,TunerLoad> mTunerLoads = new HashMap<>();
+
+    /**
+     * Constructs an instance using the allocation settings from the system properties
+     */
+    public TunerLoadBalancer()
+    {
+        mLoadBalanced = SystemProperties.getInstance().get(PROPERTY_LOAD_BALANCED, true);
+        int saturationPercent = SystemProperties.getInstance().get(PROPERTY_SATURATION_PERCENT, 80);
+        mSaturationThreshold = Math.max(saturationPercent, 1) / 100.0;
+    }
+
+    /**
+     * Indicates if tuners are ordered by load (true) or by tuner discovery order (false)
+     */
+    public boolean isLoadBalanced()
+    {
+        return mLoadBalanced;
+    }
+
+    /**
+     * Creates the allocation order for sourcing a new channel from the tuners.  Tuners that are in an error state are
+     * excluded.  When load balancing is disabled, the tuners are returned in the argument order.
+     *
+     * @param tuners available
+     * @return tuners in allocation order, least loaded first
+     */
+    public synchronized List<Tuner> getAllocationOrder(List<Tuner> tuners)
+    {
+        List<Tuner> candidates = new ArrayList<>();
+
+        for(Tuner tuner: tuners)
+        {
+            if(!tuner.hasError())
+            {
+                candidates.add(tuner);
+            }
+        }
+
+        if(!mLoadBalanced || candidates.size() < 2)
+        {
+            return candidates;
+        }
+
+        //Discard load samples for tuners that were removed
+        mTunerLoads.keySet().retainAll(tuners);
+
+        long now = System.nanoTime();
+
+        for(Tuner tuner: candidates)
+        {
+            mTunerLoads.computeIfAbsent(tuner, TunerLoad::new).update(now);
+        }
+
+        //Note: list sort is stable, so equally loaded tuners retain discovery order
+        candidates.sort(Comparator.comparingDouble(tuner -> mTunerLoads.get(tuner).getScore()));
+
+        return candidates;
+    }
+
+    /**
+     * Load tracking for a single tuner
+     */
+    private class TunerLoad
+    {
+        private Tuner mTuner;
+        private StageMetrics mStageMetrics;
+        private long mSampleTimestamp;
+        private long mSampleProcessingNanos;
+        private long mSampleOverflowCount;
+        private double mUtilization;
+        private boolean mOverflowing;
+        private boolean mSaturated;
+
+        private TunerLoad(Tuner tuner)
+        {
+            mTuner = tuner;
+        }
+
+        /**
+         * Updates the channelizer utilization and overflow state when the sample interval has elapsed
+         */
+        private void update(long now)
+        {
+            StageMetrics stageMetrics = mTuner.getChannelSourceManager().getStageMetrics();
+
+            if(stageMetrics != mStageMetrics)
+            {
+                //Channelizer was started or stopped - start a new sample window
+                mStageMetrics = stageMetrics;
+                mSampleTimestamp = now;
+                mSampleProcessingNanos = stageMetrics != null ? stageMetrics.getProcessingNanos() : 0;
+                mSampleOverflowCount = stageMetrics != null ? stageMetrics.getOverflowCount() : 0;
+                mUtilization = 0.0;
+                mOverflowing = false;
+            }
+            else if(stageMetrics != null && now - mSampleTimestamp >= SAMPLE_INTERVAL_NANOS)
+            {
+                long processingNanos = stageMetrics.getProcessingNanos();
+                long overflowCount = stageMetrics.getOverflowCount();
+
+                mUtilization = (double)(processingNanos - mSampleProcessingNanos) / (now - mSampleTimestamp);
+                mOverflowing = overflowCount > mSampleOverflowCount;
+
+                mSampleTimestamp = now;
+                mSampleProcessingNanos = processingNanos;
+                mSampleOverflowCount = overflowCount;
+            }
+
+            boolean saturated = mOverflowing || mUtilization >= mSaturationThreshold;
+
+            if(saturated && !mSaturated)
+            {
+                mLog.warn("Tuner [" + mTuner.getName() + "] channelizer is saturated - utilization [" +
+                    (int)(mUtilization * 100) + "%]" + (mOverflowing ? " with buffer overflows" : "") +
+                    " - new channels will be sourced from other tuners where possible");
+            }
+
+            mSaturated = saturated;
+        }
+
+        /**
+         * Load score where lower values indicate a less loaded tuner
+         */
+        private double getScore()
+        {
+            ChannelSourceManager channelSourceManager = mTuner.getChannelSourceManager();
+
+            double score = channelSourceManager.getTunerChannelCount() * CHANNEL_WEIGHT + mUtilization;
+
+            if(mSaturated)
+            {
+                score += SATURATED_PENALTY;
+            }
+
+            return score;
+        }
+    }
+}
@@ -70,6 +70,7 @@ public class TunerModel extends AbstractTableModel implements Listener<TunerEven
     private DecimalFormat mFrequencyErrorPPMFormat = new DecimalFormat("0.0");
 
     private TunerConfigurationModel mTunerConfigurationModel;
+    private TunerLoadBalancer mTunerLoadBalancer = new TunerLoadBalancer();
 
     public TunerModel(TunerConfigurationModel tunerConfigurationModel)
     {
@@ -395,7 +396,8 @@ public class TunerModel extends AbstractTableModel implements Listener<TunerEven
     }
 
     /**
-     * Iterates current tuners to get a tuner channel source for the specified frequency and bandwidth
+     * Iterates current tuners to get a tuner channel source for the specified frequency and bandwidth.  The preferred
+     * tuner is tried first, followed by the remaining tuners ordered least-loaded first by the tuner load balancer.
      *
      * Returns null if no tuner can source the channel
      */
@@ -432,22 +434,19 @@ public class TunerModel extends AbstractTableModel implements Listener<TunerEven
                     preferredTuner + "] - searching for another tuner");
             }
 
-            Iterator<Tuner> it = mTuners.iterator();
+            Iterator<Tuner> it = mTunerLoadBalancer.getAllocationOrder(mTuners).iterator();
 
             while(it.hasNext() && source == null)
             {
                 tuner = it.next();
 
-                if(!tuner.hasError())
+                try
                 {
-                    try
-                    {
-                        source = tuner.getChannelSourceManager().getSource(tunerChannel, channelSpecification);
-                    }
-                    catch(Exception e)
-                    {
-                        mLog.error("Error obtaining channel from tuner [" + tuner.getName() + "]", e);
-                    }
+                    source = tuner.getChannelSourceManager().getSource(tunerChannel, channelSpecification);
+                }
+                catch(Exception e)
+                {
+                    mLog.error("Error obtaining channel from tuner [" + tuner.getName() + "]", e);
                 }
             }
         }
@@ -15,23 +15,32 @@
  ******************************************************************************/
 package io.github.dsheirer.source.tuner.airspy;
 
-import io.github.dsheirer.dsp.filter.dc.DCRemovalFilter;
 import io.github.dsheirer.dsp.filter.hilbert.HilbertTransform;
 import io.github.dsheirer.source.tuner.usb.converter.NativeBufferConverter;
 
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.FloatBuffer;
 
 public class AirspySampleConverter extends NativeBufferConverter
 {
     private static final float SCALE_SIGNED_12_BIT_TO_FLOAT = 1.0f / 2048.0f;
+    private static final float DC_REMOVAL_RATIO = 0.01f;
+    private static final float[] LOOKUP_VALUES;
+
+    //Creates a static lookup table that converts the unsigned 12-bit value range 0 - 4095 into scaled float values
+    //of -1.0 to 0 to 1.0
+    static
+    {
+        LOOKUP_VALUES = new float[4096];
+
+        for(int x = 0; x < 4096; x++)
+        {
+            LOOKUP_VALUES[x] = scale(x);
+        }
+    }
 
-    private DCRemovalFilter mDCFilter = new DCRemovalFilter(0.01f);
     private HilbertTransform mHilbertTransform = new HilbertTransform();
     private boolean mSamplePacking = false;
-    private FloatBuffer mFloatBuffer;
-    private float[] mConvertedSamples;
+    private float mDCAverage;
 
     /**
      * Adapter to translate byte buffers received from the airspy tuner into
@@ -41,22 +50,6 @@ public class AirspySampleConverter extends NativeBufferConverter
     {
     }
 
-    @Override
-    protected FloatBuffer convertSamples(ByteBuffer buffer, int length)
-    {
-        float[] samples = convert(buffer);
-
-        if(mFloatBuffer == null || mFloatBuffer.capacity() != samples.length)
-        {
-            mFloatBuffer = FloatBuffer.allocate(samples.length);
-        }
-
-        mFloatBuffer.rewind();
-        mFloatBuffer.put(samples);
-
-        return mFloatBuffer;
-    }
-
     /**
      * Sample packing places two 12-bit samples into 3 bytes when enabled or
      * places two 12-bit samples into 4 bytes when disabled.
@@ -68,85 +61,94 @@ public class AirspySampleConverter extends NativeBufferConverter
         mSamplePacking = enabled;
     }
 
-    private float[] convert(ByteBuffer samples)
+    /**
+     * Number of real samples contained in the native bytes, truncated to an even count for the Hilbert transform.
+     */
+    @Override
+    protected int getSampleCount(int byteCount)
     {
         if(mSamplePacking)
         {
-            convertPacked(samples.order(ByteOrder.LITTLE_ENDIAN));
+            return byteCount / 3 * 2;
+        }
+
+        return byteCount / 4 * 2;
+    }
+
+    /**
+     * Converts the native buffer of unsigned 12-bit real samples directly into the sample array with scaling and DC
+     * removal fused into a single pass, and then converts the real samples to complex samples in-place using the
+     * Hilbert transform.
+     */
+    @Override
+    protected void convertSamples(ByteBuffer buffer, int byteCount, float[] samples)
+    {
+        if(mSamplePacking)
+        {
+            convertPacked(buffer, samples);
         }
         else
         {
-            convertUnpacked(samples);
+            convertUnpacked(buffer, samples);
         }
 
-        mDCFilter.filter(mConvertedSamples);
-
-        return mHilbertTransform.filter(mConvertedSamples);
+        mHilbertTransform.filter(samples);
     }
 
     /**
-     * Converts the byte array containing unsigned 12-bit short values into
-     * signed float values in the range -1 to 1;
+     * Converts the byte buffer containing unsigned 12-bit little-endian short values into DC-removed, signed float
+     * values in the range -1 to 1;
      *
      * @param buffer - native byte buffer containing unsigned 16-bit values
+     * @param samples - array to load with the converted samples
      */
-    private void convertUnpacked(ByteBuffer buffer)
+    private void convertUnpacked(ByteBuffer buffer, float[] samples)
     {
-        buffer.rewind();
+        float average = mDCAverage;
+        int offset = 0;
 
-        if(mConvertedSamples == null || mConvertedSamples.length != buffer.capacity() / 2)
+        for(int x = 0; x < samples.length; x++)
         {
-            mConvertedSamples = new float[buffer.capacity() / 2];
+            float filtered = LOOKUP_VALUES[((buffer.get(offset) & 0xFF) | (buffer.get(offset + 1) << 8)) & 0xFFF] -
+                average;
+            average += DC_REMOVAL_RATIO * filtered;
+            samples[x] = filtered;
+            offset += 2;
         }
 
-        int pointer = 0;
-
-
-        while(buffer.remaining() >= 2)
-        {
-            byte lsb = buffer.get();
-            byte msb = buffer.get();
-            mConvertedSamples[pointer++] = scale((lsb & 0xFF) | (msb << 8));
-        }
+        mDCAverage = average;
     }
 
     /**
-     * Converts every 3 bytes containing a pair of 12-bit unsigned values into
-     * a pair of float values in the range -1 to 1;
+     * Converts every 3 bytes containing a pair of 12-bit unsigned values into a pair of DC-removed float values in the
+     * range -1 to 1;
      *
      * @param buffer - native byte buffer containing packet 12-bit unsigned samples
+     * @param samples - array to load with the converted samples
      */
-    private void convertPacked(ByteBuffer buffer)
+    private void convertPacked(ByteBuffer buffer, float[] samples)
     {
-        buffer.rewind();
+        float average = mDCAverage;
+        int offset = 0;
 
-        int sampleCount = buffer.capacity() / 3 * 2;
-
-        if(mConvertedSamples == null || mConvertedSamples.length != sampleCount)
+        for(int x = 0; x < samples.length; x += 2)
         {
-            mConvertedSamples = new float[sampleCount];
-        }
+            byte b1 = buffer.get(offset);
+            byte b2 = buffer.get(offset + 1);
+            byte b3 = buffer.get(offset + 2);
 
-        int pointer = 0;
+            float filtered = LOOKUP_VALUES[((b1 << 4) & 0xFF0) | ((b2 >> 4) & 0xF)] - average;
+            average += DC_REMOVAL_RATIO * filtered;
+            samples[x] = filtered;
 
-        byte b1;
-        byte b2;
-        byte b3;
-        int first;
-        int second;
+            filtered = LOOKUP_VALUES[((b2 << 8) & 0xF00) | (b3 & 0xFF)] - average;
+            average += DC_REMOVAL_RATIO * filtered;
+            samples[x + 1] = filtered;
 
-        while(buffer.remaining() >= 3)
-        {
-            b1 = buffer.get();
-            b2 = buffer.get();
-            b3 = buffer.get();
-
-            first = ((b1 << 4) & 0xFF0) | ((b2 >> 4) & 0xF);
-            mConvertedSamples[pointer++] = scale(first);
-
-            second = ((b2 << 8) & 0xF00) | (b3 & 0xFF);
-            mConvertedSamples[pointer++] = scale(second);
+            offset += 3;
         }
+
+        mDCAverage = average;
     }
 
     /**
@@ -17,22 +17,22 @@ package io.github.dsheirer.source.tuner.channel;
 
 import io.github.dsheirer.dsp.filter.cic.ComplexPrimeCICDecimate;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
-import io.github.dsheirer.dsp.mixer.IOscillator;
-import io.github.dsheirer.dsp.mixer.LowPhaseNoiseOscillator;
+import io.github.dsheirer.dsp.mixer.BlockOscillator;
+import io.github.dsheirer.monitor.StageMetrics;
 import io.github.dsheirer.sample.IOverflowListener;
 import io.github.dsheirer.sample.Listener;
-import io.github.dsheirer.sample.buffer.OverflowableReusableBufferTransferQueue;
+import io.github.dsheirer.sample.buffer.OverflowableReusableBufferRingQueue;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
-import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
-import io.github.dsheirer.sample.complex.Complex;
 import io.github.dsheirer.source.SourceEvent;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Complex sample source that provides a frequency-translated and decimated sample buffer stream.  Uses a
- * CIC decimation filter that requires the decimation rate to be an integer multiple.  Sample buffer processing
+ * CIC decimation filter that requires the decimation rate to be an integer multiple.  Frequency translation is
+ * performed with a block oscillator and is fused with the first CIC decimating stage.  Sample buffer processing
  * occurs on a scheduled runnable thread.
  */
 public class CICTunerChannelSource extends TunerChannelSource implements Listener<ReusableComplexBuffer>
@@ -45,9 +45,8 @@ public class CICTunerChannelSource extends TunerChannelSource implements Listene
     //Threshold for resetting buffer overflow condition
     private static final int BUFFER_OVERFLOW_RESET_THRESHOLD = 100;
 
-    private OverflowableReusableBufferTransferQueue<ReusableComplexBuffer> mBuffer;
-    private ReusableComplexBufferQueue mReusableComplexBufferQueue = new ReusableComplexBufferQueue("CICTunerChannelSource");
-    private IOscillator mFrequencyCorrectionMixer;
+    private OverflowableReusableBufferRingQueue<ReusableComplexBuffer> mBuffer;
+    private BlockOscillator mFrequencyCorrectionMixer;
     private ComplexPrimeCICDecimate mDecimationFilter;
     private List<ReusableComplexBuffer> mSampleBuffers = new ArrayList<>();
     private double mChannelSampleRate;
@@ -74,14 +73,14 @@ public class CICTunerChannelSource extends TunerChannelSource implements Listene
         mDecimationFilter = new ComplexPrimeCICDecimate(sampleRate, decimation, channelSpecification.getPassFrequency(),
             channelSpecification.getStopFrequency());
 
-        mBuffer = new OverflowableReusableBufferTransferQueue<>(BUFFER_MAX_CAPACITY, BUFFER_OVERFLOW_RESET_THRESHOLD);
+        mBuffer = new OverflowableReusableBufferRingQueue<>(BUFFER_MAX_CAPACITY, BUFFER_OVERFLOW_RESET_THRESHOLD);
 
         //Setup the frequency mixer to the current source frequency
         mChannelSampleRate = sampleRate / (double)decimation;
         mTunerFrequency = tunerChannel.getFrequency();
         long frequencyOffset = mTunerFrequency - getTunerChannel().getFrequency();
 
-        mFrequencyCorrectionMixer = new LowPhaseNoiseOscillator(frequencyOffset, sampleRate);
+        mFrequencyCorrectionMixer = new BlockOscillator(frequencyOffset, sampleRate);
     }
 
     /**
@@ -96,6 +95,13 @@ public class CICTunerChannelSource extends TunerChannelSource implements Listene
         mBuffer.setOverflowListener(listener);
     }
 
+    @Override
+    public void setMetrics(StageMetrics metrics)
+    {
+        super.setMetrics(metrics);
+        mBuffer.setMetrics(metrics);
+    }
+
     @Override
     public void dispose()
     {
@@ -213,9 +219,19 @@ public class CICTunerChannelSource extends TunerChannelSource implements Listene
     }
 
     /**
-     * Primary processing method that is invoked on a recurring basis to process any queued complex buffers.
+     * Waits for tuner sample buffers to arrive from the tuner
+     */
+    @Override
+    protected boolean awaitSamples(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        return mBuffer.await(timeout, unit);
+    }
+
+    /**
+     * Primary processing method that is invoked by the sample processing thread to process any queued complex buffers.
      *
-     * Mixes the target frequency to baseband and then passes the buffer to the CIC decimation filter
+     * Mixes the target frequency to baseband and decimates each buffer with the CIC decimation filter.  The mixing is
+     * fused with the first CIC decimating stage.
      */
     protected void processSamples()
     {
@@ -223,25 +239,8 @@ public class CICTunerChannelSource extends TunerChannelSource implements Listene
 
         for(ReusableComplexBuffer complexBuffer : mSampleBuffers)
         {
-            float[] samples = complexBuffer.getSamples();
-
-            ReusableComplexBuffer translatedComplexBuffer = mReusableComplexBufferQueue.getBuffer(samples.length);
-            float[] translatedSamples = translatedComplexBuffer.getSamples();
-
-            /* Perform frequency translation */
-            for(int x = 0; x < samples.length; x += 2)
-            {
-                mFrequencyCorrectionMixer.rotate();
-
-                translatedSamples[x] = Complex.multiplyInphase(samples[x], samples[x + 1],
-                    mFrequencyCorrectionMixer.inphase(), mFrequencyCorrectionMixer.quadrature());
-
-                translatedSamples[x + 1] = Complex.multiplyQuadrature(samples[x], samples[x + 1],
-                    mFrequencyCorrectionMixer.inphase(), mFrequencyCorrectionMixer.quadrature());
-            }
-
-            mDecimationFilter.receive(translatedComplexBuffer);
-            complexBuffer.decrementUserCount();
+            //Decimation filter decrements the buffer user count
+            mDecimationFilter.receive(complexBuffer, mFrequencyCorrectionMixer);
         }
 
         mSampleBuffers.clear();
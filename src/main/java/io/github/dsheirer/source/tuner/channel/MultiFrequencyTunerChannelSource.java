@@ -20,6 +20,7 @@
 
 package io.github.dsheirer.source.tuner.channel;
 
+import io.github.dsheirer.monitor.StageMetrics;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import io.github.dsheirer.source.Source;
@@ -55,6 +56,7 @@ public class MultiFrequencyTunerChannelSource extends TunerChannelSource
     private AtomicBoolean mChangingChannels = new AtomicBoolean();
     private boolean mStarted;
     private ConsumerSourceEventAdapter mConsumerSourceEventAdapter = new ConsumerSourceEventAdapter();
+    private StageMetrics mStageMetrics;
 
     public MultiFrequencyTunerChannelSource(TunerModel tunerModel, TunerChannelSource tunerChannelSource,
                                             List<Long> frequencies, ChannelSpecification channelSpecification,
@@ -69,6 +71,21 @@ public class MultiFrequencyTunerChannelSource extends TunerChannelSource
         mPreferredTuner = preferredTuner;
     }
 
+    /**
+     * Delegates the metrics to the current tuner channel source, and to each subsequent tuner channel source as this
+     * source cycles through the frequency list.
+     */
+    @Override
+    public void setMetrics(StageMetrics metrics)
+    {
+        mStageMetrics = metrics;
+
+        if(mTunerChannelSource != null)
+        {
+            mTunerChannelSource.setMetrics(metrics);
+        }
+    }
+
     /**
      * Cycles this source to use the next frequency in the list
      */
@@ -86,6 +103,7 @@ public class MultiFrequencyTunerChannelSource extends TunerChannelSource
                     mTunerChannelSource.removeListener(mReusableComplexBufferListener);
                     mTunerChannelSource.removeSourceEventListener();
                     mTunerChannelSource.removeHeartbeatListener(mHeartbeatListener);
+                    mTunerChannelSource.setMetrics(null);
                     mTunerChannelSource.dispose();
                     mTunerChannelSource = null;
                 }
@@ -116,6 +134,7 @@ public class MultiFrequencyTunerChannelSource extends TunerChannelSource
                 mTunerChannelSource.setSourceEventListener(mConsumerSourceEventAdapter);
                 mTunerChannelSource.setListener(mReusableComplexBufferListener);
                 mTunerChannelSource.addHeartbeatListener(mHeartbeatListener);
+                mTunerChannelSource.setMetrics(mStageMetrics);
                 mTunerChannelSource.start();
                 mChangingChannels.set(false);
                 getSourceEventListener().receive(SourceEvent.frequencyRotationSuccessNotification(this, nextChannel.getFrequency()));
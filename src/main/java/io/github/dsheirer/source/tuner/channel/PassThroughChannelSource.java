@@ -16,8 +16,9 @@
 
 package io.github.dsheirer.source.tuner.channel;
 
+import io.github.dsheirer.monitor.StageMetrics;
 import io.github.dsheirer.sample.Listener;
-import io.github.dsheirer.sample.buffer.OverflowableReusableBufferTransferQueue;
+import io.github.dsheirer.sample.buffer.OverflowableReusableBufferRingQueue;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import io.github.dsheirer.source.ISourceEventListener;
 import io.github.dsheirer.source.SourceEvent;
@@ -27,6 +28,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Pass-through channel source that simply passes complex sample buffers from the tuner controller
@@ -37,8 +39,8 @@ public class PassThroughChannelSource extends TunerChannelSource implements ISou
 {
     private final static Logger mLog = LoggerFactory.getLogger(PassThroughChannelSource.class);
     private TunerController mTunerController;
-    private OverflowableReusableBufferTransferQueue<ReusableComplexBuffer> mBufferQueue =
-            new OverflowableReusableBufferTransferQueue<>(500, 100);
+    private OverflowableReusableBufferRingQueue<ReusableComplexBuffer> mBufferQueue =
+            new OverflowableReusableBufferRingQueue<>(500, 100);
     private List<ReusableComplexBuffer> mBuffersToProcess = new ArrayList<>();
     private Listener<ReusableComplexBuffer> mComplexBufferListener;
 
@@ -56,6 +58,13 @@ public class PassThroughChannelSource extends TunerChannelSource implements ISou
         mTunerController = tunerController;
     }
 
+    @Override
+    public void setMetrics(StageMetrics metrics)
+    {
+        super.setMetrics(metrics);
+        mBufferQueue.setMetrics(metrics);
+    }
+
     @Override
     public void setFrequency(long frequency)
     {
@@ -92,6 +101,15 @@ public class PassThroughChannelSource extends TunerChannelSource implements ISou
         mComplexBufferListener = null;
     }
 
+    /**
+     * Waits for tuner sample buffers to arrive from the tuner
+     */
+    @Override
+    protected boolean awaitSamples(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        return mBufferQueue.await(timeout, unit);
+    }
+
     @Override
     protected void processSamples()
     {
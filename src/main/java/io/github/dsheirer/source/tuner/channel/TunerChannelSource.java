@@ -21,6 +21,8 @@
  */
 package io.github.dsheirer.source.tuner.channel;
 
+import io.github.dsheirer.controller.NamingThreadFactory;
+import io.github.dsheirer.monitor.StageMetrics;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import io.github.dsheirer.source.ComplexSource;
@@ -28,22 +30,23 @@ import io.github.dsheirer.source.ISourceEventProcessor;
 import io.github.dsheirer.source.SourceEvent;
 import io.github.dsheirer.source.SourceEventListenerToProcessorAdapter;
 import io.github.dsheirer.source.SourceException;
-import io.github.dsheirer.util.ThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
 public abstract class TunerChannelSource extends ComplexSource implements ISourceEventProcessor
 {
     private final static Logger mLog = LoggerFactory.getLogger(TunerChannelSource.class);
-    private static final long BUFFER_PROCESSOR_RUN_INTERVAL_MILLISECONDS = 50;
+    private static final ThreadFactory THREAD_FACTORY = new NamingThreadFactory("sdrtrunk channel source");
+    private static final long HEARTBEAT_INTERVAL_MILLISECONDS = 50;
     private SourceEventListenerToProcessorAdapter mConsumerSourceEventListenerAdapter;
     private TunerChannel mTunerChannel;
     private Listener<SourceEvent> mProducerSourceEventListener;
     private Listener<SourceEvent> mConsumerSourceEventListener;
-    private ScheduledIntervalProcessor mScheduledIntervalProcessor = new ScheduledIntervalProcessor();
+    private SampleProcessor mSampleProcessor = new SampleProcessor();
+    private StageMetrics mStageMetrics;
 
     /**
      * Tuner Channel Source is a Digital Drop Channel (DDC) abstract class that defines the minimum functionality
@@ -104,11 +107,40 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
     public abstract void setListener(Listener<ReusableComplexBuffer> complexBufferListener);
 
     /**
-     * Commands sub-class to process queued samples and distribute them to the consumer.  This method will be invoked
-     * by an interval timer.
+     * Commands sub-class to process queued samples and distribute them to the consumer.  This method is invoked by the
+     * sample processing thread each time that awaitSamples() indicates that samples are available.
      */
     protected abstract void processSamples();
 
+    /**
+     * Waits up to the timeout for queued samples to become available for processing.  Sub-classes that queue samples
+     * in an OverflowableRingQueue should override this method to park the sample processing thread on the queue so
+     * that samples are processed as soon as they arrive.  This default implementation waits the full timeout and
+     * indicates that samples may be available, so that samples are processed once per timeout interval.
+     *
+     * @param timeout to wait
+     * @param unit for the timeout
+     * @return true if samples are (or may be) available for processing
+     * @throws InterruptedException if the sample processing thread is interrupted while waiting
+     */
+    protected boolean awaitSamples(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        unit.sleep(timeout);
+        return true;
+    }
+
+    /**
+     * Sets the metrics instance to receive statistics for this channel source.  This base class records the time
+     * spent processing queued samples, which includes distribution to the consumer.  Sub-classes should override
+     * this method to also register the metrics with the internal sample buffer queue.
+     *
+     * Note: this method can be invoked with a null argument to stop recording statistics.
+     */
+    public void setMetrics(StageMetrics metrics)
+    {
+        mStageMetrics = metrics;
+    }
+
     /**
      * Tuner channel for this tuner channel source
      */
@@ -131,7 +163,7 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
         //Broadcast current frequency and sample rate so consumer can configure correctly
         broadcastConsumerSourceEvent(SourceEvent.frequencyChange(this, getFrequency(), "Startup"));
         broadcastProducerSourceEvent(SourceEvent.startSampleStreamRequest(this));
-        mScheduledIntervalProcessor.start();
+        mSampleProcessor.start();
     }
 
     /**
@@ -142,7 +174,7 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
     {
         broadcastProducerSourceEvent(SourceEvent.stopSampleStreamRequest(this));
         broadcastProducerSourceEvent(SourceEvent.sourceDisposeRequest(this));
-        mScheduledIntervalProcessor.stop();
+        mSampleProcessor.stop();
     }
 
     @Override
@@ -264,45 +296,59 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
     }
 
     /**
-     * Processor to periodically invoke buffer sample processing on an interval timer.  At each interval this processor
-     * sends a heartbeat to the registered consumer and then commands the sub-class implementation to process any
-     * queued buffers and distribute complex buffer sample(s) to the registered consumer.
+     * Sample processor that runs on a dedicated thread.  The processor waits for queued samples and commands the
+     * sub-class implementation to process the samples and distribute complex buffer sample(s) to the registered
+     * consumer as soon as they arrive.  The processor also sends a heartbeat to the registered consumer at a fixed
+     * interval, whether or not samples are arriving.
      */
-    public class ScheduledIntervalProcessor implements Runnable
+    public class SampleProcessor implements Runnable
     {
-        private ScheduledFuture<?> mScheduledFuture;
-        private boolean mStopped = false;
+        private volatile Thread mThread;
+        private volatile boolean mStopped = false;
 
         /**
-         * Commands this processor to do a shutdown at the end of this or the next iteration.  Once successfully
-         * shutdown, it will invoke the performDisposal() method to cleanup this instance.
+         * Commands this processor to do a shutdown.  Once successfully shutdown, it will invoke the performDisposal()
+         * method to cleanup this instance.
          */
         public void stop()
         {
             mStopped = true;
+
+            Thread thread = mThread;
+
+            if(thread != null && thread != Thread.currentThread())
+            {
+                thread.interrupt();
+            }
         }
 
         /**
-         * Starts buffer processing on a fixed interval using a scheduled thread pool
+         * Starts sample processing on a dedicated thread
          */
         public void start()
         {
-            if(mScheduledFuture == null)
+            if(mThread == null && !mStopped)
             {
-                mScheduledFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(this, 0,
-                    BUFFER_PROCESSOR_RUN_INTERVAL_MILLISECONDS, TimeUnit.MILLISECONDS);
+                mThread = THREAD_FACTORY.newThread(this);
+                mThread.start();
             }
         }
 
         /**
-         * Implementation of the Runnable interface to periodically send a heartbeat and then process buffer samples.
+         * Implementation of the Runnable interface to send a heartbeat at each heartbeat interval and process buffer
+         * samples as they arrive.
          */
         @Override
         public void run()
         {
-            try
+            long heartbeatInterval = TimeUnit.MILLISECONDS.toNanos(HEARTBEAT_INTERVAL_MILLISECONDS);
+            long nextHeartbeat = System.nanoTime();
+
+            while(!mStopped)
             {
-                if(!mStopped)
+                long now = System.nanoTime();
+
+                if(now - nextHeartbeat >= 0)
                 {
                     try
                     {
@@ -312,44 +358,59 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
                     {
                         mLog.error("Error while sending heartbeat", t);
                     }
+
+                    nextHeartbeat = now + heartbeatInterval;
                 }
 
-                if(!mStopped)
+                boolean available;
+
+                try
+                {
+                    available = awaitSamples(nextHeartbeat - now, TimeUnit.NANOSECONDS);
+                }
+                catch(InterruptedException ie)
+                {
+                    //Stop requested
+                    available = false;
+                }
+
+                if(available && !mStopped)
                 {
                     try
                     {
-                        processSamples();
+                        StageMetrics metrics = mStageMetrics;
+
+                        if(metrics != null)
+                        {
+                            long start = System.nanoTime();
+                            processSamples();
+                            metrics.processingTime(System.nanoTime() - start);
+                        }
+                        else
+                        {
+                            processSamples();
+                        }
                     }
                     catch(Throwable t)
                     {
                         mLog.error("Error while processing samples", t);
                     }
                 }
+            }
 
-                if(mStopped)
-                {
-                    if(mScheduledFuture != null)
-                    {
-                        //Set may-interrupt to false so that we can complete this iteration
-                        mScheduledFuture.cancel(false);
-                    }
+            mThread = null;
 
-                    mScheduledFuture = null;
+            //Clear any interrupt from the stop request before final processing
+            Thread.interrupted();
 
-                    try
-                    {
-                        getHeartbeatManager().broadcast();
-                        performDisposal();
-                    }
-                    catch(Throwable t)
-                    {
-                        mLog.error("Error during final shutdown processing of samples", t);
-                    }
-                }
+            try
+            {
+                getHeartbeatManager().broadcast();
+                performDisposal();
             }
             catch(Throwable t)
             {
-                mLog.error("Error during heartbeat processing", t);
+                mLog.error("Error during final shutdown processing of samples", t);
             }
         }
     }
@@ -21,6 +21,7 @@
  */
 package io.github.dsheirer.source.tuner.manager;
 
+import io.github.dsheirer.monitor.StageMetrics;
 import io.github.dsheirer.sample.Broadcaster;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.source.ISourceEventProcessor;
@@ -50,6 +51,17 @@ public abstract class ChannelSourceManager implements ISourceEventProcessor
      */
     public abstract int getTunerChannelCount();
 
+    /**
+     * Pipeline metrics for the channelizer stage that produces the channel sample streams for this source manager.
+     *
+     * @return stage metrics or null if this source manager doesn't have a separately metered channelizer stage or the
+     * channelizer is not currently running
+     */
+    public StageMetrics getStageMetrics()
+    {
+        return null;
+    }
+
     /**
      * Obtains a source for the tuner channel or returns null if the channel cannot be sourced by this tuner.
      *
@@ -22,6 +22,7 @@
 package io.github.dsheirer.source.tuner.manager;
 
 import io.github.dsheirer.dsp.filter.channelizer.PolyphaseChannelManager;
+import io.github.dsheirer.monitor.StageMetrics;
 import io.github.dsheirer.source.SourceEvent;
 import io.github.dsheirer.source.SourceException;
 import io.github.dsheirer.source.tuner.TunerController;
@@ -400,6 +401,15 @@ public class PolyphaseChannelSourceManager extends ChannelSourceManager
         return mPolyphaseChannelManager.getTunerChannelCount();
     }
 
+    /**
+     * Pipeline metrics for the polyphase channelizer, or null when the channelizer is not running
+     */
+    @Override
+    public StageMetrics getStageMetrics()
+    {
+        return mPolyphaseChannelManager.getStageMetrics();
+    }
+
     /**
      * Allocates a tuner channel source for the tuner channel.
      *
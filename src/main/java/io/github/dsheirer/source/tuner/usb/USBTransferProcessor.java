@@ -21,6 +21,9 @@
  */
 package io.github.dsheirer.source.tuner.usb;
 
+import io.github.dsheirer.controller.NamingThreadFactory;
+import io.github.dsheirer.monitor.PipelineMetrics;
+import io.github.dsheirer.monitor.StageMetrics;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import io.github.dsheirer.source.tuner.ITunerErrorListener;
@@ -39,7 +42,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.LinkedTransferQueue;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -53,6 +56,11 @@ public class USBTransferProcessor implements TransferCallback
     //Number of native byte buffers to allocate for transferring data from the USB device
     private static final int TRANSFER_BUFFER_POOL_SIZE = 40;
 
+    //Maximum time the dispatcher thread waits for a completed transfer before checking the running state
+    private static final long DISPATCHER_MAXIMUM_WAIT_MS = 500l;
+
+    private static final ThreadFactory DISPATCHER_THREAD_FACTORY = new NamingThreadFactory("sdrtrunk usb dispatcher");
+
     private LinkedTransferQueue<Transfer> mAvailableTransfers = new LinkedTransferQueue<>();
     private LinkedTransferQueue<Transfer> mInProgressTransfers = new LinkedTransferQueue<>();
     private LinkedTransferQueue<Transfer> mCompletedTransfers = new LinkedTransferQueue<>();
@@ -72,11 +80,12 @@ public class USBTransferProcessor implements TransferCallback
     private AtomicBoolean mRunning = new AtomicBoolean();
     private AtomicBoolean mRestarting = new AtomicBoolean();
     private CompletedTransferProcessor mCompletedTransferProcessor = new CompletedTransferProcessor();
-    private ScheduledFuture mBufferDispatcherFuture;
+    private volatile Thread mBufferDispatcherThread;
     private String mDeviceName;
     private int mTransferErrorLoggingCount = 0;
     private int mRestartCount = 0;
     private ITunerErrorListener mITunerErrorListener;
+    private StageMetrics mStageMetrics;
 
     /**
      * Manages stream of USB transfer buffers and converts buffers to complex buffer samples for distribution to
@@ -96,6 +105,8 @@ public class USBTransferProcessor implements TransferCallback
         mNativeBufferConverter = nativeBufferConverter;
         mBufferSize = bufferSize;
         mITunerErrorListener = tunerErrorListener;
+        mStageMetrics = new StageMetrics(StageMetrics.Type.USB_TRANSFER, deviceName);
+        mStageMetrics.setQueueDepthSupplier(mCompletedTransfers::size);
     }
 
     /**
@@ -142,8 +153,8 @@ public class USBTransferProcessor implements TransferCallback
             {
                 success = true;
                 //Start transferred buffer dispatcher
-                mBufferDispatcherFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(mCompletedTransferProcessor,
-                    0, 6, TimeUnit.MILLISECONDS);
+                mBufferDispatcherThread = DISPATCHER_THREAD_FACTORY.newThread(mCompletedTransferProcessor);
+                mBufferDispatcherThread.start();
 
                 //Register with LibUSB processor so that it auto-starts LibUSB processing
                 TunerManager.LIBUSB_TRANSFER_PROCESSOR.registerTransferProcessor(this);
@@ -160,10 +171,12 @@ public class USBTransferProcessor implements TransferCallback
     {
         if(mRunning.compareAndSet(true, false))
         {
-            if(mBufferDispatcherFuture != null)
+            Thread dispatcherThread = mBufferDispatcherThread;
+            mBufferDispatcherThread = null;
+
+            if(dispatcherThread != null && dispatcherThread != Thread.currentThread())
             {
-                mBufferDispatcherFuture.cancel(true);
-                mBufferDispatcherFuture = null;
+                dispatcherThread.interrupt();
             }
 
             //Cancel all buffers that are currently in progress
@@ -363,6 +376,7 @@ public class USBTransferProcessor implements TransferCallback
         if(mComplexBufferListener == null || !mComplexBufferListener.equals(listener))
         {
             mComplexBufferListener = listener;
+            PipelineMetrics.register(mStageMetrics);
 
             boolean success = start();
 
@@ -382,6 +396,7 @@ public class USBTransferProcessor implements TransferCallback
         {
             stop();
             mComplexBufferListener = null;
+            PipelineMetrics.unregister(mStageMetrics);
         }
     }
 
@@ -413,7 +428,7 @@ public class USBTransferProcessor implements TransferCallback
     /**
      * Process a filled transfer buffer received back from the USB device.  Note: this method is invoked on the USB
      * bus processing thread, so we try to keep processing to a minimum and place transfers in the completed
-     * transfer queue so that the scheduled processor thread handles any conversion and additional downstream
+     * transfer queue so that the dispatcher thread handles any conversion and additional downstream
      * processing workload.
      */
     @Override
@@ -421,6 +436,14 @@ public class USBTransferProcessor implements TransferCallback
     {
         mInProgressTransfers.remove(transfer);
 
+        //When there are no other transfers in progress, the device has nowhere to put samples until the dispatcher
+        //resubmits a transfer buffer.  Samples may be dropped, but this isn't a counted loss, so record it as
+        //starvation rather than as an overflow.
+        if(mInProgressTransfers.isEmpty() && mRunning.get())
+        {
+            mStageMetrics.starved();
+        }
+
         switch(transfer.status())
         {
             case LibUsb.TRANSFER_COMPLETED:
@@ -429,6 +452,7 @@ public class USBTransferProcessor implements TransferCallback
                 if(transfer.actualLength() > 0)
                 {
                     mCompletedTransfers.add(transfer);
+                    mStageMetrics.updateMaxQueueDepth(mCompletedTransfers.size());
                 }
                 else
                 {
@@ -440,11 +464,13 @@ public class USBTransferProcessor implements TransferCallback
                 if(transfer.actualLength() > 0)
                 {
                     mCompletedTransfers.add(transfer);
+                    mStageMetrics.updateMaxQueueDepth(mCompletedTransfers.size());
                 }
                 else
                 {
                     transfer.buffer().rewind();
                     mAvailableTransfers.add(transfer);
+                    mStageMetrics.overflow();
 
                     mTransferErrorLoggingCount++;
 
@@ -467,6 +493,7 @@ public class USBTransferProcessor implements TransferCallback
                 //Unexpected transfer error - need to reset the bulk transfer interface
                 mLog.error("[" + mDeviceName + "] - transfer error [" + getTransferStatus(transfer.status()) +
                     "] transferred actual: " + transfer.actualLength());
+                mStageMetrics.overflow();
                 transfer.buffer().rewind();
                 mAvailableTransfers.add(transfer);
                 restart();
@@ -547,44 +574,57 @@ public class USBTransferProcessor implements TransferCallback
         @Override
         public void run()
         {
-            try
-            {
-                Transfer transfer = mCompletedTransfers.poll();
+            Thread currentThread = Thread.currentThread();
 
-                while(transfer != null)
+            while(mBufferDispatcherThread == currentThread)
+            {
+                try
                 {
-                    if(mRunning.get())
+                    Transfer transfer = mCompletedTransfers.poll(DISPATCHER_MAXIMUM_WAIT_MS, TimeUnit.MILLISECONDS);
+
+                    while(transfer != null)
                     {
-                        ByteBuffer nativeBuffer = transfer.buffer();
+                        if(mRunning.get())
+                        {
+                            long start = System.nanoTime();
 
-                        ReusableComplexBuffer reusableComplexBuffer =
-                            mNativeBufferConverter.convert(nativeBuffer, transfer.actualLength());
+                            ByteBuffer nativeBuffer = transfer.buffer();
 
-                        if(mComplexBufferListener != null)
-                        {
-                            mComplexBufferListener.receive(reusableComplexBuffer);
+                            ReusableComplexBuffer reusableComplexBuffer =
+                                mNativeBufferConverter.convert(nativeBuffer, transfer.actualLength());
+
+                            if(mComplexBufferListener != null)
+                            {
+                                mComplexBufferListener.receive(reusableComplexBuffer);
+                            }
+
+                            mStageMetrics.processed(1, System.nanoTime() - start);
                         }
-                    }
 
-                    transfer.buffer().rewind();
-                    mAvailableTransfers.add(transfer);
+                        transfer.buffer().rewind();
+                        mAvailableTransfers.add(transfer);
 
-                    boolean success = submitTransfers();
+                        boolean success = submitTransfers();
 
-                    if(success)
-                    {
-                        transfer = mCompletedTransfers.poll();
-                    }
-                    else
-                    {
-                        ThreadPool.SCHEDULED.submit(() -> restart());
-                        transfer = null;
+                        if(success)
+                        {
+                            transfer = mCompletedTransfers.poll();
+                        }
+                        else
+                        {
+                            ThreadPool.SCHEDULED.submit(() -> restart());
+                            return;
+                        }
                     }
                 }
-            }
-            catch(Throwable throwable)
-            {
-                mLog.error("[" + mDeviceName + "] - error while processing USB transfer buffers", throwable);
+                catch(InterruptedException ie)
+                {
+                    //Stop requested - exit once this is no longer the dispatcher thread
+                }
+                catch(Throwable throwable)
+                {
+                    mLog.error("[" + mDeviceName + "] - error while processing USB transfer buffers", throwable);
+                }
             }
         }
     }
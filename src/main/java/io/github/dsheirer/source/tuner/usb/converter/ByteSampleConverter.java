@@ -16,7 +16,6 @@
 package io.github.dsheirer.source.tuner.usb.converter;
 
 import java.nio.ByteBuffer;
-import java.nio.FloatBuffer;
 
 public class ByteSampleConverter extends NativeBufferConverter
 {
@@ -34,8 +33,6 @@ public class ByteSampleConverter extends NativeBufferConverter
         }
     }
 
-    private FloatBuffer mFloatBuffer;
-
     /**
      * Converts native byte buffers containing 8-bit complex samples into complex float samples loaded into a tracked,
      * reusable complex sample buffer.  Internally tracks the reusable buffer until all downstream consumers have finished
@@ -46,35 +43,28 @@ public class ByteSampleConverter extends NativeBufferConverter
     }
 
     /**
-     * Converts the 8-bit complex samples contained in the native buffer into floats that are loaded into a float
-     * buffer and subsequently transferred to a reusable complex buffer by the parent class.
+     * One float value for each 8-bit value, truncated to a whole number of complex samples
+     */
+    @Override
+    protected int getSampleCount(int byteCount)
+    {
+        return byteCount & ~1;
+    }
+
+    /**
+     * Converts the 8-bit complex samples contained in the native buffer directly into the float sample array using
+     * the lookup table.
      *
      * @param nativeBuffer containing 8-bit complex samples
-     * @param length of bytes to read from the native buffer
-     * @return float buffer loaded with converted samples
+     * @param byteCount of bytes to read from the native buffer
+     * @param samples to load with the converted samples
      */
     @Override
-    protected FloatBuffer convertSamples(ByteBuffer nativeBuffer, int length)
+    protected void convertSamples(ByteBuffer nativeBuffer, int byteCount, float[] samples)
     {
-        nativeBuffer.rewind();
-
-        if(mFloatBuffer == null || mFloatBuffer.capacity() != nativeBuffer.capacity())
+        for(int x = 0; x < samples.length; x++)
         {
-            mFloatBuffer = FloatBuffer.allocate(nativeBuffer.capacity());
+            samples[x] = LOOKUP_VALUES[nativeBuffer.get(x) & 0xFF];
         }
-
-        mFloatBuffer.rewind();
-
-        int count = 0;
-
-        while(nativeBuffer.hasRemaining() && count < length)
-        {
-            byte sample = nativeBuffer.get();
-            count++;
-
-            mFloatBuffer.put(LOOKUP_VALUES[(sample & 0xFF)]);
-        }
-
-        return mFloatBuffer;
     }
 }
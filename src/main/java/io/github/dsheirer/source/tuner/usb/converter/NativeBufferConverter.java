@@ -19,7 +19,6 @@ import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
 
 import java.nio.ByteBuffer;
-import java.nio.FloatBuffer;
 
 public abstract class NativeBufferConverter
 {
@@ -38,27 +37,40 @@ public abstract class NativeBufferConverter
      * tracks each reusable buffer until all consumers indicate they are finished processing the buffer and then reuses
      * the buffer.
      *
+     * Samples are converted directly from the native buffer into the reusable buffer's sample array in a single pass,
+     * without any intermediate buffers.
+     *
      * @param byteBuffer containing native memory byte samples
+     * @param length of bytes to read from the native buffer
      * @return native buffer samples converted to complex floats loaded into a reusable buffer
      */
     public ReusableComplexBuffer convert(ByteBuffer byteBuffer, int length)
     {
-        FloatBuffer floatBuffer = convertSamples(byteBuffer, length);
+        int byteCount = Math.min(length, byteBuffer.capacity());
 
-        ReusableComplexBuffer reusableComplexBuffer = mReusableComplexBufferQueue.getBuffer(floatBuffer.capacity());
+        ReusableComplexBuffer reusableComplexBuffer = mReusableComplexBufferQueue.getBuffer(getSampleCount(byteCount));
 
-        //The reusable buffer will rewind the float buffer to the beginning
-        reusableComplexBuffer.reloadFrom(floatBuffer, System.currentTimeMillis());
+        convertSamples(byteBuffer, byteCount, reusableComplexBuffer.getSamples());
+        reusableComplexBuffer.setTimestamp(System.currentTimeMillis());
 
         return reusableComplexBuffer;
     }
 
+    /**
+     * Number of float sample values (ie 2 per complex sample) produced from converting the number of native bytes.
+     *
+     * @param byteCount number of bytes to convert
+     * @return number of converted sample values, which must be an even number
+     */
+    protected abstract int getSampleCount(int byteCount);
+
     /**
      * Converts the native byte buffer bytes into complex float samples.
      *
-     * @param buffer containing native byte buffer samples
-     * @return a buffer with complex float samples.  This float buffer will not be modified, therefore sub-class
-     * implementations can reuse the float buffer.
+     * @param buffer containing native byte buffer samples.  Implementations should read the buffer using absolute
+     * indexes and should not modify the buffer position.
+     * @param byteCount number of bytes to convert
+     * @param samples array to load with the converted complex float samples, sized per getSampleCount()
      */
-    protected abstract FloatBuffer convertSamples(ByteBuffer buffer, int length);
+    protected abstract void convertSamples(ByteBuffer buffer, int byteCount, float[] samples);
 }
@@ -57,6 +57,9 @@ public class ComplexWaveSource extends ComplexSource implements IControllableFil
     private ReusableComplexBufferQueue mReusableComplexBufferQueue = new ReusableComplexBufferQueue("ComplexWaveSource");
     private boolean mAutoReplay;
     private ScheduledFuture<?> mReplayController;
+    private long mRecordingStartTimestamp;
+    private long mSampleCounter;
+    private boolean mEndOfFile;
 
     /**
      * Constructs an instance with optional auto-replay at near real time.
@@ -103,6 +106,8 @@ public class ComplexWaveSource extends ComplexSource implements IControllableFil
     {
         stop();
         mFrameCounter = 0;
+        mSampleCounter = 0;
+        mEndOfFile = false;
         start();
     }
 
@@ -193,6 +198,56 @@ public class ComplexWaveSource extends ComplexSource implements IControllableFil
         mFrequency = frequency;
     }
 
+    /**
+     * Sets the start time of the recording.  When set to a non-zero value, sample buffers are timestamped relative to
+     * this start time using the position of the first sample in each buffer, instead of using the system clock.  This
+     * allows recordings to be processed faster (or slower) than real time while producing the original timestamps.
+     *
+     * @param timestamp in milliseconds since epoch for the first sample of the recording, or 0 to use the system clock
+     */
+    public void setRecordingStartTimestamp(long timestamp)
+    {
+        mRecordingStartTimestamp = timestamp;
+    }
+
+    /**
+     * Recording start timestamp or 0 if buffers are timestamped using the system clock.
+     */
+    public long getRecordingStartTimestamp()
+    {
+        return mRecordingStartTimestamp;
+    }
+
+    /**
+     * Number of complex samples (frames) read from the recording since the source was opened or reset.
+     */
+    public long getSampleCount()
+    {
+        return mSampleCounter;
+    }
+
+    /**
+     * Number of complex samples (frames) contained in the recording, or -1 if the length is unknown or the recording
+     * is not open.
+     */
+    public long getRecordingSampleCount()
+    {
+        if(mInputStream != null)
+        {
+            return mInputStream.getFrameLength();
+        }
+
+        return -1;
+    }
+
+    /**
+     * Indicates if the end of the recording has been reached.
+     */
+    public boolean isEndOfFile()
+    {
+        return mEndOfFile;
+    }
+
     /**
      * Closes the source file
      */
@@ -252,7 +307,17 @@ public class ComplexWaveSource extends ComplexSource implements IControllableFil
         	/* Fill the buffer with samples from the file */
             int samplesRead = mInputStream.read(buffer);
 
-            mFrameCounter += samplesRead;
+            if(samplesRead < 0)
+            {
+                mEndOfFile = true;
+            }
+            else
+            {
+                mFrameCounter += samplesRead;
+            }
+
+            long timestamp = getTimestamp();
+            mSampleCounter += Math.max(samplesRead, 0) / mBytesPerFrame;
 
             broadcast(mFrameCounter);
 
@@ -272,12 +337,26 @@ public class ComplexWaveSource extends ComplexSource implements IControllableFil
 
                 ReusableComplexBuffer reusableBuffer = mReusableComplexBufferQueue.getBuffer(samples.length);
                 System.arraycopy(samples, 0, reusableBuffer.getSamples(), 0, samples.length);
-                reusableBuffer.setTimestamp(System.currentTimeMillis());
+                reusableBuffer.setTimestamp(timestamp);
                 mListener.receive(reusableBuffer);
             }
         }
     }
 
+    /**
+     * Timestamp for the next sample to be read from the recording.  Derived from the sample position when the
+     * recording start timestamp is set, otherwise uses the system clock.
+     */
+    private long getTimestamp()
+    {
+        if(mRecordingStartTimestamp > 0 && getSampleRate() > 0)
+        {
+            return mRecordingStartTimestamp + (long)(mSampleCounter * 1000.0 / getSampleRate());
+        }
+
+        return System.currentTimeMillis();
+    }
+
     /**
      * Registers the listener to receive sample buffers as they are read from
      * the wave file